@@ -0,0 +1,153 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.awt.*;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Cohort dashboard
+ * One row per branch, semester, or branch and semester of the saved records:
+ * students, CGPA mean, spread and range, a one-line CGPA histogram and the
+ * most common skills. The columns are copied out of the store and reduced by
+ * {@link CohortAnalytics} on the common fork-join pool, off the EDT.
+ */
+final class AnalyticsPanel extends JPanel {
+
+    private static final String[] COLUMNS = {
+        "Group", "Students", "With CGPA", "Mean", "Std Dev", "Min", "Max", "CGPA 0-10", "Top Skills"
+    };
+    // Histogram bars, from empty to full
+    private static final char[] BARS = {' ', '\u2581', '\u2582', '\u2583', '\u2584', '\u2585', '\u2586', '\u2587', '\u2588'};
+
+    /** The table model: one row per group of the last report. */
+    private static final class ReportModel extends AbstractTableModel {
+        private List<CohortAnalytics.Group> groups = Collections.emptyList();
+
+        void setGroups(List<CohortAnalytics.Group> groups) {
+            this.groups = groups;
+            fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount() {
+            return groups.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMNS.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMNS[column];
+        }
+
+        @Override
+        public Class<?> getColumnClass(int column) {
+            return column == 1 || column == 2 ? Integer.class : String.class;
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            CohortAnalytics.Group g = groups.get(row);
+            switch (column) {
+                case 0: return g.label;
+                case 1: return g.students;
+                case 2: return g.graded;
+                case 3: return number(g.mean);
+                case 4: return number(g.stdDev);
+                case 5: return number(g.min);
+                case 6: return number(g.max);
+                case 7: return sparkline(g.histogram);
+                case 8: return String.join(", ", g.topSkills(3));
+                default: throw new IndexOutOfBoundsException("column " + column);
+            }
+        }
+    }
+
+    private final ReportModel model = new ReportModel();
+    private final JComboBox<CohortAnalytics.GroupBy> groupBox = new JComboBox<>(CohortAnalytics.GroupBy.values());
+    private final JLabel status = new JLabel(" ");
+    private BiodataStore store;
+    private int generation;
+
+    AnalyticsPanel() {
+        super(new BorderLayout(0, 8));
+        setOpaque(false);
+
+        JButton refreshButton = new JButton("Refresh");
+        refreshButton.addActionListener(e -> refresh());
+        groupBox.addActionListener(e -> refresh());
+        JPanel controls = new JPanel(new FlowLayout(FlowLayout.LEFT, 8, 0));
+        controls.setOpaque(false);
+        JLabel groupLabel = new JLabel("Group by:");
+        groupLabel.setForeground(Color.WHITE);
+        status.setForeground(Color.WHITE);
+        controls.add(groupLabel);
+        controls.add(groupBox);
+        controls.add(refreshButton);
+        controls.add(status);
+
+        JTable table = new JTable(model);
+        table.setFillsViewportHeight(true);
+        int[] widths = {300, 70, 80, 60, 60, 50, 50, 110, 380};
+        for (int c = 0; c < widths.length; c++) table.getColumnModel().getColumn(c).setPreferredWidth(widths[c]);
+        JScrollPane scroll = new JScrollPane(table);
+        scroll.setPreferredSize(new Dimension(0, 260));
+
+        add(controls, BorderLayout.NORTH);
+        add(scroll, BorderLayout.CENTER);
+        status.setText("Opening records...");
+    }
+
+    /** Starts reporting on a store. */
+    void attach(BiodataStore store) {
+        this.store = store;
+        refresh();
+    }
+
+    /** Recomputes the report from the records saved now. */
+    void refresh() {
+        if (store == null) return;
+        CohortAnalytics.GroupBy by = (CohortAnalytics.GroupBy) groupBox.getSelectedItem();
+        int current = ++generation;
+        status.setText("Computing...");
+        long start = System.nanoTime();
+        CompletableFuture.supplyAsync(() -> CohortAnalytics.aggregate(store.columns(), by, ForkJoinPool.commonPool()))
+            .whenComplete((groups, ex) -> SwingUtilities.invokeLater(() -> {
+                if (current != generation) return; // a newer report is running
+                if (ex != null) {
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    status.setText("Statistics failed: " + cause.getMessage());
+                    return;
+                }
+                model.setGroups(groups);
+                int students = 0;
+                for (CohortAnalytics.Group g : groups) students += g.students;
+                status.setText(String.format(Locale.ROOT, "%d students in %d groups, computed in %d ms",
+                    students, groups.size(), (System.nanoTime() - start) / 1_000_000));
+            }));
+    }
+
+    private static String number(double v) {
+        return Double.isNaN(v) ? "" : String.format(Locale.ROOT, "%.2f", v);
+    }
+
+    /** One bar per histogram bin, scaled to the fullest bin. */
+    static String sparkline(int[] histogram) {
+        int max = 0;
+        for (int count : histogram) max = Math.max(max, count);
+        char[] line = new char[histogram.length];
+        for (int i = 0; i < histogram.length; i++) {
+            int level = max == 0 ? 0 : (histogram[i] * (BARS.length - 1) + max - 1) / max;
+            line[i] = BARS[level];
+        }
+        return new String(line);
+    }
+}
@@ -0,0 +1,153 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background autosave of edited records
+ * Edits arrive as whole snapshots. The newest snapshot of a record replaces
+ * any older one still waiting, and one background thread writes whatever is
+ * waiting a fixed delay after the first edit of a batch, then syncs the store
+ * once for the whole batch. Rapid edits therefore cost at most one write per
+ * record per delay rather than one per keystroke. A record whose registration
+ * number was changed is saved under the new number and the old one deleted.
+ * {@link #close()} writes what is still waiting before returning.
+ */
+final class Autosaver implements Closeable {
+
+    static final int DEFAULT_DELAY_MS = 2000;
+
+    /** Told, on the writer thread, how a batch went. */
+    interface Listener {
+        /** {@code keysChanged} is true when a batch added or removed registration numbers. */
+        void saved(int records, boolean keysChanged);
+
+        void failed(IOException e);
+    }
+
+    /** The newest snapshot of a record, and the registration number it was saved under before. */
+    private static final class Pending {
+        final Biodata biodata;
+        final String replaces;
+
+        Pending(Biodata biodata, String replaces) {
+            this.biodata = biodata;
+            this.replaces = replaces;
+        }
+    }
+
+    private final BiodataStore store;
+    private final long delayMs;
+    private final Listener listener;
+    private final ScheduledThreadPoolExecutor writer;
+    private final Object writeLock = new Object();
+
+    private Map<String, Pending> pending = new LinkedHashMap<>();
+    private boolean scheduled;
+    private long edits;
+    private long writes;
+
+    Autosaver(BiodataStore store, long delayMs, Listener listener) {
+        this.store = store;
+        this.delayMs = delayMs;
+        this.listener = listener;
+        this.writer = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "autosave");
+            t.setDaemon(true);
+            return t;
+        });
+        // close() writes the waiting records itself rather than after the delay
+        writer.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+
+    /**
+     * Queues a snapshot for saving. {@code previousKey} is the registration
+     * number the record was last saved or queued under, or null for a new one.
+     */
+    synchronized void submit(Biodata b, String previousKey) {
+        String key = BiodataStore.key(b.regd);
+        if (key.isEmpty()) throw new IllegalArgumentException("Registration Number is required");
+        // A rename of a record still waiting keeps the number it was saved under
+        Pending earlier = previousKey == null ? null : pending.remove(previousKey);
+        String replaces = earlier != null ? earlier.replaces : previousKey;
+        pending.put(key, new Pending(b, replaces));
+        edits++;
+        if (!scheduled && !writer.isShutdown()) {
+            scheduled = true;
+            writer.schedule(this::write, delayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /** The snapshot waiting to be saved under a registration number, or null. */
+    synchronized Biodata pending(String key) {
+        Pending p = pending.get(key);
+        return p == null ? null : p.biodata;
+    }
+
+    synchronized boolean isPending(String key) {
+        return pending.containsKey(key);
+    }
+
+    /** Writes everything waiting now, on the calling thread. */
+    void flush() {
+        write();
+    }
+
+    @Override
+    public void close() {
+        writer.shutdown();
+        write();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format(Locale.ROOT, "autosave: %d edits saved in %d writes", edits, writes);
+    }
+
+    private void write() {
+        synchronized (writeLock) {
+            Map<String, Pending> batch;
+            synchronized (this) {
+                scheduled = false;
+                if (pending.isEmpty()) return;
+                batch = pending;
+                pending = new LinkedHashMap<>();
+            }
+
+            boolean keysChanged = false;
+            int written = 0;
+            try {
+                for (Map.Entry<String, Pending> e : batch.entrySet()) {
+                    Pending p = e.getValue();
+                    keysChanged |= !store.contains(e.getKey());
+                    store.put(p.biodata);
+                    if (p.replaces != null && !p.replaces.equals(e.getKey())) keysChanged |= store.delete(p.replaces);
+                    written++;
+                }
+                store.flush();
+            } catch (IOException e) {
+                requeue(batch, written);
+                listener.failed(e);
+                return;
+            } finally {
+                synchronized (this) {
+                    writes += written;
+                }
+            }
+            listener.saved(written, keysChanged);
+        }
+    }
+
+    // Puts back the records a failed batch did not write, unless newer edits replaced them
+    private synchronized void requeue(Map<String, Pending> batch, int written) {
+        Iterator<Map.Entry<String, Pending>> it = batch.entrySet().iterator();
+        for (int i = 0; i < written; i++) it.next();
+        while (it.hasNext()) {
+            Map.Entry<String, Pending> e = it.next();
+            pending.putIfAbsent(e.getKey(), e.getValue());
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+import java.util.*;
+
+/**
+ * Biodata
+ * A snapshot of one student's biodata, captured either from the Swing form
+ * or from a batch input record. Text fields are kept exactly as entered so
+ * that every output produced from a snapshot matches the interactive export.
+ */
+final class Biodata {
+
+    // Options offered by the form's drop-downs (after their "Select ..." placeholder)
+    static final String[] GENDER_OPTIONS = {"Male", "Female", "Other"};
+
+    static final String[] BRANCH_OPTIONS = {
+        "Computer Science & Engineering", "CSE - AI & Machine Learning",
+        "CSE - Data Science", "Information Technology", "Electronics & Communication",
+        "Electrical & Electronics", "Mechanical Engineering", "Civil Engineering"
+    };
+
+    static final String[] SEMESTER_OPTIONS = {
+        "1st Semester", "2nd Semester", "3rd Semester", "4th Semester",
+        "5th Semester", "6th Semester", "7th Semester", "8th Semester"
+    };
+
+    // Predefined options shown as checkboxes in the Skills & Interests section
+    static final String[] SKILL_OPTIONS = {
+        "Java Programming", "Python Programming", "Web Development",
+        "Data Structures", "Database Management", "Machine Learning",
+        "Android Dev", "Software Testing", "Cloud Computing"
+    };
+
+    static final String[] HOBBY_OPTIONS = {
+        "Coding", "Reading Books", "Playing Games", "Photography",
+        "Traveling", "Painting", "Dancing", "Singing", "Sports"
+    };
+
+    // Personal
+    final String name;
+    final String age;
+    final String gender;
+    final String photoPath;
+
+    // Academic
+    final String regd;
+    final String branch;
+    final String semester;
+    final String cgpa;
+    final String college;
+
+    // Contact
+    final String phone;
+    final String email;
+    final String linkedin;
+    final String github;
+    final String address;
+
+    // Skills & Interests: one bit per option (see OptionDictionary), plus free text
+    final long skillBits;
+    final List<String> skills;
+    final String otherSkills;
+    final long hobbyBits;
+    final List<String> hobbies;
+    final String otherHobbies;
+
+    // Additional
+    final String about;
+    final String achievements;
+
+    // Display lines shared by every renderer, built once per snapshot
+    private final String skillsLine;
+    private final String hobbiesLine;
+
+    private Biodata(Builder b) {
+        name = b.name;
+        age = b.age;
+        gender = b.gender;
+        photoPath = b.photoPath;
+        regd = b.regd;
+        branch = b.branch;
+        semester = b.semester;
+        cgpa = b.cgpa;
+        college = b.college;
+        phone = b.phone;
+        email = b.email;
+        linkedin = b.linkedin;
+        github = b.github;
+        address = b.address;
+        skillBits = b.skillBits;
+        skills = Collections.unmodifiableList(OptionDictionary.SKILLS.names(skillBits));
+        otherSkills = b.otherSkills;
+        hobbyBits = b.hobbyBits;
+        hobbies = Collections.unmodifiableList(OptionDictionary.HOBBIES.names(hobbyBits));
+        otherHobbies = b.otherHobbies;
+        about = b.about;
+        achievements = b.achievements;
+        skillsLine = join(skills, otherSkills);
+        hobbiesLine = join(hobbies, otherHobbies);
+    }
+
+    /** Selected skills followed by the custom entry, or "" when there are none. */
+    String skillsLine() {
+        return skillsLine;
+    }
+
+    /** Selected hobbies followed by the custom entry, or "" when there are none. */
+    String hobbiesLine() {
+        return hobbiesLine;
+    }
+
+    /** A copy of this snapshot whose photo is {@code path}, e.g. a published copy of the image. */
+    Biodata withPhotoPath(String path) {
+        Builder b = new Builder();
+        for (BiodataField field : BiodataField.values()) b.set(field, field.valueOf(this));
+        return b.skillBits(skillBits).hobbyBits(hobbyBits).photoPath(path).build();
+    }
+
+    boolean hasAdditionalInfo() {
+        return !isBlank(about) || !isBlank(achievements);
+    }
+
+    /** The drop-down entries: a "Select ..." placeholder followed by the options. */
+    static String[] withPlaceholder(String placeholder, String[] options) {
+        String[] items = new String[options.length + 1];
+        items[0] = placeholder;
+        System.arraycopy(options, 0, items, 1, options.length);
+        return items;
+    }
+
+    static boolean isBlank(String s) {
+        return s == null || s.trim().isEmpty();
+    }
+
+    static String orDefault(String value, String fallback) {
+        return isBlank(value) ? fallback : value;
+    }
+
+    private static String join(List<String> selected, String other) {
+        StringBuilder sb = new StringBuilder();
+        for (String s : selected) {
+            if (sb.length() > 0) sb.append(", ");
+            sb.append(s);
+        }
+        if (!isBlank(other)) {
+            if (sb.length() > 0) sb.append(", ");
+            sb.append(other.trim());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Collects the values of a {@link Biodata}. Unset fields default to the
+     * empty string, which is what an untouched form field holds; empty gender,
+     * branch and semester mean "nothing selected". Skills and hobbies must be
+     * predefined options; anything else belongs in the "Other" text.
+     */
+    static final class Builder {
+        private String name = "", age = "", gender = "", photoPath = "";
+        private String regd = "", branch = "", semester = "", cgpa = "", college = "";
+        private String phone = "", email = "", linkedin = "", github = "", address = "";
+        private long skillBits, hobbyBits;
+        private String otherSkills = "", otherHobbies = "";
+        private String about = "", achievements = "";
+
+        Builder name(String v) { name = nonNull(v); return this; }
+        Builder age(String v) { age = nonNull(v); return this; }
+        Builder gender(String v) { gender = nonNull(v); return this; }
+        Builder photoPath(String v) { photoPath = nonNull(v); return this; }
+        Builder regd(String v) { regd = nonNull(v); return this; }
+        Builder branch(String v) { branch = nonNull(v); return this; }
+        Builder semester(String v) { semester = nonNull(v); return this; }
+        Builder cgpa(String v) { cgpa = nonNull(v); return this; }
+        Builder college(String v) { college = nonNull(v); return this; }
+        Builder phone(String v) { phone = nonNull(v); return this; }
+        Builder email(String v) { email = nonNull(v); return this; }
+        Builder linkedin(String v) { linkedin = nonNull(v); return this; }
+        Builder github(String v) { github = nonNull(v); return this; }
+        Builder address(String v) { address = nonNull(v); return this; }
+        Builder skillBits(long v) { skillBits = v; return this; }
+        Builder addSkill(String v) { skillBits |= OptionDictionary.SKILLS.bit(v); return this; }
+        Builder otherSkills(String v) { otherSkills = nonNull(v); return this; }
+        Builder hobbyBits(long v) { hobbyBits = v; return this; }
+        Builder addHobby(String v) { hobbyBits |= OptionDictionary.HOBBIES.bit(v); return this; }
+        Builder otherHobbies(String v) { otherHobbies = nonNull(v); return this; }
+        Builder about(String v) { about = nonNull(v); return this; }
+        Builder achievements(String v) { achievements = nonNull(v); return this; }
+
+        Builder set(BiodataField field, String v) {
+            switch (field) {
+                case NAME: return name(v);
+                case AGE: return age(v);
+                case GENDER: return gender(v);
+                case PHOTO: return photoPath(v);
+                case REGD: return regd(v);
+                case BRANCH: return branch(v);
+                case SEMESTER: return semester(v);
+                case CGPA: return cgpa(v);
+                case COLLEGE: return college(v);
+                case PHONE: return phone(v);
+                case EMAIL: return email(v);
+                case LINKEDIN: return linkedin(v);
+                case GITHUB: return github(v);
+                case ADDRESS: return address(v);
+                case OTHER_SKILLS: return otherSkills(v);
+                case OTHER_HOBBIES: return otherHobbies(v);
+                case ABOUT: return about(v);
+                case ACHIEVEMENTS: return achievements(v);
+                default: throw new AssertionError(field);
+            }
+        }
+
+        Biodata build() {
+            return new Biodata(this);
+        }
+
+        private static String nonNull(String v) {
+            return v == null ? "" : v;
+        }
+    }
+}
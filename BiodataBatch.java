@@ -0,0 +1,311 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+import java.awt.Color;
+import java.awt.print.PrinterException;
+import java.io.*;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Headless batch biodata generator
+ * Reads a CSV, JSONL or Excel file of student records and writes one text, HTML,
+ * Markdown, JSON or PDF biodata per record, in parallel, without touching the Swing form or the AWT
+ * toolkit, or prints them all as one PostScript job.
+ * Records failing the form's validation rules are skipped and listed in
+ * rejected.csv in the output directory (see {@link BiodataImporter}).
+ *
+ * Usage: java codeshere.experiments.BiodataBatch [--threads N] [--utf8] [--format txt|html|md|json|pdf|ps] [--template file] [--store] [--duplicates] <input.csv|input.jsonl|input.xlsx> <outputDir|output.zip>
+ *
+ * By default documents use the platform charset, byte for byte like Export to File.
+ * --utf8 switches to the streaming NIO writer, which always writes UTF-8.
+ * --format html or md uses the built-in HTML or Markdown template; these
+ * documents are always UTF-8.
+ * --template renders every record with a template file instead (see
+ * {@link BiodataTemplate}); its extension (.txt, .html, .md) sets the format.
+ * --format json writes one JSON object per record, in the input's keys.
+ * HTML and JSON documents, and every document written into an output
+ * ending in .zip, go through the {@link BulkExporter}: photos are published
+ * once per distinct image under photos/ and the documents link to them.
+ * --format pdf writes paginated A4 PDF documents instead of text.
+ * --format ps prints every record in one job through the PostScript stream
+ * print service into outputDir/biodata.ps, paginated exactly as Print does.
+ * --store saves the records into the biodata store in outputDir instead of
+ * writing one file per record, i.e. imports them, then refreshes the store's
+ * {@link CohortSnapshot}. Photos are added to the store's {@link PhotoStore}
+ * and the records refer to the stored copies.
+ * --duplicates also lists the valid records that probably describe the same
+ * student (see {@link DuplicateDetector}) in duplicates.csv in the output
+ * directory, one line per record, grouped by cluster.
+ */
+public final class BiodataBatch {
+
+    static final String REPORT_NAME = "rejected.csv";
+    static final String DUPLICATES_NAME = "duplicates.csv";
+    // Longest name part of a document file name
+    static final int MAX_NAME_CHARS = 100;
+    static final int MAX_NAME_BYTES = 200;
+
+    private BiodataBatch() {}
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+
+        int threads = Runtime.getRuntime().availableProcessors();
+        boolean utf8 = false;
+        String format = "txt";
+        String templateFile = null;
+        boolean store = false;
+        boolean duplicates = false;
+        List<String> positional = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if ("--threads".equals(args[i]) && i + 1 < args.length) {
+                threads = threadCount(args[++i]);
+            } else if ("--utf8".equals(args[i])) {
+                utf8 = true;
+            } else if ("--format".equals(args[i]) && i + 1 < args.length) {
+                format = args[++i].toLowerCase(Locale.ROOT);
+            } else if ("--template".equals(args[i]) && i + 1 < args.length) {
+                templateFile = args[++i];
+            } else if ("--store".equals(args[i])) {
+                store = true;
+            } else if ("--duplicates".equals(args[i])) {
+                duplicates = true;
+            } else {
+                positional.add(args[i]);
+            }
+        }
+        if (threads < 1 || positional.size() != 2 || !Arrays.asList("txt", "html", "md", "json", "pdf", "ps").contains(format)
+                || BulkExporter.isZip(new File(positional.get(1))) && (store || "pdf".equals(format) || "ps".equals(format))) {
+            System.err.println("Usage: BiodataBatch [--threads N] [--utf8] [--format txt|html|md|json|pdf|ps] [--template file] [--store] [--duplicates] <input.csv|input.jsonl|input.xlsx> <outputDir|output.zip>");
+            System.exit(2);
+        }
+
+        try {
+            File input = new File(positional.get(0));
+            File output = new File(positional.get(1));
+            BiodataTemplate template = null;
+            if (templateFile != null) {
+                template = BiodataTemplate.load(new File(templateFile));
+                format = template.format.extension;
+            } else if (!"json".equals(format) && !"pdf".equals(format) && !"ps".equals(format)) {
+                template = BiodataTemplate.builtIn(format);
+            }
+            DuplicateDetector detector = duplicates ? new DuplicateDetector() : null;
+            int failed;
+            if (store) {
+                try (BiodataStore records = BiodataStore.open(output)) {
+                    if (records.recovered() != null) System.err.println("Store recovered: " + records.recovered());
+                    failed = run(input, output, threads, utf8, format, template, records, detector);
+                    records.writeSnapshot();
+                }
+            } else {
+                failed = run(input, output, threads, utf8, format, template, null, detector);
+            }
+            if (failed > 0) System.exit(1);
+        } catch (IOException | InterruptedException | ExecutionException e) {
+            System.err.println("Batch generation failed: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Generates one document per valid input record, from {@code template},
+     * as "json" or as "pdf" documents, prints them all into one PostScript
+     * file ("ps"), or saves them into {@code store} when one is given, and
+     * returns the number of records that were rejected by validation or could
+     * not be written. {@code outputDir} may name a ZIP archive for template
+     * and JSON documents. When a {@code detector} is given, the records written
+     * are checked for duplicates too, which are listed in duplicates.csv.
+     */
+    static int run(File input, File outputDir, int threads, boolean utf8, String format,
+                   BiodataTemplate template, BiodataStore store, DuplicateDetector detector)
+            throws IOException, InterruptedException, ExecutionException {
+        // Published documents link to their photos, so they are written with them
+        boolean publish = store == null && ("json".equals(format) || BulkExporter.isZip(outputDir)
+            || template != null && template.format == BiodataTemplate.Format.HTML);
+        File directory = publish && BulkExporter.isZip(outputDir) ? outputDir.getAbsoluteFile().getParentFile() : outputDir;
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create output directory " + directory);
+        }
+
+        // One timestamp per run, exactly as a single interactive export would print it
+        Date now = new Date();
+        TextBiodataRenderer renderer = template == null ? null
+            : new TextBiodataRenderer(template, TextBiodataRenderer.timestamp(now));
+        // Only plain text follows the platform charset, like Export to File
+        boolean channel = utf8 || template != null && template.format != BiodataTemplate.Format.TEXT;
+        // Title colour of the form's preview
+        PdfBiodataRenderer pdfRenderer = "pdf".equals(format)
+            ? new PdfBiodataRenderer(new Color(25, 25, 35), PdfBiodataRenderer.timestamp(now)) : null;
+        // Valid records to print, in input order
+        ConcurrentSkipListMap<Integer, Biodata> toPrint = "ps".equals(format) ? new ConcurrentSkipListMap<>() : null;
+        ExportThroughput throughput = new ExportThroughput();
+        AtomicInteger printFailures = new AtomicInteger();
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, threads));
+        BulkExporter bulk = publish ? BulkExporter.open(outputDir, template, "json".equals(format),
+            TextBiodataRenderer.timestamp(now), null) : null;
+        PhotoStore photos = store != null ? store.photos() : null;
+        if (photos != null && photos.recovered() != null) System.err.println("Photo store recovered: " + photos.recovered());
+        File report = new File(directory, REPORT_NAME);
+        File duplicates = new File(directory, DUPLICATES_NAME);
+
+        BiodataImporter.Summary summary;
+        try {
+            summary = new BiodataImporter(pool).run(input, (recordNo, b) -> {
+                if (store != null) {
+                    throughput.record(store.put(photos.adopt(b)));
+                } else if (toPrint != null) {
+                    toPrint.put(recordNo, b);
+                } else if (bulk != null) {
+                    throughput.record(bulk.export(recordNo, b));
+                } else {
+                    File file = new File(outputDir, fileName(recordNo, b, format));
+                    if (pdfRenderer != null) {
+                        throughput.record(writePdf(b, file, pdfRenderer));
+                    } else {
+                        throughput.record(channel ? writeUtf8(b, file, renderer) : writeDocument(b, file, renderer));
+                    }
+                }
+                if (detector != null) detector.add(recordNo, b);
+            }, report);
+            if (detector != null) {
+                int clusters = writeDuplicates(input, pool, detector, duplicates);
+                System.out.println(clusters == 0 ? "No duplicates found"
+                    : clusters + " candidate duplicate cluster(s) are listed in " + duplicates);
+            }
+        } finally {
+            pool.shutdown();
+            if (bulk != null) bulk.close();
+        }
+
+        if (bulk != null && bulk.photoCount() > 0) {
+            throughput.record(0, bulk.photoBytes());
+            System.out.println("Published " + bulk.photoCount() + " distinct photo(s)");
+        }
+
+        if (toPrint != null && !toPrint.isEmpty()) {
+            File file = new File(outputDir, "biodata.ps");
+            try {
+                List<Biodata> records = new ArrayList<>(toPrint.values());
+                int pages = BiodataPageable.printToFile(records,
+                    new SwingBiodataRenderer(new Color(25, 25, 35), new PhotoService()), file);
+                throughput.record(records.size(), file.length());
+                System.out.println("Printed " + pages + " page(s) to " + file);
+            } catch (PrinterException e) {
+                printFailures.addAndGet(toPrint.size());
+                System.err.println("Printing failed: " + e.getMessage());
+            }
+        }
+
+        int failed = summary.failed + printFailures.get();
+        System.out.println("Generated " + throughput
+            + (summary.rejected > 0 ? ", " + summary.rejected + " rejected" : "")
+            + (failed > 0 ? ", " + failed + " failed" : ""));
+        if (summary.rejected + summary.failed > 0) System.out.println("Rejected rows are listed in " + report);
+        return summary.rejected + failed;
+    }
+
+    /**
+     * Lists the duplicate clusters found by {@code detector} in a CSV file and
+     * returns how many there are. The detector only keeps ids, so the input
+     * is read again for the fields of the clustered records.
+     */
+    static int writeDuplicates(File input, ForkJoinPool pool, DuplicateDetector detector, File file)
+            throws IOException, InterruptedException, ExecutionException {
+        Files.deleteIfExists(file.toPath());
+        List<DuplicateDetector.Cluster> clusters = detector.clusters();
+        if (clusters.isEmpty()) return 0;
+        Set<Integer> wanted = new HashSet<>();
+        for (DuplicateDetector.Cluster c : clusters) {
+            for (int id : c.ids) wanted.add(id);
+        }
+        Map<Integer, Biodata> members = new ConcurrentHashMap<>();
+        new BiodataImporter(pool).run(input, (recordNo, b) -> {
+            if (wanted.contains(recordNo)) members.put(recordNo, b);
+        }, null);
+
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
+            out.write("cluster,record,regd,name,email,phone,matched\n");
+            StringBuilder sb = new StringBuilder(256);
+            for (int c = 0; c < clusters.size(); c++) {
+                DuplicateDetector.Cluster cluster = clusters.get(c);
+                for (int id : cluster.ids) {
+                    Biodata b = members.get(id);
+                    if (b == null) continue; // the input changed since the first pass
+                    sb.setLength(0);
+                    sb.append(c + 1).append(',').append(id).append(',');
+                    BiodataImporter.csv(b.regd, sb).append(',');
+                    BiodataImporter.csv(b.name, sb).append(',');
+                    BiodataImporter.csv(b.email, sb).append(',');
+                    BiodataImporter.csv(b.phone, sb).append(',');
+                    sb.append(DuplicateDetector.Match.names(cluster.matches)).append('\n');
+                    out.write(sb.toString());
+                }
+            }
+        }
+        return clusters.size();
+    }
+
+    /** Writes one document the way Export to File does and returns its size in bytes. */
+    static long writeDocument(Biodata b, File file, TextBiodataRenderer renderer) throws IOException {
+        // Same charset as the FileWriter used by the interactive export
+        try (Writer writer = new BufferedWriter(
+                new OutputStreamWriter(new FileOutputStream(file), Charset.defaultCharset()))) {
+            renderer.write(b, writer);
+        }
+        return file.length();
+    }
+
+    /** Writes one UTF-8 document through the calling thread's pooled channel writer. */
+    static long writeUtf8(Biodata b, File file, TextBiodataRenderer renderer) throws IOException {
+        Utf8ChannelWriter writer = Utf8ChannelWriter.open(file);
+        try {
+            renderer.write(b, writer);
+        } finally {
+            writer.close();
+        }
+        return writer.bytesWritten();
+    }
+
+    /**
+     * Streams one PDF document to a file and returns its size in bytes; no
+     * file is left when the record's text cannot be printed.
+     */
+    static long writePdf(Biodata b, File file, PdfBiodataRenderer renderer) throws IOException {
+        try (OutputStream out = new FileOutputStream(file)) {
+            return renderer.write(b, out);
+        } catch (PdfTrueTypeFont.UnprintableTextException e) {
+            file.delete();
+            throw e;
+        }
+    }
+
+    /**
+     * The document file of a record: its number, then its name cut to
+     * {@value #MAX_NAME_CHARS} characters and {@value #MAX_NAME_BYTES} UTF-8
+     * bytes, so the whole stays within the 255-byte file name limit.
+     */
+    static String fileName(int recordNo, Biodata b, String extension) {
+        String name = b.name.replaceAll("\\s+", "_");
+        int end = name.length();
+        if (name.codePointCount(0, end) > MAX_NAME_CHARS) end = name.offsetByCodePoints(0, MAX_NAME_CHARS);
+        while (name.substring(0, end).getBytes(StandardCharsets.UTF_8).length > MAX_NAME_BYTES) {
+            end = name.offsetByCodePoints(end, -1);
+        }
+        return String.format("%06d_%s_biodata.%s", recordNo, name.substring(0, end), extension)
+            .replaceAll("[\\\\/:*?\"<>|]", "_");
+    }
+
+    // The --threads value, or 0 when it is not a number
+    private static int threadCount(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Binary biodata encoding
+ * A compact record layout used by the local store: a version byte, every
+ * {@link BiodataField} in declaration order, then the skill and hobby
+ * selection masks as varints. Strings are UTF-8 prefixed with a varint byte
+ * length, so a typical record is barely larger than its text. Records of
+ * any other version are rejected.
+ */
+final class BiodataCodec {
+
+    static final byte VERSION = 2;
+
+    private static final BiodataField[] FIELDS = BiodataField.values();
+
+    private static final ThreadLocal<byte[]> SCRATCH = ThreadLocal.withInitial(() -> new byte[256]);
+
+    private BiodataCodec() {}
+
+    static byte[] encode(Biodata b) {
+        byte[][] values = new byte[FIELDS.length][];
+        int size = 1 + varlongSize(b.skillBits) + varlongSize(b.hobbyBits);
+        for (int i = 0; i < FIELDS.length; i++) {
+            values[i] = FIELDS[i].valueOf(b).getBytes(StandardCharsets.UTF_8);
+            size += varintSize(values[i].length) + values[i].length;
+        }
+
+        ByteBuffer out = ByteBuffer.allocate(size);
+        out.put(VERSION);
+        for (byte[] v : values) putBytes(out, v);
+        putVarlong(out, b.skillBits);
+        putVarlong(out, b.hobbyBits);
+        return out.array();
+    }
+
+    /**
+     * Decodes one record starting at the buffer's position, leaving the
+     * position just after it. Works on heap, direct and mapped buffers.
+     */
+    static Biodata decode(ByteBuffer in) {
+        try {
+            byte version = in.get();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported record version " + version + ", expected " + VERSION);
+            }
+            Biodata.Builder b = new Biodata.Builder();
+            for (BiodataField field : FIELDS) {
+                b.set(field, getString(in));
+            }
+            return b.skillBits(getVarlong(in)).hobbyBits(getVarlong(in)).build();
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated biodata record", e);
+        }
+    }
+
+    private static void putBytes(ByteBuffer out, byte[] bytes) {
+        putVarint(out, bytes.length);
+        out.put(bytes);
+    }
+
+    private static String getString(ByteBuffer in) {
+        int length = getVarint(in);
+        if (length == 0) return "";
+        if (length > in.remaining()) throw new IllegalArgumentException("Truncated biodata record");
+        if (in.hasArray()) {
+            String s = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+            in.position(in.position() + length);
+            return s;
+        }
+        byte[] scratch = SCRATCH.get();
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+            SCRATCH.set(scratch);
+        }
+        in.get(scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    static int varintSize(int value) {
+        int size = 1;
+        while ((value >>>= 7) != 0) size++;
+        return size;
+    }
+
+    static void putVarint(ByteBuffer out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    static int varlongSize(long value) {
+        int size = 1;
+        while ((value >>>= 7) != 0) size++;
+        return size;
+    }
+
+    static void putVarlong(ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    static long getVarlong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    static int getVarint(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+}
@@ -0,0 +1,356 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+import java.awt.*;
+import java.awt.font.*;
+import java.awt.image.BufferedImage;
+import java.text.AttributedString;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Laid-out biodata document
+ * The "PROFESSIONAL BIODATA" document without a component: its content, the
+ * lines it breaks into at a width and the painting of any part of it. The
+ * {@link BiodataPreview} shows one in a window; {@link BiodataPageable} keeps
+ * one per record so the layout that paginated a record also prints it.
+ *
+ * Text is broken into lines once per width, measured with cached character
+ * advances, and each line keeps its position; painting walks only the lines
+ * that intersect the clip and creates a line's {@link TextLayout} the first
+ * time it is painted. Fonts, colors and heading layouts are shared by every
+ * instance. Long values wrap at the width of their section, and line breaks
+ * typed into Address, About Me or Achievements are kept.
+ *
+ * Uses no Swing components, so it may be built on any thread; an instance is
+ * used by one thread at a time.
+ */
+final class BiodataDocument {
+
+    static final Font TITLE_FONT = new Font("Segoe UI", Font.BOLD, 28);
+    static final Font SECTION_FONT = new Font("Segoe UI", Font.BOLD, 18);
+    static final Font ITEM_FONT = new Font("Segoe UI", Font.PLAIN, 14);
+    static final Font FOOTER_FONT = new Font("Segoe UI", Font.ITALIC, 12);
+
+    /** Width used before a preview is placed in a window, and for printing. */
+    static final int DEFAULT_WIDTH = 700;
+
+    private static final Color PHOTO_BORDER = Color.GRAY;
+    private static final Color BOX_BORDER = new Color(200, 200, 200);
+    private static final FontRenderContext FRC = new FontRenderContext(null, true, true);
+
+    private static final int MARGIN = 20;
+    private static final int BOX_PADDING = 15;
+
+    private static final LineMetrics ITEM_METRICS = ITEM_FONT.getLineMetrics("Ag", FRC);
+    private static final float ITEM_HEIGHT = ITEM_METRICS.getAscent() + ITEM_METRICS.getDescent() + ITEM_METRICS.getLeading();
+
+    // Advances of ITEM_FONT characters, measured on first use; 0 means not measured yet, -1 no glyph
+    private static final float[] ADVANCES = new float[0x0590];
+
+    // Layouts of the title, section headings and footer, which rarely change
+    private static final Map<String, TextLayout> HEADINGS = new HashMap<>();
+
+    /** One line of text, positioned; its TextLayout is created when it is first painted. */
+    private static final class Line {
+        final String text;
+        final Font font;
+        final float x;
+        final float baseline;
+        final int top;
+        final int bottom;
+        final Color color;
+        TextLayout layout;
+
+        Line(String text, Font font, TextLayout layout, float x, float top, float ascent, float height, Color color) {
+            this.text = text;
+            this.font = font;
+            this.layout = layout;
+            this.x = x;
+            this.baseline = top + ascent;
+            this.top = (int) top;
+            this.bottom = (int) Math.ceil(top + height);
+            this.color = color;
+        }
+
+        Line(TextLayout layout, float x, float top, Color color) {
+            this(null, null, layout, x, top, layout.getAscent(),
+                 layout.getAscent() + layout.getDescent() + layout.getLeading(), color);
+        }
+
+        TextLayout layout() {
+            if (layout == null) layout = new TextLayout(text, font, FRC);
+            return layout;
+        }
+    }
+
+    /** Everything painted for one width, in top-to-bottom order. */
+    private static final class Layout {
+        final int width;
+        final List<Line> lines = new ArrayList<>();
+        final List<Rectangle> boxes = new ArrayList<>();
+        // Top of every section and of the footer: where a page may end
+        final List<Integer> sectionTops = new ArrayList<>();
+        Rectangle photo;
+        int height;
+
+        Layout(int width) {
+            this.width = width;
+        }
+    }
+
+    /** A titled section and its already-prefixed entries. */
+    static final class Section {
+        final String title;
+        final String[] items;
+
+        Section(String title, String... items) {
+            this.title = title;
+            this.items = items;
+        }
+    }
+
+    private final Color titleColor;
+    private final Color textColor;
+    private final String title;
+    private final BufferedImage photo;
+    private final List<Section> sections;
+    private final String footer;
+    private Layout layout;
+
+    BiodataDocument(Color titleColor, Color textColor, String title, BufferedImage photo, List<Section> sections,
+                    String footer) {
+        this.titleColor = titleColor;
+        this.textColor = textColor;
+        this.title = title;
+        this.photo = photo;
+        this.sections = new ArrayList<>(sections);
+        this.footer = footer;
+    }
+
+    /** A document with nothing in it. */
+    static BiodataDocument empty(Color titleColor) {
+        return new BiodataDocument(titleColor, Color.BLACK, "", null, Collections.<Section>emptyList(), "");
+    }
+
+    /** The height of the document laid out at a width. */
+    int heightFor(int width) {
+        return layout(width).height;
+    }
+
+    /**
+     * Offsets, ascending, at which the document laid out at a width can be
+     * cut into pages without splitting a section: the top of each section and
+     * of the footer.
+     */
+    int[] sectionBreaks(int width) {
+        List<Integer> tops = layout(width).sectionTops;
+        int[] breaks = new int[tops.size()];
+        for (int i = 0; i < breaks.length; i++) breaks[i] = tops.get(i);
+        return breaks;
+    }
+
+    /** Offsets, ascending, below each line of text: where a section taller than a page can be cut. */
+    int[] lineBreaks(int width) {
+        List<Line> lines = layout(width).lines;
+        int[] breaks = new int[lines.size()];
+        for (int i = 0; i < breaks.length; i++) breaks[i] = lines.get(i).bottom;
+        return breaks;
+    }
+
+    /** Paints the part of the document laid out at a width that lies inside the clip of {@code g}. */
+    void paint(Graphics2D g, int width) {
+        Layout l = layout(width);
+        Graphics2D g2 = (Graphics2D) g.create();
+        g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g2.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+        Rectangle clip = g2.getClipBounds();
+        if (clip == null) clip = new Rectangle(0, 0, l.width, l.height);
+
+        for (Rectangle box : l.boxes) {
+            if (!box.intersects(clip)) continue;
+            g2.setColor(Color.WHITE);
+            g2.fillRect(box.x, box.y, box.width, box.height);
+            g2.setColor(BOX_BORDER);
+            g2.drawRect(box.x, box.y, box.width - 1, box.height - 1);
+        }
+        if (l.photo != null && l.photo.intersects(clip)) {
+            Rectangle p = l.photo;
+            g2.drawImage(photo, p.x + 2, p.y + 2, null);
+            // A two-pixel frame, as a LineBorder of width 2 paints it
+            g2.setColor(PHOTO_BORDER);
+            g2.drawRect(p.x, p.y, p.width - 1, p.height - 1);
+            g2.drawRect(p.x + 1, p.y + 1, p.width - 3, p.height - 3);
+        }
+
+        int clipBottom = clip.y + clip.height;
+        for (int i = firstLineBelow(l.lines, clip.y); i < l.lines.size(); i++) {
+            Line line = l.lines.get(i);
+            if (line.top >= clipBottom) break;
+            g2.setColor(line.color);
+            line.layout().draw(g2, line.x, line.baseline);
+        }
+        g2.dispose();
+    }
+
+    // The index of the first line ending below y; lines are sorted by position
+    private static int firstLineBelow(List<Line> lines, int y) {
+        int lo = 0;
+        int hi = lines.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (lines.get(mid).bottom <= y) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private Layout layout(int width) {
+        if (layout == null || layout.width != width) layout = buildLayout(width);
+        return layout;
+    }
+
+    private Layout buildLayout(int width) {
+        Layout l = new Layout(width);
+        int contentWidth = Math.max(width - 2 * MARGIN, 100);
+        float y = MARGIN;
+
+        // Header: title centered beside the photo
+        int photoWidth = photo == null ? 0 : photo.getWidth() + 4;
+        int photoHeight = photo == null ? 0 : photo.getHeight() + 4;
+        TextLayout titleLayout = heading(title.isEmpty() ? " " : title, TITLE_FONT);
+        float titleHeight = titleLayout.getAscent() + titleLayout.getDescent() + titleLayout.getLeading();
+        float headerHeight = Math.max(titleHeight, photoHeight);
+        float titleX = MARGIN + Math.max(0, (contentWidth - photoWidth - titleLayout.getAdvance()) / 2);
+        l.lines.add(new Line(titleLayout, titleX, y + (headerHeight - titleHeight) / 2, titleColor));
+        if (photo != null) {
+            l.photo = new Rectangle(MARGIN + contentWidth - photoWidth,
+                                    (int) (y + (headerHeight - photoHeight) / 2), photoWidth, photoHeight);
+        }
+        y += headerHeight + 30;
+
+        for (Section section : sections) {
+            l.sectionTops.add((int) y);
+            y += 15;
+            TextLayout heading = heading(section.title, SECTION_FONT);
+            l.lines.add(new Line(heading, MARGIN, y, titleColor));
+            y += heading.getAscent() + heading.getDescent() + heading.getLeading() + 10;
+
+            int boxTop = (int) y;
+            y += 1 + BOX_PADDING;
+            float textX = MARGIN + 1 + BOX_PADDING;
+            float wrapWidth = Math.max(contentWidth - 2 * (1 + BOX_PADDING), 20);
+            for (String item : section.items) {
+                if (item == null || item.trim().isEmpty()) continue;
+                y += 5;
+                y = addWrapped(l, item, textX, y, wrapWidth, textColor);
+                y += 5;
+            }
+            y += BOX_PADDING + 1;
+            l.boxes.add(new Rectangle(MARGIN, boxTop, contentWidth, (int) Math.ceil(y) - boxTop));
+            y += 15;
+        }
+
+        if (!footer.isEmpty()) {
+            l.sectionTops.add((int) y);
+            y += 30;
+            TextLayout footerLayout = heading(footer, FOOTER_FONT);
+            float x = MARGIN + Math.max(0, (contentWidth - footerLayout.getAdvance()) / 2);
+            l.lines.add(new Line(footerLayout, x, y, Color.GRAY));
+            y += footerLayout.getAscent() + footerLayout.getDescent() + footerLayout.getLeading();
+        }
+        l.height = (int) Math.ceil(y) + MARGIN;
+        return l;
+    }
+
+    /** Breaks an entry into lines no wider than {@code wrapWidth}; returns the y below the last one. */
+    private static float addWrapped(Layout l, String item, float x, float y, float wrapWidth, Color color) {
+        int start = 0;
+        while (start <= item.length()) {
+            int end = start;
+            while (end < item.length() && item.charAt(end) != '\n' && item.charAt(end) != '\r') end++;
+            String paragraph = item.substring(start, end);
+            start = end + (item.startsWith("\r\n", end) ? 2 : 1);
+            if (paragraph.isEmpty()) {
+                y += ITEM_HEIGHT;
+            } else if (isSimple(paragraph)) {
+                y = addSimple(l, paragraph, x, y, wrapWidth, color);
+            } else {
+                y = addComplex(l, paragraph, x, y, wrapWidth, color);
+            }
+        }
+        return y;
+    }
+
+    /**
+     * Breaks text whose width is the sum of its character advances: after the
+     * last space that fits, or mid-word when a word is wider than the line.
+     * Spaces may hang past the edge, as with LineBreakMeasurer.
+     */
+    private static float addSimple(Layout l, String text, float x, float y, float wrapWidth, Color color) {
+        int start = 0;
+        int lastBreak = -1;
+        float width = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            float w = advance(c);
+            if (c != ' ' && width + w > wrapWidth && i > start) {
+                int end = lastBreak > start ? lastBreak : i;
+                l.lines.add(new Line(text.substring(start, end), ITEM_FONT, null, x, y,
+                                     ITEM_METRICS.getAscent(), ITEM_HEIGHT, color));
+                y += ITEM_HEIGHT;
+                start = end;
+                lastBreak = -1;
+                width = 0;
+                for (int k = start; k < i; k++) width += advance(text.charAt(k));
+            }
+            width += w;
+            if (c == ' ') lastBreak = i + 1;
+        }
+        l.lines.add(new Line(text.substring(start), ITEM_FONT, null, x, y, ITEM_METRICS.getAscent(), ITEM_HEIGHT, color));
+        return y + ITEM_HEIGHT;
+    }
+
+    /** Anything else, e.g. Devanagari names or right-to-left text: let LineBreakMeasurer decide. */
+    private static float addComplex(Layout l, String text, float x, float y, float wrapWidth, Color color) {
+        AttributedString attributed = new AttributedString(text);
+        attributed.addAttribute(TextAttribute.FONT, ITEM_FONT);
+        LineBreakMeasurer measurer = new LineBreakMeasurer(attributed.getIterator(), FRC);
+        while (measurer.getPosition() < text.length()) {
+            TextLayout line = measurer.nextLayout(wrapWidth);
+            l.lines.add(new Line(line, x, y, color));
+            y += line.getAscent() + line.getDescent() + line.getLeading();
+        }
+        return y;
+    }
+
+    // Latin, Greek and Cyrillic without combining marks: one glyph per char, left to right
+    private static boolean isSimple(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= ADVANCES.length || (c >= 0x0300 && c < 0x0370) || c == '\t' || advance(c) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** The advance of a character in ITEM_FONT, or -1 if the font has no glyph for it. */
+    private static float advance(char c) {
+        float w = ADVANCES[c];
+        if (w == 0) {
+            w = ITEM_FONT.canDisplay(c) ? (float) ITEM_FONT.getStringBounds(String.valueOf(c), FRC).getWidth() : -1;
+            ADVANCES[c] = w; // benign race: every thread computes the same value
+        }
+        return w;
+    }
+
+    private static TextLayout heading(String text, Font font) {
+        String key = font.getStyle() + ":" + font.getSize() + ":" + text;
+        synchronized (HEADINGS) {
+            return HEADINGS.computeIfAbsent(key, k -> new TextLayout(text, font, FRC));
+        }
+    }
+}
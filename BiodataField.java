@@ -0,0 +1,59 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+/**
+ * Biodata fields
+ * Names every single-valued field of a {@link Biodata} and reads it without
+ * reflection, so validation rules and other per-field logic can be keyed by
+ * field rather than by Swing component.
+ */
+enum BiodataField {
+    NAME("name"),
+    AGE("age"),
+    GENDER("gender"),
+    PHOTO("photo"),
+    REGD("regd"),
+    BRANCH("branch"),
+    SEMESTER("semester"),
+    CGPA("cgpa"),
+    COLLEGE("college"),
+    PHONE("phone"),
+    EMAIL("email"),
+    LINKEDIN("linkedin"),
+    GITHUB("github"),
+    ADDRESS("address"),
+    OTHER_SKILLS("otherSkills"),
+    OTHER_HOBBIES("otherHobbies"),
+    ABOUT("about"),
+    ACHIEVEMENTS("achievements");
+
+    /** The key used for this field in batch input files. */
+    final String key;
+
+    BiodataField(String key) {
+        this.key = key;
+    }
+
+    String valueOf(Biodata b) {
+        switch (this) {
+            case NAME: return b.name;
+            case AGE: return b.age;
+            case GENDER: return b.gender;
+            case PHOTO: return b.photoPath;
+            case REGD: return b.regd;
+            case BRANCH: return b.branch;
+            case SEMESTER: return b.semester;
+            case CGPA: return b.cgpa;
+            case COLLEGE: return b.college;
+            case PHONE: return b.phone;
+            case EMAIL: return b.email;
+            case LINKEDIN: return b.linkedin;
+            case GITHUB: return b.github;
+            case ADDRESS: return b.address;
+            case OTHER_SKILLS: return b.otherSkills;
+            case OTHER_HOBBIES: return b.otherHobbies;
+            case ABOUT: return b.about;
+            case ACHIEVEMENTS: return b.achievements;
+            default: throw new AssertionError(this);
+        }
+    }
+}
@@ -0,0 +1,776 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * Bulk biodata importer
+ * Reads student records from a CSV, JSONL or Excel (.xlsx) file, checks them
+ * with the form's validation rules and hands every valid record to a sink.
+ * The file is read sequentially in chunks of raw records: for CSV just the
+ * characters and where each record starts and ends, for JSONL the lines.
+ * Parsing and validation run on the workers of a fork-join pool while the
+ * next chunk is being read; a chunk's valid records go to the sink once the
+ * previous chunk's have, also in parallel. Records with the same registration
+ * number reach the sink one after the other in input order, so when the sink
+ * saves them by that number the last row of the file wins.
+ *
+ * Records that cannot be parsed, fail validation or cannot be written are
+ * listed in input order in a rejected-rows report: a CSV file with the
+ * record number, the row (line) of the input it starts on, its registration
+ * number and name, the error codes and the messages the form would show.
+ *
+ * Recognised columns/keys (case and punctuation insensitive): name, age, gender,
+ * regd, branch, semester, cgpa, college, phone, email, linkedin, github, address,
+ * skills, otherSkills, hobbies, otherHobbies, about, achievements, photo.
+ * Skills and hobbies are separated by ';'; in JSONL they may also be arrays.
+ */
+final class BiodataImporter {
+
+    static final int CHUNK_SIZE = 4096;
+
+    /**
+     * Receives the valid records, from several threads at once; those with
+     * the same registration number in input order, never concurrently.
+     */
+    interface Sink {
+        void accept(int recordNo, Biodata b) throws IOException;
+    }
+
+    /** What happened to the records of one import. */
+    static final class Summary {
+        final int imported;
+        final int rejected;
+        final int failed;
+
+        Summary(int imported, int rejected, int failed) {
+            this.imported = imported;
+            this.rejected = rejected;
+            this.failed = failed;
+        }
+
+        @Override
+        public String toString() {
+            return imported + " imported" + (rejected > 0 ? ", " + rejected + " rejected" : "")
+                + (failed > 0 ? ", " + failed + " failed" : "");
+        }
+    }
+
+    /** Sequential reader of raw records; decoding them is left to the workers. */
+    interface RecordSource extends Closeable {
+        /** The next chunk of at most {@code max} records, or null at the end of the input. */
+        Chunk next(int max) throws IOException;
+    }
+
+    /** Raw records read together, decoded by several threads at once. */
+    interface Chunk {
+        int size();
+
+        /** The row or line of the input the record starts on. */
+        int row(int i);
+
+        Biodata decode(int i) throws MalformedRecordException;
+    }
+
+    /** A single unreadable record; the rest of the input can still be processed. */
+    static final class MalformedRecordException extends IOException {
+        MalformedRecordException(String message) {
+            super(message);
+        }
+    }
+
+    private final ForkJoinPool pool;
+
+    BiodataImporter(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    static RecordSource open(File input) throws IOException {
+        String lower = input.getName().toLowerCase(Locale.ROOT);
+        if (lower.endsWith(".xlsx")) return new XlsxReader(input);
+        Reader in = new InputStreamReader(new FileInputStream(input), StandardCharsets.UTF_8);
+        if (lower.endsWith(".jsonl") || lower.endsWith(".ndjson") || lower.endsWith(".json")) {
+            return new JsonLinesSource(new BufferedReader(in, 1 << 16));
+        }
+        return new CsvSource(in);
+    }
+
+    /**
+     * Imports every record of {@code input} into {@code sink}. Rejected rows
+     * are listed in {@code report}, which is replaced, or only counted when
+     * it is null.
+     */
+    Summary run(File input, Sink sink, File report) throws IOException, InterruptedException, ExecutionException {
+        if (report != null) Files.deleteIfExists(report.toPath());
+        AtomicInteger imported = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        Writer reportWriter = null;
+        try (RecordSource source = open(input)) {
+            Batch pending = null;
+            int base = 0;
+            Chunk chunk;
+            while ((chunk = source.next(CHUNK_SIZE)) != null) {
+                Batch batch = new Batch(chunk, base, sink, imported, rejected, failed);
+                ForkJoinTask<?> decoded = pool.submit(() -> IntStream.range(0, batch.chunk.size()).parallel().forEach(batch::decode));
+                // Read ahead while the workers are busy, but write and report in input order
+                if (pending != null) reportWriter = pending.finish(report, reportWriter);
+                batch.task = pool.submit(() -> {
+                    decoded.join();
+                    batch.write();
+                });
+                pending = batch;
+                base += chunk.size();
+            }
+            if (pending != null) reportWriter = pending.finish(report, reportWriter);
+        } finally {
+            if (reportWriter != null) reportWriter.close();
+        }
+        return new Summary(imported.get(), rejected.get(), failed.get());
+    }
+
+    /** One chunk being processed, and the report lines of its rejected records. */
+    private static final class Batch {
+        final Chunk chunk;
+        final int base;
+        final Sink sink;
+        final AtomicInteger imported;
+        final AtomicInteger rejected;
+        final AtomicInteger failed;
+        final String[] problems;
+        // The valid records, and for each the next record of the chunk with its registration number, or -1
+        final Biodata[] valid;
+        final int[] next;
+        ForkJoinTask<?> task;
+
+        Batch(Chunk chunk, int base, Sink sink, AtomicInteger imported, AtomicInteger rejected, AtomicInteger failed) {
+            this.chunk = chunk;
+            this.base = base;
+            this.sink = sink;
+            this.imported = imported;
+            this.rejected = rejected;
+            this.failed = failed;
+            this.problems = new String[chunk.size()];
+            this.valid = new Biodata[chunk.size()];
+            this.next = new int[chunk.size()];
+        }
+
+        void decode(int i) {
+            int recordNo = base + i + 1;
+            Biodata b;
+            try {
+                b = chunk.decode(i);
+            } catch (MalformedRecordException e) {
+                rejected.incrementAndGet();
+                problems[i] = reportLine(recordNo, chunk.row(i), null, "MALFORMED", e.getMessage());
+                return;
+            }
+            // Same checks as Generate/Export in the form
+            int errors = ValidationEngine.STANDARD.validate(b);
+            if (errors != 0) {
+                rejected.incrementAndGet();
+                problems[i] = reportLine(recordNo, chunk.row(i), b, ValidationError.codes(errors),
+                    ValidationError.describe(errors).replace("\u2022 ", "").trim().replace("\n", "; "));
+                return;
+            }
+            valid[i] = b;
+        }
+
+        /** Hands the valid records to the sink, each run of one registration number on one thread. */
+        void write() {
+            Map<String, Integer> last = new HashMap<>();
+            BitSet first = new BitSet(valid.length);
+            for (int i = 0; i < valid.length; i++) {
+                next[i] = -1;
+                if (valid[i] == null) continue;
+                Integer previous = last.put(BiodataStore.key(valid[i].regd), i);
+                if (previous == null) first.set(i);
+                else next[previous] = i;
+            }
+            first.stream().parallel().forEach(i -> {
+                for (; i >= 0; i = next[i]) write(i);
+            });
+        }
+
+        private void write(int i) {
+            Biodata b = valid[i];
+            valid[i] = null;
+            try {
+                sink.accept(base + i + 1, b);
+                imported.incrementAndGet();
+            } catch (IOException | RuntimeException e) {
+                failed.incrementAndGet();
+                problems[i] = reportLine(base + i + 1, chunk.row(i), b, "FAILED", String.valueOf(e.getMessage()));
+            }
+        }
+
+        Writer finish(File report, Writer out) throws IOException, InterruptedException, ExecutionException {
+            task.get();
+            if (report == null) return out;
+            for (String line : problems) {
+                if (line == null) continue;
+                if (out == null) {
+                    out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(report), StandardCharsets.UTF_8));
+                    out.write("record,row,regd,name,errors,messages\n");
+                }
+                out.write(line);
+            }
+            return out;
+        }
+    }
+
+    private static String reportLine(int recordNo, int row, Biodata b, String codes, String messages) {
+        StringBuilder sb = new StringBuilder(128).append(recordNo).append(',').append(row).append(',');
+        csv(b == null ? "" : b.regd, sb).append(',');
+        csv(b == null ? "" : b.name, sb).append(',');
+        csv(codes, sb).append(',');
+        return csv(messages, sb).append('\n').toString();
+    }
+
+    /** Appends a CSV field, quoted when it needs to be. */
+    static StringBuilder csv(String value, StringBuilder sb) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return sb.append(value);
+        }
+        return sb.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    /** Maps the columns of a file to biodata fields, resolved once from its header. */
+    static final class Columns {
+        private static final int IGNORED = -1;
+        private static final int SKILLS = -2;
+        private static final int HOBBIES = -3;
+        private static final Map<String, BiodataField> FIELDS = new HashMap<>();
+
+        static {
+            for (BiodataField f : BiodataField.values()) FIELDS.put(normalizeKey(f.key), f);
+        }
+
+        private final int[] targets;
+
+        Columns(List<String> header) {
+            targets = new int[header.size()];
+            for (int i = 0; i < targets.length; i++) {
+                String key = normalizeKey(header.get(i));
+                BiodataField field = FIELDS.get(key);
+                targets[i] = field != null ? field.ordinal()
+                    : "skills".equals(key) ? SKILLS : "hobbies".equals(key) ? HOBBIES : IGNORED;
+            }
+        }
+
+        Biodata toBiodata(List<String> cells) {
+            Biodata.Builder b = new Biodata.Builder();
+            BiodataField[] fields = BiodataField.values();
+            String skills = "";
+            String otherSkills = "";
+            String hobbies = "";
+            String otherHobbies = "";
+            for (int i = 0; i < targets.length && i < cells.size(); i++) {
+                int target = targets[i];
+                String cell = cells.get(i);
+                if (target == SKILLS) skills = cell;
+                else if (target == HOBBIES) hobbies = cell;
+                else if (target == BiodataField.OTHER_SKILLS.ordinal()) otherSkills = cell;
+                else if (target == BiodataField.OTHER_HOBBIES.ordinal()) otherHobbies = cell;
+                else if (target >= 0) b.set(fields[target], cell);
+            }
+            // As in toBiodata(Map): options in form order, unknown entries join the free text
+            return b.otherSkills(select(split(skills), Biodata.SKILL_OPTIONS, b::addSkill, otherSkills))
+                .otherHobbies(select(split(hobbies), Biodata.HOBBY_OPTIONS, b::addHobby, otherHobbies))
+                .build();
+        }
+    }
+
+    /** Decodes one JSON object with the same keys as a JSONL record, e.g. a request body; it may span lines. */
+    static Biodata fromJson(String json) throws MalformedRecordException {
+        return toBiodata(new JsonLine(json, 1).parse());
+    }
+
+    static Biodata toBiodata(Map<String, Object> r) {
+        Biodata.Builder b = new Biodata.Builder()
+            .name(text(r, "name"))
+            .age(text(r, "age"))
+            .gender(text(r, "gender"))
+            .photoPath(text(r, "photo"))
+            .regd(text(r, "regd"))
+            .branch(text(r, "branch"))
+            .semester(text(r, "semester"))
+            .cgpa(text(r, "cgpa"))
+            .college(text(r, "college"))
+            .phone(text(r, "phone"))
+            .email(text(r, "email"))
+            .linkedin(text(r, "linkedin"))
+            .github(text(r, "github"))
+            .address(text(r, "address"))
+            .about(text(r, "about"))
+            .achievements(text(r, "achievements"));
+
+        // Options are emitted in form order; unknown entries join the free-text field
+        String otherSkills = select(list(r, "skills"), Biodata.SKILL_OPTIONS, b::addSkill, text(r, "otherskills"));
+        String otherHobbies = select(list(r, "hobbies"), Biodata.HOBBY_OPTIONS, b::addHobby, text(r, "otherhobbies"));
+        return b.otherSkills(otherSkills).otherHobbies(otherHobbies).build();
+    }
+
+    private static String select(List<String> values, String[] options, Consumer<String> sink, String other) {
+        if (values.isEmpty()) return other.trim();
+        Set<String> wanted = new HashSet<>();
+        for (String v : values) wanted.add(v.trim().toLowerCase(Locale.ROOT));
+        for (String option : options) {
+            if (wanted.remove(option.toLowerCase(Locale.ROOT))) sink.accept(option);
+        }
+        StringBuilder rest = new StringBuilder(other.trim());
+        for (String v : values) {
+            if (wanted.contains(v.trim().toLowerCase(Locale.ROOT)) && !v.trim().isEmpty()) {
+                if (rest.length() > 0) rest.append(", ");
+                rest.append(v.trim());
+            }
+        }
+        return rest.toString();
+    }
+
+    private static String text(Map<String, Object> r, String key) {
+        Object v = r.get(key);
+        if (v == null) return "";
+        if (v instanceof List) return String.join(", ", castList(v));
+        return (String) v;
+    }
+
+    private static List<String> list(Map<String, Object> r, String key) {
+        Object v = r.get(key);
+        if (v == null) return Collections.emptyList();
+        if (v instanceof List) return castList(v);
+        return split((String) v);
+    }
+
+    private static List<String> split(String v) {
+        if (v.isEmpty()) return Collections.emptyList();
+        List<String> items = new ArrayList<>();
+        for (String s : v.split(";")) {
+            if (!s.trim().isEmpty()) items.add(s);
+        }
+        return items;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> castList(Object v) {
+        return (List<String>) v;
+    }
+
+    static String normalizeKey(String key) {
+        StringBuilder sb = new StringBuilder(key.length());
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (Character.isLetterOrDigit(c)) sb.append(Character.toLowerCase(c));
+        }
+        String k = sb.toString();
+        switch (k) {
+            case "fullname": return "name";
+            case "registrationnumber": case "registration": case "regno": return "regd";
+            case "currentsemester": return "semester";
+            case "collegeuniversity": case "university": return "college";
+            case "mobile": case "mobilenumber": return "phone";
+            case "emailaddress": return "email";
+            case "aboutme": return "about";
+            case "photopath": return "photo";
+            default: return k;
+        }
+    }
+
+    /** Rows already split into cells, e.g. by a spreadsheet reader. */
+    static final class RowChunk implements Chunk {
+        private final Columns columns;
+        private final List<List<String>> rows;
+        private final int[] rowNumbers;
+
+        RowChunk(Columns columns, List<List<String>> rows, int[] rowNumbers) {
+            this.columns = columns;
+            this.rows = rows;
+            this.rowNumbers = rowNumbers;
+        }
+
+        @Override
+        public int size() {
+            return rows.size();
+        }
+
+        @Override
+        public int row(int i) {
+            return rowNumbers[i];
+        }
+
+        @Override
+        public Biodata decode(int i) {
+            return columns.toBiodata(rows.get(i));
+        }
+    }
+
+    /**
+     * RFC 4180 source: quoted fields may contain commas, quotes ("") and line
+     * breaks. Reading only finds where records end; splitting them into
+     * fields happens in {@link Chunk#decode}.
+     */
+    static final class CsvSource implements RecordSource {
+        private final Reader in;
+        private final Columns columns;
+        private char[] buf = new char[1 << 20];
+        private int start;     // first character not handed out yet
+        private int limit;     // end of the characters read
+        private int line = 1;  // line of buf[start]
+        private boolean eof;
+        private boolean skipLf; // the previous record ended with '\r'
+
+        CsvSource(Reader in) throws IOException {
+            this.in = in;
+            CsvChunk header = next(1);
+            columns = new Columns(header == null ? Collections.<String>emptyList() : header.cells(0));
+        }
+
+        @Override
+        public CsvChunk next(int max) throws IOException {
+            int[] bounds = new int[2 * max];
+            int[] rows = new int[max];
+            int n = 0;
+            int pos = start;
+            int recordStart = start;
+            int recordLine = line;
+            int scanLine = line;
+            boolean quoted = false;
+            boolean fieldStart = true;
+            boolean closed = false;
+            while (n < max) {
+                if (pos == limit) {
+                    if (eof) {
+                        if (recordStart < limit) {
+                            bounds[2 * n] = recordStart - start;
+                            bounds[2 * n + 1] = limit - start;
+                            rows[n++] = recordLine;
+                            recordStart = limit;
+                        }
+                        break;
+                    }
+                    if (start == 0 && limit == buf.length) {
+                        // Full of this chunk's records: hand them out, or grow for one very long record
+                        if (n > 0) {
+                            if (pos > recordStart) skipLf = false; // the partial record is scanned again
+                            break;
+                        }
+                        buf = Arrays.copyOf(buf, buf.length * 2);
+                    } else if (start > 0) {
+                        int shift = start;
+                        System.arraycopy(buf, shift, buf, 0, limit - shift);
+                        limit -= shift;
+                        pos -= shift;
+                        recordStart -= shift;
+                        start = 0;
+                    }
+                    int read = in.read(buf, limit, buf.length - limit);
+                    if (read < 0) eof = true;
+                    else limit += read;
+                    continue;
+                }
+                char c = buf[pos];
+                if (skipLf) {
+                    skipLf = false;
+                    if (c == '\n') {
+                        if (pos == recordStart) recordStart++;
+                        pos++;
+                        continue;
+                    }
+                }
+                if (closed) {
+                    closed = false;
+                    if (c == '"') { // "" inside a quoted field
+                        quoted = true;
+                        pos++;
+                        continue;
+                    }
+                }
+                // Runs of ordinary characters are skipped in one tight loop
+                int run = pos;
+                if (quoted) {
+                    while (run < limit && (c = buf[run]) != '"' && c != '\n' && c != '\r') run++;
+                } else {
+                    while (run < limit && (c = buf[run]) != ',' && c != '"' && c != '\n' && c != '\r') run++;
+                }
+                if (run > pos) {
+                    if (!quoted) fieldStart = false;
+                    pos = run;
+                    continue;
+                }
+                if (quoted) {
+                    if (c == '"') {
+                        quoted = false;
+                        closed = true;
+                    } else if (c == '\n') {
+                        scanLine++;
+                    } else if (c == '\r') {
+                        scanLine++;
+                        skipLf = true;
+                    }
+                } else if (c == '"' && fieldStart) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fieldStart = true;
+                    pos++;
+                    continue;
+                } else if (c == '\n' || c == '\r') {
+                    if (pos > recordStart) { // blank lines are skipped
+                        bounds[2 * n] = recordStart - start;
+                        bounds[2 * n + 1] = pos - start;
+                        rows[n++] = recordLine;
+                    }
+                    scanLine++;
+                    skipLf = c == '\r';
+                    recordStart = pos + 1;
+                    recordLine = scanLine;
+                    fieldStart = true;
+                    pos++;
+                    continue;
+                }
+                fieldStart = false;
+                pos++;
+            }
+            if (n == 0) return null;
+            // A record cut short by a full buffer is scanned again next time
+            char[] data = Arrays.copyOfRange(buf, start, recordStart);
+            start = recordStart;
+            line = recordLine;
+            return new CsvChunk(columns, data, Arrays.copyOf(bounds, 2 * n), Arrays.copyOf(rows, n));
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    static final class CsvChunk implements Chunk {
+        private final Columns columns;
+        private final char[] data;
+        private final int[] bounds;
+        private final int[] rows;
+
+        CsvChunk(Columns columns, char[] data, int[] bounds, int[] rows) {
+            this.columns = columns;
+            this.data = data;
+            this.bounds = bounds;
+            this.rows = rows;
+        }
+
+        @Override
+        public int size() {
+            return rows.length;
+        }
+
+        @Override
+        public int row(int i) {
+            return rows[i];
+        }
+
+        @Override
+        public Biodata decode(int i) throws MalformedRecordException {
+            return columns.toBiodata(cells(i));
+        }
+
+        List<String> cells(int i) throws MalformedRecordException {
+            int p = bounds[2 * i];
+            int end = bounds[2 * i + 1];
+            List<String> cells = new ArrayList<>(24);
+            while (true) {
+                if (p < end && data[p] == '"') {
+                    StringBuilder field = new StringBuilder();
+                    p++;
+                    while (true) {
+                        if (p >= end) throw new MalformedRecordException("Line " + rows[i] + ": unterminated quoted field");
+                        char c = data[p++];
+                        if (c != '"') {
+                            field.append(c);
+                        } else if (p < end && data[p] == '"') {
+                            field.append('"');
+                            p++;
+                        } else {
+                            break;
+                        }
+                    }
+                    // Anything between the closing quote and the comma belongs to the field
+                    int from = p;
+                    while (p < end && data[p] != ',') p++;
+                    cells.add(field.append(data, from, p - from).toString());
+                } else {
+                    int from = p;
+                    while (p < end && data[p] != ',') p++;
+                    cells.add(new String(data, from, p - from));
+                }
+                if (p >= end) return cells;
+                p++;
+            }
+        }
+    }
+
+    /** One flat JSON object per line; values may be strings, numbers, booleans, null or arrays of those. */
+    static final class JsonLinesSource implements RecordSource {
+        private final BufferedReader in;
+        private int lineNo;
+
+        JsonLinesSource(BufferedReader in) {
+            this.in = in;
+        }
+
+        @Override
+        public Chunk next(int max) throws IOException {
+            List<String> lines = new ArrayList<>(max);
+            int[] rows = new int[max];
+            String line;
+            while (lines.size() < max && (line = in.readLine()) != null) {
+                lineNo++;
+                if (line.trim().isEmpty()) continue;
+                rows[lines.size()] = lineNo;
+                lines.add(line);
+            }
+            if (lines.isEmpty()) return null;
+            return new Chunk() {
+                @Override
+                public int size() {
+                    return lines.size();
+                }
+
+                @Override
+                public int row(int i) {
+                    return rows[i];
+                }
+
+                @Override
+                public Biodata decode(int i) throws MalformedRecordException {
+                    return toBiodata(new JsonLine(lines.get(i), rows[i]).parse());
+                }
+            };
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    /** Parser of one JSONL line. */
+    private static final class JsonLine {
+        private final String line;
+        private final int lineNo;
+        private int pos;
+
+        JsonLine(String line, int lineNo) {
+            this.line = line;
+            this.lineNo = lineNo;
+        }
+
+        Map<String, Object> parse() throws MalformedRecordException {
+            Map<String, Object> record = new HashMap<>();
+            expect('{');
+            skipSpace();
+            if (peek() == '}') return record;
+            while (true) {
+                skipSpace();
+                String key = readString();
+                expect(':');
+                record.put(normalizeKey(key), readValue());
+                skipSpace();
+                char c = nextChar();
+                if (c == '}') return record;
+                if (c != ',') throw error("',' or '}'");
+            }
+        }
+
+        private Object readValue() throws MalformedRecordException {
+            skipSpace();
+            char c = peek();
+            if (c == '"') return readString();
+            if (c == '[') {
+                pos++;
+                List<String> items = new ArrayList<>();
+                skipSpace();
+                if (peek() == ']') {
+                    pos++;
+                    return items;
+                }
+                while (true) {
+                    Object item = readValue();
+                    if (item != null) items.add(item.toString());
+                    skipSpace();
+                    char d = nextChar();
+                    if (d == ']') return items;
+                    if (d != ',') throw error("',' or ']'");
+                }
+            }
+            int start = pos;
+            while (pos < line.length() && ",}] \t".indexOf(line.charAt(pos)) < 0) pos++;
+            String literal = line.substring(start, pos);
+            if (literal.isEmpty()) throw error("a value");
+            return "null".equals(literal) ? null : literal;
+        }
+
+        private String readString() throws MalformedRecordException {
+            expect('"');
+            StringBuilder sb = new StringBuilder();
+            while (true) {
+                char c = nextChar();
+                if (c == '"') return sb.toString();
+                if (c != '\\') {
+                    sb.append(c);
+                    continue;
+                }
+                char e = nextChar();
+                switch (e) {
+                    case 'n': sb.append('\n'); break;
+                    case 'r': sb.append('\r'); break;
+                    case 't': sb.append('\t'); break;
+                    case 'b': sb.append('\b'); break;
+                    case 'f': sb.append('\f'); break;
+                    case 'u':
+                        if (pos + 4 > line.length()) throw error("four hex digits");
+                        try {
+                            sb.append((char) Integer.parseInt(line.substring(pos, pos + 4), 16));
+                        } catch (NumberFormatException ex) {
+                            throw error("four hex digits");
+                        }
+                        pos += 4;
+                        break;
+                    default: sb.append(e);
+                }
+            }
+        }
+
+        private void expect(char c) throws MalformedRecordException {
+            skipSpace();
+            if (pos >= line.length() || line.charAt(pos) != c) throw error("'" + c + "'");
+            pos++;
+        }
+
+        private char nextChar() throws MalformedRecordException {
+            char c = peek();
+            pos++;
+            return c;
+        }
+
+        private char peek() throws MalformedRecordException {
+            if (pos >= line.length()) throw error("more input");
+            return line.charAt(pos);
+        }
+
+        private void skipSpace() {
+            while (pos < line.length() && Character.isWhitespace(line.charAt(pos))) pos++;
+        }
+
+        private MalformedRecordException error(String expected) {
+            return new MalformedRecordException("Line " + lineNo + ": malformed JSON, expected "
+                + expected + " at column " + (pos + 1));
+        }
+    }
+}
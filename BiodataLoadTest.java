@@ -0,0 +1,167 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+import java.io.*;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Load test for the biodata HTTP service
+ * Posts synthetic records to POST /biodata from a number of concurrent
+ * clients over keep-alive connections and reports throughput, latency
+ * percentiles and response codes. Without --url it starts a
+ * {@link BiodataServer} on a free localhost port for the run.
+ *
+ * Usage: java codeshere.experiments.BiodataLoadTest [--url http://localhost:8080] [--clients N] [--requests N] [--warmup N] [--format txt|html|md|json|pdf] [--threads N]
+ */
+public final class BiodataLoadTest {
+
+    private BiodataLoadTest() {}
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+
+        String url = null;
+        int clients = 16;
+        int requests = 20_000;
+        int warmup = 2_000;
+        String format = "txt";
+        int threads = Runtime.getRuntime().availableProcessors() * 2;
+        for (int i = 0; i < args.length; i++) {
+            if ("--url".equals(args[i]) && i + 1 < args.length) {
+                url = args[++i];
+            } else if ("--clients".equals(args[i]) && i + 1 < args.length) {
+                clients = Integer.parseInt(args[++i]);
+            } else if ("--requests".equals(args[i]) && i + 1 < args.length) {
+                requests = Integer.parseInt(args[++i]);
+            } else if ("--warmup".equals(args[i]) && i + 1 < args.length) {
+                warmup = Integer.parseInt(args[++i]);
+            } else if ("--format".equals(args[i]) && i + 1 < args.length) {
+                format = args[++i];
+            } else if ("--threads".equals(args[i]) && i + 1 < args.length) {
+                threads = Integer.parseInt(args[++i]);
+            } else {
+                System.err.println("Usage: BiodataLoadTest [--url http://localhost:8080] [--clients N] [--requests N] [--warmup N] [--format txt|html|md|json|pdf] [--threads N]");
+                System.exit(2);
+            }
+        }
+
+        BiodataServer server = null;
+        if (url == null) {
+            server = BiodataServer.start(new InetSocketAddress("localhost", 0), threads, null);
+            url = "http://localhost:" + server.port();
+            System.out.println("Started a server on " + url + " ("
+                + (server.virtualThreads() ? "virtual threads" : threads + " threads") + ")");
+        }
+        try {
+            URL endpoint = new URL(url.replaceAll("/+$", "") + "/biodata?format=" + format);
+            byte[][] bodies = bodies(256);
+            if (warmup > 0) run(endpoint, bodies, clients, warmup);
+            Result result = run(endpoint, bodies, clients, requests);
+            System.out.println(result);
+        } finally {
+            if (server != null) server.close();
+        }
+    }
+
+    /** Totals of one run. */
+    static final class Result {
+        final int requests;
+        final int clients;
+        final long nanos;
+        final long bytes;
+        final LatencyStats latency;
+        final Map<Integer, Integer> statuses;
+        final int failures;
+
+        Result(int requests, int clients, long nanos, long bytes, LatencyStats latency,
+               Map<Integer, Integer> statuses, int failures) {
+            this.requests = requests;
+            this.clients = clients;
+            this.nanos = nanos;
+            this.bytes = bytes;
+            this.latency = latency;
+            this.statuses = statuses;
+            this.failures = failures;
+        }
+
+        @Override
+        public String toString() {
+            double seconds = nanos / 1e9;
+            return String.format(Locale.ROOT, "%d requests from %d clients in %.2f s: %.0f requests/s, %.2f MB/s%n%s%n"
+                    + "Responses by status: %s%s",
+                requests, clients, seconds, requests / seconds, bytes / seconds / (1 << 20), latency, statuses,
+                failures > 0 ? ", " + failures + " failed to connect or read" : "");
+        }
+    }
+
+    /** Sends {@code requests} records, round robin over {@code bodies}, from {@code clients} threads. */
+    static Result run(URL endpoint, byte[][] bodies, int clients, int requests) throws InterruptedException {
+        AtomicInteger next = new AtomicInteger();
+        AtomicLong bytes = new AtomicLong();
+        AtomicInteger failures = new AtomicInteger();
+        AtomicLongArray statuses = new AtomicLongArray(600);
+        LatencyStats latency = new LatencyStats("latency");
+
+        Thread[] threads = new Thread[clients];
+        long start = System.nanoTime();
+        for (int c = 0; c < clients; c++) {
+            threads[c] = new Thread(() -> {
+                byte[] chunk = new byte[16 * 1024];
+                for (int i; (i = next.getAndIncrement()) < requests; ) {
+                    long t0 = System.nanoTime();
+                    try {
+                        HttpURLConnection connection = (HttpURLConnection) endpoint.openConnection();
+                        connection.setRequestMethod("POST");
+                        connection.setDoOutput(true);
+                        connection.setRequestProperty("Content-Type", "application/json; charset=UTF-8");
+                        byte[] body = bodies[i % bodies.length];
+                        connection.setFixedLengthStreamingMode(body.length);
+                        try (OutputStream out = connection.getOutputStream()) {
+                            out.write(body);
+                        }
+                        int status = connection.getResponseCode();
+                        // Read to the end so the connection goes back to the keep-alive pool
+                        InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+                        long read = 0;
+                        if (in != null) {
+                            try (InputStream response = in) {
+                                for (int n; (n = response.read(chunk)) > 0; ) read += n;
+                            }
+                        }
+                        latency.record(System.nanoTime() - t0);
+                        bytes.addAndGet(read);
+                        statuses.incrementAndGet(Math.min(status, 599));
+                    } catch (IOException e) {
+                        failures.incrementAndGet();
+                    }
+                }
+            }, "load-client-" + c);
+            threads[c].start();
+        }
+        for (Thread t : threads) t.join();
+        long nanos = System.nanoTime() - start;
+
+        Map<Integer, Integer> byStatus = new TreeMap<>();
+        for (int s = 0; s < statuses.length(); s++) {
+            if (statuses.get(s) > 0) byStatus.put(s, (int) statuses.get(s));
+        }
+        return new Result(requests, clients, nanos, bytes.get(), latency, byStatus, failures.get());
+    }
+
+    // JSON bodies of valid synthetic records, as another system would post them
+    private static byte[][] bodies(int count) {
+        JsonBiodataRenderer json = new JsonBiodataRenderer(TextBiodataRenderer.timestamp(new Date()));
+        List<byte[]> bodies = new ArrayList<>(count);
+        for (int i = 0; bodies.size() < count; i++) {
+            Biodata b = BiodataSamples.record(i, BiodataSamples.Size.MEDIUM);
+            if (ValidationEngine.STANDARD.validate(b) == 0) bodies.add(json.render(b).getBytes(StandardCharsets.UTF_8));
+        }
+        return bodies.toArray(new byte[0][]);
+    }
+}
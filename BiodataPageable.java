@@ -0,0 +1,167 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+import javax.print.DocFlavor;
+import javax.print.StreamPrintService;
+import javax.print.StreamPrintServiceFactory;
+import java.awt.*;
+import java.awt.print.*;
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Printable biodata documents
+ * One print job for any number of biodata: each record's document is laid
+ * out at the preview's default width, scaled to the width of the imageable
+ * area and cut into as many pages as it needs. Page breaks are computed once,
+ * when the job is built, at section boundaries; a section is split between
+ * lines only when the page would otherwise be less than half full.
+ *
+ * The {@link BiodataDocument} laid out for pagination is kept and painted
+ * when the record's pages print, so each record is rendered once per job. A
+ * printer asks for the same page several times (once to probe, then once per
+ * band); the repeated calls only repaint the lines inside the page. Pages
+ * print in order, so a record's document is let go once a later record's
+ * page is printed.
+ *
+ * Documents are not Swing components, so the job may be built and printed
+ * off the EDT. The print system calls {@link #print} from one thread at a time.
+ */
+final class BiodataPageable implements Pageable, Printable {
+
+    /** One printed page: a vertical slice of one record's preview. */
+    private static final class Slice {
+        final int record;
+        final int top;
+        final int bottom;
+
+        Slice(int record, int top, int bottom) {
+            this.record = record;
+            this.top = top;
+            this.bottom = bottom;
+        }
+    }
+
+    private final List<Biodata> records;
+    private final SwingBiodataRenderer renderer;
+    private final PageFormat format;
+    private final double scale;
+    private final List<Slice> pages = new ArrayList<>();
+    // By record, laid out during pagination; null once the record is printed
+    private final BiodataDocument[] documents;
+
+    BiodataPageable(List<Biodata> records, SwingBiodataRenderer renderer, PageFormat format) {
+        this.records = new ArrayList<>(records);
+        this.renderer = renderer;
+        this.format = format;
+        this.scale = Math.min(1.0, format.getImageableWidth() / BiodataDocument.DEFAULT_WIDTH);
+        this.documents = new BiodataDocument[this.records.size()];
+        int pageHeight = (int) Math.floor(format.getImageableHeight() / scale);
+        for (int r = 0; r < documents.length; r++) {
+            documents[r] = renderer.document(this.records.get(r));
+            paginate(r, documents[r], pageHeight);
+        }
+    }
+
+    private void paginate(int record, BiodataDocument document, int pageHeight) {
+        int width = BiodataDocument.DEFAULT_WIDTH;
+        int height = document.heightFor(width);
+        int[] sections = document.sectionBreaks(width);
+        int[] lines = document.lineBreaks(width);
+        int top = 0;
+        while (top < height) {
+            int limit = top + pageHeight;
+            int bottom = height;
+            if (limit < height) {
+                bottom = lastBreak(sections, top, limit);
+                if (bottom - top < pageHeight / 2) bottom = Math.max(bottom, lastBreak(lines, top, limit));
+                if (bottom <= top) bottom = limit;
+            }
+            pages.add(new Slice(record, top, bottom));
+            top = bottom;
+        }
+    }
+
+    // The largest break in (from, to], or -1
+    private static int lastBreak(int[] breaks, int from, int to) {
+        int best = -1;
+        for (int b : breaks) {
+            if (b > to) break;
+            if (b > from) best = b;
+        }
+        return best;
+    }
+
+    @Override
+    public int getNumberOfPages() {
+        return pages.size();
+    }
+
+    @Override
+    public PageFormat getPageFormat(int pageIndex) {
+        checkPage(pageIndex);
+        return format;
+    }
+
+    @Override
+    public Printable getPrintable(int pageIndex) {
+        checkPage(pageIndex);
+        return this;
+    }
+
+    @Override
+    public int print(Graphics graphics, PageFormat pageFormat, int pageIndex) {
+        if (pageIndex < 0 || pageIndex >= pages.size()) return NO_SUCH_PAGE;
+        Slice page = pages.get(pageIndex);
+        BiodataDocument document = document(page.record);
+
+        Graphics2D g2d = (Graphics2D) graphics.create();
+        g2d.translate(pageFormat.getImageableX(), pageFormat.getImageableY());
+        g2d.scale(scale, scale);
+        g2d.translate(0, -page.top);
+        g2d.clipRect(0, page.top, BiodataDocument.DEFAULT_WIDTH, page.bottom - page.top);
+        document.paint(g2d, BiodataDocument.DEFAULT_WIDTH);
+        g2d.dispose();
+        return PAGE_EXISTS;
+    }
+
+    private BiodataDocument document(int record) {
+        // The earlier records are done with; one asked for again is laid out again
+        for (int r = record - 1; r >= 0 && documents[r] != null; r--) documents[r] = null;
+        if (documents[record] == null) documents[record] = renderer.document(records.get(record));
+        return documents[record];
+    }
+
+    private void checkPage(int pageIndex) {
+        if (pageIndex < 0 || pageIndex >= pages.size()) {
+            throw new IndexOutOfBoundsException("Page " + pageIndex + " of " + pages.size());
+        }
+    }
+
+    /**
+     * Prints biodata as a single PostScript job into a file through the JDK's
+     * stream print service, exactly as they would go to a printer, and
+     * returns the number of pages. Needs no printer, so it also runs headless.
+     */
+    static int printToFile(List<Biodata> records, SwingBiodataRenderer renderer, File file)
+            throws IOException, PrinterException {
+        StreamPrintServiceFactory[] factories = StreamPrintServiceFactory.lookupStreamPrintServiceFactories(
+            DocFlavor.SERVICE_FORMATTED.PAGEABLE, DocFlavor.BYTE_ARRAY.POSTSCRIPT.getMimeType());
+        if (factories.length == 0) throw new PrinterException("No PostScript print service available");
+
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+            StreamPrintService service = factories[0].getPrintService(out);
+            try {
+                PrinterJob job = PrinterJob.getPrinterJob();
+                job.setPrintService(service);
+                job.setJobName("Professional Biodata");
+                BiodataPageable document = new BiodataPageable(records, renderer, job.defaultPage());
+                job.setPageable(document);
+                job.print();
+                return document.getNumberOfPages();
+            } finally {
+                service.dispose();
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+import javax.swing.*;
+import java.awt.*;
+
+/**
+ * Biodata preview component
+ * Shows a {@link BiodataDocument} as a single component instead of a tree of
+ * labels. The document is laid out at the component's width and only the
+ * lines inside the clip are painted, so scrolling reuses the line layouts.
+ */
+final class BiodataPreview extends JComponent implements Scrollable {
+
+    /** Width used before the component is placed in a window. */
+    static final int DEFAULT_WIDTH = BiodataDocument.DEFAULT_WIDTH;
+
+    private BiodataDocument document;
+
+    BiodataPreview(Color titleColor) {
+        document = BiodataDocument.empty(titleColor);
+        setOpaque(false);
+    }
+
+    /** Replaces the document shown. */
+    void setDocument(BiodataDocument document) {
+        this.document = document;
+        revalidate();
+        repaint();
+    }
+
+    /** The height of the document laid out at a width. */
+    int heightFor(int width) {
+        return document.heightFor(width);
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        int width = getWidth() > 0 ? getWidth() : DEFAULT_WIDTH;
+        return new Dimension(width, heightFor(width));
+    }
+
+    @Override
+    public void setBounds(int x, int y, int width, int height) {
+        boolean resized = width != getWidth();
+        super.setBounds(x, y, width, height);
+        // Wrapping depends on the width, so the preferred height does too
+        if (resized && heightFor(width) != height) revalidate();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        document.paint((Graphics2D) g, getWidth() > 0 ? getWidth() : DEFAULT_WIDTH);
+    }
+
+    // ---- Scrollable: track the viewport width, scroll vertically ----
+
+    @Override
+    public Dimension getPreferredScrollableViewportSize() {
+        return getPreferredSize();
+    }
+
+    @Override
+    public int getScrollableUnitIncrement(Rectangle visible, int orientation, int direction) {
+        return 16;
+    }
+
+    @Override
+    public int getScrollableBlockIncrement(Rectangle visible, int orientation, int direction) {
+        return orientation == SwingConstants.VERTICAL ? visible.height - 16 : visible.width;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportWidth() {
+        return true;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportHeight() {
+        return false;
+    }
+}
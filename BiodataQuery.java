@@ -0,0 +1,79 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+import java.util.*;
+
+/**
+ * Search criteria for saved biodata
+ * Every criterion that is set must match: all words of the text (searched in
+ * About Me and Achievements), every listed skill and hobby, the branch, the
+ * semester and the CGPA range. An empty query matches every record.
+ *
+ * For example, CSE semester-6 students with Java and Machine Learning and a
+ * CGPA above 8:
+ *
+ *     new BiodataQuery.Builder()
+ *         .branch("Computer Science & Engineering").semester("6th Semester")
+ *         .skill("Java Programming").skill("Machine Learning")
+ *         .cgpaAbove(8).build();
+ */
+final class BiodataQuery {
+
+    final String text;
+    final List<String> skills;
+    final List<String> hobbies;
+    final String branch;
+    final String semester;
+    final float minCgpa;
+    final float maxCgpa;
+
+    private BiodataQuery(Builder b) {
+        text = b.text;
+        skills = Collections.unmodifiableList(new ArrayList<>(b.skills));
+        hobbies = Collections.unmodifiableList(new ArrayList<>(b.hobbies));
+        branch = b.branch;
+        semester = b.semester;
+        minCgpa = b.minCgpa;
+        maxCgpa = b.maxCgpa;
+    }
+
+    /** True when a CGPA bound is set, which excludes records without a CGPA. */
+    boolean hasCgpaRange() {
+        return minCgpa != Float.NEGATIVE_INFINITY || maxCgpa != Float.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Builder for queries. Blank text, branch or semester means "any", the
+     * same way an unselected combo box does in the form.
+     */
+    static final class Builder {
+        private String text = "";
+        private final List<String> skills = new ArrayList<>();
+        private final List<String> hobbies = new ArrayList<>();
+        private String branch = "";
+        private String semester = "";
+        private float minCgpa = Float.NEGATIVE_INFINITY;
+        private float maxCgpa = Float.POSITIVE_INFINITY;
+
+        Builder text(String v) { text = v.trim(); return this; }
+        Builder skill(String v) { skills.add(v); return this; }
+        Builder hobby(String v) { hobbies.add(v); return this; }
+        Builder branch(String v) { branch = v.trim(); return this; }
+        Builder semester(String v) { semester = v.trim(); return this; }
+
+        /** CGPA of at least {@code min}. */
+        Builder cgpaAtLeast(double min) { minCgpa = (float) min; return this; }
+
+        /** CGPA strictly greater than {@code min}. */
+        Builder cgpaAbove(double min) { minCgpa = Math.nextUp((float) min); return this; }
+
+        /** CGPA of at most {@code max}. */
+        Builder cgpaAtMost(double max) { maxCgpa = (float) max; return this; }
+
+        /** CGPA strictly less than {@code max}. */
+        Builder cgpaBelow(double max) { maxCgpa = Math.nextDown((float) max); return this; }
+
+        BiodataQuery build() {
+            return new BiodataQuery(this);
+        }
+    }
+}
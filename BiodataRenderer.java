@@ -0,0 +1,14 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+/**
+ * Biodata renderer
+ * Turns a {@link Biodata} snapshot into one output form (text, Swing panel,
+ * PDF document). Renderers never read the Swing form, so they can run off
+ * the EDT and be reused across many snapshots.
+ *
+ * @param <T> the rendered output type
+ */
+interface BiodataRenderer<T> {
+
+    T render(Biodata biodata);
+}
@@ -0,0 +1,100 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Synthetic biodata
+ * Deterministic students, cohorts and photos for the JMH benchmarks and the
+ * HTTP load test: the same index and size always give the same record.
+ */
+final class BiodataSamples {
+
+    /** Synthetic record sizes: required fields only, a typical form, and a long profile. */
+    enum Size { SMALL, MEDIUM, LARGE }
+
+    private BiodataSamples() {}
+
+    static Biodata[] records(Size size, int count) {
+        Biodata[] records = new Biodata[count];
+        for (int i = 0; i < count; i++) {
+            records[i] = record(i, size);
+        }
+        return records;
+    }
+
+    /** A deterministic synthetic student; every fifth record has one invalid field. */
+    static Biodata record(int i, Size size) {
+        Random rnd = new Random(i * 31L + size.ordinal());
+        Biodata.Builder b = new Biodata.Builder()
+            .name("Student " + i + " " + (char) ('A' + rnd.nextInt(26)) + "urname")
+            .age(i % 5 == 1 ? "15" : String.valueOf(17 + rnd.nextInt(10)))
+            .regd("REG" + (100000 + i))
+            .branch(i % 5 == 2 ? "" : Biodata.BRANCH_OPTIONS[rnd.nextInt(Biodata.BRANCH_OPTIONS.length)])
+            .semester(Biodata.SEMESTER_OPTIONS[i % Biodata.SEMESTER_OPTIONS.length])
+            .phone(i % 5 == 3 ? "12345" : String.valueOf(6000000000L + rnd.nextInt(999999999)))
+            .email(i % 5 == 4 ? "not-an-email" : "student" + i + "@example.edu");
+        if (size == Size.SMALL) return b.build();
+
+        b.gender(Biodata.GENDER_OPTIONS[i % 2])
+            .cgpa(String.format(Locale.ROOT, "%.2f", rnd.nextDouble() * 10))
+            .college("Institute of Technology")
+            .linkedin("linkedin.com/in/student" + i)
+            .address(i + " Main Road\nCity");
+        int options = size == Size.LARGE ? Biodata.SKILL_OPTIONS.length : 3;
+        for (int k = 0; k < options; k++) {
+            b.addSkill(Biodata.SKILL_OPTIONS[(i + k) % Biodata.SKILL_OPTIONS.length]);
+            b.addHobby(Biodata.HOBBY_OPTIONS[(i + k) % Biodata.HOBBY_OPTIONS.length]);
+        }
+        b.otherSkills("Rust, Kotlin").otherHobbies("Chess");
+        if (size == Size.MEDIUM) return b.about("Final year student interested in systems.").build();
+
+        StringBuilder about = new StringBuilder();
+        StringBuilder achievements = new StringBuilder();
+        for (int k = 0; k < 40; k++) {
+            about.append("Sentence ").append(k).append(" about interests, internships and goals. ");
+            achievements.append("- Project ").append(k).append(": built and shipped a working prototype.\n");
+        }
+        return b.github("github.com/student" + i).about(about.toString())
+            .achievements(achievements.toString()).build();
+    }
+
+    /** Synthetic cohort columns: every option used, some blanks, CGPAs spread over 4-10. */
+    static CohortColumns columns(int count) {
+        Random rnd = new Random(count);
+        double[] cgpa = new double[count];
+        byte[] branch = new byte[count];
+        byte[] semester = new byte[count];
+        byte[] gender = new byte[count];
+        byte[] age = new byte[count];
+        long[] skills = new long[count];
+        for (int i = 0; i < count; i++) {
+            cgpa[i] = i % 20 == 0 ? Double.NaN : Math.round((4 + rnd.nextDouble() * 6) * 100) / 100.0;
+            branch[i] = (byte) rnd.nextInt(Biodata.BRANCH_OPTIONS.length + 1);
+            semester[i] = (byte) (1 + rnd.nextInt(Biodata.SEMESTER_OPTIONS.length));
+            gender[i] = (byte) rnd.nextInt(Biodata.GENDER_OPTIONS.length + 1);
+            age[i] = (byte) (17 + rnd.nextInt(10));
+            skills[i] = rnd.nextLong() & ((1L << Biodata.SKILL_OPTIONS.length) - 1);
+        }
+        return new CohortColumns(cgpa, branch, semester, gender, age, skills,
+            new CohortColumns.Dictionary(Biodata.BRANCH_OPTIONS).values(),
+            new CohortColumns.Dictionary(Biodata.SEMESTER_OPTIONS).values(),
+            new CohortColumns.Dictionary(Biodata.GENDER_OPTIONS).values());
+    }
+
+    /** A phone-camera-like photo: a gradient with a face-sized oval. */
+    static BufferedImage photo(int width, int height) {
+        BufferedImage img = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = img.createGraphics();
+        g.setPaint(new GradientPaint(0, 0, Color.ORANGE, width, height, Color.BLUE));
+        g.fillRect(0, 0, width, height);
+        g.setColor(Color.WHITE);
+        g.fillOval(width / 4, height / 6, width / 2, height / 2);
+        g.dispose();
+        return img;
+    }
+}
@@ -0,0 +1,371 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.awt.Color;
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Biodata HTTP service
+ * Serves biodata generation to other programs over HTTP with the JDK's
+ * built-in server, with no window. Records are sent as one JSON object with
+ * the batch input keys (name, age, regd, ..., skills, hobbies) and checked
+ * with the form's rules:
+ *
+ *     GET  /health                    200 OK
+ *     POST /validate                  {"valid":true} or {"valid":false,"errors":[...]}
+ *     POST /biodata?format=txt        the document: txt, html, md, json or pdf
+ *     POST /records                   saves the record (with --store), 201 + Location
+ *     GET  /records/{regd}?format=txt a saved record as a document
+ *
+ * An invalid record gets 422 with the same error list as /validate, a body
+ * that is not JSON 400. Photo paths in requests are ignored: they would name
+ * files on the server.
+ *
+ * Handlers run on a virtual thread each when the JVM has them (Java 21 and
+ * later), otherwise on a fixed pool of platform threads.
+ *
+ * Usage: java codeshere.experiments.BiodataServer [--port N] [--bind address] [--threads N] [--store dir]
+ */
+public final class BiodataServer implements Closeable {
+
+    static final int DEFAULT_PORT = 8080;
+    static final int MAX_BODY = 1 << 20;
+
+    private static final Color TITLE_COLOR = new Color(25, 25, 35); // the form's preview
+
+    /** A document format a record can be downloaded in. */
+    private enum Format {
+        TXT("text/plain; charset=UTF-8"),
+        HTML("text/html; charset=UTF-8"),
+        MD("text/markdown; charset=UTF-8"),
+        JSON("application/json; charset=UTF-8"),
+        PDF("application/pdf");
+
+        final String contentType;
+
+        Format(String contentType) {
+            this.contentType = contentType;
+        }
+    }
+
+    /** A response other than 200, with its JSON or text body. */
+    private static final class HttpError extends Exception {
+        final int status;
+        final String body;
+
+        HttpError(int status, String body) {
+            super(body, null, false, false);
+            this.status = status;
+            this.body = body;
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final BiodataStore store;
+    private final boolean virtualThreads;
+
+    private BiodataServer(HttpServer server, ExecutorService executor, boolean virtualThreads, BiodataStore store) {
+        this.server = server;
+        this.executor = executor;
+        this.virtualThreads = virtualThreads;
+        this.store = store;
+    }
+
+    /**
+     * Starts a server on {@code address} (port 0 picks a free one).
+     *
+     * @param threads the size of the handler pool when there are no virtual threads
+     * @param store where POST /records saves records, or null to leave /records out
+     */
+    static BiodataServer start(InetSocketAddress address, int threads, BiodataStore store) throws IOException {
+        // Responses are small: without TCP_NODELAY each one waits for the client's delayed ACK (~40 ms)
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        HttpServer server = HttpServer.create(address, 0);
+        ExecutorService executor = virtualThreadExecutor();
+        boolean virtual = executor != null;
+        if (executor == null) executor = Executors.newFixedThreadPool(Math.max(1, threads), new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "biodata-http-" + count.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            }
+        });
+        BiodataServer biodataServer = new BiodataServer(server, executor, virtual, store);
+        server.setExecutor(executor);
+        server.createContext("/health", biodataServer.handler("GET", exchange -> {
+            send(exchange, 200, "text/plain; charset=UTF-8", "OK\n".getBytes(StandardCharsets.UTF_8));
+        }));
+        server.createContext("/validate", biodataServer.handler("POST", exchange -> {
+            int errors = ValidationEngine.STANDARD.validate(readRecord(exchange));
+            sendJson(exchange, 200, validation(errors));
+        }));
+        server.createContext("/biodata", biodataServer.handler("POST", exchange -> {
+            Format format = format(exchange);
+            sendDocument(exchange, format, validRecord(exchange));
+        }));
+        if (store != null) {
+            server.createContext("/records", biodataServer.handler(null, biodataServer::records));
+        }
+        server.start();
+        return biodataServer;
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor() on Java 21 and later, otherwise null
+    private static ExecutorService virtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    int port() {
+        return server.getAddress().getPort();
+    }
+
+    boolean virtualThreads() {
+        return virtualThreads;
+    }
+
+    /** Stops accepting requests, lets running ones finish for up to a second and stops. */
+    @Override
+    public void close() {
+        server.stop(1);
+        executor.shutdown();
+    }
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+
+        int port = DEFAULT_PORT;
+        String bind = "localhost";
+        int threads = Runtime.getRuntime().availableProcessors() * 2;
+        String storeDirectory = null;
+        for (int i = 0; i < args.length; i++) {
+            if ("--port".equals(args[i]) && i + 1 < args.length) {
+                port = Integer.parseInt(args[++i]);
+            } else if ("--bind".equals(args[i]) && i + 1 < args.length) {
+                bind = args[++i];
+            } else if ("--threads".equals(args[i]) && i + 1 < args.length) {
+                threads = Integer.parseInt(args[++i]);
+            } else if ("--store".equals(args[i]) && i + 1 < args.length) {
+                storeDirectory = args[++i];
+            } else {
+                System.err.println("Usage: BiodataServer [--port N] [--bind address] [--threads N] [--store dir]");
+                System.exit(2);
+            }
+        }
+
+        try {
+            BiodataStore store = storeDirectory == null ? null : BiodataStore.open(new File(storeDirectory));
+            if (store != null && store.recovered() != null) System.err.println("Store recovered: " + store.recovered());
+            BiodataServer server = start(new InetSocketAddress(bind, port), threads, store);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                server.close();
+                if (store != null) store.close();
+            }));
+            System.out.println("Serving biodata on http://" + bind + ":" + server.port() + "/ ("
+                + (server.virtualThreads() ? "virtual threads" : threads + " threads")
+                + (store != null ? ", records in " + storeDirectory : "") + ")");
+        } catch (IOException e) {
+            System.err.println("Cannot start the server: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /** Handles one request; an {@link HttpError} becomes its response. */
+    private interface Action {
+        void handle(HttpExchange exchange) throws IOException, HttpError;
+    }
+
+    // Wraps an action with the method check and the error responses
+    private HttpHandler handler(String method, Action action) {
+        return exchange -> {
+            try {
+                if (method != null && !method.equals(exchange.getRequestMethod())) {
+                    exchange.getResponseHeaders().set("Allow", method);
+                    throw new HttpError(405, method + " only\n");
+                }
+                action.handle(exchange);
+            } catch (HttpError e) {
+                send(exchange, e.status, e.body.startsWith("{") ? Format.JSON.contentType : Format.TXT.contentType,
+                    e.body.getBytes(StandardCharsets.UTF_8));
+            } catch (IOException | RuntimeException e) {
+                try {
+                    send(exchange, 500, Format.TXT.contentType, (e + "\n").getBytes(StandardCharsets.UTF_8));
+                } catch (IOException ignored) {
+                    // the client is gone
+                }
+            } finally {
+                exchange.close();
+            }
+        };
+    }
+
+    // POST /records and GET /records/{regd}
+    private void records(HttpExchange exchange) throws IOException, HttpError {
+        String path = exchange.getRequestURI().getPath();
+        String method = exchange.getRequestMethod();
+        if ("/records".equals(path) || "/records/".equals(path)) {
+            if (!"POST".equals(method)) {
+                exchange.getResponseHeaders().set("Allow", "POST");
+                throw new HttpError(405, "POST only\n");
+            }
+            Biodata b = validRecord(exchange);
+            store.put(b);
+            String key = BiodataStore.key(b.regd);
+            exchange.getResponseHeaders().set("Location",
+                "/records/" + URLEncoder.encode(key, "UTF-8").replace("+", "%20"));
+            StringBuilder json = new StringBuilder("{\"regd\":");
+            JsonBiodataRenderer.string(key, json);
+            sendJson(exchange, 201, json.append("}\n").toString());
+            return;
+        }
+        if (!"GET".equals(method)) {
+            exchange.getResponseHeaders().set("Allow", "GET");
+            throw new HttpError(405, "GET only\n");
+        }
+        Format format = format(exchange);
+        Biodata b = path.startsWith("/records/") ? store.get(path.substring("/records/".length())) : null;
+        if (b == null) throw new HttpError(404, "No record " + path.substring(path.lastIndexOf('/') + 1) + "\n");
+        sendDocument(exchange, format, b);
+    }
+
+    // The record in the request body, without its photo
+    private static Biodata readRecord(HttpExchange exchange) throws IOException, HttpError {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(2048);
+        byte[] buffer = new byte[8192];
+        try (InputStream in = exchange.getRequestBody()) {
+            for (int n; (n = in.read(buffer)) > 0; ) {
+                body.write(buffer, 0, n);
+                if (body.size() > MAX_BODY) throw new HttpError(413, "A record is at most " + MAX_BODY + " bytes\n");
+            }
+        }
+        try {
+            Biodata b = BiodataImporter.fromJson(new String(body.toByteArray(), StandardCharsets.UTF_8));
+            return b.photoPath.isEmpty() ? b : b.withPhotoPath("");
+        } catch (BiodataImporter.MalformedRecordException e) {
+            throw new HttpError(400, e.getMessage() + "\n");
+        }
+    }
+
+    private static Biodata validRecord(HttpExchange exchange) throws IOException, HttpError {
+        Biodata b = readRecord(exchange);
+        int errors = ValidationEngine.STANDARD.validate(b);
+        if (errors != 0) throw new HttpError(422, validation(errors));
+        return b;
+    }
+
+    // {"valid":false,"errors":[{"code":"AGE_RANGE","field":"age","message":"..."}]}
+    private static String validation(int errors) throws IOException {
+        StringBuilder json = new StringBuilder(128).append("{\"valid\":").append(errors == 0);
+        if (errors != 0) {
+            json.append(",\"errors\":[");
+            String separator = "";
+            for (ValidationError e : ValidationError.values()) {
+                if (!e.in(errors)) continue;
+                json.append(separator).append("{\"code\":\"").append(e.name()).append("\",\"field\":");
+                JsonBiodataRenderer.string(e.field.key, json);
+                json.append(",\"message\":");
+                JsonBiodataRenderer.string(e.message, json);
+                json.append('}');
+                separator = ",";
+            }
+            json.append(']');
+        }
+        return json.append("}\n").toString();
+    }
+
+    private static Format format(HttpExchange exchange) throws HttpError {
+        String format = query(exchange, "format");
+        if (format == null || format.isEmpty()) return Format.TXT;
+        try {
+            return Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new HttpError(400, "Unknown format " + format + "; use txt, html, md, json or pdf\n");
+        }
+    }
+
+    private static String query(HttpExchange exchange, String name) {
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) return null;
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            if (!name.equals(key)) continue;
+            try {
+                return eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), "UTF-8");
+            } catch (UnsupportedEncodingException e) {
+                throw new IllegalStateException(e); // every JVM has UTF-8
+            }
+        }
+        return null;
+    }
+
+    // The same documents as Export to File, dated now, always UTF-8
+    private static void sendDocument(HttpExchange exchange, Format format, Biodata b) throws IOException, HttpError {
+        Date now = new Date();
+        byte[] document;
+        switch (format) {
+            case PDF:
+                ByteArrayOutputStream pdf = new ByteArrayOutputStream(16 * 1024);
+                try {
+                    new PdfBiodataRenderer(TITLE_COLOR, PdfBiodataRenderer.timestamp(now)).write(b, pdf);
+                } catch (PdfTrueTypeFont.UnprintableTextException e) {
+                    throw new HttpError(422, e.getMessage() + "\n");
+                }
+                document = pdf.toByteArray();
+                break;
+            case JSON:
+                document = utf8(new JsonBiodataRenderer(TextBiodataRenderer.timestamp(now)).render(b));
+                break;
+            case HTML:
+                document = utf8(BiodataTemplate.HTML.render(b, TextBiodataRenderer.timestamp(now)));
+                break;
+            case MD:
+                document = utf8(BiodataTemplate.MARKDOWN.render(b, TextBiodataRenderer.timestamp(now)));
+                break;
+            default:
+                document = utf8(new TextBiodataRenderer(TextBiodataRenderer.timestamp(now)).render(b));
+        }
+        // Named like the file Export to File suggests
+        String fileName = (b.name.replaceAll("\\s+", "_") + "_biodata." + format.name().toLowerCase(Locale.ROOT))
+            .replaceAll("[\\\\/:*?\"<>|\\p{Cntrl}]", "_");
+        exchange.getResponseHeaders().set("Content-Disposition", "attachment; filename=\"" + fileName + "\"");
+        send(exchange, 200, format.contentType, document);
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, String json) throws IOException {
+        send(exchange, status, Format.JSON.contentType, utf8(json));
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static byte[] utf8(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+}
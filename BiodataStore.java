@@ -0,0 +1,289 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Local biodata store
+ * Keeps every saved biodata in a {@link RecordLog}. Saving appends the encoded
+ * record; the newest record for a registration number wins. On open the log
+ * is scanned once, without copying, to build in-memory indexes: registration
+ * number to log address, and branch, semester and email to registration
+ * numbers, so a lookup is one hash probe plus one decode from the mapping.
+ * A {@link SearchIndex} over the same records answers faceted and full-text
+ * queries.
+ */
+final class BiodataStore implements Closeable {
+
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    private static final long SYNC_MILLIS = 1000;
+
+    /** Where a record lives in the log, plus the values it is indexed under. */
+    private static final class Entry {
+        final long address;
+        final String branch;
+        final String semester;
+        final String email;
+
+        Entry(long address, Biodata b) {
+            this.address = address;
+            this.branch = b.branch;
+            this.semester = b.semester;
+            this.email = normalizeEmail(b.email);
+        }
+    }
+
+    private final File directory;
+    private final RecordLog log;
+
+    private final Map<String, Entry> primary = new HashMap<>();
+    private final Map<String, Set<String>> byBranch = new HashMap<>();
+    private final Map<String, Set<String>> bySemester = new HashMap<>();
+    private final Map<String, Set<String>> byEmail = new HashMap<>();
+    private final SearchIndex search = new SearchIndex();
+    private PhotoStore photos;
+
+    private BiodataStore(File directory, RecordLog log) {
+        this.directory = directory;
+        this.log = log;
+    }
+
+    /** The store directory: -Dbiodata.store, or ".biodata" in the user's home. */
+    static File defaultDirectory() {
+        String configured = System.getProperty("biodata.store");
+        return configured != null ? new File(configured) : new File(System.getProperty("user.home"), ".biodata");
+    }
+
+    static BiodataStore open(File directory) throws IOException {
+        RecordLog log = new RecordLog(directory, RecordLog.DEFAULT_SEGMENT_SIZE, SYNC_MILLIS);
+        BiodataStore store = new BiodataStore(directory, log);
+        try {
+            store.load();
+        } catch (IOException | RuntimeException e) {
+            log.close();
+            throw e;
+        }
+        return store;
+    }
+
+    /** Normalized primary key: the trimmed registration number. */
+    static String key(String regd) {
+        return regd.trim();
+    }
+
+    static String normalizeEmail(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    synchronized int size() {
+        return primary.size();
+    }
+
+    /** Every saved registration number, in order. */
+    synchronized List<String> keys() {
+        List<String> keys = new ArrayList<>(primary.keySet());
+        Collections.sort(keys);
+        return keys;
+    }
+
+    synchronized boolean contains(String regd) {
+        return primary.containsKey(key(regd));
+    }
+
+    /**
+     * Saves a biodata, replacing any earlier one with the same registration
+     * number, and returns the size of the encoded record.
+     */
+    int put(Biodata b) throws IOException {
+        String key = key(b.regd);
+        if (key.isEmpty()) throw new IllegalArgumentException("Registration Number is required");
+        // Encode outside the lock so parallel savers only serialize on the append
+        byte[] payload = BiodataCodec.encode(b);
+        synchronized (this) {
+            index(key, log.append(PUT, payload), b);
+        }
+        return payload.length;
+    }
+
+    synchronized Biodata get(String regd) {
+        Entry e = primary.get(key(regd));
+        return e == null ? null : read(e);
+    }
+
+    /** The saved biodata of each registration number, or null where there is none. */
+    synchronized List<Biodata> getAll(List<String> regds) {
+        List<Biodata> result = new ArrayList<>(regds.size());
+        for (String regd : regds) {
+            Entry e = primary.get(key(regd));
+            result.add(e == null ? null : read(e));
+        }
+        return result;
+    }
+
+    synchronized boolean delete(String regd) throws IOException {
+        String key = key(regd);
+        if (!primary.containsKey(key)) return false;
+        log.append(DELETE, key.getBytes(StandardCharsets.UTF_8));
+        unindex(key);
+        return true;
+    }
+
+    synchronized List<Biodata> findByBranch(String branch) {
+        return readAll(byBranch.get(branch));
+    }
+
+    synchronized List<Biodata> findBySemester(String semester) {
+        return readAll(bySemester.get(semester));
+    }
+
+    synchronized List<Biodata> findByEmail(String email) {
+        return readAll(byEmail.get(normalizeEmail(email)));
+    }
+
+    /** The records matching a query, in the order they were saved, at most {@code limit} of them. */
+    synchronized List<Biodata> search(BiodataQuery query, int limit) {
+        return readAll(search.search(query, limit));
+    }
+
+    /** The records whose skills and hobbies are most alike those of a saved record, best first. */
+    synchronized List<Biodata> findSimilar(String regd, int limit) {
+        return readAll(search.similar(key(regd), limit));
+    }
+
+    /**
+     * Groups of saved records that probably describe the same student (see
+     * {@link DuplicateDetector}), in registration number order. Only the list
+     * of log addresses is taken under the lock; records are decoded once and
+     * compared without it, so saving and lookups go on during the scan.
+     */
+    List<List<Biodata>> findDuplicates() {
+        List<Entry> entries;
+        synchronized (this) {
+            entries = new ArrayList<>(primary.values());
+        }
+        Biodata[] records = new Biodata[entries.size()];
+        DuplicateDetector detector = new DuplicateDetector();
+        for (int i = 0; i < records.length; i++) {
+            records[i] = read(entries.get(i));
+            detector.add(i, records[i]);
+        }
+        List<List<Biodata>> groups = new ArrayList<>();
+        for (DuplicateDetector.Cluster cluster : detector.clusters()) {
+            List<Biodata> group = new ArrayList<>(cluster.ids.length);
+            for (int id : cluster.ids) group.add(records[id]);
+            group.sort(Comparator.comparing(b -> b.regd));
+            groups.add(group);
+        }
+        groups.sort(Comparator.comparing(group -> group.get(0).regd));
+        return groups;
+    }
+
+    /** The registration numbers of every record matching a query, in the given order. */
+    synchronized List<String> list(BiodataQuery query, SearchIndex.Order order, boolean descending) {
+        return search.list(query, order, descending);
+    }
+
+    /** A columnar copy of the values cohort statistics are computed from. */
+    synchronized CohortColumns columns() {
+        return search.columns();
+    }
+
+    /**
+     * Writes the columns to {@link CohortSnapshot#FILE_NAME} in the store
+     * directory, where analytical queries can scan them without the store.
+     */
+    void writeSnapshot() throws IOException {
+        CohortSnapshot.write(columns(), new File(directory, CohortSnapshot.FILE_NAME));
+    }
+
+    /**
+     * The {@link PhotoStore} in the store directory's photo folder, opened on
+     * first use and closed with the store.
+     */
+    synchronized PhotoStore photos() throws IOException {
+        if (photos == null) photos = PhotoStore.open(directory);
+        return photos;
+    }
+
+    /** The number of records matching a query. */
+    synchronized int count(BiodataQuery query) {
+        return search.count(query);
+    }
+
+    /** Forces saved records and photos to disk now rather than at the next periodic sync. */
+    void flush() {
+        PhotoStore p;
+        synchronized (this) {
+            p = photos;
+        }
+        // Photos first, so a flushed record never refers to a photo that is not on disk
+        if (p != null) p.flush();
+        log.sync();
+    }
+
+    /** What opening the store cut off the log after a crash, or null if nothing. */
+    String recovered() {
+        return log.recovered();
+    }
+
+    @Override
+    public void close() {
+        log.close();
+        synchronized (this) {
+            if (photos != null) photos.close();
+        }
+    }
+
+    private List<Biodata> readAll(Collection<String> keys) {
+        if (keys == null) return Collections.emptyList();
+        List<Biodata> result = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            result.add(read(primary.get(key)));
+        }
+        return result;
+    }
+
+    private Biodata read(Entry e) {
+        return BiodataCodec.decode(log.read(e.address));
+    }
+
+    private void index(String key, long address, Biodata b) {
+        unindex(key);
+        Entry entry = new Entry(address, b);
+        primary.put(key, entry);
+        byBranch.computeIfAbsent(entry.branch, k -> new HashSet<>()).add(key);
+        bySemester.computeIfAbsent(entry.semester, k -> new HashSet<>()).add(key);
+        byEmail.computeIfAbsent(entry.email, k -> new HashSet<>()).add(key);
+        search.add(key, b);
+    }
+
+    private void unindex(String key) {
+        Entry old = primary.remove(key);
+        if (old == null) return;
+        remove(byBranch, old.branch, key);
+        remove(bySemester, old.semester, key);
+        remove(byEmail, old.email, key);
+        search.remove(key);
+    }
+
+    private static void remove(Map<String, Set<String>> index, String value, String key) {
+        Set<String> keys = index.get(value);
+        if (keys != null && keys.remove(key) && keys.isEmpty()) index.remove(value);
+    }
+
+    private void load() throws IOException {
+        log.scan((address, type, payload) -> {
+            if (type == PUT) {
+                Biodata b = BiodataCodec.decode(payload);
+                index(key(b.regd), address, b);
+            } else if (type == DELETE) {
+                unindex(StandardCharsets.UTF_8.decode(payload).toString());
+            } else {
+                throw new IOException("Unknown record type " + type + " at " + Long.toHexString(address));
+            }
+        });
+    }
+}
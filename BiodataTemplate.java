@@ -0,0 +1,544 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+
+/**
+ * Biodata document template
+ * A text, HTML or Markdown layout of the biodata with placeholders for the
+ * fields, so an institution can change labels, order and markup without
+ * touching the code. A template is parsed once into a flat instruction list
+ * (append literal, append field, jump when a field is blank) with every
+ * field name resolved to a {@link BiodataField}; rendering a record just
+ * walks that list, with no parsing, lookups or reflection.
+ *
+ * Syntax:
+ * <pre>
+ *   {{name}}                   the field's value, escaped for the output format
+ *   {{branch|Not specified}}   the value, or the text after '|' when it is blank
+ *   {{#about}} ... {{/about}}  included only when the field is not blank
+ *   {{^about}} ... {{/about}}  included only when the field is blank
+ *   {{! comment }}             ignored
+ * </pre>
+ * Field names are the batch input keys (name, age, gender, photo, regd,
+ * branch, semester, cgpa, college, phone, email, linkedin, github, address,
+ * otherSkills, otherHobbies, about, achievements) plus skills and hobbies
+ * (options and custom entries as one line) and generatedOn. The section
+ * {{#additional}} is included when About Me or Achievements is filled in.
+ * A line holding nothing but a section tag or comment produces no output.
+ *
+ * Immutable and thread-safe.
+ */
+final class BiodataTemplate {
+
+    /** Output format: how values are escaped and how template lines end. */
+    enum Format {
+        TEXT("txt", System.lineSeparator()) {
+            @Override
+            void appendValue(String value, Appendable out) throws IOException {
+                out.append(value);
+            }
+        },
+        HTML("html", "\n") {
+            @Override
+            void appendValue(String value, Appendable out) throws IOException {
+                int start = 0;
+                for (int i = 0; i < value.length(); i++) {
+                    String entity;
+                    switch (value.charAt(i)) {
+                        case '&': entity = "&amp;"; break;
+                        case '<': entity = "&lt;"; break;
+                        case '>': entity = "&gt;"; break;
+                        case '"': entity = "&quot;"; break;
+                        case '\'': entity = "&#39;"; break;
+                        default: continue;
+                    }
+                    out.append(value, start, i).append(entity);
+                    start = i + 1;
+                }
+                out.append(value, start, value.length());
+            }
+        },
+        MARKDOWN("md", "\n") {
+            @Override
+            void appendValue(String value, Appendable out) throws IOException {
+                boolean lineStart = true;
+                int start = 0;
+                for (int i = 0; i < value.length(); i++) {
+                    char c = value.charAt(i);
+                    if (c == '\n') {
+                        // Hard line break, so typed line breaks survive
+                        int cr = i > 0 && value.charAt(i - 1) == '\r' ? i - 1 : i;
+                        out.append(value, start, cr).append("  ");
+                        start = cr;
+                        lineStart = true;
+                        continue;
+                    }
+                    if (c == '\r') continue;
+                    byte special = c < MARKDOWN_SPECIAL.length ? MARKDOWN_SPECIAL[c] : 0;
+                    boolean escape = special == 1 || special == 2 && lineStart;
+                    if (c != ' ') lineStart = false;
+                    if (escape) {
+                        out.append(value, start, i).append('\\');
+                        start = i;
+                    }
+                }
+                out.append(value, start, value.length());
+            }
+        };
+
+        /** File name extension of documents in this format. */
+        final String extension;
+        private final String lineSeparator;
+
+        Format(String extension, String lineSeparator) {
+            this.extension = extension;
+            this.lineSeparator = lineSeparator;
+        }
+
+        abstract void appendValue(String value, Appendable out) throws IOException;
+
+        /** The format of a template or document file, by extension; plain text unless HTML or Markdown. */
+        static Format forFile(String fileName) {
+            String lower = fileName.toLowerCase(Locale.ROOT);
+            if (lower.endsWith(".html") || lower.endsWith(".htm")) return HTML;
+            if (lower.endsWith(".md") || lower.endsWith(".markdown")) return MARKDOWN;
+            return TEXT;
+        }
+    }
+
+    // Characters Markdown treats as markup: 1 anywhere, 2 at the start of a line
+    private static final byte[] MARKDOWN_SPECIAL = new byte[128];
+
+    static {
+        for (char c : "\\`*_[]<>|".toCharArray()) MARKDOWN_SPECIAL[c] = 1;
+        for (char c : "#+-".toCharArray()) MARKDOWN_SPECIAL[c] = 2;
+    }
+
+    // Instructions; each opcode is followed by its operands
+    private static final int LITERAL = 0;        // literal index
+    private static final int VALUE = 1;          // field
+    private static final int VALUE_OR = 2;       // field, fallback literal index
+    private static final int SKIP_IF_BLANK = 3;  // field, target
+    private static final int SKIP_UNLESS_BLANK = 4; // field, target
+
+    // Field numbers past the BiodataField ordinals
+    private static final BiodataField[] FIELDS = BiodataField.values();
+    private static final int SKILLS = FIELDS.length;
+    private static final int HOBBIES = SKILLS + 1;
+    private static final int GENERATED_ON = HOBBIES + 1;
+    private static final int ADDITIONAL = GENERATED_ON + 1;
+
+    private static final Map<String, Integer> FIELD_NAMES = new HashMap<>();
+
+    static {
+        for (BiodataField f : FIELDS) FIELD_NAMES.put(f.key, f.ordinal());
+        FIELD_NAMES.put("skills", SKILLS);
+        FIELD_NAMES.put("hobbies", HOBBIES);
+        FIELD_NAMES.put("generatedOn", GENERATED_ON);
+        FIELD_NAMES.put("additional", ADDITIONAL);
+    }
+
+    /** The Export to File document. */
+    static final BiodataTemplate TEXT = compile(
+          "PROFESSIONAL BIODATA\n"
+        + "====================\n"
+        + "\n"
+        + "Generated on: {{generatedOn}}\n"
+        + "\n"
+        + "PERSONAL INFORMATION\n"
+        + "-------------------\n"
+        + "Name: {{name}}\n"
+        + "Age: {{age}}\n"
+        + "Gender: {{gender|Not specified}}\n"
+        + "\n"
+        + "ACADEMIC INFORMATION\n"
+        + "--------------------\n"
+        + "Registration Number: {{regd}}\n"
+        + "Branch: {{branch|Not specified}}\n"
+        + "Current Semester: {{semester|Not specified}}\n"
+        + "CGPA: {{cgpa|Not specified}}\n"
+        + "College/University: {{college|Not specified}}\n"
+        + "\n"
+        + "CONTACT INFORMATION\n"
+        + "-------------------\n"
+        + "Mobile Number: {{phone}}\n"
+        + "Email Address: {{email}}\n"
+        + "LinkedIn: {{linkedin|Not provided}}\n"
+        + "GitHub: {{github|Not provided}}\n"
+        + "Address: {{address|Not provided}}\n"
+        + "\n"
+        + "SKILLS & INTERESTS\n"
+        + "------------------\n"
+        + "Technical Skills: {{skills|None specified}}\n"
+        + "Hobbies & Interests: {{hobbies|None specified}}\n"
+        + "\n"
+        + "{{#additional}}\n"
+        + "ADDITIONAL INFORMATION\n"
+        + "----------------------\n"
+        + "{{#about}}\n"
+        + "About Me:\n"
+        + "{{about}}\n"
+        + "\n"
+        + "{{/about}}\n"
+        + "{{#achievements}}\n"
+        + "Achievements & Projects:\n"
+        + "{{achievements}}\n"
+        + "{{/achievements}}\n"
+        + "{{/additional}}\n"
+        + "\n"
+        + "--- END OF BIODATA ---\n", Format.TEXT);
+
+    /**
+     * A standalone web page styled like the preview window. The photo field
+     * is used as the image URL, so give it a link the browser can open.
+     */
+    static final BiodataTemplate HTML = compile(
+          "<!DOCTYPE html>\n"
+        + "<html lang=\"en\">\n"
+        + "<head>\n"
+        + "<meta charset=\"UTF-8\">\n"
+        + "<title>Professional Biodata - {{name}}</title>\n"
+        + "<style>\n"
+        + "body { font-family: 'Segoe UI', Arial, sans-serif; background: #f0f8ff; margin: 0; padding: 30px 40px; }\n"
+        + "main { max-width: 700px; margin: 0 auto; }\n"
+        + "h1, h2 { color: #191923; }\n"
+        + "h1 { font-size: 28px; text-align: center; }\n"
+        + "h2 { font-size: 18px; margin: 30px 0 10px; }\n"
+        + "section div { background: #fff; border: 1px solid #c8c8c8; padding: 10px 15px; overflow: auto; }\n"
+        + "p { font-size: 14px; margin: 5px 0; white-space: pre-line; }\n"
+        + ".photo { float: right; width: 120px; height: 150px; object-fit: cover; border: 1px solid #c8c8c8; }\n"
+        + "footer { color: gray; font-size: 12px; font-style: italic; text-align: center; margin-top: 30px; }\n"
+        + "</style>\n"
+        + "</head>\n"
+        + "<body>\n"
+        + "<main>\n"
+        + "<h1>PROFESSIONAL BIODATA</h1>\n"
+        + "<section>\n"
+        + "<h2>Personal Information</h2>\n"
+        + "<div>\n"
+        + "{{#photo}}\n"
+        + "<img class=\"photo\" src=\"{{photo}}\" alt=\"Photo\">\n"
+        + "{{/photo}}\n"
+        + "<p>Name: {{name}}</p>\n"
+        + "<p>Age: {{age}}</p>\n"
+        + "<p>Gender: {{gender|Not specified}}</p>\n"
+        + "</div>\n"
+        + "</section>\n"
+        + "<section>\n"
+        + "<h2>Academic Information</h2>\n"
+        + "<div>\n"
+        + "<p>Registration Number: {{regd}}</p>\n"
+        + "<p>Branch: {{branch|Not specified}}</p>\n"
+        + "<p>Current Semester: {{semester|Not specified}}</p>\n"
+        + "<p>CGPA: {{cgpa|Not specified}}</p>\n"
+        + "<p>College/University: {{college|Not specified}}</p>\n"
+        + "</div>\n"
+        + "</section>\n"
+        + "<section>\n"
+        + "<h2>Contact Information</h2>\n"
+        + "<div>\n"
+        + "<p>Mobile Number: {{phone}}</p>\n"
+        + "<p>Email Address: {{email}}</p>\n"
+        + "<p>LinkedIn: {{linkedin|Not provided}}</p>\n"
+        + "<p>GitHub: {{github|Not provided}}</p>\n"
+        + "<p>Address: {{address|Not provided}}</p>\n"
+        + "</div>\n"
+        + "</section>\n"
+        + "<section>\n"
+        + "<h2>Skills &amp; Interests</h2>\n"
+        + "<div>\n"
+        + "<p>Technical Skills: {{skills|None specified}}</p>\n"
+        + "<p>Hobbies &amp; Interests: {{hobbies|None specified}}</p>\n"
+        + "</div>\n"
+        + "</section>\n"
+        + "{{#additional}}\n"
+        + "<section>\n"
+        + "<h2>Additional Information</h2>\n"
+        + "<div>\n"
+        + "<p>About Me: {{about|Not provided}}</p>\n"
+        + "<p>Achievements &amp; Projects: {{achievements|Not provided}}</p>\n"
+        + "</div>\n"
+        + "</section>\n"
+        + "{{/additional}}\n"
+        + "<footer>Generated on: {{generatedOn}}</footer>\n"
+        + "</main>\n"
+        + "</body>\n"
+        + "</html>\n", Format.HTML);
+
+    /** A Markdown document, e.g. for a README or wiki page. */
+    static final BiodataTemplate MARKDOWN = compile(
+          "# Professional Biodata\n"
+        + "\n"
+        + "## Personal Information\n"
+        + "\n"
+        + "- **Name:** {{name}}\n"
+        + "- **Age:** {{age}}\n"
+        + "- **Gender:** {{gender|Not specified}}\n"
+        + "\n"
+        + "## Academic Information\n"
+        + "\n"
+        + "- **Registration Number:** {{regd}}\n"
+        + "- **Branch:** {{branch|Not specified}}\n"
+        + "- **Current Semester:** {{semester|Not specified}}\n"
+        + "- **CGPA:** {{cgpa|Not specified}}\n"
+        + "- **College/University:** {{college|Not specified}}\n"
+        + "\n"
+        + "## Contact Information\n"
+        + "\n"
+        + "- **Mobile Number:** {{phone}}\n"
+        + "- **Email Address:** {{email}}\n"
+        + "- **LinkedIn:** {{linkedin|Not provided}}\n"
+        + "- **GitHub:** {{github|Not provided}}\n"
+        + "- **Address:** {{address|Not provided}}\n"
+        + "\n"
+        + "## Skills & Interests\n"
+        + "\n"
+        + "- **Technical Skills:** {{skills|None specified}}\n"
+        + "- **Hobbies & Interests:** {{hobbies|None specified}}\n"
+        + "\n"
+        + "{{#additional}}\n"
+        + "## Additional Information\n"
+        + "\n"
+        + "{{#about}}\n"
+        + "**About Me:**  \n"
+        + "{{about}}\n"
+        + "\n"
+        + "{{/about}}\n"
+        + "{{#achievements}}\n"
+        + "**Achievements & Projects:**  \n"
+        + "{{achievements}}\n"
+        + "\n"
+        + "{{/achievements}}\n"
+        + "{{/additional}}\n"
+        + "---\n"
+        + "\n"
+        + "*Generated on: {{generatedOn}}*\n", Format.MARKDOWN);
+
+    final Format format;
+    private final int[] code;
+    private final String[] literals;
+    // Literal characters per document, a starting capacity for rendering into a StringBuilder
+    private final int sizeHint;
+
+    private BiodataTemplate(Format format, int[] code, String[] literals) {
+        this.format = format;
+        this.code = code;
+        this.literals = literals;
+        int size = 0;
+        for (String s : literals) size += s.length();
+        this.sizeHint = size + 512;
+    }
+
+    /** The built-in template for a document extension: txt, html or md. */
+    static BiodataTemplate builtIn(String extension) {
+        switch (extension) {
+            case "txt": return TEXT;
+            case "html": return HTML;
+            case "md": return MARKDOWN;
+            default: throw new IllegalArgumentException("No built-in template for " + extension);
+        }
+    }
+
+    /** Reads and compiles a UTF-8 template file; its extension selects the format. */
+    static BiodataTemplate load(File file) throws IOException {
+        String source = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+        try {
+            return compile(source, Format.forFile(file.getName()));
+        } catch (IllegalArgumentException e) {
+            throw new IOException(file.getName() + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Parses a template. Line breaks in the source become the format's line
+     * separator.
+     *
+     * @throws IllegalArgumentException on an unknown field or an unbalanced section
+     */
+    static BiodataTemplate compile(String source, Format format) {
+        return new Compiler(source.replace("\r\n", "\n"), format).compile();
+    }
+
+    /** Renders a record into {@code out}. */
+    void write(Biodata b, String generatedOn, Appendable out) throws IOException {
+        int[] code = this.code;
+        int pc = 0;
+        while (pc < code.length) {
+            switch (code[pc]) {
+                case LITERAL:
+                    out.append(literals[code[pc + 1]]);
+                    pc += 2;
+                    break;
+                case VALUE:
+                    format.appendValue(value(b, code[pc + 1], generatedOn), out);
+                    pc += 2;
+                    break;
+                case VALUE_OR: {
+                    String v = value(b, code[pc + 1], generatedOn);
+                    if (Biodata.isBlank(v)) out.append(literals[code[pc + 2]]);
+                    else format.appendValue(v, out);
+                    pc += 3;
+                    break;
+                }
+                case SKIP_IF_BLANK:
+                    pc = Biodata.isBlank(value(b, code[pc + 1], generatedOn)) ? code[pc + 2] : pc + 3;
+                    break;
+                case SKIP_UNLESS_BLANK:
+                    pc = Biodata.isBlank(value(b, code[pc + 1], generatedOn)) ? pc + 3 : code[pc + 2];
+                    break;
+                default:
+                    throw new AssertionError(code[pc]);
+            }
+        }
+    }
+
+    /** A rendered record as a string. */
+    String render(Biodata b, String generatedOn) {
+        StringBuilder sb = new StringBuilder(sizeHint);
+        try {
+            write(b, generatedOn, sb);
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // StringBuilder never throws
+        }
+        return sb.toString();
+    }
+
+    private static String value(Biodata b, int field, String generatedOn) {
+        if (field < SKILLS) return FIELDS[field].valueOf(b);
+        if (field == SKILLS) return b.skillsLine();
+        if (field == HOBBIES) return b.hobbiesLine();
+        if (field == GENERATED_ON) return generatedOn;
+        return b.hasAdditionalInfo() ? "yes" : "";
+    }
+
+    /** Single-use parser producing the instruction list. */
+    private static final class Compiler {
+        private final String src;
+        private final Format format;
+        private int[] code = new int[64];
+        private int size;
+        private final List<String> literals = new ArrayList<>();
+        private final StringBuilder pending = new StringBuilder();
+        // Open sections: field, then the index of the jump target to patch
+        private final Deque<int[]> open = new ArrayDeque<>();
+
+        Compiler(String src, Format format) {
+            this.src = src;
+            this.format = format;
+        }
+
+        BiodataTemplate compile() {
+            int pos = 0;
+            while (true) {
+                int start = src.indexOf("{{", pos);
+                if (start < 0) break;
+                int end = src.indexOf("}}", start + 2);
+                if (end < 0) throw error(start, "unclosed tag");
+                end += 2;
+                String tag = src.substring(start + 2, end - 2).trim();
+                char kind = tag.isEmpty() ? ' ' : tag.charAt(0);
+
+                if (kind == '#' || kind == '^' || kind == '/' || kind == '!') {
+                    // A tag alone on its line takes the whole line with it
+                    int lineStart = src.lastIndexOf('\n', start - 1) + 1;
+                    int lineEnd = src.indexOf('\n', end);
+                    if (lineEnd < 0) lineEnd = src.length();
+                    if (lineStart >= pos && isSpace(lineStart, start) && isSpace(end, lineEnd)) {
+                        text(pos, lineStart);
+                        pos = Math.min(lineEnd + 1, src.length());
+                    } else {
+                        text(pos, start);
+                        pos = end;
+                    }
+                    if (kind != '!') section(kind, tag.substring(1).trim(), start);
+                } else {
+                    text(pos, start);
+                    pos = end;
+                    int bar = tag.indexOf('|');
+                    String name = (bar < 0 ? tag : tag.substring(0, bar)).trim();
+                    int field = field(name, start);
+                    if (field == ADDITIONAL) throw error(start, "'additional' can only open a section");
+                    flush();
+                    if (bar < 0) {
+                        emit(VALUE, field);
+                    } else {
+                        emit(VALUE_OR, field, literal(tag.substring(bar + 1).trim()));
+                    }
+                }
+            }
+            text(pos, src.length());
+            flush();
+            if (!open.isEmpty()) {
+                throw new IllegalArgumentException("Section {{#" + fieldName(open.peek()[0]) + "}} is never closed");
+            }
+            return new BiodataTemplate(format, Arrays.copyOf(code, size), literals.toArray(new String[0]));
+        }
+
+        private void section(char kind, String name, int at) {
+            int field = field(name, at);
+            flush();
+            if (kind == '/') {
+                int[] top = open.poll();
+                if (top == null || top[0] != field) throw error(at, "{{/" + name + "}} does not close the open section");
+                code[top[1]] = size;
+            } else {
+                emit(kind == '#' ? SKIP_IF_BLANK : SKIP_UNLESS_BLANK, field, -1);
+                open.push(new int[] {field, size - 1});
+            }
+        }
+
+        private void text(int from, int to) {
+            for (int i = from; i < to; i++) {
+                char c = src.charAt(i);
+                if (c == '\n') pending.append(format.lineSeparator);
+                else pending.append(c);
+            }
+        }
+
+        private void flush() {
+            if (pending.length() == 0) return;
+            emit(LITERAL, literal(pending.toString()));
+            pending.setLength(0);
+        }
+
+        private int literal(String s) {
+            literals.add(s);
+            return literals.size() - 1;
+        }
+
+        private void emit(int... instruction) {
+            if (size + instruction.length > code.length) code = Arrays.copyOf(code, code.length * 2);
+            for (int v : instruction) code[size++] = v;
+        }
+
+        private int field(String name, int at) {
+            Integer field = FIELD_NAMES.get(name);
+            if (field == null) throw error(at, "unknown field '" + name + "'");
+            return field;
+        }
+
+        private boolean isSpace(int from, int to) {
+            for (int i = from; i < to; i++) {
+                if (src.charAt(i) != ' ' && src.charAt(i) != '\t') return false;
+            }
+            return true;
+        }
+
+        private IllegalArgumentException error(int at, String message) {
+            int line = 1;
+            for (int i = 0; i < at; i++) if (src.charAt(i) == '\n') line++;
+            return new IllegalArgumentException("Line " + line + ": " + message);
+        }
+
+        private static String fieldName(int field) {
+            for (Map.Entry<String, Integer> e : FIELD_NAMES.entrySet()) {
+                if (e.getValue() == field) return e.getKey();
+            }
+            return String.valueOf(field);
+        }
+    }
+}
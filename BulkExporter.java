@@ -0,0 +1,181 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Bulk biodata exporter
+ * Publishes a cohort as template documents (typically web pages) and/or JSON
+ * into a directory or into a single ZIP archive. Any number of threads may
+ * call {@link #export} at once: documents are rendered and photos hashed on
+ * the calling threads, and only finished bytes reach the shared output. A
+ * ZIP is one stream written under a lock; in a directory every document is
+ * its own file.
+ *
+ * Photos are stored once per distinct content, as photos/SHA-256.ext, and
+ * the documents link to that copy, so a cohort sharing the same image
+ * carries it once. A photo in the {@link PhotoStore} is published as its
+ * stored print-size JPEG, under the hash it is stored by. Photos are
+ * compressed already and go into the ZIP without being deflated again. A
+ * photo that cannot be read is left out.
+ */
+final class BulkExporter implements Closeable {
+
+    static final String PHOTO_DIRECTORY = "photos";
+
+    private final File directory;
+    private final ZipOutputStream zip;
+    private final BiodataTemplate template;
+    private final String generatedOn;
+    private final JsonBiodataRenderer json;
+    private final PhotoStore photos;
+
+    // Source path -> published photo ("" when unreadable); published photos already stored
+    private final Map<String, String> photoNames = new ConcurrentHashMap<>();
+    private final Set<String> stored = ConcurrentHashMap.newKeySet();
+    private final LongAdder photoBytes = new LongAdder();
+
+    private BulkExporter(File directory, ZipOutputStream zip, BiodataTemplate template, boolean json,
+                         String generatedOn, PhotoStore photos) {
+        this.directory = directory;
+        this.zip = zip;
+        this.template = template;
+        this.generatedOn = generatedOn;
+        this.json = json ? new JsonBiodataRenderer(generatedOn) : null;
+        this.photos = photos;
+    }
+
+    /**
+     * Opens an exporter writing into {@code target}: a ZIP archive when its
+     * name ends in .zip, otherwise a directory, created if needed.
+     *
+     * @param template the document template, or null for JSON only
+     * @param json whether to write a JSON document per record as well
+     * @param photos where "photo:" references are read from, or null
+     */
+    static BulkExporter open(File target, BiodataTemplate template, boolean json, String generatedOn,
+                             PhotoStore photos) throws IOException {
+        if (template == null && !json) throw new IllegalArgumentException("Nothing to export");
+        if (isZip(target)) {
+            ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(target), 1 << 16));
+            // The lock is held while an entry is deflated; favour speed, documents are small
+            zip.setLevel(Deflater.BEST_SPEED);
+            return new BulkExporter(null, zip, template, json, generatedOn, photos);
+        }
+        File published = new File(target, PHOTO_DIRECTORY);
+        if (!published.isDirectory() && !published.mkdirs()) throw new IOException("Cannot create directory " + published);
+        return new BulkExporter(target, null, template, json, generatedOn, photos);
+    }
+
+    static boolean isZip(File target) {
+        return target.getName().toLowerCase(Locale.ROOT).endsWith(".zip");
+    }
+
+    /**
+     * Writes the documents of one record, named like the batch output, and
+     * returns their size in bytes; photos are counted by {@link #photoBytes()}.
+     * Thread-safe.
+     */
+    long export(int recordNo, Biodata b) throws IOException {
+        if (!b.photoPath.isEmpty()) b = b.withPhotoPath(publishPhoto(b.photoPath));
+        long bytes = 0;
+        if (template != null) {
+            byte[] document = template.render(b, generatedOn).getBytes(StandardCharsets.UTF_8);
+            put(BiodataBatch.fileName(recordNo, b, template.format.extension), document, false);
+            bytes += document.length;
+        }
+        if (json != null) {
+            byte[] document = json.render(b).getBytes(StandardCharsets.UTF_8);
+            put(BiodataBatch.fileName(recordNo, b, "json"), document, false);
+            bytes += document.length;
+        }
+        return bytes;
+    }
+
+    /** Number of distinct photos stored so far. */
+    int photoCount() {
+        return stored.size();
+    }
+
+    /** Total size of the distinct photos stored so far. */
+    long photoBytes() {
+        return photoBytes.sum();
+    }
+
+    // The published name of a photo, stored on first sight of its content
+    private String publishPhoto(String path) throws IOException {
+        String published = photoNames.get(path);
+        if (published != null) return published;
+        byte[] data;
+        try {
+            data = PhotoStore.isReference(path) ? storedPhoto(path) : Files.readAllBytes(new File(path).toPath());
+        } catch (IOException e) {
+            photoNames.put(path, "");
+            return "";
+        }
+        published = PHOTO_DIRECTORY + '/' + (PhotoStore.isReference(path)
+            ? path.substring(PhotoStore.PREFIX.length()) + ".jpg" : PhotoStore.sha256(data) + extension(path));
+        photoNames.put(path, published);
+        // Another path, or another thread, may have stored the same content already
+        if (stored.add(published)) {
+            put(published, data, true);
+            photoBytes.add(data.length);
+        }
+        return published;
+    }
+
+    private void put(String name, byte[] data, boolean compressed) throws IOException {
+        if (zip == null) {
+            Files.write(new File(directory, name).toPath(), data);
+            return;
+        }
+        ZipEntry entry = new ZipEntry(name);
+        if (compressed) {
+            CRC32 crc = new CRC32();
+            crc.update(data, 0, data.length);
+            entry.setMethod(ZipEntry.STORED);
+            entry.setSize(data.length);
+            entry.setCompressedSize(data.length);
+            entry.setCrc(crc.getValue());
+        }
+        synchronized (zip) {
+            zip.putNextEntry(entry);
+            zip.write(data);
+            zip.closeEntry();
+        }
+    }
+
+    private byte[] storedPhoto(String reference) throws IOException {
+        byte[] jpeg = photos == null ? null : photos.jpeg(reference, PhotoStore.Size.PRINT);
+        if (jpeg == null) throw new IOException("No photo " + reference);
+        return jpeg;
+    }
+
+    // ".jpg", ".png", ...; ".jpeg" is shortened so one image has one name
+    private static String extension(String path) {
+        String lower = new File(path).getName().toLowerCase(Locale.ROOT);
+        int dot = lower.lastIndexOf('.');
+        if (dot < 0) return "";
+        String ext = lower.substring(dot);
+        return ".jpeg".equals(ext) ? ".jpg" : ext.replaceAll("[^.a-z0-9]", "");
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (zip != null) {
+            synchronized (zip) {
+                zip.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Cohort statistics
+ * Group-by aggregates over {@link CohortColumns}: per branch, semester, or
+ * branch and semester, the number of students, CGPA count, mean, spread,
+ * range and a histogram of whole CGPA points, and how many students know each
+ * predefined skill. The rows are split into ranges that fork-join workers
+ * reduce into flat per-group arrays, which are then added together pairwise;
+ * no record object is touched.
+ */
+final class CohortAnalytics {
+
+    /** The grouping of a report. */
+    enum GroupBy {
+        BRANCH("Branch"), SEMESTER("Semester"), BRANCH_AND_SEMESTER("Branch & Semester");
+
+        final String label;
+
+        GroupBy(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    /** CGPA histogram bins: [0, 1), [1, 2), ... [9, 10]. */
+    static final int BINS = 10;
+
+    // Rows one worker reduces without forking further
+    private static final int LEAF_ROWS = 1 << 15;
+    private static final int SKILLS = Biodata.SKILL_OPTIONS.length;
+
+    /** The aggregates of one group. */
+    static final class Group {
+        final String label;
+        final int students;
+        /** Students with a CGPA; mean, spread and range are over these. */
+        final int graded;
+        final double mean;
+        final double stdDev;
+        final double min;
+        final double max;
+        final int[] histogram;
+        /** Students knowing each predefined skill, in option order. */
+        final int[] skills;
+
+        Group(String label, int students, int graded, double mean, double stdDev, double min, double max,
+              int[] histogram, int[] skills) {
+            this.label = label;
+            this.students = students;
+            this.graded = graded;
+            this.mean = mean;
+            this.stdDev = stdDev;
+            this.min = min;
+            this.max = max;
+            this.histogram = histogram;
+            this.skills = skills;
+        }
+
+        /** The most common predefined skills, most common first, at most {@code limit}. */
+        List<String> topSkills(int limit) {
+            Integer[] order = new Integer[skills.length];
+            for (int i = 0; i < order.length; i++) order[i] = i;
+            Arrays.sort(order, (a, b) -> skills[b] - skills[a]);
+            List<String> top = new ArrayList<>(limit);
+            for (int i = 0; i < order.length && top.size() < limit && skills[order[i]] > 0; i++) {
+                top.add(Biodata.SKILL_OPTIONS[order[i]]);
+            }
+            return top;
+        }
+    }
+
+    /** Per-group running totals of a range of rows, in flat arrays indexed by group. */
+    private static final class Totals {
+        final int[] students;
+        final int[] graded;
+        final double[] sum;
+        final double[] sumSquares;
+        final double[] min;
+        final double[] max;
+        final int[] histogram;
+        final int[] skills;
+
+        Totals(int groups) {
+            students = new int[groups];
+            graded = new int[groups];
+            sum = new double[groups];
+            sumSquares = new double[groups];
+            min = new double[groups];
+            max = new double[groups];
+            Arrays.fill(min, Double.POSITIVE_INFINITY);
+            Arrays.fill(max, Double.NEGATIVE_INFINITY);
+            histogram = new int[groups * BINS];
+            skills = new int[groups * SKILLS];
+        }
+
+        void add(Totals o) {
+            for (int g = 0; g < students.length; g++) {
+                students[g] += o.students[g];
+                graded[g] += o.graded[g];
+                sum[g] += o.sum[g];
+                sumSquares[g] += o.sumSquares[g];
+                min[g] = Math.min(min[g], o.min[g]);
+                max[g] = Math.max(max[g], o.max[g]);
+            }
+            for (int i = 0; i < histogram.length; i++) histogram[i] += o.histogram[i];
+            for (int i = 0; i < skills.length; i++) skills[i] += o.skills[i];
+        }
+    }
+
+    /** Reduces rows [from, to) into totals, splitting the range while it is large. */
+    private static final class Reduce extends RecursiveTask<Totals> {
+        private final CohortColumns columns;
+        private final GroupBy by;
+        private final int groups;
+        private final int from;
+        private final int to;
+
+        Reduce(CohortColumns columns, GroupBy by, int groups, int from, int to) {
+            this.columns = columns;
+            this.by = by;
+            this.groups = groups;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Totals compute() {
+            if (to - from > LEAF_ROWS) {
+                int mid = (from + to) >>> 1;
+                Reduce right = new Reduce(columns, by, groups, mid, to);
+                right.fork();
+                Totals left = new Reduce(columns, by, groups, from, mid).compute();
+                left.add(right.join());
+                return left;
+            }
+
+            Totals t = new Totals(groups);
+            double[] cgpa = columns.cgpa;
+            long[] skills = columns.skills;
+            int semesters = columns.semesters.length;
+            for (int i = from; i < to; i++) {
+                int g;
+                switch (by) {
+                    case BRANCH: g = columns.branch[i] & 0xFF; break;
+                    case SEMESTER: g = columns.semester[i] & 0xFF; break;
+                    default: g = (columns.branch[i] & 0xFF) * semesters + (columns.semester[i] & 0xFF); break;
+                }
+                t.students[g]++;
+                double v = cgpa[i];
+                if (v == v) { // not NaN
+                    t.graded[g]++;
+                    t.sum[g] += v;
+                    t.sumSquares[g] += v * v;
+                    if (v < t.min[g]) t.min[g] = v;
+                    if (v > t.max[g]) t.max[g] = v;
+                    int bin = (int) v;
+                    t.histogram[g * BINS + (bin < 0 ? 0 : bin >= BINS ? BINS - 1 : bin)]++;
+                }
+                for (long rest = skills[i]; rest != 0; rest &= rest - 1) {
+                    int skill = Long.numberOfTrailingZeros(rest);
+                    if (skill < SKILLS) t.skills[g * SKILLS + skill]++;
+                }
+            }
+            return t;
+        }
+    }
+
+    private CohortAnalytics() {}
+
+    /** The non-empty groups of a cohort, in dictionary order (options first, blank last). */
+    static List<Group> aggregate(CohortColumns columns, GroupBy by, ForkJoinPool pool) {
+        int branches = columns.branches.length;
+        int semesters = columns.semesters.length;
+        int groups = by == GroupBy.BRANCH ? branches : by == GroupBy.SEMESTER ? semesters : branches * semesters;
+        Totals t = pool.invoke(new Reduce(columns, by, groups, 0, columns.size));
+
+        List<Group> result = new ArrayList<>();
+        List<Group> blank = new ArrayList<>();
+        for (int g = 0; g < groups; g++) {
+            if (t.students[g] == 0) continue;
+            String branch = by == GroupBy.SEMESTER ? null : columns.branches[by == GroupBy.BRANCH ? g : g / semesters];
+            String semester = by == GroupBy.BRANCH ? null : columns.semesters[by == GroupBy.SEMESTER ? g : g % semesters];
+            String label = branch == null ? Biodata.orDefault(semester, "No semester")
+                : semester == null ? Biodata.orDefault(branch, "No branch")
+                : Biodata.orDefault(branch, "No branch") + ", " + Biodata.orDefault(semester, "No semester");
+
+            int n = t.graded[g];
+            double mean = n == 0 ? Double.NaN : t.sum[g] / n;
+            double variance = n == 0 ? Double.NaN : Math.max(0, t.sumSquares[g] / n - mean * mean);
+            Group group = new Group(label, t.students[g], n, mean, Math.sqrt(variance),
+                n == 0 ? Double.NaN : t.min[g], n == 0 ? Double.NaN : t.max[g],
+                Arrays.copyOfRange(t.histogram, g * BINS, (g + 1) * BINS),
+                Arrays.copyOfRange(t.skills, g * SKILLS, (g + 1) * SKILLS));
+            boolean hasBlank = branch != null && branch.isEmpty() || semester != null && semester.isEmpty();
+            (hasBlank ? blank : result).add(group);
+        }
+        result.addAll(blank);
+        return result;
+    }
+}
@@ -0,0 +1,92 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+import java.util.*;
+
+/**
+ * Columns of a cohort
+ * The values cohort statistics need from every saved record, one primitive
+ * array per field, so an aggregation is a loop over arrays instead of a walk
+ * over decoded records. Row i of every column is the same student.
+ *
+ * Branch, semester and gender are dictionary codes (read them with
+ * {@code & 0xFF}): code 0 is blank, the form's options come next in form
+ * order (so they have the same code in every snapshot) and any other value
+ * after them. Age is a whole number of years, also read with {@code & 0xFF},
+ * and 0 when blank or not a number. CGPA is NaN when blank or not a number;
+ * skills are {@link OptionDictionary#SKILLS} selection masks.
+ */
+final class CohortColumns {
+
+    /** Codes a byte can hold; values past the last one share it. */
+    static final int MAX_CODES = 256;
+
+    final int size;
+    final double[] cgpa;
+    final byte[] branch;
+    final byte[] semester;
+    final byte[] gender;
+    final byte[] age;
+    final long[] skills;
+    final String[] branches;
+    final String[] semesters;
+    final String[] genders;
+
+    CohortColumns(double[] cgpa, byte[] branch, byte[] semester, byte[] gender, byte[] age, long[] skills,
+                  String[] branches, String[] semesters, String[] genders) {
+        int n = cgpa.length;
+        if (branch.length != n || semester.length != n || gender.length != n || age.length != n || skills.length != n) {
+            throw new IllegalArgumentException("Columns of different lengths");
+        }
+        this.size = n;
+        this.cgpa = cgpa;
+        this.branch = branch;
+        this.semester = semester;
+        this.gender = gender;
+        this.age = age;
+        this.skills = skills;
+        this.branches = branches;
+        this.semesters = semesters;
+        this.genders = genders;
+    }
+
+    /** The age column value of a form entry: whole years from 1 to 255, otherwise 0. */
+    static byte age(String age) {
+        String v = age.trim();
+        if (v.isEmpty() || v.length() > 3) return 0;
+        for (int i = 0; i < v.length(); i++) {
+            if (v.charAt(i) < '0' || v.charAt(i) > '9') return 0;
+        }
+        int years = Integer.parseInt(v);
+        return (byte) (years <= 255 ? years : 0);
+    }
+
+    /** Assigns codes to values: blank, then the options, then other values as they come. */
+    static final class Dictionary {
+        private final List<String> values = new ArrayList<>();
+        private final Map<String, Integer> codes = new HashMap<>();
+
+        Dictionary(String[] options) {
+            code("");
+            for (String option : options) code(option);
+        }
+
+        byte code(String value) {
+            Integer code = codes.get(value);
+            if (code == null) {
+                if (values.size() < MAX_CODES) {
+                    code = values.size();
+                    values.add(value);
+                } else {
+                    code = MAX_CODES - 1;
+                    values.set(code, "Other");
+                }
+                codes.put(value, code);
+            }
+            return (byte) (int) code;
+        }
+
+        String[] values() {
+            return values.toArray(new String[0]);
+        }
+    }
+}
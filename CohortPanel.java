@@ -0,0 +1,239 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.JTableHeader;
+import java.awt.*;
+import java.awt.event.*;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Cohort table of saved biodata
+ * One row per saved student, filtered by branch, semester, CGPA range and
+ * skills. Filtering and sorting run on a background thread against the
+ * store's {@link SearchIndex}, which yields only the registration numbers in
+ * order; the rows themselves come from {@link RecordPages}, so only the
+ * pages in view are ever read and decoded. Clicking a sortable header (Regd
+ * No., Branch, Semester, CGPA) sorts by it, clicking again reverses the
+ * order. Double-clicking a row (or Open) hands the record to the form.
+ */
+final class CohortPanel extends JPanel {
+
+    private static final String[] COLUMNS = {"Regd No.", "Name", "Branch", "Semester", "CGPA", "Skills"};
+    private static final SearchIndex.Order[] COLUMN_ORDER = {
+        SearchIndex.Order.REGD, null, SearchIndex.Order.BRANCH, SearchIndex.Order.SEMESTER, SearchIndex.Order.CGPA, null
+    };
+    // Shown in the cells of a row whose page is still being read
+    private static final String LOADING = "...";
+
+    /** The table model: registration numbers in order, records read a page at a time. */
+    private final class CohortTableModel extends AbstractTableModel implements RecordPages.Listener {
+        private final RecordPages pages = new RecordPages(store, this);
+
+        void setKeys(List<String> keys) {
+            pages.setKeys(keys);
+            fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount() {
+            return pages.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMNS.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMNS[column];
+        }
+
+        // Returns strings the record already holds, so scrolling allocates nothing per cell
+        @Override
+        public Object getValueAt(int row, int column) {
+            if (column == 0) return pages.key(row);
+            Biodata b = pages.get(row);
+            if (b == null) return LOADING;
+            switch (column) {
+                case 1: return b.name;
+                case 2: return b.branch;
+                case 3: return b.semester;
+                case 4: return b.cgpa;
+                case 5: return b.skillsLine();
+                default: throw new IndexOutOfBoundsException("column " + column);
+            }
+        }
+
+        @Override
+        public void loaded(int first, int last) {
+            fireTableRowsUpdated(first, last);
+        }
+    }
+
+    private final BiodataStore store;
+    private final Consumer<Biodata> onOpen;
+
+    private final JComboBox<String> branchBox =
+        new JComboBox<>(Biodata.withPlaceholder("Any Branch", Biodata.BRANCH_OPTIONS));
+    private final JComboBox<String> semesterBox =
+        new JComboBox<>(Biodata.withPlaceholder("Any Semester", Biodata.SEMESTER_OPTIONS));
+    private final JTextField minCgpaField = new JTextField(5);
+    private final JTextField maxCgpaField = new JTextField(5);
+    private final JCheckBox[] skillBoxes = new JCheckBox[Biodata.SKILL_OPTIONS.length];
+
+    private final CohortTableModel model;
+    private final JTable table;
+    private final JLabel status = new JLabel(" ");
+    private int sortColumn = 0;
+    private boolean descending;
+    private int generation;
+
+    CohortPanel(BiodataStore store, Consumer<Biodata> onOpen) {
+        super(new BorderLayout(0, 10));
+        this.store = store;
+        this.onOpen = onOpen;
+        this.model = new CohortTableModel();
+        this.table = new JTable(model);
+        setBorder(BorderFactory.createEmptyBorder(15, 15, 15, 15));
+
+        add(createFilterPanel(), BorderLayout.NORTH);
+
+        table.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        table.setFillsViewportHeight(true);
+        int[] widths = {110, 220, 230, 110, 60, 380};
+        for (int c = 0; c < widths.length; c++) table.getColumnModel().getColumn(c).setPreferredWidth(widths[c]);
+        table.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (e.getClickCount() == 2) openSelected();
+            }
+        });
+        JTableHeader header = table.getTableHeader();
+        header.setReorderingAllowed(false);
+        header.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int column = table.convertColumnIndexToModel(header.columnAtPoint(e.getPoint()));
+                if (column >= 0 && COLUMN_ORDER[column] != null) sortBy(column);
+            }
+        });
+        add(new JScrollPane(table), BorderLayout.CENTER);
+
+        JButton openButton = new JButton("Open in Form");
+        openButton.addActionListener(e -> openSelected());
+        JPanel bottom = new JPanel(new BorderLayout());
+        bottom.add(status, BorderLayout.CENTER);
+        bottom.add(openButton, BorderLayout.EAST);
+        add(bottom, BorderLayout.SOUTH);
+
+        showHeaders();
+    }
+
+    private JPanel createFilterPanel() {
+        JPanel fields = new JPanel(new FlowLayout(FlowLayout.LEFT, 8, 0));
+        fields.add(branchBox);
+        fields.add(semesterBox);
+        fields.add(new JLabel("CGPA from"));
+        fields.add(minCgpaField);
+        fields.add(new JLabel("to"));
+        fields.add(maxCgpaField);
+        JButton applyButton = new JButton("Apply");
+        applyButton.addActionListener(e -> refresh());
+        fields.add(applyButton);
+        ActionListener apply = e -> refresh();
+        branchBox.addActionListener(apply);
+        semesterBox.addActionListener(apply);
+        minCgpaField.addActionListener(apply);
+        maxCgpaField.addActionListener(apply);
+
+        JPanel skills = new JPanel(new FlowLayout(FlowLayout.LEFT, 6, 0));
+        skills.add(new JLabel("Skills:"));
+        for (int i = 0; i < skillBoxes.length; i++) {
+            skillBoxes[i] = new JCheckBox(Biodata.SKILL_OPTIONS[i]);
+            skillBoxes[i].addActionListener(apply);
+            skills.add(skillBoxes[i]);
+        }
+
+        JPanel panel = new JPanel(new GridLayout(0, 1, 0, 6));
+        panel.add(fields);
+        panel.add(skills);
+        return panel;
+    }
+
+    /** Lists the students matching the filters in the current order. */
+    void refresh() {
+        BiodataQuery query;
+        try {
+            query = buildQuery();
+        } catch (IllegalArgumentException e) {
+            status.setText(e.getMessage());
+            return;
+        }
+        SearchIndex.Order order = COLUMN_ORDER[sortColumn];
+        boolean reversed = descending;
+        int current = ++generation;
+        status.setText("Loading...");
+        long start = System.nanoTime();
+        CompletableFuture.supplyAsync(() -> store.list(query, order, reversed))
+            .whenComplete((keys, ex) -> SwingUtilities.invokeLater(() -> {
+                if (current != generation) return; // a newer listing is running
+                if (ex != null) {
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    status.setText("Listing failed: " + cause.getMessage());
+                    return;
+                }
+                model.setKeys(keys);
+                status.setText(String.format(Locale.ROOT, "%s, sorted by %s (%s), listed in %d ms",
+                    keys.size() == 1 ? "1 student" : keys.size() + " students", COLUMNS[sortColumn],
+                    descending ? "descending" : "ascending", (System.nanoTime() - start) / 1_000_000));
+            }));
+    }
+
+    private void sortBy(int column) {
+        descending = column == sortColumn && !descending;
+        sortColumn = column;
+        showHeaders();
+        refresh();
+    }
+
+    // Marks the sorted column's header with the direction
+    private void showHeaders() {
+        for (int c = 0; c < COLUMNS.length; c++) {
+            String arrow = c != sortColumn ? "" : descending ? " \u25BC" : " \u25B2";
+            table.getColumnModel().getColumn(table.convertColumnIndexToView(c)).setHeaderValue(COLUMNS[c] + arrow);
+        }
+        table.getTableHeader().repaint();
+    }
+
+    private BiodataQuery buildQuery() {
+        BiodataQuery.Builder q = new BiodataQuery.Builder();
+        if (branchBox.getSelectedIndex() > 0) q.branch((String) branchBox.getSelectedItem());
+        if (semesterBox.getSelectedIndex() > 0) q.semester((String) semesterBox.getSelectedItem());
+        for (JCheckBox cb : skillBoxes) if (cb.isSelected()) q.skill(cb.getText());
+
+        float min = cgpa(minCgpaField);
+        float max = cgpa(maxCgpaField);
+        if (!Float.isNaN(min)) q.cgpaAtLeast(min);
+        if (!Float.isNaN(max)) q.cgpaAtMost(max);
+        return q.build();
+    }
+
+    private static float cgpa(JTextField field) {
+        String v = field.getText().trim();
+        float value = SearchIndex.parseCgpa(v);
+        if (!v.isEmpty() && Float.isNaN(value)) throw new IllegalArgumentException("CGPA must be a number: " + v);
+        return value;
+    }
+
+    private void openSelected() {
+        int row = table.getSelectedRow();
+        if (row < 0) return;
+        Biodata b = store.get(model.pages.key(table.convertRowIndexToModel(row)));
+        if (b != null) onOpen.accept(b);
+    }
+}
@@ -0,0 +1,306 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Columnar cohort snapshot
+ * {@link CohortColumns} saved to one file that is memory-mapped to answer
+ * analytical questions ("how many 8th-semester ECE students know Python")
+ * without opening the store or decoding a single record. The file is
+ *
+ *     int magic | int version | int rows | long takenAt (epoch millis)
+ *     3 dictionaries (branch, semester, gender): int count, count x (short length, UTF-8 bytes)
+ *     byte branch[rows] | byte semester[rows] | byte gender[rows] | byte age[rows]
+ *     float cgpa[rows] | long skills[rows]
+ *
+ * big-endian, with every column starting on an 8-byte boundary. Codes and
+ * values are as in {@link CohortColumns}; CGPA is stored as the float the
+ * search index compares. A scan is a primitive loop over the mapping with
+ * absolute reads, so it allocates nothing per row.
+ *
+ * Usage: java codeshere.experiments.CohortSnapshot [--refresh] [--branch B] [--semester S] [--skill K]... [--cgpa-min X] [--cgpa-max Y] <store-folder>
+ *
+ * --refresh (or a missing snapshot) rewrites the snapshot from the store first.
+ */
+final class CohortSnapshot {
+
+    static final String FILE_NAME = "cohort.snapshot";
+
+    private static final int MAGIC = 0x42494F43; // "BIOC"
+    private static final int VERSION = 1;
+
+    /** The students matching a query, by gender code, and their ages. */
+    static final class Tally {
+        final int students;
+        final int[] byGender;
+        /** Students with an age; the mean is over these. */
+        final int aged;
+        final long ageSum;
+
+        Tally(int students, int[] byGender, int aged, long ageSum) {
+            this.students = students;
+            this.byGender = byGender;
+            this.aged = aged;
+            this.ageSum = ageSum;
+        }
+
+        double meanAge() {
+            return aged == 0 ? Double.NaN : (double) ageSum / aged;
+        }
+    }
+
+    private final MappedByteBuffer map;
+    private final int rows;
+    private final long takenAt;
+    private final String[] branches;
+    private final String[] semesters;
+    private final String[] genders;
+    private final int branchAt;
+    private final int semesterAt;
+    private final int genderAt;
+    private final int ageAt;
+    private final int cgpaAt;
+    private final int skillsAt;
+
+    private CohortSnapshot(MappedByteBuffer map, File file) throws IOException {
+        this.map = map;
+        try {
+            if (map.getInt(0) != MAGIC) throw new IOException("Not a cohort snapshot: " + file);
+            if (map.getInt(4) != VERSION) throw new IOException("Unsupported cohort snapshot version " + map.getInt(4));
+            rows = map.getInt(8);
+            takenAt = map.getLong(12);
+            map.position(20);
+            branches = readDictionary(map);
+            semesters = readDictionary(map);
+            genders = readDictionary(map);
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupt cohort snapshot: " + file, e);
+        }
+        long at = align(map.position());
+        long[] offsets = new long[6];
+        long[] widths = {1, 1, 1, 1, 4, 8};
+        for (int c = 0; c < offsets.length; c++) {
+            offsets[c] = at;
+            at = align(at + widths[c] * rows);
+        }
+        if (rows < 0 || at > map.capacity()) throw new IOException("Truncated cohort snapshot: " + file);
+        branchAt = (int) offsets[0];
+        semesterAt = (int) offsets[1];
+        genderAt = (int) offsets[2];
+        ageAt = (int) offsets[3];
+        cgpaAt = (int) offsets[4];
+        skillsAt = (int) offsets[5];
+    }
+
+    /** Maps a snapshot file read-only. */
+    static CohortSnapshot open(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) throw new IOException("Cohort snapshot too large: " + file);
+            // The mapping stays valid after the channel is closed
+            return new CohortSnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), file);
+        }
+    }
+
+    /** Writes columns to a snapshot file, replacing it only once the new one is complete. */
+    static void write(CohortColumns columns, File file) throws IOException {
+        int rows = columns.size;
+        ByteArrayOutputStream headerBytes = new ByteArrayOutputStream();
+        DataOutputStream header = new DataOutputStream(headerBytes);
+        header.writeInt(MAGIC);
+        header.writeInt(VERSION);
+        header.writeInt(rows);
+        header.writeLong(System.currentTimeMillis());
+        writeDictionary(header, columns.branches);
+        writeDictionary(header, columns.semesters);
+        writeDictionary(header, columns.genders);
+        while (header.size() % 8 != 0) header.writeByte(0);
+        long size = header.size() + 4 * align(rows) + align(4L * rows) + 8L * rows;
+        if (size > Integer.MAX_VALUE) throw new IOException("Too many records for one snapshot: " + rows);
+
+        File temp = new File(file.getPath() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            out.put(headerBytes.toByteArray());
+            for (byte[] column : new byte[][] {columns.branch, columns.semester, columns.gender, columns.age}) {
+                out.put(column);
+                out.position((int) align(out.position()));
+            }
+            for (double v : columns.cgpa) out.putFloat((float) v);
+            out.position((int) align(out.position()));
+            for (long v : columns.skills) out.putLong(v);
+            out.force();
+        }
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    int size() {
+        return rows;
+    }
+
+    /** When the snapshot was taken, in epoch milliseconds. */
+    long takenAt() {
+        return takenAt;
+    }
+
+    /**
+     * Tallies the students matching a query's branch, semester, skills and
+     * CGPA range. Words, hobbies and "Other" skills are not in the snapshot.
+     */
+    Tally scan(BiodataQuery q) {
+        if (!q.text.isEmpty() || !q.hobbies.isEmpty()) {
+            throw new IllegalArgumentException("A cohort snapshot only filters by branch, semester, skills and CGPA");
+        }
+        long skills = 0;
+        for (String s : q.skills) {
+            int id = OptionDictionary.SKILLS.id(s);
+            if (id < 0) throw new IllegalArgumentException("Not a predefined skill: " + s);
+            skills |= 1L << id;
+        }
+        int branch = q.branch.isEmpty() ? -1 : Arrays.asList(branches).indexOf(q.branch);
+        int semester = q.semester.isEmpty() ? -1 : Arrays.asList(semesters).indexOf(q.semester);
+        int[] byGender = new int[genders.length];
+        if (!q.branch.isEmpty() && branch < 0 || !q.semester.isEmpty() && semester < 0) {
+            return new Tally(0, byGender, 0, 0); // a value no student has
+        }
+        boolean cgpaRange = q.hasCgpaRange();
+        float min = q.minCgpa;
+        float max = q.maxCgpa;
+
+        int students = 0;
+        int aged = 0;
+        long ageSum = 0;
+        for (int i = 0; i < rows; i++) {
+            if (branch >= 0 && (map.get(branchAt + i) & 0xFF) != branch) continue;
+            if (semester >= 0 && (map.get(semesterAt + i) & 0xFF) != semester) continue;
+            if (skills != 0 && (map.getLong(skillsAt + 8 * i) & skills) != skills) continue;
+            if (cgpaRange) {
+                float v = map.getFloat(cgpaAt + 4 * i);
+                if (!(v >= min && v <= max)) continue;
+            }
+            students++;
+            byGender[map.get(genderAt + i) & 0xFF]++;
+            int age = map.get(ageAt + i) & 0xFF;
+            if (age != 0) {
+                aged++;
+                ageSum += age;
+            }
+        }
+        return new Tally(students, byGender, aged, ageSum);
+    }
+
+    /** Copies the snapshot back into columns, e.g. for {@link CohortAnalytics}. */
+    CohortColumns columns() {
+        byte[][] bytes = new byte[4][rows];
+        int[] at = {branchAt, semesterAt, genderAt, ageAt};
+        for (int c = 0; c < bytes.length; c++) {
+            ByteBuffer column = map.duplicate();
+            column.position(at[c]);
+            column.get(bytes[c]);
+        }
+        double[] cgpa = new double[rows];
+        long[] skills = new long[rows];
+        for (int i = 0; i < rows; i++) {
+            cgpa[i] = map.getFloat(cgpaAt + 4 * i);
+            skills[i] = map.getLong(skillsAt + 8 * i);
+        }
+        return new CohortColumns(cgpa, bytes[0], bytes[1], bytes[2], bytes[3], skills,
+            branches.clone(), semesters.clone(), genders.clone());
+    }
+
+    private static long align(long offset) {
+        return (offset + 7) & ~7L;
+    }
+
+    private static void writeDictionary(DataOutputStream out, String[] values) throws IOException {
+        out.writeInt(values.length);
+        for (String v : values) {
+            byte[] utf8 = v.getBytes(StandardCharsets.UTF_8);
+            if (utf8.length > Short.MAX_VALUE) throw new IOException("Value too long for a snapshot dictionary");
+            out.writeShort(utf8.length);
+            out.write(utf8);
+        }
+    }
+
+    private static String[] readDictionary(ByteBuffer in) {
+        String[] values = new String[in.getInt()];
+        for (int i = 0; i < values.length; i++) {
+            byte[] utf8 = new byte[in.getShort()];
+            in.get(utf8);
+            values[i] = new String(utf8, StandardCharsets.UTF_8);
+        }
+        return values;
+    }
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+
+        boolean refresh = false;
+        BiodataQuery.Builder query = new BiodataQuery.Builder();
+        List<String> positional = new ArrayList<>();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if ("--refresh".equals(args[i])) {
+                    refresh = true;
+                } else if ("--branch".equals(args[i]) && i + 1 < args.length) {
+                    query.branch(args[++i]);
+                } else if ("--semester".equals(args[i]) && i + 1 < args.length) {
+                    query.semester(args[++i]);
+                } else if ("--skill".equals(args[i]) && i + 1 < args.length) {
+                    query.skill(args[++i]);
+                } else if ("--cgpa-min".equals(args[i]) && i + 1 < args.length) {
+                    query.cgpaAtLeast(Double.parseDouble(args[++i]));
+                } else if ("--cgpa-max".equals(args[i]) && i + 1 < args.length) {
+                    query.cgpaAtMost(Double.parseDouble(args[++i]));
+                } else {
+                    positional.add(args[i]);
+                }
+            }
+        } catch (NumberFormatException e) {
+            positional.clear();
+        }
+        if (positional.size() != 1) {
+            System.err.println("Usage: CohortSnapshot [--refresh] [--branch B] [--semester S] [--skill K]... [--cgpa-min X] [--cgpa-max Y] <store-folder>");
+            System.exit(2);
+        }
+
+        File directory = new File(positional.get(0));
+        File file = new File(directory, FILE_NAME);
+        try {
+            if (refresh || !file.isFile()) {
+                long start = System.nanoTime();
+                try (BiodataStore store = BiodataStore.open(directory)) {
+                    if (store.recovered() != null) System.err.println("Store recovered: " + store.recovered());
+                    store.writeSnapshot();
+                }
+                System.out.printf(Locale.ROOT, "Snapshot written in %d ms%n", (System.nanoTime() - start) / 1_000_000);
+            }
+            CohortSnapshot snapshot = open(file);
+            long start = System.nanoTime();
+            Tally tally = snapshot.scan(query.build());
+            long micros = (System.nanoTime() - start) / 1000;
+
+            StringBuilder genders = new StringBuilder();
+            for (int g = 0; g < tally.byGender.length; g++) {
+                if (tally.byGender[g] == 0) continue;
+                if (genders.length() > 0) genders.append(", ");
+                genders.append(tally.byGender[g]).append(' ').append(Biodata.orDefault(snapshot.genders[g], "unspecified"));
+            }
+            System.out.printf(Locale.ROOT, "%d of %d students match (%s)%s%nScanned in %d us; snapshot taken %s%n",
+                tally.students, snapshot.size(), genders.length() == 0 ? "none" : genders,
+                tally.aged == 0 ? "" : String.format(Locale.ROOT, ", mean age %.1f", tally.meanAge()),
+                micros, new Date(snapshot.takenAt()));
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Cohort query failed: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,346 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+import java.util.*;
+
+/**
+ * Duplicate biodata detector
+ * Finds records that probably describe the same student. Two records are
+ * linked when they share a registration number, email address or mobile
+ * number after normalization (case, spaces and punctuation; a +91 or 0
+ * prefix), or when both their names and their About Me texts are similar;
+ * for records without an About Me, their names and contact details.
+ * Linked records are merged into clusters with a union-find, so A~B and B~C
+ * gives {A, B, C}.
+ *
+ * Similarity is found with MinHash and locality-sensitive hashing instead
+ * of comparing every pair. A record keeps two signatures of {@value #HASHES}
+ * 16-bit minimum hashes: one over the character trigrams of its name, words
+ * in sorted order so "Kumar Rahul" is "Rahul Kumar", one over the word pairs
+ * of its About Me. A band is two hashes of each signature, and only records
+ * agreeing on a whole band are compared, each with at most {@value #WINDOW}
+ * earlier records of that band, so the work grows with the number of records
+ * rather than its square. A pair is linked when the estimated Jaccard
+ * similarities of the two signatures average at least the threshold and
+ * neither is below half of it: a shared name alone, or a shared boilerplate
+ * About Me alone, is not enough.
+ *
+ * A record with a blank About Me gets a signature over the character
+ * trigrams of its email address, mobile number and college instead, and is
+ * banded and compared only with other such records. Classmates share a
+ * college and often an email domain, so there both signatures must reach
+ * the threshold on their own.
+ *
+ * Records can be added from several threads at once; {@link #clusters()}
+ * is called once they are all in.
+ */
+final class DuplicateDetector {
+
+    /** Why records were put in one cluster; a set is an int mask of {@link #bit()} values. */
+    enum Match {
+        REGD, EMAIL, PHONE, SIMILAR;
+
+        int bit() {
+            return 1 << ordinal();
+        }
+
+        static String names(int mask) {
+            StringBuilder sb = new StringBuilder();
+            for (Match m : values()) {
+                if ((mask & m.bit()) == 0) continue;
+                if (sb.length() > 0) sb.append(' ');
+                sb.append(m.name());
+            }
+            return sb.toString();
+        }
+    }
+
+    /** Records believed to be one student: their ids in ascending order, and what linked them. */
+    static final class Cluster {
+        final int[] ids;
+        final int matches;
+
+        Cluster(int[] ids, int matches) {
+            this.ids = ids;
+            this.matches = matches;
+        }
+    }
+
+    static final double DEFAULT_THRESHOLD = 0.55;
+
+    static final int HASHES = 32;
+    private static final int BANDS = HASHES / 2;
+    // Most earlier records of a band bucket a record is compared with
+    static final int WINDOW = 32;
+    private static final long[] SEEDS = new long[HASHES];
+
+    static {
+        long seed = 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < HASHES; i++) SEEDS[i] = seed = mix(seed + i);
+    }
+
+    private final int similarHashes;
+
+    // Per record, by insertion index; a signature is null when its text is blank
+    private int size;
+    private int[] ids = new int[1024];
+    private char[][] names = new char[1024][];
+    private char[][] abouts = new char[1024][];
+    private char[][] contacts = new char[1024][];
+    // Union-find over the records, and the match bits of the links made at each record
+    private int[] parent = new int[1024];
+    private int[] matches = new int[1024];
+    // Records below this index have been through the similarity search
+    private int searched;
+
+    // Normalized key -> first record with it, per exact key
+    private final Map<String, Integer> byRegd = new HashMap<>();
+    private final Map<String, Integer> byEmail = new HashMap<>();
+    private final Map<String, Integer> byPhone = new HashMap<>();
+
+    DuplicateDetector() {
+        this(DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * @param threshold the estimated Jaccard similarity, 0-1, that the name
+     *                  and the About Me shingles of two records must reach on
+     *                  average for them to be linked
+     */
+    DuplicateDetector(double threshold) {
+        this.similarHashes = (int) Math.ceil(threshold * HASHES);
+    }
+
+    /** Adds a record under an id of the caller's choosing, e.g. its record number. */
+    void add(int id, Biodata b) {
+        // Keys and signatures are computed outside the lock
+        String regd = regdKey(b.regd);
+        String email = BiodataStore.normalizeEmail(b.email);
+        String phone = phoneKey(b.phone);
+        char[] name = nameSignature(b.name);
+        char[] about = aboutSignature(b.about);
+        char[] contact = about == null ? contactSignature(email, phone, b.college) : null;
+        synchronized (this) {
+            int index = size++;
+            if (index == ids.length) {
+                ids = Arrays.copyOf(ids, index * 2);
+                names = Arrays.copyOf(names, index * 2);
+                abouts = Arrays.copyOf(abouts, index * 2);
+                contacts = Arrays.copyOf(contacts, index * 2);
+                parent = Arrays.copyOf(parent, index * 2);
+                matches = Arrays.copyOf(matches, index * 2);
+            }
+            ids[index] = id;
+            names[index] = name;
+            abouts[index] = about;
+            contacts[index] = contact;
+            parent[index] = index;
+            linkKey(byRegd, regd, index, Match.REGD);
+            linkKey(byEmail, email, index, Match.EMAIL);
+            linkKey(byPhone, phone, index, Match.PHONE);
+        }
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    /** The clusters of two or more records, ordered by their smallest id. */
+    synchronized List<Cluster> clusters() {
+        if (searched < size) findSimilar();
+
+        // A record with a link is never alone in its cluster
+        int[] clusterMatches = new int[size];
+        for (int i = 0; i < size; i++) clusterMatches[find(i)] |= matches[i];
+        Map<Integer, List<Integer>> members = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            int root = find(i);
+            if (clusterMatches[root] != 0) members.computeIfAbsent(root, k -> new ArrayList<>()).add(ids[i]);
+        }
+        List<Cluster> clusters = new ArrayList<>(members.size());
+        for (Map.Entry<Integer, List<Integer>> e : members.entrySet()) {
+            int[] clusterIds = new int[e.getValue().size()];
+            for (int i = 0; i < clusterIds.length; i++) clusterIds[i] = e.getValue().get(i);
+            Arrays.sort(clusterIds);
+            clusters.add(new Cluster(clusterIds, clusterMatches[e.getKey()]));
+        }
+        clusters.sort(Comparator.comparingInt(c -> c.ids[0]));
+        return clusters;
+    }
+
+    // Links the similar records found through the bands: two hashes of each signature
+    private void findSimilar() {
+        Map<Long, int[]> aboutBuckets = new HashMap<>();
+        Map<Long, int[]> contactBuckets = new HashMap<>();
+        for (int band = 0; band < BANDS; band++) {
+            aboutBuckets.clear();
+            contactBuckets.clear();
+            int row = band * 2;
+            for (int i = 0; i < size; i++) {
+                char[] name = names[i];
+                char[] detail = abouts[i] != null ? abouts[i] : contacts[i];
+                if (name == null || detail == null) continue;
+                Map<Long, int[]> buckets = abouts[i] != null ? aboutBuckets : contactBuckets;
+                long key = (long) name[row] << 48 | (long) name[row + 1] << 32 | (long) detail[row] << 16 | detail[row + 1];
+                // Bucket: how many records fell in it, then the last WINDOW of them in a ring
+                int[] bucket = buckets.get(key);
+                if (bucket == null) {
+                    bucket = new int[1 + WINDOW];
+                    buckets.put(key, bucket);
+                }
+                // Records searched by an earlier call were compared with each other then
+                if (i >= searched) {
+                    for (int k = Math.min(bucket[0], WINDOW); k > 0; k--) {
+                        int j = bucket[k];
+                        if (find(i) != find(j) && similar(i, j)) link(j, i, Match.SIMILAR);
+                    }
+                }
+                bucket[1 + bucket[0] % WINDOW] = i;
+                bucket[0]++;
+            }
+        }
+        searched = size;
+    }
+
+    // Similar on average, and neither the name nor the About Me far apart;
+    // without About Me, both the name and the contact details similar
+    private boolean similar(int a, int b) {
+        int name = agreement(names[a], names[b]);
+        if (abouts[a] == null) {
+            return name >= similarHashes && agreement(contacts[a], contacts[b]) >= similarHashes;
+        }
+        if (name < similarHashes / 2) return false;
+        int about = agreement(abouts[a], abouts[b]);
+        return about >= similarHashes / 2 && name + about >= 2 * similarHashes;
+    }
+
+    private static int agreement(char[] a, char[] b) {
+        int same = 0;
+        for (int i = 0; i < HASHES; i++) {
+            if (a[i] == b[i]) same++;
+        }
+        return same;
+    }
+
+    private void linkKey(Map<String, Integer> index, String key, int record, Match match) {
+        if (key.isEmpty()) return;
+        Integer first = index.putIfAbsent(key, record);
+        if (first != null) link(first, record, match);
+    }
+
+    private void link(int a, int b, Match match) {
+        matches[b] |= match.bit();
+        int ra = find(a);
+        int rb = find(b);
+        // The earlier record becomes the root
+        if (ra < rb) parent[rb] = ra;
+        else if (rb < ra) parent[ra] = rb;
+    }
+
+    private int find(int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]]; // path halving
+            i = parent[i];
+        }
+        return i;
+    }
+
+    /** Registration number without case, spaces or punctuation. */
+    static String regdKey(String regd) {
+        StringBuilder sb = new StringBuilder(regd.length());
+        for (int i = 0; i < regd.length(); i++) {
+            char c = regd.charAt(i);
+            if (Character.isLetterOrDigit(c)) sb.append(Character.toUpperCase(c));
+        }
+        return sb.toString();
+    }
+
+    /** The last ten digits of a mobile number, dropping +91, 0 and separators. */
+    static String phoneKey(String phone) {
+        StringBuilder digits = new StringBuilder(phone.length());
+        for (int i = 0; i < phone.length(); i++) {
+            char c = phone.charAt(i);
+            if (c >= '0' && c <= '9') digits.append(c);
+        }
+        return digits.length() > 10 ? digits.substring(digits.length() - 10) : digits.toString();
+    }
+
+    /** MinHash signature of the trigrams of a name, its words sorted; null when blank. */
+    static char[] nameSignature(String name) {
+        String[] words = words(name);
+        if (words.length == 0) return null;
+        Arrays.sort(words);
+        // " kumar rahul ": the spaces make word starts and ends trigrams too
+        String text = ' ' + String.join(" ", words) + ' ';
+        return trigramSignature(text);
+    }
+
+    /** MinHash signature of the word pairs of an About Me text; null when blank. */
+    static char[] aboutSignature(String about) {
+        String[] words = words(about);
+        if (words.length == 0) return null;
+        char[] sig = emptySignature();
+        long previous = 0;
+        for (String word : words) {
+            long h = 0xCBF29CE484222325L; // FNV-1a
+            for (int k = 0; k < word.length(); k++) h = (h ^ word.charAt(k)) * 0x100000001B3L;
+            add(sig, previous * 31 + h);
+            previous = h;
+        }
+        return sig;
+    }
+
+    /**
+     * MinHash signature of the trigrams of normalized contact details: email
+     * key, phone key and the college's words; null when all are blank.
+     */
+    static char[] contactSignature(String emailKey, String phoneKey, String college) {
+        String[] words = words(college);
+        if (emailKey.isEmpty() && phoneKey.isEmpty() && words.length == 0) return null;
+        String text = ' ' + emailKey + ' ' + phoneKey + ' ' + String.join(" ", words) + ' ';
+        return trigramSignature(text);
+    }
+
+    private static char[] trigramSignature(String text) {
+        char[] sig = emptySignature();
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            add(sig, (long) text.charAt(i) << 32 | (long) text.charAt(i + 1) << 16 | text.charAt(i + 2));
+        }
+        return sig;
+    }
+
+    private static char[] emptySignature() {
+        char[] sig = new char[HASHES];
+        Arrays.fill(sig, Character.MAX_VALUE);
+        return sig;
+    }
+
+    private static void add(char[] sig, long shingle) {
+        for (int i = 0; i < HASHES; i++) {
+            char h = (char) (mix(shingle ^ SEEDS[i]) >>> 48);
+            if (h < sig[i]) sig[i] = h;
+        }
+    }
+
+    // The lower-case words of a text: its runs of letters and digits
+    private static String[] words(String text) {
+        List<String> words = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean letter = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (letter && start < 0) {
+                start = i;
+            } else if (!letter && start >= 0) {
+                words.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return words.toArray(new String[0]);
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
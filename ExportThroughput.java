@@ -0,0 +1,45 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Export throughput counter
+ * Collects record and byte counts from concurrent exporters and reports
+ * records/s and MB/s for the elapsed wall-clock time.
+ */
+final class ExportThroughput {
+
+    private final LongAdder records = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final long startNanos = System.nanoTime();
+
+    void record(long byteCount) {
+        records.increment();
+        bytes.add(byteCount);
+    }
+
+    /** Counts several records written together, e.g. as one print job. */
+    void record(int recordCount, long byteCount) {
+        records.add(recordCount);
+        bytes.add(byteCount);
+    }
+
+    long records() {
+        return records.sum();
+    }
+
+    long bytes() {
+        return bytes.sum();
+    }
+
+    @Override
+    public String toString() {
+        long nanos = Math.max(1, System.nanoTime() - startNanos);
+        double seconds = nanos / 1e9;
+        double mb = bytes.sum() / (1024.0 * 1024.0);
+        return String.format("%d record(s), %.2f MB in %d ms (%.0f records/s, %.2f MB/s)",
+            records.sum(), mb, TimeUnit.NANOSECONDS.toMillis(nanos),
+            records.sum() / seconds, mb / seconds);
+    }
+}
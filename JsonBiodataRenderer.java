@@ -0,0 +1,95 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * JSON biodata renderer
+ * Writes a biodata as one JSON object on a single line, keyed like the batch
+ * input (name, age, ..., skills, otherSkills, hobbies, otherHobbies, about,
+ * achievements) with the selected skills and hobbies as arrays. Output is
+ * therefore valid JSONL and can be fed straight back to the batch generator.
+ * Non-ASCII text is written as is; the document is meant to be stored as UTF-8.
+ */
+final class JsonBiodataRenderer implements BiodataRenderer<String> {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final String generatedOn;
+
+    /**
+     * @param generatedOn the value of the "generatedOn" key, see {@link TextBiodataRenderer#timestamp}
+     */
+    JsonBiodataRenderer(String generatedOn) {
+        this.generatedOn = generatedOn;
+    }
+
+    @Override
+    public String render(Biodata b) {
+        StringBuilder sb = new StringBuilder(1024);
+        try {
+            write(b, sb);
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // StringBuilder never throws
+        }
+        return sb.toString();
+    }
+
+    /** Writes the object followed by a line feed. */
+    void write(Biodata b, Appendable out) throws IOException {
+        out.append('{');
+        boolean first = true;
+        for (BiodataField field : BiodataField.values()) {
+            // The option lists sit in front of their free-text entries, as in the form
+            if (field == BiodataField.OTHER_SKILLS) array("skills", b.skills, out);
+            if (field == BiodataField.OTHER_HOBBIES) array("hobbies", b.hobbies, out);
+            if (!first) out.append(',');
+            first = false;
+            key(field.key, out);
+            string(field.valueOf(b), out);
+        }
+        out.append(',');
+        key("generatedOn", out);
+        string(generatedOn, out);
+        out.append("}\n");
+    }
+
+    private static void array(String name, List<String> values, Appendable out) throws IOException {
+        out.append(',');
+        key(name, out);
+        out.append('[');
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) out.append(',');
+            string(values.get(i), out);
+        }
+        out.append(']');
+    }
+
+    private static void key(String name, Appendable out) throws IOException {
+        string(name, out);
+        out.append(':');
+    }
+
+    /** A JSON string literal; also escapes U+2028/U+2029 so it can be embedded in a script. */
+    static void string(String s, Appendable out) throws IOException {
+        out.append('"');
+        int start = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c >= 0x20 && c != '"' && c != '\\' && c != '\u2028' && c != '\u2029') continue;
+            out.append(s, start, i);
+            start = i + 1;
+            switch (c) {
+                case '"': out.append("\\\""); break;
+                case '\\': out.append("\\\\"); break;
+                case '\n': out.append("\\n"); break;
+                case '\r': out.append("\\r"); break;
+                case '\t': out.append("\\t"); break;
+                default:
+                    out.append("\\u").append(HEX[c >> 12]).append(HEX[(c >> 8) & 0xF])
+                        .append(HEX[(c >> 4) & 0xF]).append(HEX[c & 0xF]);
+            }
+        }
+        out.append(s, start, s.length()).append('"');
+    }
+}
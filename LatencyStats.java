@@ -0,0 +1,51 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+/**
+ * Latency statistics
+ * A fixed-size log2 histogram of durations in nanoseconds. Recording is a
+ * couple of arithmetic operations and never allocates, so it can sit on the
+ * EDT's hot path. Percentiles are reported as bucket upper bounds.
+ */
+final class LatencyStats {
+
+    private final String name;
+    private final long[] buckets = new long[64];
+    private long count;
+    private long total;
+    private long max;
+
+    LatencyStats(String name) {
+        this.name = name;
+    }
+
+    synchronized void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        buckets[64 - Long.numberOfLeadingZeros(nanos | 1) - 1]++;
+        count++;
+        total += nanos;
+        if (nanos > max) max = nanos;
+    }
+
+    synchronized long count() {
+        return count;
+    }
+
+    /** Upper bound, in nanoseconds, of the bucket holding the given percentile. */
+    synchronized long percentile(double p) {
+        if (count == 0) return 0;
+        long rank = (long) Math.ceil(count * p / 100.0);
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= rank) return Math.min(max, (2L << i) - 1);
+        }
+        return max;
+    }
+
+    @Override
+    public synchronized String toString() {
+        if (count == 0) return name + ": no samples";
+        return String.format("%s: n=%d mean=%.1fus p50<=%.1fus p99<=%.1fus max=%.1fus",
+            name, count, total / (double) count / 1e3, percentile(50) / 1e3, percentile(99) / 1e3, max / 1e3);
+    }
+}
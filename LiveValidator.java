@@ -0,0 +1,161 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+import javax.swing.*;
+import javax.swing.border.Border;
+import javax.swing.event.*;
+import javax.swing.text.JTextComponent;
+import java.awt.*;
+import java.awt.event.ItemEvent;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Live field validation
+ * Re-checks a single field shortly after the user stops typing in it and
+ * marks it with a red border and a tooltip listing its errors. The document
+ * listener only restarts a timer, so typing itself does no validation work.
+ * Two latencies are recorded. {@link #keystrokeStats()} runs from an edit to
+ * the moment the EDT reaches a probe queued behind it, after every listener
+ * of the edit has run. {@link #validationStats()} times the debounced check
+ * and decoration.
+ */
+final class LiveValidator {
+
+    static final int DEFAULT_DELAY_MS = 300;
+
+    private final ValidationEngine engine;
+    private final int delayMs;
+    private final Color errorColor;
+    private final Map<BiodataField, Watched> watched = new EnumMap<>(BiodataField.class);
+    private final LatencyStats keystrokeStats = new LatencyStats("keystroke to idle EDT");
+    private final LatencyStats validationStats = new LatencyStats("field validation");
+    private boolean probePending;
+
+    /** A watched component, its original look, and its pending debounce timer. */
+    private final class Watched {
+        final BiodataField field;
+        final JComponent component;
+        final Border normalBorder;
+        final String normalTooltip;
+        final Timer timer;
+        int shownErrors;
+
+        Watched(BiodataField field, JComponent component) {
+            this.field = field;
+            this.component = component;
+            this.normalBorder = component.getBorder();
+            this.normalTooltip = component.getToolTipText();
+            this.timer = new Timer(delayMs, e -> check(this));
+            this.timer.setRepeats(false);
+        }
+    }
+
+    LiveValidator(ValidationEngine engine, int delayMs, Color errorColor) {
+        this.engine = engine;
+        this.delayMs = delayMs;
+        this.errorColor = errorColor;
+    }
+
+    void watch(BiodataField field, JTextComponent textComponent) {
+        Watched w = register(field, textComponent);
+        textComponent.getDocument().addDocumentListener(new DocumentListener() {
+            @Override public void insertUpdate(DocumentEvent e) { edited(w); }
+            @Override public void removeUpdate(DocumentEvent e) { edited(w); }
+            @Override public void changedUpdate(DocumentEvent e) {}
+        });
+    }
+
+    void watch(BiodataField field, JComboBox<String> comboBox) {
+        Watched w = register(field, comboBox);
+        // A selection is a single discrete change, so check it right away
+        comboBox.addItemListener(e -> {
+            if (e.getStateChange() == ItemEvent.SELECTED) check(w);
+        });
+    }
+
+    /** Marks the fields named in an error mask, e.g. after Generate found problems. */
+    void show(int errors) {
+        for (Watched w : watched.values()) {
+            w.timer.stop();
+            decorate(w, errors & fieldMask(w.field));
+        }
+    }
+
+    /** Cancels pending checks and removes all error marks, e.g. after Clear All. */
+    void reset() {
+        for (Watched w : watched.values()) {
+            w.timer.stop();
+            decorate(w, 0);
+        }
+    }
+
+    LatencyStats keystrokeStats() {
+        return keystrokeStats;
+    }
+
+    LatencyStats validationStats() {
+        return validationStats;
+    }
+
+    private Watched register(BiodataField field, JComponent component) {
+        Watched w = new Watched(field, component);
+        watched.put(field, w);
+        return w;
+    }
+
+    private void edited(Watched w) {
+        w.timer.restart();
+        // One probe per burst of events: a replace fires a remove and an insert for one keystroke
+        if (probePending) return;
+        probePending = true;
+        long start = System.nanoTime();
+        SwingUtilities.invokeLater(() -> {
+            probePending = false;
+            keystrokeStats.record(System.nanoTime() - start);
+        });
+    }
+
+    private void check(Watched w) {
+        long start = System.nanoTime();
+        decorate(w, engine.validateField(w.field, currentValue(w.component)));
+        validationStats.record(System.nanoTime() - start);
+    }
+
+    private void decorate(Watched w, int errors) {
+        if (errors == w.shownErrors) return;
+        w.shownErrors = errors;
+        if (errors == 0) {
+            w.component.setBorder(w.normalBorder);
+            w.component.setToolTipText(w.normalTooltip);
+        } else {
+            w.component.setBorder(BorderFactory.createCompoundBorder(
+                BorderFactory.createLineBorder(errorColor, 2), w.normalBorder));
+            w.component.setToolTipText(tooltip(errors));
+        }
+    }
+
+    private static String currentValue(JComponent component) {
+        if (component instanceof JTextComponent) return ((JTextComponent) component).getText();
+        JComboBox<?> combo = (JComboBox<?>) component;
+        return combo.getSelectedIndex() > 0 ? String.valueOf(combo.getSelectedItem()) : "";
+    }
+
+    private static int fieldMask(BiodataField field) {
+        int mask = 0;
+        for (ValidationError e : ValidationError.values()) {
+            if (e.field == field) mask |= e.bit();
+        }
+        return mask;
+    }
+
+    private static String tooltip(int errors) {
+        StringBuilder sb = new StringBuilder("<html>");
+        for (ValidationError e : ValidationError.values()) {
+            if (e.in(errors)) {
+                if (sb.length() > 6) sb.append("<br>");
+                sb.append(e.message);
+            }
+        }
+        return sb.append("</html>").toString();
+    }
+}
@@ -0,0 +1,108 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+import java.util.*;
+
+/**
+ * Skill and hobby dictionary
+ * Gives every predefined option of the Skills & Interests section a fixed id
+ * (its checkbox position), so a record's selection is a single {@code long}
+ * with one bit per option: counting, filtering and comparing selections are
+ * word operations instead of string comparisons.
+ *
+ * Entries typed into the "Other" fields are interned into a side table on
+ * demand and get ids from {@link #MAX_OPTIONS} upwards, so they never collide
+ * with option bits. Custom entries are matched case-insensitively.
+ */
+final class OptionDictionary {
+
+    /** Options that fit in a selection mask. */
+    static final int MAX_OPTIONS = 64;
+
+    static final OptionDictionary SKILLS = new OptionDictionary(Biodata.SKILL_OPTIONS);
+    static final OptionDictionary HOBBIES = new OptionDictionary(Biodata.HOBBY_OPTIONS);
+
+    private final String[] options;
+    private final Map<String, Integer> optionIds = new HashMap<>();
+
+    // Side table for custom entries, keyed by lower-cased text
+    private final Map<String, Integer> customIds = new HashMap<>();
+    private final List<String> custom = new ArrayList<>();
+
+    private OptionDictionary(String[] options) {
+        if (options.length > MAX_OPTIONS) throw new IllegalArgumentException("More than " + MAX_OPTIONS + " options");
+        this.options = options.clone();
+        for (int i = 0; i < options.length; i++) optionIds.put(options[i], i);
+    }
+
+    /** The id of a predefined option, or -1 if it is not one. */
+    int id(String option) {
+        Integer id = optionIds.get(option);
+        return id == null ? -1 : id;
+    }
+
+    /** The selection bit of a predefined option. */
+    long bit(String option) {
+        int id = id(option);
+        if (id < 0) throw new IllegalArgumentException("Unknown option: " + option);
+        return 1L << id;
+    }
+
+    /** The predefined options of a selection, in form order. */
+    List<String> names(long bits) {
+        List<String> names = new ArrayList<>(Long.bitCount(bits));
+        for (long rest = bits; rest != 0; rest &= rest - 1) {
+            names.add(options[Long.numberOfTrailingZeros(rest)]);
+        }
+        return names;
+    }
+
+    /** The option or custom entry with an id. */
+    synchronized String name(int id) {
+        return id < MAX_OPTIONS ? options[id] : custom.get(id - MAX_OPTIONS);
+    }
+
+    /** The id of a custom entry, interning it on first use. */
+    synchronized int intern(String entry) {
+        String key = entry.trim().toLowerCase(Locale.ROOT);
+        Integer id = customIds.get(key);
+        if (id == null) {
+            id = MAX_OPTIONS + custom.size();
+            customIds.put(key, id);
+            custom.add(entry.trim());
+        }
+        return id;
+    }
+
+    /** The id of an option or an already interned custom entry, or -1. */
+    synchronized int lookup(String entry) {
+        int id = id(entry);
+        if (id >= 0) return id;
+        Integer customId = customIds.get(entry.trim().toLowerCase(Locale.ROOT));
+        return customId == null ? -1 : customId;
+    }
+
+    /** The entries of an "Other" field: comma or semicolon separated, trimmed, blanks dropped. */
+    static List<String> split(String other) {
+        List<String> entries = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i <= other.length(); i++) {
+            if (i == other.length() || other.charAt(i) == ',' || other.charAt(i) == ';') {
+                String entry = other.substring(start, i).trim();
+                if (!entry.isEmpty()) entries.add(entry);
+                start = i + 1;
+            }
+        }
+        return entries;
+    }
+
+    /** True when a selection includes every option of {@code required}. */
+    static boolean containsAll(long bits, long required) {
+        return (bits & required) == required;
+    }
+
+    /** Jaccard similarity of two selections: shared options over options in either. */
+    static double similarity(long a, long b) {
+        long union = a | b;
+        return union == 0 ? 0 : (double) Long.bitCount(a & b) / Long.bitCount(union);
+    }
+}
@@ -0,0 +1,498 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.*;
+import java.text.SimpleDateFormat;
+import java.util.*;
+import java.util.List;
+
+/**
+ * PDF biodata renderer
+ * Writes the "PROFESSIONAL BIODATA" document as a vector A4 PDF laid out like
+ * the on-screen preview: title beside the photo, then one boxed section per
+ * group of fields. Long sections continue on the next page instead of being
+ * shrunk: a section that fits on a fresh page is moved there whole, and a
+ * heading is never left at the bottom of a page without its first lines.
+ *
+ * Pages are streamed to the output one at a time through {@link PdfWriter};
+ * text uses the base-14 Helvetica fonts (see {@link PdfFont}), which need no
+ * font data. A paragraph with characters outside WinAnsi, such as a
+ * Devanagari name, is printed in a subset of an installed TrueType font
+ * instead (see {@link PdfTrueTypeFont}); when no font has its glyphs the
+ * document is refused with an {@link PdfTrueTypeFont.UnprintableTextException}
+ * rather than printed with missing characters. The photo is written once per
+ * document as a JPEG image XObject shared through the common page resources.
+ * Encoded photos are kept in a small LRU cache so a batch reusing a photo
+ * decodes it once; photos in a {@link PhotoStore} are embedded as stored.
+ *
+ * Thread-safe: one renderer can serve every thread of a batch.
+ */
+final class PdfBiodataRenderer implements BiodataRenderer<byte[]> {
+
+    // A4 in points
+    static final float PAGE_WIDTH = 595.28f;
+    static final float PAGE_HEIGHT = 841.89f;
+
+    private static final float MARGIN = 50;
+    private static final float CONTENT_WIDTH = PAGE_WIDTH - 2 * MARGIN;
+    // Content stops above the page number band
+    private static final float CONTENT_BOTTOM = PAGE_HEIGHT - MARGIN - 16;
+    private static final float BOX_PADDING = 12;
+    private static final float TEXT_WIDTH = CONTENT_WIDTH - 2 * BOX_PADDING;
+
+    private static final float TITLE_SIZE = 22;
+    private static final float SECTION_SIZE = 14;
+    private static final float ITEM_SIZE = 10.5f;
+    private static final float FOOTER_SIZE = 9;
+    private static final float ITEM_LEADING = 14;
+    private static final float ENTRY_GAP = 5;
+    // Helvetica ascender, as a fraction of the font size
+    private static final float ASCENT = 0.718f;
+
+    // Photo box in points; the image itself is encoded at twice that for print
+    private static final int PHOTO_WIDTH = PhotoService.PREVIEW_SIZE.width;
+    private static final int PHOTO_HEIGHT = PhotoService.PREVIEW_SIZE.height;
+    private static final int PHOTO_BORDER = 2;
+    private static final int PHOTO_CACHE_ENTRIES = 32;
+
+    private static final Color TEXT = Color.BLACK;
+    private static final Color BOX_BORDER = new Color(200, 200, 200);
+
+    /** A photo ready to embed: baseline JPEG of an RGB image. */
+    private static final class Photo {
+        final byte[] jpeg;
+        final int width;
+        final int height;
+
+        Photo(byte[] jpeg, int width, int height) {
+            this.jpeg = jpeg;
+            this.width = width;
+            this.height = height;
+        }
+    }
+
+    /** A wrapped line: WinAnsi text, or text shaped in the embedded font. */
+    private static final class Line {
+        final String text;
+        final PdfTrueTypeFont.Shaped shaped;
+
+        Line(String text, PdfTrueTypeFont.Shaped shaped) {
+            this.text = text;
+            this.shaped = shaped;
+        }
+    }
+
+    /** One line of text placed on a page, y measured down from the top edge. */
+    private static final class Run {
+        // Null when the line is shaped in the embedded font
+        final PdfFont font;
+        final float size;
+        final Color color;
+        final float x;
+        final float baseline;
+        final Line line;
+
+        Run(PdfFont font, float size, Color color, float x, float baseline, Line line) {
+            this.font = line.shaped == null ? font : null;
+            this.size = size;
+            this.color = color;
+            this.x = x;
+            this.baseline = baseline;
+            this.line = line;
+        }
+    }
+
+    private static final class Page {
+        final List<Run> runs = new ArrayList<>();
+        // x, top, width, height of each section box (or box part)
+        final List<float[]> boxes = new ArrayList<>();
+        float[] photo;
+    }
+
+    private final Color titleColor;
+    private final String generatedOn;
+    private final PhotoStore store;
+
+    private final Map<String, Photo> photos = new LinkedHashMap<String, Photo>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Photo> eldest) {
+            return size() > PHOTO_CACHE_ENTRIES;
+        }
+    };
+
+    /**
+     * @param generatedOn the value printed after "Generated on: ", see {@link #timestamp(Date)}
+     */
+    PdfBiodataRenderer(Color titleColor, String generatedOn) {
+        this(titleColor, generatedOn, null);
+    }
+
+    /**
+     * @param store where "photo:" references are read from, or null to leave
+     *              such photos out
+     */
+    PdfBiodataRenderer(Color titleColor, String generatedOn, PhotoStore store) {
+        this.titleColor = titleColor;
+        this.generatedOn = generatedOn;
+        this.store = store;
+    }
+
+    static String timestamp(Date date) {
+        return new SimpleDateFormat("dd MMM yyyy").format(date);
+    }
+
+    /**
+     * @throws IllegalArgumentException when no installed font can print the
+     *                                  record's text
+     */
+    @Override
+    public byte[] render(Biodata b) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16 * 1024);
+        try {
+            write(b, out);
+        } catch (PdfTrueTypeFont.UnprintableTextException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // ByteArrayOutputStream never throws
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Writes the document to {@code out}, which is flushed but not closed, and
+     * returns its size in bytes.
+     *
+     * @throws PdfTrueTypeFont.UnprintableTextException before anything is
+     *         written, when no installed font can print the record's text
+     */
+    long write(Biodata b, OutputStream out) throws IOException {
+        Map<String, List<String>> sections = sections(b);
+        String footer = "Generated on: " + generatedOn;
+        PdfTrueTypeFont unicode = unicodeFont(sections, footer);
+        Photo photo = b.photoPath.isEmpty() ? null : photo(b.photoPath);
+        List<Page> pages = layout(sections, footer, photo != null, unicode);
+
+        PdfWriter pdf = new PdfWriter(out);
+        int catalog = pdf.reserve();
+        int pageTree = pdf.reserve();
+        int resources = pdf.reserve();
+        int info = pdf.reserve();
+
+        StringBuilder dict = new StringBuilder("<< /ProcSet [/PDF /Text /ImageC] /Font <<");
+        for (PdfFont font : PdfFont.ALL) {
+            int number = pdf.reserve();
+            pdf.object(number, font.dictionary());
+            dict.append(" /").append(font.resource).append(' ').append(PdfWriter.ref(number));
+        }
+        int embedded = 0;
+        if (unicode != null) {
+            embedded = pdf.reserve();
+            dict.append(" /").append(PdfTrueTypeFont.RESOURCE).append(' ').append(PdfWriter.ref(embedded));
+        }
+        dict.append(" >>");
+        if (photo != null) {
+            int image = pdf.reserve();
+            pdf.stream(image, "/Type /XObject /Subtype /Image /Width " + photo.width + " /Height " + photo.height
+                + " /ColorSpace /DeviceRGB /BitsPerComponent 8 /Filter /DCTDecode", photo.jpeg, photo.jpeg.length);
+            dict.append(" /XObject << /Photo ").append(PdfWriter.ref(image)).append(" >>");
+        }
+        pdf.object(resources, dict.append(" >>").toString());
+
+        StringBuilder kids = new StringBuilder();
+        PdfWriter.Content content = new PdfWriter.Content();
+        for (int i = 0; i < pages.size(); i++) {
+            int contents = pdf.reserve();
+            int page = pdf.reserve();
+            pdf.stream(contents, paint(pages.get(i), i + 1, pages.size(), unicode, content.reset()));
+            pdf.object(page, "<< /Type /Page /Parent " + PdfWriter.ref(pageTree) + " /MediaBox [0 0 "
+                + PAGE_WIDTH + " " + PAGE_HEIGHT + "] /Resources " + PdfWriter.ref(resources)
+                + " /Contents " + PdfWriter.ref(contents) + " >>");
+            kids.append(PdfWriter.ref(page)).append(' ');
+        }
+        if (unicode != null) {
+            PdfTrueTypeFont.Subset subset = unicode.new Subset();
+            for (Page page : pages) {
+                for (Run run : page.runs) if (run.line.shaped != null) subset.add(run.line.shaped);
+            }
+            subset.write(pdf, embedded);
+        }
+        pdf.object(pageTree, "<< /Type /Pages /Kids [" + kids + "] /Count " + pages.size() + " >>");
+        pdf.object(catalog, "<< /Type /Catalog /Pages " + PdfWriter.ref(pageTree) + " >>");
+        pdf.object(info, "<< /Title " + PdfWriter.literal("Professional Biodata - " + b.name)
+            + "/Producer (Professional Biodata System) >>");
+        pdf.finish(catalog, info);
+        return pdf.size();
+    }
+
+    // The font for the text Helvetica cannot print, or null when there is none
+    private static PdfTrueTypeFont unicodeFont(Map<String, List<String>> sections, String footer)
+            throws PdfTrueTypeFont.UnprintableTextException {
+        StringBuilder text = new StringBuilder();
+        if (!PdfFont.canEncode(footer)) text.append(footer);
+        for (List<String> items : sections.values()) {
+            for (String item : items) if (!PdfFont.canEncode(item)) text.append(item);
+        }
+        return text.length() == 0 ? null : PdfTrueTypeFont.forText(text.toString());
+    }
+
+    private List<Page> layout(Map<String, List<String>> sections, String footer, boolean hasPhoto,
+                              PdfTrueTypeFont unicode) {
+        List<Page> pages = new ArrayList<>();
+        Page page = new Page();
+        pages.add(page);
+        float y = MARGIN;
+
+        // Header: title centered beside the photo
+        float photoBoxWidth = hasPhoto ? PHOTO_WIDTH + 2 * PHOTO_BORDER : 0;
+        float photoBoxHeight = hasPhoto ? PHOTO_HEIGHT + 2 * PHOTO_BORDER : 0;
+        String title = "PROFESSIONAL BIODATA";
+        float titleHeight = TITLE_SIZE * 1.2f;
+        float headerHeight = Math.max(titleHeight, photoBoxHeight);
+        float titleX = MARGIN + Math.max(0,
+            (CONTENT_WIDTH - photoBoxWidth - PdfFont.HELVETICA_BOLD.width(title, TITLE_SIZE)) / 2);
+        page.runs.add(new Run(PdfFont.HELVETICA_BOLD, TITLE_SIZE, titleColor, titleX,
+            y + (headerHeight - titleHeight) / 2 + TITLE_SIZE * ASCENT, new Line(title, null)));
+        if (hasPhoto) {
+            page.photo = new float[] {MARGIN + CONTENT_WIDTH - photoBoxWidth, y + (headerHeight - photoBoxHeight) / 2,
+                                      photoBoxWidth, photoBoxHeight};
+        }
+        y += headerHeight + 20;
+
+        for (Map.Entry<String, List<String>> section : sections.entrySet()) {
+            List<List<Line>> entries = new ArrayList<>();
+            float bodyHeight = 2 * BOX_PADDING;
+            for (String item : section.getValue()) {
+                List<Line> lines = wrap(item, PdfFont.HELVETICA, unicode, ITEM_SIZE, TEXT_WIDTH);
+                entries.add(lines);
+                bodyHeight += lines.size() * ITEM_LEADING + ENTRY_GAP;
+            }
+            float headingHeight = SECTION_SIZE * 1.2f + 8;
+            float before = 12;
+            float whole = before + headingHeight + bodyHeight;
+            float minimum = before + headingHeight + BOX_PADDING + 2 * ITEM_LEADING;
+            boolean atTop = y == MARGIN;
+            // Move the whole section when it fits on a fresh page; otherwise keep the heading with two lines
+            if (!atTop && (y + whole > CONTENT_BOTTOM && whole <= CONTENT_BOTTOM - MARGIN
+                    || y + minimum > CONTENT_BOTTOM)) {
+                page = new Page();
+                pages.add(page);
+                y = MARGIN;
+                atTop = true;
+            }
+            if (!atTop) y += before;
+
+            page.runs.add(new Run(PdfFont.HELVETICA_BOLD, SECTION_SIZE, titleColor, MARGIN,
+                y + SECTION_SIZE * ASCENT, new Line(section.getKey(), null)));
+            y += headingHeight;
+
+            float boxTop = y;
+            y += BOX_PADDING;
+            for (List<Line> lines : entries) {
+                for (Line line : lines) {
+                    if (y + ITEM_LEADING > CONTENT_BOTTOM - BOX_PADDING) {
+                        page.boxes.add(new float[] {MARGIN, boxTop, CONTENT_WIDTH, y + BOX_PADDING - boxTop});
+                        page = new Page();
+                        pages.add(page);
+                        y = MARGIN;
+                        boxTop = y;
+                        y += BOX_PADDING;
+                    }
+                    if (!line.text.isEmpty()) {
+                        page.runs.add(new Run(PdfFont.HELVETICA, ITEM_SIZE, TEXT, MARGIN + BOX_PADDING,
+                            y + ITEM_SIZE * ASCENT + (ITEM_LEADING - ITEM_SIZE) / 2, line));
+                    }
+                    y += ITEM_LEADING;
+                }
+                y += ENTRY_GAP;
+            }
+            y += BOX_PADDING - ENTRY_GAP;
+            page.boxes.add(new float[] {MARGIN, boxTop, CONTENT_WIDTH, y - boxTop});
+        }
+
+        if (y + 24 + FOOTER_SIZE > CONTENT_BOTTOM) {
+            page = new Page();
+            pages.add(page);
+            y = MARGIN;
+        } else {
+            y += 24;
+        }
+        Line footerLine = new Line(footer, PdfFont.canEncode(footer) ? null : unicode.shape(footer));
+        float footerWidth = footerLine.shaped == null ? PdfFont.HELVETICA_OBLIQUE.width(footer, FOOTER_SIZE)
+            : footerLine.shaped.width(FOOTER_SIZE);
+        float footerX = MARGIN + Math.max(0, (CONTENT_WIDTH - footerWidth) / 2);
+        page.runs.add(new Run(PdfFont.HELVETICA_OBLIQUE, FOOTER_SIZE, Color.GRAY, footerX,
+            y + FOOTER_SIZE * ASCENT, footerLine));
+        return pages;
+    }
+
+    // Same sections and entries as the on-screen preview
+    private static Map<String, List<String>> sections(Biodata b) {
+        Map<String, List<String>> sections = new LinkedHashMap<>();
+        sections.put("Personal Information", Arrays.asList(
+            "Name: " + b.name,
+            "Age: " + b.age,
+            "Gender: " + Biodata.orDefault(b.gender, "Not specified")
+        ));
+        sections.put("Academic Information", Arrays.asList(
+            "Registration Number: " + b.regd,
+            "Branch: " + Biodata.orDefault(b.branch, "Not specified"),
+            "Current Semester: " + Biodata.orDefault(b.semester, "Not specified"),
+            "CGPA: " + Biodata.orDefault(b.cgpa, "Not specified"),
+            "College/University: " + Biodata.orDefault(b.college, "Not specified")
+        ));
+        sections.put("Contact Information", Arrays.asList(
+            "Mobile Number: " + b.phone,
+            "Email Address: " + b.email,
+            "LinkedIn: " + Biodata.orDefault(b.linkedin, "Not provided"),
+            "GitHub: " + Biodata.orDefault(b.github, "Not provided"),
+            "Address: " + Biodata.orDefault(b.address, "Not provided")
+        ));
+        sections.put("Skills & Interests", Arrays.asList(
+            "Technical Skills: " + Biodata.orDefault(b.skillsLine(), "None specified"),
+            "Hobbies & Interests: " + Biodata.orDefault(b.hobbiesLine(), "None specified")
+        ));
+        if (b.hasAdditionalInfo()) {
+            sections.put("Additional Information", Arrays.asList(
+                "About Me: " + Biodata.orDefault(b.about, "Not provided"),
+                "Achievements & Projects: " + Biodata.orDefault(b.achievements, "Not provided")
+            ));
+        }
+        return sections;
+    }
+
+    /**
+     * Breaks an entry into lines no wider than {@code width}, at spaces where
+     * possible; line breaks in the entry are kept, blank lines as "". A
+     * paragraph {@code font} cannot encode is broken and shaped in
+     * {@code unicode}.
+     */
+    private static List<Line> wrap(String entry, PdfFont font, PdfTrueTypeFont unicode, float size, float width) {
+        List<Line> lines = new ArrayList<>();
+        List<String> broken = new ArrayList<>();
+        int n = entry.length();
+        int start = 0;
+        while (start <= n) {
+            int end = start;
+            while (end < n && entry.charAt(end) != '\n' && entry.charAt(end) != '\r') end++;
+            String paragraph = entry.substring(start, end);
+            broken.clear();
+            if (PdfFont.canEncode(paragraph)) {
+                wrapParagraph(paragraph, font, size, width, broken);
+                for (String line : broken) lines.add(new Line(line, null));
+            } else {
+                unicode.breakLines(paragraph, size, width, broken);
+                for (String line : broken) lines.add(new Line(line, line.isEmpty() ? null : unicode.shape(line)));
+            }
+            if (end < n && entry.charAt(end) == '\r' && end + 1 < n && entry.charAt(end + 1) == '\n') end++;
+            start = end + 1;
+        }
+        return lines;
+    }
+
+    private static void wrapParagraph(String s, PdfFont font, float size, float width, List<String> lines) {
+        int start = 0;
+        int end = s.length();
+        while (end > start && Character.isWhitespace(s.charAt(end - 1))) end--;
+        if (start == end) {
+            lines.add("");
+            return;
+        }
+        float limit = width * 1000f / size;
+        while (start < end) {
+            float advance = 0;
+            int lastSpace = -1;
+            int i = start;
+            for (; i < end; i++) {
+                char c = s.charAt(i);
+                if (c == ' ' || c == '\t') lastSpace = i;
+                advance += font.width(s, i, i + 1, 1000f);
+                if (advance > limit && i > start) break;
+            }
+            int lineEnd = i == end ? end : lastSpace > start ? lastSpace : i;
+            lines.add(s.substring(start, lineEnd));
+            start = lineEnd;
+            while (start < end && (s.charAt(start) == ' ' || s.charAt(start) == '\t')) start++;
+        }
+    }
+
+    private PdfWriter.Content paint(Page page, int number, int count, PdfTrueTypeFont unicode,
+                                     PdfWriter.Content c) {
+        for (float[] box : page.boxes) {
+            c.fill(Color.WHITE).stroke(BOX_BORDER).num(0.75f).op("w");
+            c.num(box[0]).num(PAGE_HEIGHT - box[1] - box[3]).num(box[2]).num(box[3]).op("re").op("B");
+        }
+        if (page.photo != null) {
+            float[] p = page.photo;
+            float bottom = PAGE_HEIGHT - p[1] - p[3];
+            c.op("q").num(PHOTO_WIDTH).num(0).num(0).num(PHOTO_HEIGHT)
+                .num(p[0] + PHOTO_BORDER).num(bottom + PHOTO_BORDER).op("cm").op("/Photo").op("Do").op("Q");
+            c.stroke(Color.GRAY).num(PHOTO_BORDER).op("w")
+                .num(p[0] + PHOTO_BORDER / 2f).num(bottom + PHOTO_BORDER / 2f)
+                .num(p[2] - PHOTO_BORDER).num(p[3] - PHOTO_BORDER).op("re").op("S");
+        }
+
+        c.op("BT");
+        String font = null;
+        float size = 0;
+        Color color = null;
+        for (Run run : page.runs) {
+            String resource = run.font != null ? run.font.resource : PdfTrueTypeFont.RESOURCE;
+            if (!resource.equals(font) || run.size != size) {
+                font = resource;
+                size = run.size;
+                c.op("/" + font).num(size).op("Tf");
+            }
+            if (!run.color.equals(color)) {
+                color = run.color;
+                c.fill(color);
+            }
+            c.num(1).num(0).num(0).num(1).num(run.x).num(PAGE_HEIGHT - run.baseline).op("Tm");
+            if (run.line.shaped != null) {
+                unicode.show(run.line.shaped, run.size, c);
+            } else {
+                c.text(run.line.text).op("Tj");
+            }
+        }
+        if (count > 1) {
+            String label = "Page " + number + " of " + count;
+            c.op("/" + PdfFont.HELVETICA.resource).num(FOOTER_SIZE).op("Tf").fill(Color.GRAY)
+                .num(1).num(0).num(0).num(1)
+                .num(MARGIN + CONTENT_WIDTH - PdfFont.HELVETICA.width(label, FOOTER_SIZE)).num(MARGIN / 2)
+                .op("Tm").text(label).op("Tj");
+        }
+        return c.op("ET");
+    }
+
+    private Photo photo(String path) {
+        if (PhotoStore.isReference(path)) {
+            // Stored at print size already: embedded as is, nothing is decoded
+            byte[] jpeg = store == null ? null : store.jpeg(path, PhotoStore.Size.PRINT);
+            return jpeg == null ? null : new Photo(jpeg, PhotoStore.Size.PRINT.width, PhotoStore.Size.PRINT.height);
+        }
+        File file = new File(path);
+        String key = path + '@' + file.lastModified();
+        synchronized (photos) {
+            Photo cached = photos.get(key);
+            if (cached != null) return cached;
+        }
+        // Unreadable photos are left out, as in the preview; racing threads may both encode
+        Photo photo;
+        try {
+            photo = encode(file);
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+        synchronized (photos) {
+            photos.put(key, photo);
+        }
+        return photo;
+    }
+
+    private static Photo encode(File file) throws IOException {
+        int width = PhotoStore.Size.PRINT.width;
+        int height = PhotoStore.Size.PRINT.height;
+        BufferedImage scaled = PhotoService.scale(PhotoService.read(file, width, height), width, height);
+        return new Photo(PhotoService.jpeg(scaled), width, height);
+    }
+}
@@ -0,0 +1,109 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+/**
+ * PDF standard font
+ * One of the base-14 Helvetica faces every PDF reader ships, so documents
+ * reference it by name and embed no font data at all. Text is encoded in
+ * WinAnsiEncoding (Latin-1 plus typographic quotes, dashes and the euro);
+ * text with other characters is printed in a {@link PdfTrueTypeFont}
+ * instead. Advance widths are the Adobe AFM metrics, in 1/1000 em, indexed
+ * by WinAnsi code.
+ */
+final class PdfFont {
+
+    // AFM widths of WinAnsi codes 32..126
+    private static final String HELVETICA_ASCII =
+        "278 278 355 556 556 889 667 191 333 333 389 584 278 333 278 278 556 556 556 556 556 556 556 556 556 556 "
+        + "278 278 584 584 584 556 1015 667 667 722 722 667 611 778 722 278 500 667 556 833 722 778 667 778 722 "
+        + "667 611 722 667 944 667 667 611 278 278 278 469 556 333 556 556 500 556 556 278 556 556 222 222 500 "
+        + "222 833 556 556 556 556 333 500 278 556 500 722 500 500 500 334 260 334 584";
+    private static final String BOLD_ASCII =
+        "278 333 474 556 556 889 722 238 333 333 389 584 278 333 278 278 556 556 556 556 556 556 556 556 556 556 "
+        + "333 333 584 584 584 611 975 722 722 722 722 667 611 778 722 278 556 722 611 833 722 778 667 778 722 "
+        + "667 611 722 667 944 667 667 611 333 278 333 584 556 333 556 611 556 611 556 333 611 611 278 278 556 "
+        + "278 889 611 611 611 611 389 556 333 611 556 778 556 556 500 389 280 389 584";
+
+    // AFM widths of WinAnsi codes 128..255; 0 marks the five unassigned codes
+    private static final String HELVETICA_HIGH =
+        "556 0 222 556 333 1000 556 556 333 1000 667 333 1000 0 611 0 0 222 222 333 333 350 556 1000 333 1000 "
+        + "500 333 944 0 500 667 278 333 556 556 556 556 260 556 333 737 370 556 584 333 737 333 400 584 333 "
+        + "333 333 556 537 278 333 333 365 556 834 834 834 611 667 667 667 667 667 667 1000 722 667 667 667 667 "
+        + "278 278 278 278 722 722 778 778 778 778 778 584 778 722 722 722 722 667 667 611 556 556 556 556 556 "
+        + "556 889 500 556 556 556 556 278 278 278 278 556 556 556 556 556 556 556 584 611 556 556 556 556 500 "
+        + "556 500";
+    private static final String BOLD_HIGH =
+        "556 0 278 556 500 1000 556 556 333 1000 667 333 1000 0 611 0 0 278 278 500 500 350 556 1000 333 1000 "
+        + "556 333 944 0 500 667 278 333 556 556 556 556 280 556 333 737 370 556 584 333 737 333 400 584 333 "
+        + "333 333 611 556 278 333 333 365 556 834 834 834 611 722 722 722 722 722 722 1000 722 667 667 667 667 "
+        + "278 278 278 278 722 722 778 778 778 778 778 584 778 722 722 722 722 667 667 611 556 556 556 556 556 "
+        + "556 889 556 556 556 556 556 278 278 278 278 611 611 611 611 611 611 611 584 611 611 611 611 611 556 "
+        + "611 556";
+
+    // Unicode code points of WinAnsi 0x80..0x9F; 0 marks unassigned codes
+    private static final char[] WIN_ANSI_HIGH = {
+        '\u20AC', 0, '\u201A', '\u0192', '\u201E', '\u2026', '\u2020', '\u2021',
+        '\u02C6', '\u2030', '\u0160', '\u2039', '\u0152', 0, '\u017D', 0,
+        0, '\u2018', '\u2019', '\u201C', '\u201D', '\u2022', '\u2013', '\u2014',
+        '\u02DC', '\u2122', '\u0161', '\u203A', '\u0153', 0, '\u017E', '\u0178'
+    };
+
+    static final PdfFont HELVETICA = new PdfFont("F1", "Helvetica", HELVETICA_ASCII, HELVETICA_HIGH);
+    static final PdfFont HELVETICA_BOLD = new PdfFont("F2", "Helvetica-Bold", BOLD_ASCII, BOLD_HIGH);
+    // Oblique glyphs have the upright advances
+    static final PdfFont HELVETICA_OBLIQUE = new PdfFont("F3", "Helvetica-Oblique", HELVETICA_ASCII, HELVETICA_HIGH);
+
+    static final PdfFont[] ALL = {HELVETICA, HELVETICA_BOLD, HELVETICA_OBLIQUE};
+
+    /** Resource name used in content streams, e.g. "F1". */
+    final String resource;
+    final String baseFont;
+    private final short[] widths = new short[256];
+
+    private PdfFont(String resource, String baseFont, String ascii, String high) {
+        this.resource = resource;
+        this.baseFont = baseFont;
+        parse(ascii, 32);
+        parse(high, 128);
+        widths[0xA0] = widths[' '];
+    }
+
+    private void parse(String table, int first) {
+        String[] values = table.split(" ");
+        for (int i = 0; i < values.length; i++) widths[first + i] = Short.parseShort(values[i]);
+    }
+
+    /** The font dictionary body. */
+    String dictionary() {
+        return "<< /Type /Font /Subtype /Type1 /BaseFont /" + baseFont + " /Encoding /WinAnsiEncoding >>";
+    }
+
+    /** Advance of a string in points at the given size, as the reader will lay it out. */
+    float width(CharSequence s, int start, int end, float size) {
+        int units = 0;
+        for (int i = start; i < end; i++) units += widths[encode(s.charAt(i))];
+        return units * size / 1000f;
+    }
+
+    float width(CharSequence s, float size) {
+        return width(s, 0, s.length(), size);
+    }
+
+    /** Whether every character but line breaks has a WinAnsi code. */
+    static boolean canEncode(CharSequence s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c != '?' && c != '\n' && c != '\r' && encode(c) == '?') return false;
+        }
+        return true;
+    }
+
+    /** The WinAnsi code of a character, '?' when it has none. */
+    static int encode(char c) {
+        if (c >= 0x20 && c <= 0x7E || c >= 0xA0 && c <= 0xFF) return c;
+        if (c == '\t') return ' ';
+        for (int i = 0; i < WIN_ANSI_HIGH.length; i++) {
+            if (WIN_ANSI_HIGH[i] == c && c != 0) return 0x80 + i;
+        }
+        return '?';
+    }
+}
@@ -0,0 +1,553 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+import java.awt.Font;
+import java.awt.FontFormatException;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.awt.font.LineBreakMeasurer;
+import java.awt.font.TextAttribute;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.text.AttributedString;
+import java.text.Bidi;
+import java.util.*;
+
+/**
+ * PDF embedded TrueType font
+ * Prints the text the base-14 fonts cannot encode, such as Devanagari names:
+ * the JDK's layout engine shapes it with an installed TrueType font (so
+ * conjuncts, vowel signs and right-to-left runs come out as on screen) and
+ * it is written as glyph ids through an Identity-H Type0 font. Each document
+ * embeds a subset of the font file holding only the glyphs it uses, at their
+ * original ids, and a ToUnicode CMap so its text can still be searched and
+ * copied.
+ *
+ * The font is the first file that has a glyph for every character: those
+ * named in the {@value #PROPERTY} system property, then the fonts installed
+ * in the usual directories, regular faces of fonts covering Indian scripts
+ * first. Files are read on first use and kept. When no font has the glyphs
+ * the text is refused with an {@link UnprintableTextException} rather than
+ * printed with missing characters.
+ *
+ * Thread-safe: a font is immutable once read.
+ */
+final class PdfTrueTypeFont {
+
+    /** System property listing fonts to try first, separated like a class path. */
+    static final String PROPERTY = "biodata.pdf.font";
+    /** Resource name used in content streams. */
+    static final String RESOURCE = "F4";
+
+    // Tables a TrueType font program embedded in a PDF must have; cvt, fpgm and prep are copied when present
+    private static final String[] REQUIRED = {"head", "hhea", "maxp", "hmtx", "loca", "glyf"};
+    private static final String[] HINTING = {"cvt ", "fpgm", "prep"};
+
+    // Composite glyph flags
+    private static final int ARG_1_AND_2_ARE_WORDS = 0x0001;
+    private static final int WE_HAVE_A_SCALE = 0x0008;
+    private static final int MORE_COMPONENTS = 0x0020;
+    private static final int WE_HAVE_AN_X_AND_Y_SCALE = 0x0040;
+    private static final int WE_HAVE_A_TWO_BY_TWO = 0x0080;
+
+    // File names of regular faces with wide Indian-script coverage, most preferred first
+    private static final String[] PREFERRED = {
+        "nirmala", "notosans", "lohit", "mangal", "freesans", "dejavusans", "arialuni", "arial", "liberationsans"
+    };
+    private static final String[] STYLES = {
+        "bold", "italic", "oblique", "light", "thin", "black", "medium", "condensed", "mono"
+    };
+
+    // Unhinted, fractional: positions at 1000 pt are in 1/1000 em
+    private static final FontRenderContext FRC = new FontRenderContext(null, false, true);
+
+    private static List<File> candidates;                                   // guarded by the class
+    private static final Map<File, PdfTrueTypeFont> FONTS = new HashMap<>(); // null for unusable files
+
+    /** No font has glyphs for all of a document's text. */
+    static final class UnprintableTextException extends IOException {
+        UnprintableTextException(String message) {
+            super(message);
+        }
+    }
+
+    /** Text laid out in this font: glyph ids in visual order with their positions in 1/1000 em. */
+    static final class Shaped {
+        final int[] glyphs;
+        final float[] x;
+        // Offset below the baseline, e.g. of a mark stacked under a consonant
+        final float[] y;
+        // The characters each glyph stands for; null for the other glyphs of a cluster
+        final String[] text;
+        final float advance;
+
+        Shaped(int[] glyphs, float[] x, float[] y, String[] text, float advance) {
+            this.glyphs = glyphs;
+            this.x = x;
+            this.y = y;
+            this.text = text;
+            this.advance = advance;
+        }
+
+        /** Advance in points at the given size. */
+        float width(float size) {
+            return advance * size / 1000f;
+        }
+    }
+
+    private final File file;
+    private final Font font;
+    private final String name;
+    private final Map<String, int[]> tables;
+
+    // Read by read(), before the font is handed out
+    private byte[] data;
+    private int unitsPerEm;
+    private int numGlyphs;
+    private int indexToLocFormat;
+    private int[] advances;
+    private int[] bbox;
+    private int ascent;
+    private int descent;
+
+    private PdfTrueTypeFont(File file, Font font, Map<String, int[]> tables) {
+        this.file = file;
+        this.font = font;
+        this.name = font.getPSName().replaceAll("[^A-Za-z0-9_.-]", "");
+        this.tables = tables;
+    }
+
+    /**
+     * The first font with a glyph for every printable character of
+     * {@code text}.
+     *
+     * @throws UnprintableTextException naming the characters no font has
+     */
+    static synchronized PdfTrueTypeFont forText(String text) throws UnprintableTextException {
+        if (candidates == null) candidates = candidates();
+        for (File f : candidates) {
+            PdfTrueTypeFont font = FONTS.containsKey(f) ? FONTS.get(f) : load(f);
+            FONTS.put(f, font);
+            if (font != null && font.canDisplay(text)) {
+                try {
+                    font.read();
+                    return font;
+                } catch (IOException | RuntimeException e) {
+                    FONTS.put(f, null); // unreadable after all: try the next
+                }
+            }
+        }
+
+        StringBuilder missing = new StringBuilder();
+        for (int i = 0; i < text.length(); i += Character.charCount(text.codePointAt(i))) {
+            int c = text.codePointAt(i);
+            if (!printable(c) || missing.indexOf(String.format("U+%04X ", c)) >= 0) continue;
+            boolean found = false;
+            for (PdfTrueTypeFont font : FONTS.values()) found |= font != null && font.font.canDisplay(c);
+            if (!found) missing.append(String.format("U+%04X ", c)).appendCodePoint(c).append(", ");
+        }
+        String what = missing.length() == 0 ? "all of the characters of this record"
+            : missing.substring(0, missing.length() - 2);
+        throw new UnprintableTextException("No installed font has glyphs for " + what
+            + "; set -D" + PROPERTY + " to a TrueType font that has them");
+    }
+
+    /**
+     * Breaks a paragraph into lines no wider than {@code width} points at
+     * {@code size}, where the JDK's line breaker would; trailing spaces are
+     * dropped.
+     */
+    void breakLines(String paragraph, float size, float width, List<String> lines) {
+        AttributedString attributed = new AttributedString(paragraph);
+        attributed.addAttribute(TextAttribute.FONT, font);
+        LineBreakMeasurer measurer = new LineBreakMeasurer(attributed.getIterator(), FRC);
+        float limit = width * 1000f / size;
+        while (measurer.getPosition() < paragraph.length()) {
+            int start = measurer.getPosition();
+            int end = measurer.nextOffset(limit);
+            measurer.setPosition(end);
+            while (end > start && Character.isWhitespace(paragraph.charAt(end - 1))) end--;
+            lines.add(paragraph.substring(start, end));
+        }
+    }
+
+    /** Lays out one line: bidi runs in visual order, each shaped in its direction. */
+    Shaped shape(String line) {
+        char[] chars = line.replace('\t', ' ').toCharArray();
+        Bidi bidi = new Bidi(chars, 0, null, 0, chars.length, Bidi.DIRECTION_DEFAULT_LEFT_TO_RIGHT);
+        int runs = bidi.getRunCount();
+        byte[] levels = new byte[runs];
+        Integer[] order = new Integer[runs];
+        for (int r = 0; r < runs; r++) {
+            levels[r] = (byte) bidi.getRunLevel(r);
+            order[r] = r;
+        }
+        Bidi.reorderVisually(levels, 0, order, 0, runs);
+
+        int capacity = chars.length + 8;
+        int[] glyphs = new int[capacity];
+        float[] x = new float[capacity];
+        float[] y = new float[capacity];
+        String[] text = new String[capacity];
+        int count = 0;
+        float pen = 0;
+        for (int r : order) {
+            int start = bidi.getRunStart(r);
+            int limit = bidi.getRunLimit(r);
+            int flags = (levels[r] & 1) != 0 ? Font.LAYOUT_RIGHT_TO_LEFT : Font.LAYOUT_LEFT_TO_RIGHT;
+            GlyphVector gv = font.layoutGlyphVector(FRC, chars, start, limit, flags);
+            int n = gv.getNumGlyphs();
+            int[] codes = gv.getGlyphCodes(0, n, null);
+            int[] indices = gv.getGlyphCharIndices(0, n, null);
+            float[] positions = gv.getGlyphPositions(0, n + 1, null);
+            for (int i = 0; i < n; i++) {
+                if (codes[i] >= numGlyphs) continue; // the invisible glyph of a control character
+                if (count == glyphs.length) {
+                    glyphs = Arrays.copyOf(glyphs, 2 * count);
+                    x = Arrays.copyOf(x, 2 * count);
+                    y = Arrays.copyOf(y, 2 * count);
+                    text = Arrays.copyOf(text, 2 * count);
+                }
+                glyphs[count] = codes[i];
+                x[count] = pen + positions[2 * i];
+                y[count] = positions[2 * i + 1];
+                text[count] = cluster(chars, start, limit - start, indices, i);
+                count++;
+            }
+            pen += positions[2 * n];
+        }
+        return new Shaped(Arrays.copyOf(glyphs, count), Arrays.copyOf(x, count), Arrays.copyOf(y, count),
+                          Arrays.copyOf(text, count), pen);
+    }
+
+    // The characters from glyph i's to the next glyph's, for the first glyph of a cluster only
+    private static String cluster(char[] chars, int start, int length, int[] indices, int i) {
+        int from = indices[i];
+        int to = length;
+        for (int k = 0; k < indices.length; k++) {
+            if (indices[k] == from && k < i) return null;
+            if (indices[k] > from && indices[k] < to) to = indices[k];
+        }
+        return new String(chars, start + from, to - from);
+    }
+
+    /**
+     * Writes shaped text as TJ arrays of glyph ids, with an adjustment where
+     * the layout moves a glyph off the advance the reader will use and a text
+     * rise for glyphs set above or below the baseline.
+     */
+    void show(Shaped s, float size, PdfWriter.Content c) {
+        float pen = 0;
+        float rise = 0;
+        int i = 0;
+        while (i < s.glyphs.length) {
+            if (s.y[i] != rise) {
+                rise = s.y[i];
+                c.num(-rise * size / 1000f).op("Ts");
+            }
+            c.op("[");
+            for (; i < s.glyphs.length && s.y[i] == rise; i++) {
+                if (Math.abs(s.x[i] - pen) >= 0.5f) {
+                    c.num(pen - s.x[i]);
+                    pen = s.x[i];
+                }
+                c.glyph(s.glyphs[i]);
+                pen += width(s.glyphs[i]);
+            }
+            c.op("]").op("TJ");
+        }
+        if (rise != 0) c.num(0).op("Ts");
+    }
+
+    /** The glyphs one document uses, written out as its font objects. */
+    final class Subset {
+        private final BitSet glyphs = new BitSet();
+        private final Map<Integer, String> text = new TreeMap<>();
+
+        void add(Shaped s) {
+            for (int i = 0; i < s.glyphs.length; i++) {
+                glyphs.set(s.glyphs[i]);
+                if (s.text[i] != null) text.putIfAbsent(s.glyphs[i], s.text[i]);
+            }
+        }
+
+        /** Writes the Type0 font as object {@code number}, and the objects it refers to. */
+        void write(PdfWriter pdf, int number) throws IOException {
+            int cidFont = pdf.reserve();
+            int descriptor = pdf.reserve();
+            int fontFile = pdf.reserve();
+            int toUnicode = pdf.reserve();
+            String baseFont = tag() + "+" + name;
+
+            pdf.object(number, "<< /Type /Font /Subtype /Type0 /BaseFont /" + baseFont
+                + " /Encoding /Identity-H /DescendantFonts [" + PdfWriter.ref(cidFont) + "] /ToUnicode "
+                + PdfWriter.ref(toUnicode) + " >>");
+            pdf.object(cidFont, "<< /Type /Font /Subtype /CIDFontType2 /BaseFont /" + baseFont
+                + " /CIDSystemInfo << /Registry (Adobe) /Ordering (Identity) /Supplement 0 >> /FontDescriptor "
+                + PdfWriter.ref(descriptor) + " /CIDToGIDMap /Identity /W [" + widths() + "] >>");
+            pdf.object(descriptor, "<< /Type /FontDescriptor /FontName /" + baseFont + " /Flags 4 /FontBBox ["
+                + em(bbox[0]) + " " + em(bbox[1]) + " " + em(bbox[2]) + " " + em(bbox[3]) + "] /ItalicAngle 0 /Ascent "
+                + em(ascent) + " /Descent " + em(descent) + " /CapHeight " + em(ascent) + " /StemV 80 /FontFile2 "
+                + PdfWriter.ref(fontFile) + " >>");
+            byte[] program = subset(glyphs);
+            pdf.stream(fontFile, "/Length1 " + program.length + " ", new PdfWriter.Content().data(program));
+            pdf.stream(toUnicode, toUnicode());
+        }
+
+        // Six capital letters naming the subset, as PDF requires of subset fonts
+        private String tag() {
+            long h = glyphs.hashCode() & 0xFFFFFFFFL;
+            char[] tag = new char[6];
+            for (int i = 0; i < tag.length; i++, h /= 26) tag[i] = (char) ('A' + h % 26);
+            return new String(tag);
+        }
+
+        // Runs of consecutive glyph ids: "first [w1 w2 ...]"
+        private String widths() {
+            StringBuilder w = new StringBuilder();
+            for (int g = glyphs.nextSetBit(0); g >= 0; g = glyphs.nextSetBit(g)) {
+                w.append(g).append(" [");
+                do {
+                    w.append(width(g++)).append(' ');
+                } while (glyphs.get(g));
+                w.setCharAt(w.length() - 1, ']');
+                w.append(' ');
+            }
+            return w.toString().trim();
+        }
+
+        private PdfWriter.Content toUnicode() {
+            PdfWriter.Content c = new PdfWriter.Content();
+            c.op("/CIDInit /ProcSet findresource begin 12 dict begin begincmap")
+                .op("/CIDSystemInfo << /Registry (Adobe) /Ordering (UCS) /Supplement 0 >> def")
+                .op("/CMapName /Adobe-Identity-UCS def /CMapType 2 def")
+                .op("1 begincodespacerange <0000> <FFFF> endcodespacerange");
+            // At most 100 mappings per block
+            Iterator<Map.Entry<Integer, String>> entries = text.entrySet().iterator();
+            for (int left = text.size(); left > 0; left -= 100) {
+                c.num(Math.min(left, 100)).op("beginbfchar");
+                for (int i = 0; i < 100 && entries.hasNext(); i++) {
+                    Map.Entry<Integer, String> e = entries.next();
+                    StringBuilder unicode = new StringBuilder("<");
+                    for (int k = 0; k < e.getValue().length(); k++) PdfWriter.appendHex(unicode, e.getValue().charAt(k));
+                    c.glyph(e.getKey()).op(unicode.append('>').toString());
+                }
+                c.op("endbfchar");
+            }
+            return c.op("endcmap CMapName currentdict /CMap defineresource pop end end");
+        }
+    }
+
+    // The advance of a glyph in 1/1000 em, as the W array gives it
+    private int width(int glyph) {
+        return Math.round(advances[glyph] * 1000f / unitsPerEm);
+    }
+
+    private int em(int units) {
+        return Math.round(units * 1000f / unitsPerEm);
+    }
+
+    private boolean canDisplay(String text) {
+        for (int i = 0; i < text.length(); i += Character.charCount(text.codePointAt(i))) {
+            int c = text.codePointAt(i);
+            if (printable(c) && !font.canDisplay(c)) return false;
+        }
+        return true;
+    }
+
+    // Characters that need a glyph: not spaces, controls or zero-width joiners and marks
+    private static boolean printable(int c) {
+        return !Character.isWhitespace(c) && !Character.isISOControl(c) && Character.getType(c) != Character.FORMAT;
+    }
+
+    // The font program with every glyph not used emptied; glyph ids, and so the W array, are unchanged
+    private byte[] subset(BitSet used) {
+        ByteBuffer in = ByteBuffer.wrap(data);
+        int glyf = tables.get("glyf")[0];
+        BitSet keep = (BitSet) used.clone();
+        keep.set(0); // .notdef
+
+        // Add the components of composite glyphs, and theirs
+        Deque<Integer> pending = new ArrayDeque<>();
+        for (int g = keep.nextSetBit(0); g >= 0; g = keep.nextSetBit(g + 1)) pending.push(g);
+        while (!pending.isEmpty()) {
+            int g = pending.pop();
+            int start = glyf + glyphOffset(in, g);
+            int end = glyf + glyphOffset(in, g + 1);
+            if (end - start < 10 || in.getShort(start) >= 0) continue; // empty or simple
+            int at = start + 10;
+            int flags;
+            do {
+                flags = in.getShort(at) & 0xFFFF;
+                int component = in.getShort(at + 2) & 0xFFFF;
+                if (component < numGlyphs && !keep.get(component)) {
+                    keep.set(component);
+                    pending.push(component);
+                }
+                at += 4 + ((flags & ARG_1_AND_2_ARE_WORDS) != 0 ? 4 : 2);
+                if ((flags & WE_HAVE_A_SCALE) != 0) at += 2;
+                else if ((flags & WE_HAVE_AN_X_AND_Y_SCALE) != 0) at += 4;
+                else if ((flags & WE_HAVE_A_TWO_BY_TWO) != 0) at += 8;
+            } while ((flags & MORE_COMPONENTS) != 0 && at + 4 <= end);
+        }
+
+        ByteArrayOutputStream outlines = new ByteArrayOutputStream();
+        ByteBuffer loca = ByteBuffer.allocate(4 * (numGlyphs + 1));
+        for (int g = 0; g < numGlyphs; g++) {
+            loca.putInt(outlines.size());
+            if (!keep.get(g)) continue;
+            int start = glyphOffset(in, g);
+            outlines.write(data, glyf + start, glyphOffset(in, g + 1) - start);
+            while (outlines.size() % 4 != 0) outlines.write(0);
+        }
+        loca.putInt(outlines.size());
+
+        SortedMap<String, byte[]> out = new TreeMap<>();
+        for (String tag : REQUIRED) out.put(tag, table(tag));
+        for (String tag : HINTING) if (tables.containsKey(tag)) out.put(tag, table(tag));
+        ByteBuffer.wrap(out.get("head")).putInt(8, 0).putShort(50, (short) 1); // long loca offsets
+        out.put("loca", loca.array());
+        out.put("glyf", outlines.toByteArray());
+        return sfnt(out);
+    }
+
+    private int glyphOffset(ByteBuffer in, int glyph) {
+        int loca = tables.get("loca")[0];
+        return indexToLocFormat == 0 ? (in.getShort(loca + 2 * glyph) & 0xFFFF) * 2 : in.getInt(loca + 4 * glyph);
+    }
+
+    private byte[] table(String tag) {
+        int[] t = tables.get(tag);
+        return Arrays.copyOfRange(data, t[0], t[0] + t[1]);
+    }
+
+    // A font file of the given tables, each 4-byte aligned and checksummed
+    private static byte[] sfnt(SortedMap<String, byte[]> tables) {
+        int count = tables.size();
+        int size = 12 + 16 * count;
+        for (byte[] t : tables.values()) size += (t.length + 3) & ~3;
+        ByteBuffer out = ByteBuffer.allocate(size);
+        int log = 31 - Integer.numberOfLeadingZeros(count);
+        out.putInt(0x00010000).putShort((short) count).putShort((short) (16 << log)).putShort((short) log)
+            .putShort((short) (16 * count - (16 << log)));
+        int offset = 12 + 16 * count;
+        int head = 0;
+        for (Map.Entry<String, byte[]> e : tables.entrySet()) {
+            byte[] t = e.getValue();
+            if ("head".equals(e.getKey())) head = offset;
+            out.put(e.getKey().getBytes(StandardCharsets.ISO_8859_1)).putInt(checksum(t)).putInt(offset).putInt(t.length);
+            System.arraycopy(t, 0, out.array(), offset, t.length);
+            offset += (t.length + 3) & ~3;
+        }
+        out.putInt(head + 8, 0xB1B0AFBA - checksum(out.array()));
+        return out.array();
+    }
+
+    // Sum of the big-endian 32-bit words, the last zero-padded
+    private static int checksum(byte[] b) {
+        int sum = 0;
+        for (int i = 0; i < b.length; i += 4) {
+            int word = 0;
+            for (int k = 0; k < 4; k++) word = word << 8 | (i + k < b.length ? b[i + k] & 0xFF : 0);
+            sum += word;
+        }
+        return sum;
+    }
+
+    // Reads the whole file and the metrics the PDF objects need
+    private void read() throws IOException {
+        if (data != null) return;
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        ByteBuffer in = ByteBuffer.wrap(bytes);
+        int head = tables.get("head")[0];
+        int hhea = tables.get("hhea")[0];
+        int hmtx = tables.get("hmtx")[0];
+        unitsPerEm = in.getShort(head + 18) & 0xFFFF;
+        bbox = new int[] {in.getShort(head + 36), in.getShort(head + 38), in.getShort(head + 40), in.getShort(head + 42)};
+        indexToLocFormat = in.getShort(head + 50);
+        ascent = in.getShort(hhea + 4);
+        descent = in.getShort(hhea + 6);
+        int metrics = in.getShort(hhea + 34) & 0xFFFF;
+        numGlyphs = in.getShort(tables.get("maxp")[0] + 4) & 0xFFFF;
+        advances = new int[numGlyphs];
+        for (int g = 0; g < numGlyphs; g++) {
+            advances[g] = in.getShort(hmtx + 4 * Math.min(g, metrics - 1)) & 0xFFFF;
+        }
+        data = bytes;
+    }
+
+    // The font's table directory and JDK font, or null when it is not a TrueType font that can be embedded
+    private static PdfTrueTypeFont load(File file) {
+        try (RandomAccessFile in = new RandomAccessFile(file, "r")) {
+            int version = in.readInt();
+            if (version == 0x74746366) { // 'ttcf': the first font of a collection, as the JDK reads it
+                in.seek(12);
+                in.seek(in.readInt());
+                version = in.readInt();
+            }
+            if (version != 0x00010000 && version != 0x74727565) return null; // CFF outlines are not TrueType
+            int count = in.readUnsignedShort();
+            in.skipBytes(6);
+            Map<String, int[]> tables = new HashMap<>();
+            byte[] tag = new byte[4];
+            for (int i = 0; i < count; i++) {
+                in.readFully(tag);
+                in.readInt(); // checksum
+                tables.put(new String(tag, StandardCharsets.ISO_8859_1), new int[] {in.readInt(), in.readInt()});
+            }
+            for (String t : REQUIRED) if (!tables.containsKey(t)) return null;
+            return new PdfTrueTypeFont(file, Font.createFont(Font.TRUETYPE_FONT, file).deriveFont(1000f), tables);
+        } catch (IOException | FontFormatException e) {
+            return null;
+        }
+    }
+
+    // Files named by the property, then installed .ttf and .ttc files in order of preference
+    private static List<File> candidates() {
+        List<File> files = new ArrayList<>();
+        String named = System.getProperty(PROPERTY, "");
+        for (String path : named.split(File.pathSeparator)) if (!path.isEmpty()) files.add(new File(path));
+
+        String home = System.getProperty("user.home");
+        List<File> directories = new ArrayList<>();
+        if (System.getenv("WINDIR") != null) directories.add(new File(System.getenv("WINDIR"), "Fonts"));
+        if (System.getenv("LOCALAPPDATA") != null) {
+            directories.add(new File(System.getenv("LOCALAPPDATA"), "Microsoft/Windows/Fonts"));
+        }
+        for (String dir : new String[] {"/usr/share/fonts", "/usr/local/share/fonts", home + "/.local/share/fonts",
+                                        home + "/.fonts", "/Library/Fonts", "/System/Library/Fonts",
+                                        home + "/Library/Fonts"}) {
+            directories.add(new File(dir));
+        }
+        List<File> installed = new ArrayList<>();
+        for (File dir : directories) collect(dir, 0, installed);
+        installed.sort(Comparator.comparingInt(PdfTrueTypeFont::rank)
+            .thenComparing(File::getName, String.CASE_INSENSITIVE_ORDER));
+        files.addAll(installed);
+        return files;
+    }
+
+    private static void collect(File dir, int depth, List<File> files) {
+        File[] children = dir.listFiles();
+        if (children == null || depth > 4) return;
+        for (File f : children) {
+            String name = f.getName().toLowerCase(Locale.ROOT);
+            if (f.isDirectory()) collect(f, depth + 1, files);
+            else if (name.endsWith(".ttf") || name.endsWith(".ttc")) files.add(f);
+        }
+    }
+
+    private static int rank(File f) {
+        String name = f.getName().toLowerCase(Locale.ROOT);
+        int rank = PREFERRED.length;
+        for (int i = 0; i < PREFERRED.length; i++) {
+            if (name.startsWith(PREFERRED[i])) {
+                rank = i;
+                break;
+            }
+        }
+        for (String style : STYLES) if (name.contains(style)) return rank + PREFERRED.length + 1;
+        return rank;
+    }
+}
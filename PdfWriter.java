@@ -0,0 +1,275 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+import java.awt.Color;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+
+/**
+ * Streaming PDF file writer
+ * Writes numbered objects straight to the output as they are produced and
+ * remembers only their byte offsets for the cross-reference table, so a
+ * document of any length needs no more memory than its largest object.
+ * Objects may be referenced before they are written by reserving their
+ * number first (the page tree, whose kids are known only at the end).
+ *
+ * Content streams are assembled in a {@link Content} buffer and written
+ * Flate-compressed through the calling thread's reused {@link Deflater}.
+ */
+final class PdfWriter implements Closeable {
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private static final ThreadLocal<Deflater> DEFLATERS =
+        ThreadLocal.withInitial(() -> new Deflater(Deflater.BEST_SPEED));
+
+    private final OutputStream out;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int count;
+    private long position;
+    private long[] offsets = new long[16];
+    private int objects;
+
+    PdfWriter(OutputStream out) throws IOException {
+        this.out = out;
+        // Binary comment line so transfer tools treat the file as binary
+        print("%PDF-1.4\n%\u00E2\u00E3\u00CF\u00D3\n");
+    }
+
+    /** Allocates the next object number; the object can be written later. */
+    int reserve() {
+        if (++objects == offsets.length) offsets = Arrays.copyOf(offsets, objects * 2);
+        return objects;
+    }
+
+    /** Writes a complete object whose body is a dictionary or other short value. */
+    void object(int number, String body) throws IOException {
+        beginObject(number);
+        print(body).print("\nendobj\n");
+    }
+
+    /** Writes a stream object with its bytes as they are, e.g. an already compressed image. */
+    void stream(int number, String dictionary, byte[] data, int length) throws IOException {
+        beginObject(number);
+        print("<< ").print(dictionary).print(" /Length ").print(Integer.toString(length)).print(" >>\nstream\n");
+        write(data, 0, length);
+        print("\nendstream\nendobj\n");
+    }
+
+    /** Writes a content stream, Flate-compressed. */
+    void stream(int number, Content content) throws IOException {
+        stream(number, "", content);
+    }
+
+    /** Writes a Flate-compressed stream whose dictionary has more entries, e.g. /Length1 of a font file. */
+    void stream(int number, String dictionary, Content content) throws IOException {
+        Deflater deflater = DEFLATERS.get();
+        deflater.reset();
+        deflater.setInput(content.bytes, 0, content.size);
+        deflater.finish();
+        byte[] packed = content.scratch(content.size / 2 + 64);
+        int length = 0;
+        while (!deflater.finished()) {
+            if (length == packed.length) packed = content.growScratch();
+            length += deflater.deflate(packed, length, packed.length - length);
+        }
+        stream(number, dictionary + "/Filter /FlateDecode", packed, length);
+    }
+
+    /**
+     * Writes the cross-reference table and trailer and flushes. Every reserved
+     * object must have been written by now.
+     */
+    void finish(int catalog, int info) throws IOException {
+        long xref = position;
+        print("xref\n0 ").print(Integer.toString(objects + 1)).print("\n0000000000 65535 f \n");
+        for (int i = 1; i <= objects; i++) {
+            if (offsets[i] == 0) throw new IllegalStateException("PDF object " + i + " was never written");
+            String offset = Long.toString(offsets[i]);
+            print("0000000000".substring(offset.length())).print(offset).print(" 00000 n \n");
+        }
+        print("trailer\n<< /Size ").print(Integer.toString(objects + 1))
+            .print(" /Root ").print(ref(catalog)).print(" /Info ").print(ref(info)).print(" >>\nstartxref\n")
+            .print(Long.toString(xref)).print("\n%%EOF\n");
+        flushBuffer();
+        out.flush();
+    }
+
+    /** Bytes written so far. */
+    long size() {
+        return position;
+    }
+
+    static String ref(int number) {
+        return number + " 0 R";
+    }
+
+    /**
+     * A PDF text string, e.g. for the document information dictionary: a
+     * WinAnsi literal, or UTF-16BE in hex when the text has other characters.
+     */
+    static String literal(String s) {
+        if (!PdfFont.canEncode(s)) {
+            StringBuilder hex = new StringBuilder(4 * s.length() + 6).append("<FEFF");
+            for (int i = 0; i < s.length(); i++) appendHex(hex, s.charAt(i));
+            return hex.append('>').toString();
+        }
+        Content c = new Content();
+        c.text(s);
+        return new String(c.bytes, 0, c.size, StandardCharsets.ISO_8859_1);
+    }
+
+    /** Appends a UTF-16 code unit as four hex digits. */
+    static void appendHex(StringBuilder sb, char c) {
+        for (int shift = 12; shift >= 0; shift -= 4) sb.append(HEX[(c >> shift) & 0xF]);
+    }
+
+    @Override
+    public void close() throws IOException {
+        flushBuffer();
+        out.close();
+    }
+
+    private void beginObject(int number) throws IOException {
+        offsets[number] = position;
+        print(Integer.toString(number)).print(" 0 obj\n");
+    }
+
+    // Every character written outside streams is in the ISO-8859-1 range
+    private PdfWriter print(String s) throws IOException {
+        for (int i = 0; i < s.length(); i++) {
+            if (count == buffer.length) flushBuffer();
+            buffer[count++] = (byte) s.charAt(i);
+        }
+        position += s.length();
+        return this;
+    }
+
+    private void write(byte[] data, int offset, int length) throws IOException {
+        if (length > buffer.length - count) {
+            flushBuffer();
+            if (length >= buffer.length) {
+                out.write(data, offset, length);
+                position += length;
+                return;
+            }
+        }
+        System.arraycopy(data, offset, buffer, count, length);
+        count += length;
+        position += length;
+    }
+
+    private void flushBuffer() throws IOException {
+        if (count > 0) out.write(buffer, 0, count);
+        count = 0;
+    }
+
+    /**
+     * Content stream under construction: page-description operators with
+     * numbers printed to two decimals, text in WinAnsi encoding and glyph
+     * ids of embedded fonts. Reusable
+     * through {@link #reset()}.
+     */
+    static final class Content {
+        private byte[] bytes = new byte[4096];
+        private int size;
+        private byte[] scratch = new byte[0];
+
+        Content reset() {
+            size = 0;
+            return this;
+        }
+
+        /** Appends an operator or other literal token followed by a space. */
+        Content op(String token) {
+            ensure(token.length() + 1);
+            for (int i = 0; i < token.length(); i++) bytes[size++] = (byte) token.charAt(i);
+            bytes[size++] = ' ';
+            return this;
+        }
+
+        Content num(float value) {
+            ensure(24);
+            long hundredths = Math.round(value * 100.0);
+            if (hundredths < 0) {
+                bytes[size++] = '-';
+                hundredths = -hundredths;
+            }
+            appendDigits(hundredths / 100);
+            int fraction = (int) (hundredths % 100);
+            if (fraction != 0) {
+                bytes[size++] = '.';
+                bytes[size++] = (byte) ('0' + fraction / 10);
+                if (fraction % 10 != 0) bytes[size++] = (byte) ('0' + fraction % 10);
+            }
+            bytes[size++] = ' ';
+            return this;
+        }
+
+        /** Appends a string operand: WinAnsi bytes in parentheses, escaped where needed. */
+        Content text(CharSequence s) {
+            return text(s, 0, s.length());
+        }
+
+        Content text(CharSequence s, int start, int end) {
+            ensure(2 * (end - start) + 3);
+            bytes[size++] = '(';
+            for (int i = start; i < end; i++) {
+                int b = PdfFont.encode(s.charAt(i));
+                if (b == '(' || b == ')' || b == '\\') bytes[size++] = '\\';
+                bytes[size++] = (byte) b;
+            }
+            bytes[size++] = ')';
+            bytes[size++] = ' ';
+            return this;
+        }
+
+        /** Appends a glyph id of an Identity-H font: two bytes in hex. */
+        Content glyph(int id) {
+            ensure(7);
+            bytes[size++] = '<';
+            for (int shift = 12; shift >= 0; shift -= 4) bytes[size++] = (byte) HEX[(id >> shift) & 0xF];
+            bytes[size++] = '>';
+            bytes[size++] = ' ';
+            return this;
+        }
+
+        /** Appends bytes as they are, e.g. an embedded font file. */
+        Content data(byte[] data) {
+            ensure(data.length);
+            System.arraycopy(data, 0, bytes, size, data.length);
+            size += data.length;
+            return this;
+        }
+
+        /** Sets the fill colour; components are 0..255. */
+        Content fill(Color c) {
+            return num(c.getRed() / 255f).num(c.getGreen() / 255f).num(c.getBlue() / 255f).op("rg");
+        }
+
+        Content stroke(Color c) {
+            return num(c.getRed() / 255f).num(c.getGreen() / 255f).num(c.getBlue() / 255f).op("RG");
+        }
+
+        private void appendDigits(long v) {
+            if (v >= 10) appendDigits(v / 10);
+            bytes[size++] = (byte) ('0' + v % 10);
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > bytes.length) bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+        }
+
+        private byte[] scratch(int capacity) {
+            if (scratch.length < capacity) scratch = new byte[capacity];
+            return scratch;
+        }
+
+        private byte[] growScratch() {
+            scratch = Arrays.copyOf(scratch, scratch.length * 2);
+            return scratch;
+        }
+    }
+}
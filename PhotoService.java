@@ -0,0 +1,217 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+import javax.imageio.*;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Photo decoding and thumbnail service
+ * Decodes a photo once, off the EDT, and produces both thumbnails the
+ * application shows: the form thumbnail (100x130) and the biodata preview
+ * photo (120x150). Results are kept in a small LRU cache keyed by path and
+ * modification time, so re-generating a biodata never touches the disk again.
+ * A "photo:" reference is read from the attached {@link PhotoStore}, which
+ * holds both sizes already; nothing is scaled.
+ */
+final class PhotoService {
+
+    static final Dimension FORM_SIZE = new Dimension(100, 130);
+    static final Dimension PREVIEW_SIZE = new Dimension(120, 150);
+
+    /** Quality of every JPEG the application writes. */
+    static final float JPEG_QUALITY = 0.85f;
+
+    private static final int CACHE_ENTRIES = 32;
+
+    /** The two scaled versions of one photo. */
+    static final class Thumbnails {
+        final BufferedImage form;
+        final BufferedImage preview;
+
+        Thumbnails(BufferedImage form, BufferedImage preview) {
+            this.form = form;
+            this.preview = preview;
+        }
+    }
+
+    private final ExecutorService decoder = Executors.newFixedThreadPool(2, r -> {
+        Thread t = new Thread(r, "photo-decoder");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final Map<String, CompletableFuture<Thumbnails>> cache =
+        new LinkedHashMap<String, CompletableFuture<Thumbnails>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CompletableFuture<Thumbnails>> eldest) {
+                return size() > CACHE_ENTRIES;
+            }
+        };
+
+    private volatile PhotoStore store;
+
+    /** Serves "photo:" references from a photo store. */
+    void attach(PhotoStore store) {
+        this.store = store;
+    }
+
+    /** The attached photo store, or null. */
+    PhotoStore store() {
+        return store;
+    }
+
+    /**
+     * Returns the thumbnails for a photo, decoding it in the background unless
+     * the same file (same path and modification time) is already cached.
+     */
+    CompletableFuture<Thumbnails> load(String path) {
+        // A reference names fixed content, so it is its own cache key
+        boolean reference = PhotoStore.isReference(path);
+        File file = new File(path);
+        String key = reference ? path : path + '@' + file.lastModified();
+        CompletableFuture<Thumbnails> future;
+        synchronized (cache) {
+            future = cache.get(key);
+            if (future != null) return future;
+            future = CompletableFuture.supplyAsync(() -> reference ? stored(path) : decode(file), decoder);
+            cache.put(key, future);
+        }
+        // Failed decodes are not cached, so a fixed file can be retried; only
+        // this future is dropped, not one a later load put in its place
+        CompletableFuture<Thumbnails> loading = future;
+        loading.whenComplete((t, ex) -> {
+            if (ex != null) {
+                synchronized (cache) {
+                    cache.remove(key, loading);
+                }
+            }
+        });
+        return loading;
+    }
+
+    /**
+     * Waits for the thumbnails of a photo, returning null if it cannot be
+     * decoded. Returns immediately once {@link #load(String)} has completed.
+     */
+    Thumbnails await(String path) {
+        try {
+            return load(path).join();
+        } catch (CompletionException | CancellationException e) {
+            return null;
+        }
+    }
+
+    private static Thumbnails decode(File file) {
+        try {
+            BufferedImage image = read(file, Math.max(PREVIEW_SIZE.width, FORM_SIZE.width),
+                                       Math.max(PREVIEW_SIZE.height, FORM_SIZE.height));
+            return new Thumbnails(scale(image, FORM_SIZE.width, FORM_SIZE.height),
+                                  scale(image, PREVIEW_SIZE.width, PREVIEW_SIZE.height));
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    private Thumbnails stored(String reference) {
+        PhotoStore photos = store;
+        try {
+            if (photos == null) throw new IOException("The photo store is not open");
+            return new Thumbnails(photos.image(reference, PhotoStore.Size.FORM),
+                                  photos.image(reference, PhotoStore.Size.PREVIEW));
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * Reads an image, skipping source pixels while the result stays at least
+     * twice the requested size so the final scaling step still has detail.
+     */
+    static BufferedImage read(File file, int minWidth, int minHeight) throws IOException {
+        return read(file, file.getName(), minWidth, minHeight);
+    }
+
+    /** Reads an image held in memory, as {@link #read(File, int, int)} does. */
+    static BufferedImage read(byte[] data, int minWidth, int minHeight) throws IOException {
+        return read(new ByteArrayInputStream(data), "image", minWidth, minHeight);
+    }
+
+    private static BufferedImage read(Object source, String name, int minWidth, int minHeight) throws IOException {
+        // Bytes in memory are read in memory, not through ImageIO's temporary file cache
+        try (ImageInputStream in = source instanceof InputStream
+                ? new MemoryCacheImageInputStream((InputStream) source) : ImageIO.createImageInputStream(source)) {
+            if (in == null) throw new IOException("Cannot open " + name);
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) throw new IOException("Unsupported image format: " + name);
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int step = Math.max(1, Math.min(reader.getWidth(0) / (2 * minWidth),
+                                                reader.getHeight(0) / (2 * minHeight)));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Scales to exactly width x height by repeated bilinear halving followed by
+     * one final bilinear step, which approaches SCALE_SMOOTH quality at a
+     * fraction of its cost.
+     */
+    static BufferedImage scale(BufferedImage src, int width, int height) {
+        int type = src.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage current = src;
+        int w = src.getWidth();
+        int h = src.getHeight();
+        do {
+            w = w / 2 >= width ? w / 2 : width;
+            h = h / 2 >= height ? h / 2 : height;
+            BufferedImage next = new BufferedImage(w, h, type);
+            Graphics2D g = next.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(current, 0, 0, w, h, null);
+            g.dispose();
+            current = next;
+        } while (w != width || h != height);
+        return current;
+    }
+
+    /**
+     * Encodes an image as a baseline JPEG at {@link #JPEG_QUALITY}. JPEG has
+     * no alpha, so a translucent image is flattened onto white first.
+     */
+    static byte[] jpeg(BufferedImage image) throws IOException {
+        BufferedImage rgb = image;
+        if (image.getType() != BufferedImage.TYPE_INT_RGB) {
+            rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = rgb.createGraphics();
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, rgb.getWidth(), rgb.getHeight());
+            g.drawImage(image, 0, 0, null);
+            g.dispose();
+        }
+
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32 * 1024);
+        try (MemoryCacheImageOutputStream out = new MemoryCacheImageOutputStream(bytes)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(rgb, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,295 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+import javax.imageio.ImageIO;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import java.awt.Dimension;
+import java.awt.image.BufferedImage;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Content-addressed photo store
+ * Keeps uploaded photos in their own {@link RecordLog} in a directory next to
+ * the records, addressed by the SHA-256 of the original file. A record refers
+ * to its photo as "photo:" plus that hash instead of a path, so moving or
+ * deleting the original does not lose it, and the same image uploaded for any
+ * number of students is stored once.
+ *
+ * The original is not kept: a photo is decoded once when it is added and
+ * stored as baseline JPEGs at the sizes the application draws it, see
+ * {@link Size}, in one log record per photo:
+ *
+ *     byte[32] sha-256 | int form | int preview | int print | JPEGs
+ *
+ * where form, preview and print are the lengths of the JPEGs that follow.
+ * The log frames and checksums the records, syncs them to disk periodically
+ * and on {@link #flush()} rather than once per photo, and cuts a torn last
+ * photo off on open; this class only indexes the photos by hash.
+ *
+ * Thread-safe.
+ */
+final class PhotoStore implements Closeable {
+
+    /** The photo directory's name inside a store directory. */
+    static final String DIRECTORY = "photos";
+    static final long SYNC_MILLIS = 1000;
+    /** Prefix of a photo reference, followed by the 64 hex digits of the hash. */
+    static final String PREFIX = "photo:";
+
+    private static final byte PHOTO = 1;
+    private static final int HASH_BYTES = 32;
+    private static final int PHOTO_HEADER = HASH_BYTES + 12; // hash, three JPEG lengths
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // every JVM provides SHA-256
+        }
+    });
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /** The stored renditions of a photo. */
+    enum Size {
+        /** The form thumbnail, see {@link PhotoService#FORM_SIZE}. */
+        FORM(PhotoService.FORM_SIZE),
+        /** The biodata preview photo, see {@link PhotoService#PREVIEW_SIZE}. */
+        PREVIEW(PhotoService.PREVIEW_SIZE),
+        /** The preview photo at twice the resolution, as PDF documents and web pages embed it. */
+        PRINT(new Dimension(2 * PhotoService.PREVIEW_SIZE.width, 2 * PhotoService.PREVIEW_SIZE.height));
+
+        final int width;
+        final int height;
+
+        Size(Dimension d) {
+            this.width = d.width;
+            this.height = d.height;
+        }
+    }
+
+    /** A file that cannot be read as an image; the store itself is fine. */
+    static final class UnreadablePhotoException extends IOException {
+        UnreadablePhotoException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    /** Where the JPEGs of one photo are in the log. */
+    private static final class Entry {
+        final long address;
+        final int[] lengths;
+
+        Entry(long address, int[] lengths) {
+            this.address = address;
+            this.lengths = lengths;
+        }
+
+        int offset(Size size) {
+            int offset = PHOTO_HEADER;
+            for (int i = 0; i < size.ordinal(); i++) offset += lengths[i];
+            return offset;
+        }
+    }
+
+    private final File directory;
+    private final RecordLog log;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    // Path and modification time of files added already -> reference, so a batch reads each once
+    private final Map<String, String> added = new ConcurrentHashMap<>();
+    private long bytes;
+
+    private PhotoStore(File directory, RecordLog log) {
+        this.directory = directory;
+        this.log = log;
+    }
+
+    /** Opens (or creates) the photos of the store in a directory, cutting off a torn photo. */
+    static PhotoStore open(File storeDirectory) throws IOException {
+        return open(new File(storeDirectory, DIRECTORY), RecordLog.DEFAULT_SEGMENT_SIZE, SYNC_MILLIS);
+    }
+
+    /**
+     * Opens (or creates) a photo directory with log segments of a given size,
+     * forcing written segments to disk every {@code syncMillis} (0 disables).
+     */
+    static PhotoStore open(File directory, int segmentSize, long syncMillis) throws IOException {
+        RecordLog log = new RecordLog(directory, segmentSize, syncMillis);
+        PhotoStore store = new PhotoStore(directory, log);
+        try {
+            store.load();
+        } catch (IOException | RuntimeException e) {
+            log.close();
+            throw e;
+        }
+        return store;
+    }
+
+    /** Whether a photo path is a reference into a photo store rather than a file. */
+    static boolean isReference(String photoPath) {
+        return photoPath.startsWith(PREFIX);
+    }
+
+    /** The hex SHA-256 of some bytes. */
+    static String sha256(byte[] data) {
+        MessageDigest digest = SHA_256.get();
+        digest.reset();
+        return hex(digest.digest(data));
+    }
+
+    /**
+     * Adds the photo in a file unless the same content is stored already, and
+     * returns its reference. Decoding and encoding happen on the calling
+     * thread; only the append is serialized.
+     *
+     * @throws UnreadablePhotoException if the file cannot be read or is not an image
+     * @throws IOException if the photo cannot be stored, e.g. the disk is full
+     */
+    String add(File original) throws IOException {
+        String key = original.getAbsolutePath() + '@' + original.lastModified();
+        String reference = added.get(key);
+        if (reference != null && entries.containsKey(reference)) return reference;
+
+        byte[][] jpegs = new byte[Size.values().length][];
+        try {
+            byte[] data = Files.readAllBytes(original.toPath());
+            reference = PREFIX + sha256(data);
+            if (!entries.containsKey(reference)) {
+                BufferedImage image = PhotoService.read(data, Size.PRINT.width, Size.PRINT.height);
+                for (Size size : Size.values()) {
+                    jpegs[size.ordinal()] = PhotoService.jpeg(PhotoService.scale(image, size.width, size.height));
+                }
+            }
+        } catch (IOException e) {
+            throw new UnreadablePhotoException("Cannot read photo " + original + ": " + e.getMessage(), e);
+        }
+        if (jpegs[0] != null) append(reference, jpegs);
+        added.put(key, reference);
+        return reference;
+    }
+
+    /**
+     * The record with its photo file added to this store and referred to by
+     * reference, as imports save it; unchanged when it has no photo, refers
+     * to a stored one already or the file cannot be read as an image.
+     *
+     * @throws IOException if the photo could be read but not stored
+     */
+    Biodata adopt(Biodata b) throws IOException {
+        if (b.photoPath.isEmpty() || isReference(b.photoPath)) return b;
+        try {
+            return b.withPhotoPath(add(new File(b.photoPath)));
+        } catch (UnreadablePhotoException e) {
+            return b;
+        }
+    }
+
+    /** Whether a reference names a photo in this store. */
+    boolean contains(String reference) {
+        return entries.containsKey(reference);
+    }
+
+    /** The JPEG of a stored photo at one size, or null when the reference is unknown. */
+    byte[] jpeg(String reference, Size size) {
+        Entry e = entries.get(reference);
+        if (e == null) return null;
+        ByteBuffer view = log.read(e.address);
+        view.position(e.offset(size));
+        byte[] jpeg = new byte[e.lengths[size.ordinal()]];
+        view.get(jpeg);
+        return jpeg;
+    }
+
+    /** A stored photo decoded at one size. */
+    BufferedImage image(String reference, Size size) throws IOException {
+        byte[] jpeg = jpeg(reference, size);
+        if (jpeg == null) throw new IOException("No photo " + reference + " in " + directory);
+        BufferedImage image = ImageIO.read(new MemoryCacheImageInputStream(new ByteArrayInputStream(jpeg)));
+        if (image == null) throw new IOException("Cannot decode photo " + reference);
+        return image;
+    }
+
+    /** Number of distinct photos stored. */
+    int count() {
+        return entries.size();
+    }
+
+    /** Total size of the stored JPEGs. */
+    synchronized long bytes() {
+        return bytes;
+    }
+
+    /** What opening the store cut off the log after a crash, or null if nothing. */
+    String recovered() {
+        return log.recovered();
+    }
+
+    /** Forces every photo written since the last flush to disk. */
+    void flush() {
+        log.sync();
+    }
+
+    @Override
+    public void close() {
+        log.close();
+    }
+
+    private synchronized void append(String reference, byte[][] jpegs) throws IOException {
+        if (entries.containsKey(reference)) return; // another thread stored it first
+        int[] lengths = new int[jpegs.length];
+        int length = 0;
+        for (int i = 0; i < jpegs.length; i++) {
+            lengths[i] = jpegs[i].length;
+            length += lengths[i];
+        }
+        ByteBuffer photo = ByteBuffer.allocate(PHOTO_HEADER + length);
+        photo.put(unhex(reference.substring(PREFIX.length())));
+        for (int l : lengths) photo.putInt(l);
+        for (byte[] jpeg : jpegs) photo.put(jpeg);
+        entries.put(reference, new Entry(log.append(PHOTO, photo.array()), lengths));
+        bytes += length;
+    }
+
+    private synchronized void load() throws IOException {
+        byte[] hash = new byte[HASH_BYTES];
+        log.scan((address, type, payload) -> {
+            if (type != PHOTO || payload.remaining() < PHOTO_HEADER) throw notAPhoto(address);
+            payload.get(hash);
+            int[] lengths = new int[Size.values().length];
+            long length = 0;
+            for (int i = 0; i < lengths.length; i++) {
+                lengths[i] = payload.getInt();
+                if (lengths[i] < 0) throw notAPhoto(address);
+                length += lengths[i];
+            }
+            if (length != payload.remaining()) throw notAPhoto(address);
+            entries.put(PREFIX + hex(hash), new Entry(address, lengths));
+            bytes += length;
+        });
+    }
+
+    private IOException notAPhoto(long address) {
+        return new IOException("Not a photo at offset " + (int) address + " of segment " + (address >>> 32) + " in " + directory);
+    }
+
+    private static String hex(byte[] hash) {
+        char[] hex = new char[hash.length * 2];
+        for (int i = 0; i < hash.length; i++) {
+            hex[2 * i] = HEX[(hash[i] >> 4) & 0xF];
+            hex[2 * i + 1] = HEX[hash[i] & 0xF];
+        }
+        return new String(hex);
+    }
+
+    private static byte[] unhex(String hex) {
+        byte[] bytes = new byte[hex.length() / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) Integer.parseInt(hex.substring(2 * i, 2 * i + 2), 16);
+        }
+        return bytes;
+    }
+}
@@ -2,14 +2,21 @@ package codeshere.experiments; // Comment this out if running without folder str
 
 import javax.swing.*;
 import javax.swing.border.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.JTextComponent;
 import java.awt.*;
 import java.awt.event.*;
 import java.text.SimpleDateFormat;
 import java.util.*;
-import java.util.regex.Pattern;
 import java.io.*;
 import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.print.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 
 /**
  * Professional Biodata Management System
@@ -32,11 +39,29 @@ public class ProfessionalBiodataSystem extends JFrame {
     private JTextField otherSkillsField, otherHobbiesField;
     private JLabel photoLabel;
     private JButton photoButton, submitButton, clearButton, exportButton;
+    private JButton saveButton, loadButton, searchButton, importButton, cohortButton;
     private String photoPath = "";
+    private int photoChoice; // bumped whenever the form's photo changes, to drop late uploads
+    private JDialog searchDialog;
+    private JDialog cohortDialog;
+    private CohortPanel cohortPanel;
+    private AnalyticsPanel analyticsPanel;
     
-    // Data validation patterns
-    private final Pattern emailPattern = Pattern.compile("^[A-Za-z0-9+_.-]+@(.+)$");
-    private final Pattern phonePattern = Pattern.compile("^[6-9]\\d{9}$");
+    // Workspace: the record shown in the form and whether it was edited since it was opened
+    private WorkspacePanel workspace;
+    private JButton newRecordButton;
+    private Autosaver autosaver;
+    private String currentKey;
+    private boolean dirty;
+    private boolean restoring;
+    private final javax.swing.Timer autosaveTimer = new javax.swing.Timer(AUTOSAVE_IDLE_MS, e -> autosave());
+    
+    // Preview window, reused by every Generate Biodata
+    private JFrame previewFrame;
+    private BiodataPreview preview;
+    private JScrollPane previewScroll;
+    private Biodata previewBiodata;
+    private final LatencyStats previewStats = new LatencyStats("preview build");
     
     // UI Colors (Dark Theme)
     private final Color PRIMARY_COLOR = new Color(25, 25, 35);
@@ -48,6 +73,35 @@ public class ProfessionalBiodataSystem extends JFrame {
     private final Font LABEL_FONT = new Font("Segoe UI", Font.BOLD, 14);
     private final Font INPUT_FONT = new Font("Segoe UI", Font.PLAIN, 14);
     
+    // Photo thumbnails and output renderers
+    private final PhotoService photoService = new PhotoService();
+    private final SwingBiodataRenderer panelRenderer = new SwingBiodataRenderer(PRIMARY_COLOR, photoService);
+    
+    // Saved records, opened in the background at startup, with their photos
+    private final CompletableFuture<BiodataStore> store = CompletableFuture.supplyAsync(() -> {
+        BiodataStore records;
+        try {
+            records = BiodataStore.open(BiodataStore.defaultDirectory());
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
+        try {
+            PhotoStore photos = records.photos();
+            photoService.attach(photos);
+            if (photos.recovered() != null) System.err.println("Photo store recovered: " + photos.recovered());
+        } catch (IOException e) {
+            System.err.println("Photo store unavailable: " + e.getMessage());
+        }
+        return records;
+    });
+    
+    // Inline per-field validation while typing
+    private final LiveValidator liveValidator =
+        new LiveValidator(ValidationEngine.STANDARD, LiveValidator.DEFAULT_DELAY_MS, ERROR_COLOR);
+    
+    // Edits are snapshotted this long after the last keystroke, then written by the Autosaver
+    private static final int AUTOSAVE_IDLE_MS = 500;
+    
     public ProfessionalBiodataSystem() {
         initializeUI();
         setupEventHandlers();
@@ -60,20 +114,14 @@ public class ProfessionalBiodataSystem extends JFrame {
         setExtendedState(JFrame.MAXIMIZED_BOTH);
         setMinimumSize(new Dimension(1000, 700));
         
-        // Create main panel with gradient background
+        // Create main panel with gradient background, rasterized once per size
         JPanel mainPanel = new JPanel() {
+            private final RenderCache background = new RenderCache(1, Transparency.OPAQUE);
+            
             @Override
             protected void paintComponent(Graphics g) {
-                super.paintComponent(g);
-                Graphics2D g2d = (Graphics2D) g;
-                g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
-                
-                GradientPaint gradient = new GradientPaint(
-                    0, 0, PRIMARY_COLOR,
-                    getWidth(), getHeight(), SECONDARY_COLOR
-                );
-                g2d.setPaint(gradient);
-                g2d.fillRect(0, 0, getWidth(), getHeight());
+                background.paint(g, getWidth(), getHeight(), 0,
+                    (g2d, w, h) -> paintGradient(g2d, w, h, PRIMARY_COLOR, SECONDARY_COLOR));
             }
         };
         mainPanel.setLayout(new BorderLayout());
@@ -92,6 +140,7 @@ public class ProfessionalBiodataSystem extends JFrame {
         scrollPane.getViewport().setOpaque(false);
         
         mainPanel.add(scrollPane, BorderLayout.CENTER);
+        mainPanel.add(createWorkspacePanel(), BorderLayout.WEST);
         add(mainPanel);
     }
     
@@ -122,11 +171,19 @@ public class ProfessionalBiodataSystem extends JFrame {
         formContainer.add(createAdditionalInfoSection());
         formContainer.add(Box.createVerticalStrut(30));
         formContainer.add(createButtonsPanel());
+        formContainer.add(Box.createVerticalStrut(30));
+        formContainer.add(createAnalyticsSection());
         
         panel.add(formContainer);
         return panel;
     }
     
+    private JPanel createWorkspacePanel() {
+        newRecordButton = createStyledButton("New Record", SUCCESS_COLOR);
+        workspace = new WorkspacePanel(this::switchRecord, this::isEdited, SECONDARY_COLOR, Color.WHITE, newRecordButton);
+        return workspace;
+    }
+    
     private JPanel createHeaderPanel() {
         JPanel header = new JPanel();
         header.setOpaque(false);
@@ -189,7 +246,7 @@ public class ProfessionalBiodataSystem extends JFrame {
         ageField = createStyledTextField();
         addFormField(grid, "Age *", ageField, gbc, 2, 0);
         
-        genderBox = new JComboBox<>(new String[]{"Select Gender", "Male", "Female", "Other"});
+        genderBox = new JComboBox<>(Biodata.withPlaceholder("Select Gender", Biodata.GENDER_OPTIONS));
         styleComboBox(genderBox);
         addFormField(grid, "Gender", genderBox, gbc, 1, 1);
         
@@ -208,19 +265,12 @@ public class ProfessionalBiodataSystem extends JFrame {
         regdField = createStyledTextField();
         addFormField(grid, "Registration Number *", regdField, gbc, 0, 0);
         
-        String[] branches = {
-            "Select Branch", "Computer Science & Engineering", "CSE - AI & Machine Learning",
-            "CSE - Data Science", "Information Technology", "Electronics & Communication",
-            "Electrical & Electronics", "Mechanical Engineering", "Civil Engineering"
-        };
+        String[] branches = Biodata.withPlaceholder("Select Branch", Biodata.BRANCH_OPTIONS);
         branchBox = new JComboBox<>(branches);
         styleComboBox(branchBox);
         addFormField(grid, "Branch *", branchBox, gbc, 1, 0);
         
-        String[] semesters = {
-            "Select Semester", "1st Semester", "2nd Semester", "3rd Semester",
-            "4th Semester", "5th Semester", "6th Semester", "7th Semester", "8th Semester"
-        };
+        String[] semesters = Biodata.withPlaceholder("Select Semester", Biodata.SEMESTER_OPTIONS);
         semesterBox = new JComboBox<>(semesters);
         styleComboBox(semesterBox);
         addFormField(grid, "Current Semester *", semesterBox, gbc, 0, 1);
@@ -280,11 +330,7 @@ public class ProfessionalBiodataSystem extends JFrame {
     skillsGrid.setBackground(SECONDARY_COLOR);
     skillsGrid.setBorder(BorderFactory.createEmptyBorder(15, 15, 15, 15));
     
-    String[] skills = {
-        "Java Programming", "Python Programming", "Web Development",
-        "Data Structures", "Database Management", "Machine Learning",
-        "Android Dev", "Software Testing", "Cloud Computing"
-    };
+    String[] skills = Biodata.SKILL_OPTIONS;
     
     skillsBoxes = new JCheckBox[skills.length];
     for (int i = 0; i < skills.length; i++) {
@@ -310,10 +356,7 @@ public class ProfessionalBiodataSystem extends JFrame {
     hobbiesGrid.setBackground(SECONDARY_COLOR);
     hobbiesGrid.setBorder(BorderFactory.createEmptyBorder(15, 15, 15, 15));
     
-    String[] hobbies = {
-        "Coding", "Reading Books", "Playing Games", "Photography",
-        "Traveling", "Painting", "Dancing", "Singing", "Sports"
-    };
+    String[] hobbies = Biodata.HOBBY_OPTIONS;
     
     hobbiesBoxes = new JCheckBox[hobbies.length];
     for (int i = 0; i < hobbies.length; i++) {
@@ -354,6 +397,13 @@ public class ProfessionalBiodataSystem extends JFrame {
         return section;
     }
     
+    private JPanel createAnalyticsSection() {
+        JPanel section = createSection("Cohort Analytics");
+        analyticsPanel = new AnalyticsPanel();
+        section.add(analyticsPanel, BorderLayout.CENTER);
+        return section;
+    }
+    
     private JPanel createButtonsPanel() {
         JPanel panel = new JPanel(new FlowLayout(FlowLayout.CENTER, 20, 0));
         panel.setOpaque(false);
@@ -361,10 +411,20 @@ public class ProfessionalBiodataSystem extends JFrame {
         submitButton = createStyledButton("Generate Biodata", SUCCESS_COLOR);
         clearButton = createStyledButton("Clear All", ERROR_COLOR);
         exportButton = createStyledButton("Export to File", ACCENT_COLOR);
+        saveButton = createStyledButton("Save Record", SUCCESS_COLOR);
+        loadButton = createStyledButton("Load Record", ACCENT_COLOR);
+        searchButton = createStyledButton("Search Records", ACCENT_COLOR);
+        cohortButton = createStyledButton("Cohort View", ACCENT_COLOR);
+        importButton = createStyledButton("Import Records", ACCENT_COLOR);
         
         panel.add(submitButton);
         panel.add(clearButton);
         panel.add(exportButton);
+        panel.add(saveButton);
+        panel.add(loadButton);
+        panel.add(searchButton);
+        panel.add(cohortButton);
+        panel.add(importButton);
         
         return panel;
     }
@@ -434,49 +494,15 @@ public class ProfessionalBiodataSystem extends JFrame {
     
     private JCheckBox createStyledCheckBox(String text) {
     JCheckBox checkbox = new JCheckBox(text) {
+        // Rasterized per size for each selected/rollover combination; the label never changes
+        private final RenderCache states = new RenderCache(4, Transparency.OPAQUE);
+        
         @Override
         protected void paintComponent(Graphics g) {
-            // Create a completely opaque background
-            Graphics2D g2 = (Graphics2D) g.create();
-            
-            // FILL ENTIRE BACKGROUND WITH SOLID COLOR
-            g2.setColor(SECONDARY_COLOR);
-            g2.fillRect(0, 0, getWidth(), getHeight());
-            
-            int size = 16;
-            int yOffset = (getHeight() - size) / 2;
-            int textX = size + 8;
-            
-            // Simple hover effect
-            if (getModel().isRollover()) {
-                g2.setColor(new Color(255, 255, 255, 20));
-                g2.fillRect(0, 0, getWidth(), getHeight());
-            }
-            
-            // Draw checkbox
-            g2.setColor(Color.WHITE);
-            g2.drawRect(0, yOffset, size, size);
-            
-            // Draw checkmark if selected
-            if (isSelected()) {
-                g2.setColor(ACCENT_COLOR);
-                g2.fillRect(2, yOffset + 2, size - 4, size - 4);
-                
-                // White checkmark
-                g2.setColor(Color.WHITE);
-                g2.setStroke(new BasicStroke(2f));
-                g2.drawLine(4, yOffset + 8, 7, yOffset + 12);
-                g2.drawLine(7, yOffset + 12, 12, yOffset + 4);
-            }
-            
-            // Draw text
-            g2.setColor(Color.WHITE);
-            g2.setFont(INPUT_FONT);
-            FontMetrics fm = g2.getFontMetrics();
-            int textY = ((getHeight() - fm.getHeight()) / 2) + fm.getAscent();
-            g2.drawString(getText(), textX, textY);
-            
-            g2.dispose();
+            boolean rollover = getModel().isRollover();
+            boolean selected = isSelected();
+            states.paint(g, getWidth(), getHeight(), (selected ? 2 : 0) | (rollover ? 1 : 0),
+                (g2, w, h) -> paintCheckBox(g2, w, h, getText(), selected, rollover));
         }
     };
 
@@ -492,6 +518,52 @@ public class ProfessionalBiodataSystem extends JFrame {
     return checkbox;
 }
     
+    private void paintCheckBox(Graphics2D g2, int width, int height, String text,
+                               boolean selected, boolean rollover) {
+        // FILL ENTIRE BACKGROUND WITH SOLID COLOR
+        g2.setColor(SECONDARY_COLOR);
+        g2.fillRect(0, 0, width, height);
+        
+        int size = 16;
+        int yOffset = (height - size) / 2;
+        int textX = size + 8;
+        
+        // Simple hover effect
+        if (rollover) {
+            g2.setColor(new Color(255, 255, 255, 20));
+            g2.fillRect(0, 0, width, height);
+        }
+        
+        // Draw checkbox
+        g2.setColor(Color.WHITE);
+        g2.drawRect(0, yOffset, size, size);
+        
+        // Draw checkmark if selected
+        if (selected) {
+            g2.setColor(ACCENT_COLOR);
+            g2.fillRect(2, yOffset + 2, size - 4, size - 4);
+            
+            // White checkmark
+            g2.setColor(Color.WHITE);
+            g2.setStroke(new BasicStroke(2f));
+            g2.drawLine(4, yOffset + 8, 7, yOffset + 12);
+            g2.drawLine(7, yOffset + 12, 12, yOffset + 4);
+        }
+        
+        // Draw text
+        g2.setColor(Color.WHITE);
+        g2.setFont(INPUT_FONT);
+        FontMetrics fm = g2.getFontMetrics();
+        int textY = ((height - fm.getHeight()) / 2) + fm.getAscent();
+        g2.drawString(text, textX, textY);
+    }
+    
+    private static void paintGradient(Graphics2D g2d, int width, int height, Color from, Color to) {
+        g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g2d.setPaint(new GradientPaint(0, 0, from, width, height, to));
+        g2d.fillRect(0, 0, width, height);
+    }
+    
     private void styleComboBox(JComboBox<String> combo) {
         combo.setFont(INPUT_FONT);
         combo.setPreferredSize(new Dimension(200, 35));
@@ -501,21 +573,18 @@ public class ProfessionalBiodataSystem extends JFrame {
     
     private JButton createStyledButton(String text, Color color) {
         JButton button = new JButton(text) {
+            // Normal, rollover and pressed backgrounds
+            private final RenderCache states = new RenderCache(3, Transparency.TRANSLUCENT);
+            
             @Override
             protected void paintComponent(Graphics g) {
-                Graphics2D g2 = (Graphics2D) g.create();
-                g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-                
-                if (getModel().isPressed()) {
-                    g2.setColor(color.darker());
-                } else if (getModel().isRollover()) {
-                    g2.setColor(color.brighter());
-                } else {
-                    g2.setColor(color);
-                }
-                
-                g2.fillRoundRect(0, 0, getWidth(), getHeight(), 15, 15);
-                g2.dispose();
+                int state = getModel().isPressed() ? 2 : getModel().isRollover() ? 1 : 0;
+                Color fill = state == 2 ? color.darker() : state == 1 ? color.brighter() : color;
+                states.paint(g, getWidth(), getHeight(), state, (g2, w, h) -> {
+                    g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                    g2.setColor(fill);
+                    g2.fillRoundRect(0, 0, w, h, 15, 15);
+                });
                 super.paintComponent(g);
             }
         };
@@ -563,6 +632,75 @@ public class ProfessionalBiodataSystem extends JFrame {
         submitButton.addActionListener(e -> generateBiodata());
         clearButton.addActionListener(e -> clearAllFields());
         exportButton.addActionListener(e -> exportBiodata());
+        saveButton.addActionListener(e -> saveRecord());
+        loadButton.addActionListener(e -> loadRecord());
+        searchButton.addActionListener(e -> searchRecords());
+        cohortButton.addActionListener(e -> showCohort());
+        importButton.addActionListener(e -> importRecords());
+        newRecordButton.addActionListener(e -> {
+            if (commitForm()) newRecord();
+        });
+        
+        liveValidator.watch(BiodataField.NAME, nameField);
+        liveValidator.watch(BiodataField.AGE, ageField);
+        liveValidator.watch(BiodataField.REGD, regdField);
+        liveValidator.watch(BiodataField.BRANCH, branchBox);
+        liveValidator.watch(BiodataField.SEMESTER, semesterBox);
+        liveValidator.watch(BiodataField.CGPA, cgpaField);
+        liveValidator.watch(BiodataField.PHONE, phoneField);
+        liveValidator.watch(BiodataField.EMAIL, emailField);
+        watchEdits();
+        
+        autosaveTimer.setRepeats(false);
+        // The store opens in the background; its actions wait for it rather than the EDT
+        setStoreActionsEnabled(false);
+        store.whenComplete((records, ex) -> SwingUtilities.invokeLater(() -> {
+            setStoreActionsEnabled(true);
+            if (ex == null) {
+                startWorkspace(records);
+                if (records.recovered() != null) {
+                    showError("The last save before the program stopped was incomplete and has been discarded.\n"
+                        + records.recovered());
+                }
+            } else {
+                workspace.setStatus("Records unavailable");
+            }
+        }));
+        
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                // Save what can be saved; there is no staying open to fix the rest
+                if (dirty && autosaver != null) autosave();
+                if (autosaver != null) autosaver.close();
+                
+                // -Dbiodata.metrics=true prints UI latency figures on exit
+                if (Boolean.getBoolean("biodata.metrics")) {
+                    System.out.println(liveValidator.keystrokeStats());
+                    System.out.println(liveValidator.validationStats());
+                    System.out.println(previewStats);
+                    if (autosaver != null) System.out.println(autosaver);
+                }
+            }
+        });
+    }
+    
+    /** Marks the form edited on any change the user makes to it. */
+    private void watchEdits() {
+        DocumentListener documentListener = new DocumentListener() {
+            @Override public void insertUpdate(DocumentEvent e) { formEdited(); }
+            @Override public void removeUpdate(DocumentEvent e) { formEdited(); }
+            @Override public void changedUpdate(DocumentEvent e) {}
+        };
+        for (JTextComponent c : new JTextComponent[] {
+                nameField, ageField, regdField, phoneField, emailField, collegeField, cgpaField, linkedinField,
+                githubField, addressArea, aboutArea, achievementsArea, otherSkillsField, otherHobbiesField}) {
+            c.getDocument().addDocumentListener(documentListener);
+        }
+        ItemListener itemListener = e -> formEdited();
+        for (JComboBox<String> combo : Arrays.asList(genderBox, branchBox, semesterBox)) combo.addItemListener(itemListener);
+        for (JCheckBox cb : skillsBoxes) cb.addItemListener(itemListener);
+        for (JCheckBox cb : hobbiesBoxes) cb.addItemListener(itemListener);
     }
     
     private void selectPhoto() {
@@ -571,61 +709,58 @@ public class ProfessionalBiodataSystem extends JFrame {
         
         if (fileChooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
             File selectedFile = fileChooser.getSelectedFile();
-            photoPath = selectedFile.getAbsolutePath();
+            int choice = ++photoChoice;
+            photoLabel.setIcon(null);
+            photoLabel.setText("Loading...");
             
-            try {
-                ImageIcon icon = new ImageIcon(photoPath);
-                Image img = icon.getImage().getScaledInstance(100, 130, Image.SCALE_SMOOTH);
-                photoLabel.setIcon(new ImageIcon(img));
+            // Copied into the photo store off the EDT; without one the record keeps the file's path
+            store.thenApplyAsync(records -> {
+                try {
+                    return records.photos().add(selectedFile);
+                } catch (IOException e) {
+                    throw new CompletionException(e);
+                }
+            }).whenComplete((reference, ex) -> SwingUtilities.invokeLater(() -> {
+                if (choice != photoChoice) return; // another photo or record was opened meanwhile
+                Throwable cause = ex != null && ex.getCause() != null ? ex.getCause() : ex;
+                // An unreadable image shows as such; a store that cannot take the photo is reported
+                if (cause instanceof IOException && !(cause instanceof PhotoStore.UnreadablePhotoException)) {
+                    showError("The photo could not be saved in the photo store, so the record links to the file instead: "
+                        + cause.getMessage());
+                }
+                showPhoto(ex == null ? reference : selectedFile.getAbsolutePath());
+                formEdited();
+            }));
+        }
+    }
+    
+    private void showPhoto(String path) {
+        photoChoice++;
+        photoPath = path;
+        photoLabel.setIcon(null);
+        photoLabel.setText("Loading...");
+        
+        // Decode off the EDT; the preview size is cached for Generate Biodata too
+        photoService.load(path).whenComplete((thumbnails, ex) -> SwingUtilities.invokeLater(() -> {
+            if (!path.equals(photoPath)) return; // another photo was chosen meanwhile
+            if (ex != null) {
+                photoPath = "";
+                photoLabel.setText("<html><center>Click to<br>Add Photo</center></html>");
+                Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                showError("Error loading image: " + cause.getMessage());
+            } else {
+                photoLabel.setIcon(new ImageIcon(thumbnails.form));
                 photoLabel.setText("");
-            } catch (Exception ex) {
-                showError("Error loading image: " + ex.getMessage());
             }
-        }
+        }));
     }
     
     private boolean validateInput() {
-        StringBuilder errors = new StringBuilder();
-        
-        if (nameField.getText().trim().isEmpty()) errors.append("• Full Name is required\n");
-        if (ageField.getText().trim().isEmpty()) {
-            errors.append("• Age is required\n");
-        } else {
-            try {
-                int age = Integer.parseInt(ageField.getText().trim());
-                if (age < 16 || age > 100) errors.append("• Age must be between 16 and 100\n");
-            } catch (NumberFormatException e) {
-                errors.append("• Age must be a valid number\n");
-            }
-        }
-        
-        if (regdField.getText().trim().isEmpty()) errors.append("• Registration Number is required\n");
-        if (branchBox.getSelectedIndex() == 0) errors.append("• Please select a branch\n");
-        if (semesterBox.getSelectedIndex() == 0) errors.append("• Please select current semester\n");
-        
-        if (phoneField.getText().trim().isEmpty()) {
-            errors.append("• Mobile Number is required\n");
-        } else if (!phonePattern.matcher(phoneField.getText().trim()).matches()) {
-            errors.append("• Please enter a valid 10-digit mobile number\n");
-        }
+        int errors = ValidationEngine.STANDARD.validate(captureBiodata());
         
-        if (emailField.getText().trim().isEmpty()) {
-            errors.append("• Email Address is required\n");
-        } else if (!emailPattern.matcher(emailField.getText().trim()).matches()) {
-            errors.append("• Please enter a valid email address\n");
-        }
-        
-        if (!cgpaField.getText().trim().isEmpty()) {
-            try {
-                double cgpa = Double.parseDouble(cgpaField.getText().trim());
-                if (cgpa < 0.0 || cgpa > 10.0) errors.append("• CGPA must be between 0.0 and 10.0\n");
-            } catch (NumberFormatException e) {
-                errors.append("• CGPA must be a valid number\n");
-            }
-        }
-        
-        if (errors.length() > 0) {
-            showError("Please fix the following errors:\n\n" + errors.toString());
+        if (errors != 0) {
+            liveValidator.show(errors);
+            showError("Please fix the following errors:\n\n" + ValidationError.describe(errors));
             return false;
         }
         
@@ -634,179 +769,74 @@ public class ProfessionalBiodataSystem extends JFrame {
     
     private void generateBiodata() {
         if (!validateInput()) return;
+        Biodata biodata = captureBiodata();
+        
+        if (biodata.photoPath.isEmpty()) {
+            showBiodata(biodata);
+        } else {
+            // Usually already cached by selectPhoto(); never decode on the EDT
+            photoService.load(biodata.photoPath)
+                .whenComplete((thumbnails, ex) -> SwingUtilities.invokeLater(() -> showBiodata(biodata)));
+        }
+    }
+    
+    private void showBiodata(Biodata biodata) {
+        long start = System.nanoTime();
+        if (previewFrame == null) previewFrame = createPreviewFrame();
+        
+        previewBiodata = biodata;
+        panelRenderer.renderInto(preview, biodata);
+        previewFrame.setTitle("Professional Biodata - " + biodata.name);
+        previewFrame.validate();
+        previewScroll.getVerticalScrollBar().setValue(0);
+        previewStats.record(System.nanoTime() - start);
         
-        JFrame outputFrame = new JFrame("Professional Biodata - " + nameField.getText());
+        previewFrame.setVisible(true);
+        previewFrame.toFront();
+        
+        showSuccess("Biodata generated successfully!");
+    }
+    
+    /**
+     * The preview window is built once and reused by every Generate Biodata;
+     * closing it only hides it.
+     */
+    private JFrame createPreviewFrame() {
+        JFrame outputFrame = new JFrame();
+        outputFrame.setDefaultCloseOperation(JFrame.HIDE_ON_CLOSE);
         outputFrame.setSize(800, 900);
         outputFrame.setLocationRelativeTo(this);
         
         JPanel outputPanel = new JPanel() {
+            private final RenderCache background = new RenderCache(1, Transparency.OPAQUE);
+            
             @Override
             protected void paintComponent(Graphics g) {
-                super.paintComponent(g);
-                Graphics2D g2d = (Graphics2D) g;
-                g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
-                
-                GradientPaint gradient = new GradientPaint(
-                    0, 0, new Color(240, 248, 255),
-                    getWidth(), getHeight(), new Color(230, 230, 250)
-                );
-                g2d.setPaint(gradient);
-                g2d.fillRect(0, 0, getWidth(), getHeight());
+                background.paint(g, getWidth(), getHeight(), 0,
+                    (g2d, w, h) -> paintGradient(g2d, w, h, new Color(240, 248, 255), new Color(230, 230, 250)));
             }
         };
         
         outputPanel.setLayout(new BorderLayout());
         outputPanel.setBorder(BorderFactory.createEmptyBorder(30, 40, 30, 40));
         
-        JPanel contentPanel = createBiodataContent();
-        JScrollPane scrollPane = new JScrollPane(contentPanel);
-        scrollPane.setBorder(null);
-        scrollPane.getVerticalScrollBar().setUnitIncrement(16);
+        preview = new BiodataPreview(PRIMARY_COLOR);
+        previewScroll = new JScrollPane(preview);
+        previewScroll.setBorder(null);
+        previewScroll.setOpaque(false);
+        previewScroll.getViewport().setOpaque(false);
         
-        outputPanel.add(scrollPane, BorderLayout.CENTER);
+        outputPanel.add(previewScroll, BorderLayout.CENTER);
         
         JButton printButton = createStyledButton("Print Biodata", PRIMARY_COLOR);
-        printButton.addActionListener(e -> printBiodata(contentPanel));
+        printButton.addActionListener(e -> printBiodata(Collections.singletonList(previewBiodata)));
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
         buttonPanel.setOpaque(false);
         buttonPanel.add(printButton);
         outputPanel.add(buttonPanel, BorderLayout.SOUTH);
         
         outputFrame.add(outputPanel);
-        outputFrame.setVisible(true);
-        
-        showSuccess("Biodata generated successfully!");
-    }
-    
-    private JPanel createBiodataContent() {
-        JPanel content = new JPanel();
-        content.setLayout(new BoxLayout(content, BoxLayout.Y_AXIS));
-        content.setOpaque(false);
-        content.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
-        
-        // Header
-        JPanel header = new JPanel(new BorderLayout());
-        header.setOpaque(false);
-        header.setBorder(BorderFactory.createEmptyBorder(0, 0, 30, 0));
-        
-        JLabel titleLabel = new JLabel("PROFESSIONAL BIODATA", SwingConstants.CENTER);
-        titleLabel.setFont(new Font("Segoe UI", Font.BOLD, 28));
-        titleLabel.setForeground(PRIMARY_COLOR);
-        
-        if (!photoPath.isEmpty()) {
-            try {
-                ImageIcon icon = new ImageIcon(photoPath);
-                Image img = icon.getImage().getScaledInstance(120, 150, Image.SCALE_SMOOTH);
-                JLabel photoDisplay = new JLabel(new ImageIcon(img));
-                photoDisplay.setBorder(BorderFactory.createLineBorder(Color.GRAY, 2));
-                header.add(photoDisplay, BorderLayout.EAST);
-            } catch (Exception ex) {}
-        }
-        
-        header.add(titleLabel, BorderLayout.CENTER);
-        content.add(header);
-        
-        // Sections
-        content.add(createOutputSection("Personal Information",
-            "Name: " + nameField.getText(),
-            "Age: " + ageField.getText(),
-            "Gender: " + (genderBox.getSelectedIndex() > 0 ? genderBox.getSelectedItem() : "Not specified")
-        ));
-        
-        content.add(createOutputSection("Academic Information",
-            "Registration Number: " + regdField.getText(),
-            "Branch: " + (branchBox.getSelectedIndex() > 0 ? branchBox.getSelectedItem() : "Not specified"),
-            "Current Semester: " + (semesterBox.getSelectedIndex() > 0 ? semesterBox.getSelectedItem() : "Not specified"),
-            "CGPA: " + (cgpaField.getText().trim().isEmpty() ? "Not specified" : cgpaField.getText()),
-            "College/University: " + (collegeField.getText().trim().isEmpty() ? "Not specified" : collegeField.getText())
-        ));
-        
-        content.add(createOutputSection("Contact Information",
-            "Mobile Number: " + phoneField.getText(),
-            "Email Address: " + emailField.getText(),
-            "LinkedIn: " + (linkedinField.getText().trim().isEmpty() ? "Not provided" : linkedinField.getText()),
-            "GitHub: " + (githubField.getText().trim().isEmpty() ? "Not provided" : githubField.getText()),
-            "Address: " + (addressArea.getText().trim().isEmpty() ? "Not provided" : addressArea.getText())
-        ));
-        
-        StringBuilder skills = new StringBuilder();
-        for (JCheckBox cb : skillsBoxes) {
-            if (cb.isSelected()) {
-                if (skills.length() > 0) skills.append(", ");
-                skills.append(cb.getText());
-            }
-        }
-        if (!otherSkillsField.getText().trim().isEmpty()) {
-            if (skills.length() > 0) skills.append(", ");
-            skills.append(otherSkillsField.getText().trim());
-        }
-        
-        StringBuilder hobbies = new StringBuilder();
-        for (JCheckBox cb : hobbiesBoxes) {
-            if (cb.isSelected()) {
-                if (hobbies.length() > 0) hobbies.append(", ");
-                hobbies.append(cb.getText());
-            }
-        }
-        if (!otherHobbiesField.getText().trim().isEmpty()) {
-            if (hobbies.length() > 0) hobbies.append(", ");
-            hobbies.append(otherHobbiesField.getText().trim());
-        }
-        
-        content.add(createOutputSection("Skills & Interests",
-            "Technical Skills: " + (skills.length() > 0 ? skills.toString() : "None specified"),
-            "Hobbies & Interests: " + (hobbies.length() > 0 ? hobbies.toString() : "None specified")
-        ));
-        
-        if (!aboutArea.getText().trim().isEmpty() || !achievementsArea.getText().trim().isEmpty()) {
-            content.add(createOutputSection("Additional Information",
-                "About Me: " + (aboutArea.getText().trim().isEmpty() ? "Not provided" : aboutArea.getText()),
-                "Achievements & Projects: " + (achievementsArea.getText().trim().isEmpty() ? "Not provided" : achievementsArea.getText())
-            ));
-        }
-        
-        JLabel footer = new JLabel("Generated on: " + new SimpleDateFormat("dd MMM yyyy").format(new Date()), SwingConstants.CENTER);
-        footer.setFont(new Font("Segoe UI", Font.ITALIC, 12));
-        footer.setForeground(Color.GRAY);
-        footer.setBorder(BorderFactory.createEmptyBorder(30, 0, 0, 0));
-        content.add(footer);
-        
-        return content;
-    }
-    
-    private JPanel createOutputSection(String title, String... items) {
-        JPanel section = new JPanel();
-        section.setLayout(new BoxLayout(section, BoxLayout.Y_AXIS));
-        section.setOpaque(false);
-        section.setBorder(BorderFactory.createEmptyBorder(15, 0, 15, 0));
-        
-        JLabel titleLabel = new JLabel(title);
-        titleLabel.setFont(new Font("Segoe UI", Font.BOLD, 18));
-        titleLabel.setForeground(PRIMARY_COLOR);
-        titleLabel.setBorder(BorderFactory.createEmptyBorder(0, 0, 10, 0));
-        section.add(titleLabel);
-        
-        JPanel contentPanel = new JPanel();
-        contentPanel.setLayout(new BoxLayout(contentPanel, BoxLayout.Y_AXIS));
-        contentPanel.setOpaque(false);
-        contentPanel.setBorder(BorderFactory.createCompoundBorder(
-            BorderFactory.createLineBorder(new Color(200, 200, 200)),
-            BorderFactory.createEmptyBorder(15, 15, 15, 15)
-        ));
-        contentPanel.setBackground(Color.WHITE);
-        contentPanel.setOpaque(true);
-        
-        for (String item : items) {
-            if (item != null && !item.trim().isEmpty()) {
-                JLabel itemLabel = new JLabel(item);
-                itemLabel.setFont(new Font("Segoe UI", Font.PLAIN, 14));
-                itemLabel.setBorder(BorderFactory.createEmptyBorder(5, 0, 5, 0));
-                contentPanel.add(itemLabel);
-            }
-        }
-        
-        section.add(contentPanel);
-        return section;
+        return outputFrame;
     }
     
     private void clearAllFields() {
@@ -814,32 +844,9 @@ public class ProfessionalBiodataSystem extends JFrame {
             "Clear All Fields", JOptionPane.YES_NO_OPTION, JOptionPane.QUESTION_MESSAGE);
         
         if (result == JOptionPane.YES_OPTION) {
-            nameField.setText("");
-            ageField.setText("");
-            regdField.setText("");
-            phoneField.setText("");
-            emailField.setText("");
-            collegeField.setText("");
-            cgpaField.setText("");
-            linkedinField.setText("");
-            githubField.setText("");
-            addressArea.setText("");
-            aboutArea.setText("");
-            achievementsArea.setText("");
-            
-            branchBox.setSelectedIndex(0);
-            semesterBox.setSelectedIndex(0);
-            genderBox.setSelectedIndex(0);
-            
-            for (JCheckBox cb : skillsBoxes) cb.setSelected(false);
-            for (JCheckBox cb : hobbiesBoxes) cb.setSelected(false);
-            
-            otherSkillsField.setText("");
-            otherHobbiesField.setText("");
-            
-            photoLabel.setIcon(null);
-            photoLabel.setText("<html><center>Click to<br>Add Photo</center></html>");
-            photoPath = "";
+            // The record being edited keeps its autosaved state; the form starts a new one
+            if (!commitForm()) return;
+            newRecord();
             
             showSuccess("All fields cleared successfully!");
         }
@@ -850,123 +857,498 @@ public class ProfessionalBiodataSystem extends JFrame {
     
     JFileChooser fileChooser = new JFileChooser();
     fileChooser.setDialogTitle("Save Biodata");
-    fileChooser.setFileFilter(new FileNameExtensionFilter("Text files", "txt"));
+    FileNameExtensionFilter textFilter = new FileNameExtensionFilter("Text files", "txt");
+    fileChooser.addChoosableFileFilter(new FileNameExtensionFilter("Web pages", "html", "htm"));
+    fileChooser.addChoosableFileFilter(new FileNameExtensionFilter("Markdown documents", "md"));
+    fileChooser.addChoosableFileFilter(new FileNameExtensionFilter("JSON documents", "json"));
+    fileChooser.addChoosableFileFilter(new FileNameExtensionFilter("PDF documents", "pdf"));
+    fileChooser.setFileFilter(textFilter);
     fileChooser.setSelectedFile(new File(nameField.getText().replaceAll("\\s+", "_") + "_biodata.txt"));
     
     if (fileChooser.showSaveDialog(this) == JFileChooser.APPROVE_OPTION) {
         File file = fileChooser.getSelectedFile();
-        try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
-            writer.println("PROFESSIONAL BIODATA");
-            writer.println("====================");
-            writer.println();
-            writer.println("Generated on: " + new SimpleDateFormat("dd MMM yyyy 'at' HH:mm:ss").format(new Date()));
-            writer.println();
-            
-            // Personal Information
-            writer.println("PERSONAL INFORMATION");
-            writer.println("-------------------");
-            writer.println("Name: " + nameField.getText());
-            writer.println("Age: " + ageField.getText());
-            writer.println("Gender: " + (genderBox.getSelectedIndex() > 0 ? genderBox.getSelectedItem() : "Not specified"));
-            writer.println();
-            
-            // Academic Information
-            writer.println("ACADEMIC INFORMATION");
-            writer.println("--------------------");
-            writer.println("Registration Number: " + regdField.getText());
-            writer.println("Branch: " + (branchBox.getSelectedIndex() > 0 ? branchBox.getSelectedItem() : "Not specified"));
-            writer.println("Current Semester: " + (semesterBox.getSelectedIndex() > 0 ? semesterBox.getSelectedItem() : "Not specified"));
-            writer.println("CGPA: " + (cgpaField.getText().trim().isEmpty() ? "Not specified" : cgpaField.getText()));
-            writer.println("College/University: " + (collegeField.getText().trim().isEmpty() ? "Not specified" : collegeField.getText()));
-            writer.println();
-            
-            // Contact Information
-            writer.println("CONTACT INFORMATION");
-            writer.println("-------------------");
-            writer.println("Mobile Number: " + phoneField.getText());
-            writer.println("Email Address: " + emailField.getText());
-            writer.println("LinkedIn: " + (linkedinField.getText().trim().isEmpty() ? "Not provided" : linkedinField.getText()));
-            writer.println("GitHub: " + (githubField.getText().trim().isEmpty() ? "Not provided" : githubField.getText()));
-            writer.println("Address: " + (addressArea.getText().trim().isEmpty() ? "Not provided" : addressArea.getText()));
-            writer.println();
-            
-            // Skills
-            StringBuilder skills = new StringBuilder();
-            for (JCheckBox cb : skillsBoxes) {
-                if (cb.isSelected()) {
-                    if (skills.length() > 0) skills.append(", ");
-                    skills.append(cb.getText());
-                }
-            }
-            if (!otherSkillsField.getText().trim().isEmpty()) {
-                if (skills.length() > 0) skills.append(", ");
-                skills.append(otherSkillsField.getText().trim());
-            }
-            
-            // Hobbies
-            StringBuilder hobbies = new StringBuilder();
-            for (JCheckBox cb : hobbiesBoxes) {
-                if (cb.isSelected()) {
-                    if (hobbies.length() > 0) hobbies.append(", ");
-                    hobbies.append(cb.getText());
-                }
-            }
-            if (!otherHobbiesField.getText().trim().isEmpty()) {
-                if (hobbies.length() > 0) hobbies.append(", ");
-                hobbies.append(otherHobbiesField.getText().trim());
+        // A typed extension wins; a bare name or the default .txt takes the chosen filter's
+        String name = file.getName().toLowerCase(Locale.ROOT);
+        boolean typed = name.indexOf('.') >= 0 && !name.endsWith(".txt");
+        if (!typed && fileChooser.getFileFilter() instanceof FileNameExtensionFilter) {
+            String extension = ((FileNameExtensionFilter) fileChooser.getFileFilter()).getExtensions()[0];
+            file = new File(file.getPath().replaceAll("\\.txt$", "") + "." + extension);
+        }
+        if (file.getName().toLowerCase(Locale.ROOT).endsWith(".pdf")) {
+            exportPdf(captureBiodata(), file);
+            return;
+        }
+        boolean json = file.getName().toLowerCase(Locale.ROOT).endsWith(".json");
+        BiodataTemplate.Format format = BiodataTemplate.Format.forFile(file.getName());
+        String generatedOn = TextBiodataRenderer.timestamp(new Date());
+        Biodata biodata = captureBiodata();
+        String photoNote = "";
+        if (format == BiodataTemplate.Format.HTML && !biodata.photoPath.isEmpty()) {
+            // A stored photo travels inside the page; a file is linked where it is
+            if (PhotoStore.isReference(biodata.photoPath)) {
+                byte[] jpeg = photoService.store() == null ? null
+                    : photoService.store().jpeg(biodata.photoPath, PhotoStore.Size.PRINT);
+                // Without the store there is nothing to link to, so the page goes without the photo
+                if (jpeg == null) photoNote = "\n\nThe photo was left out: it is not in the photo store.";
+                biodata = biodata.withPhotoPath(jpeg == null ? ""
+                    : "data:image/jpeg;base64," + Base64.getEncoder().encodeToString(jpeg));
+            } else {
+                biodata = biodata.withPhotoPath(new File(biodata.photoPath).toURI().toString());
             }
-            
-            writer.println("SKILLS & INTERESTS");
-            writer.println("------------------");
-            writer.println("Technical Skills: " + (skills.length() > 0 ? skills.toString() : "None specified"));
-            writer.println("Hobbies & Interests: " + (hobbies.length() > 0 ? hobbies.toString() : "None specified"));
-            writer.println();
-            
-            // Additional Information
-            if (!aboutArea.getText().trim().isEmpty() || !achievementsArea.getText().trim().isEmpty()) {
-                writer.println("ADDITIONAL INFORMATION");
-                writer.println("----------------------");
-                if (!aboutArea.getText().trim().isEmpty()) {
-                    writer.println("About Me:");
-                    writer.println(aboutArea.getText());
-                    writer.println();
-                }
-                if (!achievementsArea.getText().trim().isEmpty()) {
-                    writer.println("Achievements & Projects:");
-                    writer.println(achievementsArea.getText());
-                }
+        }
+        // Plain text keeps the platform encoding it always had; the other documents are UTF-8
+        try (Writer writer = format == BiodataTemplate.Format.TEXT && !json
+                ? new PrintWriter(new FileWriter(file))
+                : new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), "UTF-8"))) {
+            if (json) {
+                new JsonBiodataRenderer(generatedOn).write(biodata, writer);
+            } else {
+                new TextBiodataRenderer(BiodataTemplate.builtIn(format.extension), generatedOn).write(biodata, writer);
             }
             
-            writer.println();
-            writer.println("--- END OF BIODATA ---");
-            
-            showSuccess("Biodata exported successfully to: " + file.getAbsolutePath());
+            showSuccess("Biodata exported successfully to: " + file.getAbsolutePath() + photoNote);
         } catch (IOException e) {
             showError("Error exporting biodata: " + e.getMessage());
         }
     }
 }
     
-    private void printBiodata(JPanel contentPanel) {
+    private void exportPdf(Biodata biodata, File file) {
+        PdfBiodataRenderer renderer = new PdfBiodataRenderer(PRIMARY_COLOR, PdfBiodataRenderer.timestamp(new Date()),
+            photoService.store());
+        // The photo is decoded again at print resolution; keep that off the EDT
+        CompletableFuture.runAsync(() -> {
+            try (OutputStream out = new FileOutputStream(file)) {
+                renderer.write(biodata, out);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }).whenComplete((v, ex) -> SwingUtilities.invokeLater(() -> {
+            if (ex == null) {
+                showSuccess("Biodata exported successfully to: " + file.getAbsolutePath());
+            } else {
+                showError("Error exporting biodata: " + (ex.getCause() != null ? ex.getCause() : ex).getMessage());
+            }
+        }));
+    }
+    
+    private void saveRecord() {
+        if (!validateInput()) return;
+        BiodataStore records = openStore();
+        if (records == null) return;
+        
+        if (autosaver == null) startWorkspace(records);
+        
+        // Through the autosave queue, so an older queued snapshot cannot overwrite this one
+        String problem = autosave();
+        if (problem != null) {
+            showError(problem);
+            return;
+        }
+        autosaver.flush();
+        showSuccess("Biodata saved for registration number " + currentKey);
+    }
+    
+    private void loadRecord() {
+        String regd = JOptionPane.showInputDialog(this, "Registration Number:", "Load Record",
+            JOptionPane.QUESTION_MESSAGE);
+        if (regd == null || regd.trim().isEmpty()) return;
+        BiodataStore records = openStore();
+        if (records == null) return;
+        
         try {
-            PrinterJob job = PrinterJob.getPrinterJob();
-            job.setPrintable((graphics, pageFormat, pageIndex) -> {
-                if (pageIndex > 0) return Printable.NO_SUCH_PAGE;
-                Graphics2D g2d = (Graphics2D) graphics;
-                g2d.translate(pageFormat.getImageableX(), pageFormat.getImageableY());
-                double scale = Math.min(pageFormat.getImageableWidth() / contentPanel.getWidth(),
-                                        pageFormat.getImageableHeight() / contentPanel.getHeight());
-                g2d.scale(scale, scale);
-                contentPanel.paint(g2d);
-                return Printable.PAGE_EXISTS;
+            Biodata biodata = records.get(regd);
+            if (biodata == null) {
+                showError("No saved biodata for registration number " + regd.trim());
+                return;
+            }
+            if (!openRecord(biodata)) return;
+            showSuccess("Biodata loaded for registration number " + BiodataStore.key(biodata.regd));
+        } catch (IllegalArgumentException e) {
+            showError("Error loading biodata: " + e.getMessage());
+        }
+    }
+    
+    private void searchRecords() {
+        BiodataStore records = openStore();
+        if (records == null) return;
+        
+        if (searchDialog == null) {
+            searchDialog = new JDialog(this, "Search Records", false);
+            searchDialog.add(new SearchPanel(records, biodata -> {
+                if (!openRecord(biodata)) return;
+                showSuccess("Biodata loaded for registration number " + BiodataStore.key(biodata.regd));
+            }, this::printBiodata, this::publishBiodata));
+            searchDialog.setSize(1100, 600);
+            searchDialog.setLocationRelativeTo(this);
+        }
+        searchDialog.setVisible(true);
+    }
+    
+    /** Shows every saved student in one table, listed again each time it opens. */
+    private void showCohort() {
+        BiodataStore records = openStore();
+        if (records == null) return;
+        
+        if (cohortDialog == null) {
+            cohortDialog = new JDialog(this, "Cohort", false);
+            cohortPanel = new CohortPanel(records, biodata -> {
+                if (!openRecord(biodata)) return;
+                showSuccess("Biodata loaded for registration number " + BiodataStore.key(biodata.regd));
             });
-            if (job.printDialog()) {
-                job.print();
-                showSuccess("Biodata sent to printer successfully!");
+            cohortDialog.add(cohortPanel);
+            cohortDialog.setSize(1200, 700);
+            cohortDialog.setLocationRelativeTo(this);
+        }
+        cohortPanel.refresh();
+        cohortDialog.setVisible(true);
+    }
+    
+    /**
+     * Saves every valid record of a CSV, Excel or JSONL file into the store,
+     * off the EDT. Rejected rows are listed in a report next to the file.
+     */
+    private void importRecords() {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Import Student Records");
+        fileChooser.setFileFilter(new FileNameExtensionFilter("Student records (CSV, Excel, JSON Lines)",
+            "csv", "xlsx", "jsonl", "ndjson", "json"));
+        if (fileChooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        BiodataStore records = openStore();
+        if (records == null) return;
+        
+        File input = fileChooser.getSelectedFile();
+        File report = new File(input.getParentFile(), input.getName().replaceAll("\\.[^.]*$", "") + "-rejected.csv");
+        importButton.setEnabled(false);
+        CompletableFuture.supplyAsync(() -> {
+            ForkJoinPool pool = new ForkJoinPool();
+            try {
+                PhotoStore photos = records.photos();
+                BiodataImporter.Summary summary =
+                    new BiodataImporter(pool).run(input, (recordNo, b) -> records.put(photos.adopt(b)), report);
+                records.flush();
+                return summary;
+            } catch (IOException | ExecutionException e) {
+                throw new CompletionException(e instanceof ExecutionException ? e.getCause() : e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            } finally {
+                pool.shutdown();
+            }
+        }).whenComplete((summary, ex) -> SwingUtilities.invokeLater(() -> {
+            importButton.setEnabled(true);
+            workspace.refresh();
+            analyticsPanel.refresh();
+            if (ex != null) {
+                showError("Error importing records: " + (ex.getCause() != null ? ex.getCause() : ex).getMessage());
+            } else if (summary.rejected + summary.failed > 0) {
+                showSuccess("Records " + summary + ".\nRejected rows are listed in: " + report.getAbsolutePath());
+            } else {
+                showSuccess("Records " + summary + ".");
             }
-        } catch (PrinterException e) {
-            showError("Error printing biodata: " + e.getMessage());
+        }));
+    }
+    
+    /** Enables the buttons that need the store, which is still being opened until then. */
+    private void setStoreActionsEnabled(boolean enabled) {
+        String tooltip = enabled ? null : "Opening saved records...";
+        for (JButton button : new JButton[] {saveButton, loadButton, searchButton, cohortButton, importButton}) {
+            button.setEnabled(enabled);
+            button.setToolTipText(tooltip);
+        }
+    }
+    
+    /**
+     * The open store, or null after reporting why it could not be opened.
+     * Never waits: store actions are only enabled once the store has opened.
+     */
+    private BiodataStore openStore() {
+        if (!store.isDone()) return null;
+        try {
+            return store.join();
+        } catch (CompletionException e) {
+            showError("Cannot open the biodata store: " + e.getCause().getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Starts listing saved records, autosaving edits and reporting cohort
+     * statistics once the store is open.
+     */
+    private void startWorkspace(BiodataStore records) {
+        if (autosaver != null) return;
+        autosaver = new Autosaver(records, Autosaver.DEFAULT_DELAY_MS, new Autosaver.Listener() {
+            @Override
+            public void saved(int count, boolean keysChanged) {
+                SwingUtilities.invokeLater(() -> {
+                    if (keysChanged) workspace.refresh(); else workspace.reload();
+                });
+            }
+            
+            @Override
+            public void failed(IOException e) {
+                SwingUtilities.invokeLater(() -> workspace.setStatus("Autosave failed: " + e.getMessage()));
+            }
+        });
+        workspace.attach(records);
+        workspace.select(currentKey);
+        analyticsPanel.attach(records);
+    }
+    
+    /** Called by the record list: opens a saved record, or its newer queued edits. */
+    private void switchRecord(String key) {
+        if (key.equals(currentKey) || !commitForm()) return;
+        Biodata b = autosaver.pending(key);
+        if (b == null) b = openStore().get(key);
+        if (b == null) {
+            workspace.setStatus("Record " + key + " no longer exists");
+            workspace.refresh();
+            return;
         }
+        restore(b, key);
+    }
+    
+    /**
+     * Opens a record from Load or Search. Returns false if the form holds edits
+     * that cannot be saved and the user chose to stay with them.
+     */
+    private boolean openRecord(Biodata b) {
+        if (!commitForm()) return false;
+        String key = BiodataStore.key(b.regd);
+        Biodata queued = autosaver == null ? null : autosaver.pending(key);
+        restore(queued != null ? queued : b, key);
+        return true;
+    }
+    
+    /** Starts a new, empty record. */
+    private void newRecord() {
+        restore(new Biodata.Builder().build(), null);
+    }
+    
+    private void restore(Biodata b, String key) {
+        applyBiodata(b);
+        currentKey = key;
+        dirty = false;
+        workspace.select(key);
+        workspace.edited();
+    }
+    
+    private boolean isEdited(String key) {
+        return dirty && key.equals(currentKey) || autosaver != null && autosaver.isPending(key);
+    }
+    
+    private void formEdited() {
+        if (restoring) return;
+        if (!dirty) {
+            dirty = true;
+            workspace.edited();
+        }
+        autosaveTimer.restart();
+    }
+    
+    /**
+     * Queues the form for autosave if it was edited. Returns false if it holds
+     * edits that cannot be saved and the user chose to stay with them.
+     */
+    private boolean commitForm() {
+        autosaveTimer.stop();
+        if (!dirty || autosaver == null) return true;
+        String problem = autosave();
+        if (problem == null) return true;
+        int result = JOptionPane.showConfirmDialog(this, problem + "\n\nDiscard the changes to this record?",
+            "Unsaved Changes", JOptionPane.YES_NO_OPTION, JOptionPane.WARNING_MESSAGE);
+        return result == JOptionPane.YES_OPTION;
+    }
+    
+    /**
+     * Hands a snapshot of the form to the Autosaver. Returns why it cannot be
+     * saved yet, or null once it is queued.
+     */
+    private String autosave() {
+        autosaveTimer.stop();
+        if (autosaver == null) return "The biodata store is not open yet";
+        Biodata b = captureBiodata();
+        String key = BiodataStore.key(b.regd);
+        String problem = null;
+        if (key.isEmpty()) {
+            problem = "Enter a Registration Number to save this record";
+        } else if (!key.equals(currentKey) && (autosaver.isPending(key) || openStore().contains(key))) {
+            problem = "Registration number " + key + " already belongs to another saved record";
+        }
+        if (problem != null) {
+            workspace.setStatus("Not saved: " + problem);
+            return problem;
+        }
+        autosaver.submit(b, currentKey);
+        if (!key.equals(currentKey)) {
+            currentKey = key;
+            workspace.select(key);
+        }
+        dirty = false;
+        workspace.setStatus("Saving " + key + "...");
+        workspace.edited();
+        return null;
+    }
+    
+    /**
+     * Fills the form from a snapshot, replacing everything currently entered.
+     */
+    private void applyBiodata(Biodata b) {
+        restoring = true;
+        try {
+            fillForm(b);
+        } finally {
+            restoring = false;
+        }
+    }
+    
+    private void fillForm(Biodata b) {
+        nameField.setText(b.name);
+        ageField.setText(b.age);
+        regdField.setText(b.regd);
+        phoneField.setText(b.phone);
+        emailField.setText(b.email);
+        collegeField.setText(b.college);
+        cgpaField.setText(b.cgpa);
+        linkedinField.setText(b.linkedin);
+        githubField.setText(b.github);
+        addressArea.setText(b.address);
+        aboutArea.setText(b.about);
+        achievementsArea.setText(b.achievements);
+        
+        selectOption(genderBox, b.gender);
+        selectOption(branchBox, b.branch);
+        selectOption(semesterBox, b.semester);
+        
+        // Checkbox i is option i, so bit i of the selection mask
+        for (int i = 0; i < skillsBoxes.length; i++) skillsBoxes[i].setSelected((b.skillBits >>> i & 1) != 0);
+        for (int i = 0; i < hobbiesBoxes.length; i++) hobbiesBoxes[i].setSelected((b.hobbyBits >>> i & 1) != 0);
+        otherSkillsField.setText(b.otherSkills);
+        otherHobbiesField.setText(b.otherHobbies);
+        
+        if (b.photoPath.isEmpty()) {
+            photoChoice++;
+            photoLabel.setIcon(null);
+            photoLabel.setText("<html><center>Click to<br>Add Photo</center></html>");
+            photoPath = "";
+        } else {
+            showPhoto(b.photoPath);
+        }
+        liveValidator.reset();
+    }
+    
+    private static void selectOption(JComboBox<String> combo, String value) {
+        combo.setSelectedIndex(0);
+        if (!value.isEmpty()) combo.setSelectedItem(value);
+    }
+    
+    /**
+     * Takes a snapshot of everything currently entered in the form.
+     */
+    private Biodata captureBiodata() {
+        Biodata.Builder b = new Biodata.Builder()
+            .name(nameField.getText())
+            .age(ageField.getText())
+            .gender(genderBox.getSelectedIndex() > 0 ? (String) genderBox.getSelectedItem() : "")
+            .photoPath(photoPath)
+            .regd(regdField.getText())
+            .branch(branchBox.getSelectedIndex() > 0 ? (String) branchBox.getSelectedItem() : "")
+            .semester(semesterBox.getSelectedIndex() > 0 ? (String) semesterBox.getSelectedItem() : "")
+            .cgpa(cgpaField.getText())
+            .college(collegeField.getText())
+            .phone(phoneField.getText())
+            .email(emailField.getText())
+            .linkedin(linkedinField.getText())
+            .github(githubField.getText())
+            .address(addressArea.getText())
+            .otherSkills(otherSkillsField.getText())
+            .otherHobbies(otherHobbiesField.getText())
+            .about(aboutArea.getText())
+            .achievements(achievementsArea.getText());
+        return b.skillBits(selection(skillsBoxes)).hobbyBits(selection(hobbiesBoxes)).build();
+    }
+    
+    /** The selection mask of a checkbox group laid out in option order. */
+    private static long selection(JCheckBox[] boxes) {
+        long bits = 0;
+        for (int i = 0; i < boxes.length; i++) {
+            if (boxes[i].isSelected()) bits |= 1L << i;
+        }
+        return bits;
+    }
+    
+    /**
+     * Prints any number of biodata as one job behind a single print dialog.
+     * Pagination (which renders every record) and spooling run off the EDT.
+     */
+    private void printBiodata(java.util.List<Biodata> records) {
+        if (records.isEmpty()) return;
+        PrinterJob job = PrinterJob.getPrinterJob();
+        PageFormat format = job.defaultPage();
+        CompletableFuture.supplyAsync(() -> new BiodataPageable(records, panelRenderer, format))
+            .whenComplete((document, ex) -> SwingUtilities.invokeLater(() -> {
+                if (ex != null) {
+                    showError("Error printing biodata: " + (ex.getCause() != null ? ex.getCause() : ex).getMessage());
+                    return;
+                }
+                job.setPageable(document);
+                if (!job.printDialog()) return;
+                CompletableFuture.runAsync(() -> {
+                    try {
+                        job.print();
+                    } catch (PrinterException e) {
+                        throw new CompletionException(e);
+                    }
+                }).whenComplete((v, printEx) -> SwingUtilities.invokeLater(() -> {
+                    if (printEx == null) {
+                        showSuccess(records.size() == 1 ? "Biodata sent to printer successfully!"
+                            : records.size() + " biodata (" + document.getNumberOfPages() + " pages) sent to printer successfully!");
+                    } else {
+                        showError("Error printing biodata: "
+                            + (printEx.getCause() != null ? printEx.getCause() : printEx).getMessage());
+                    }
+                }));
+            }));
+    }
+    
+    /**
+     * Publishes biodata as web pages with JSON alongside into a folder or a
+     * ZIP archive, each distinct photo stored once. Runs off the EDT.
+     */
+    private void publishBiodata(java.util.List<Biodata> records) {
+        if (records.isEmpty()) return;
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Export Biodata to a Folder or ZIP Archive");
+        fileChooser.setFileSelectionMode(JFileChooser.FILES_AND_DIRECTORIES);
+        fileChooser.setFileFilter(new FileNameExtensionFilter("ZIP archives", "zip"));
+        fileChooser.setSelectedFile(new File("biodata.zip"));
+        if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        File target = fileChooser.getSelectedFile();
+        
+        String generatedOn = TextBiodataRenderer.timestamp(new Date());
+        CompletableFuture.supplyAsync(() -> {
+            try (BulkExporter bulk = BulkExporter.open(target, BiodataTemplate.HTML, true, generatedOn,
+                    photoService.store())) {
+                IntStream.range(0, records.size()).parallel().forEach(i -> {
+                    try {
+                        bulk.export(i + 1, records.get(i));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                return bulk.photoCount();
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }).whenComplete((photos, ex) -> SwingUtilities.invokeLater(() -> {
+            if (ex == null) {
+                showSuccess(records.size() + " biodata and " + photos + " photo(s) exported to: " + target.getAbsolutePath());
+            } else {
+                showError("Error exporting biodata: " + (ex.getCause() != null ? ex.getCause() : ex).getMessage());
+            }
+        }));
     }
     
     private void showSuccess(String message) {
@@ -978,6 +1360,21 @@ public class ProfessionalBiodataSystem extends JFrame {
     }
     
     public static void main(String[] args) {
+        // Headless batch mode: --batch [--threads N] <input.csv|input.jsonl> <outputDir>
+        if (args.length > 0 && "--batch".equals(args[0])) {
+            BiodataBatch.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        // Headless HTTP service: --serve [--port N] [--bind address] [--threads N] [--store dir]
+        if (args.length > 0 && "--serve".equals(args[0])) {
+            BiodataServer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        // Cohort count from the columnar snapshot: --cohort [--refresh] [--branch B] [--semester S] [--skill K]... <store-folder>
+        if (args.length > 0 && "--cohort".equals(args[0])) {
+            CohortSnapshot.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
         SwingUtilities.invokeLater(() -> {
             new ProfessionalBiodataSystem();
         });
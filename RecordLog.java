@@ -0,0 +1,285 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.zip.CRC32;
+
+/**
+ * Memory-mapped record log
+ * An append-only log split into fixed-size segment files that are mapped into
+ * memory. Each record is framed as
+ *
+ *     int length | int crc32 | byte type | payload
+ *
+ * where length counts the type byte and the payload, and the CRC covers the
+ * same bytes. Segments are pre-sized, so a zero length marks the end of the
+ * written data. Dirty segments are forced to disk periodically and on
+ * {@link #sync()}. On open, every segment is checked record by record. Only
+ * the last segment can end in a torn write, so anything there after the
+ * first torn or corrupt record is zeroed and reported by {@link #recovered()};
+ * a bad record in an earlier segment fails the open with a
+ * {@link CorruptSegmentException} and leaves the files untouched.
+ *
+ * Records are addressed by a long (segment number in the high 32 bits,
+ * offset in the low 32) and handed out as read-only slices of the mapping, so
+ * reading and scanning copy no bytes.
+ */
+final class RecordLog implements Closeable {
+
+    static final int DEFAULT_SEGMENT_SIZE = 64 << 20;
+
+    private static final int SEGMENT_MAGIC = 0x42494F4C; // "BIOL"
+    private static final int SEGMENT_HEADER = 4;
+    private static final int FRAME_HEADER = 9; // length + crc + type
+
+    /** Receives each record of a scan; the payload is only valid during the call. */
+    interface Visitor {
+        void record(long address, byte type, ByteBuffer payload) throws IOException;
+    }
+
+    /** A bad record in a segment that later segments follow: damage, not a torn write. */
+    static final class CorruptSegmentException extends IOException {
+        final File segment;
+        final int offset;
+
+        CorruptSegmentException(File segment, int offset) {
+            super("Corrupt record at offset " + offset + " in " + segment
+                + ", which is not the last segment; restore it from a backup or move it aside");
+            this.segment = segment;
+            this.offset = offset;
+        }
+    }
+
+    private static final class Segment {
+        final File file;
+        final MappedByteBuffer map;
+        int end;
+        volatile boolean dirty;
+
+        Segment(File file, MappedByteBuffer map) {
+            this.file = file;
+            this.map = map;
+        }
+    }
+
+    private final File directory;
+    private final int segmentSize;
+    private final List<Segment> segments = new ArrayList<>();
+    private final ScheduledExecutorService syncer;
+    private final CRC32 crc = new CRC32();
+    private volatile boolean closed;
+    private String recovered;
+
+    /**
+     * Opens (or creates) the log in a directory, recovering the tail, and
+     * forces dirty segments to disk every {@code syncMillis} (0 disables).
+     */
+    RecordLog(File directory, int segmentSize, long syncMillis) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create log directory " + directory);
+        }
+
+        File[] files = directory.listFiles((dir, name) -> name.startsWith("segment-") && name.endsWith(".log"));
+        Arrays.sort(files == null ? new File[0] : files);
+        for (File f : files == null ? new File[0] : files) {
+            segments.add(map(f, (int) Math.max(f.length(), segmentSize)));
+        }
+        if (segments.isEmpty()) {
+            roll();
+        } else {
+            for (int i = 0; i < segments.size(); i++) recover(segments.get(i), i == segments.size() - 1);
+        }
+
+        if (syncMillis > 0) {
+            syncer = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "record-log-sync");
+                t.setDaemon(true);
+                return t;
+            });
+            syncer.scheduleWithFixedDelay(this::syncQuietly, syncMillis, syncMillis, TimeUnit.MILLISECONDS);
+        } else {
+            syncer = null;
+        }
+    }
+
+    /** What opening the log cut off the end of its last segment, or null if nothing. */
+    String recovered() {
+        return recovered;
+    }
+
+    /** Appends a record and returns its address. */
+    synchronized long append(byte type, byte[] payload) throws IOException {
+        if (closed) throw new IOException("Record log is closed");
+        int frame = FRAME_HEADER + payload.length;
+        if (frame > segmentSize - SEGMENT_HEADER) {
+            throw new IOException("Record of " + payload.length + " bytes does not fit in a segment");
+        }
+        Segment s = segments.get(segments.size() - 1);
+        if (s.end + frame > s.map.capacity()) s = roll();
+
+        crc.reset();
+        crc.update(type);
+        crc.update(payload, 0, payload.length);
+
+        // Body first, length last: a reader never sees a length before its bytes
+        int at = s.end;
+        s.map.putInt(at + 4, (int) crc.getValue());
+        s.map.put(at + 8, type);
+        ByteBuffer body = s.map.duplicate();
+        body.position(at + FRAME_HEADER);
+        body.put(payload);
+        s.map.putInt(at, payload.length + 1);
+        s.end = at + frame;
+        s.dirty = true;
+        return address(segments.size() - 1, at);
+    }
+
+    /** The payload of the record at an address, as a read-only view of the mapping. */
+    ByteBuffer read(long address) {
+        Segment s;
+        synchronized (this) {
+            s = segments.get((int) (address >>> 32));
+        }
+        int at = (int) address;
+        int length = s.map.getInt(at);
+        ByteBuffer view = s.map.asReadOnlyBuffer();
+        view.position(at + FRAME_HEADER).limit(at + 8 + length);
+        return view.slice();
+    }
+
+    /** Visits every record in append order. */
+    void scan(Visitor visitor) throws IOException {
+        List<Segment> snapshot;
+        synchronized (this) {
+            snapshot = new ArrayList<>(segments);
+        }
+        for (int i = 0; i < snapshot.size(); i++) {
+            Segment s = snapshot.get(i);
+            ByteBuffer view = s.map.asReadOnlyBuffer();
+            int at = SEGMENT_HEADER;
+            int end;
+            synchronized (this) {
+                end = s.end;
+            }
+            while (at < end) {
+                int length = view.getInt(at);
+                byte type = view.get(at + 8);
+                view.limit(at + 8 + length).position(at + FRAME_HEADER);
+                visitor.record(address(i, at), type, view.slice());
+                view.limit(view.capacity());
+                at += 8 + length;
+            }
+        }
+    }
+
+    /** Forces every segment written since the last sync to disk. */
+    void sync() {
+        List<Segment> snapshot;
+        synchronized (this) {
+            snapshot = new ArrayList<>(segments);
+        }
+        for (Segment s : snapshot) {
+            if (s.dirty) {
+                s.dirty = false;
+                s.map.force();
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) return;
+        closed = true;
+        if (syncer != null) syncer.shutdown();
+        sync();
+    }
+
+    static long address(int segment, int offset) {
+        return ((long) segment << 32) | (offset & 0xFFFFFFFFL);
+    }
+
+    private void syncQuietly() {
+        try {
+            sync();
+        } catch (RuntimeException e) {
+            System.err.println("Record log sync failed: " + e.getMessage());
+        }
+    }
+
+    private Segment roll() throws IOException {
+        File f = new File(directory, String.format("segment-%06d.log", segments.size()));
+        Segment s = map(f, segmentSize);
+        s.map.putInt(0, SEGMENT_MAGIC);
+        s.end = SEGMENT_HEADER;
+        s.dirty = true;
+        segments.add(s);
+        return s;
+    }
+
+    private static Segment map(File f, int size) throws IOException {
+        try (FileChannel channel = FileChannel.open(f.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // The mapping stays valid after the channel is closed
+            return new Segment(f, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+        }
+    }
+
+    /**
+     * Finds the end of a segment. In the last segment anything after the last
+     * intact record is zeroed; in any other it is an error.
+     */
+    private void recover(Segment s, boolean last) throws IOException {
+        MappedByteBuffer map = s.map;
+        int capacity = map.capacity();
+        if (map.getInt(0) != SEGMENT_MAGIC) {
+            if (isZero(map, 0, capacity)) {
+                // Rolled but never written: only possible for the newest segment
+                if (!last) throw new CorruptSegmentException(s.file, 0);
+                map.putInt(0, SEGMENT_MAGIC);
+                s.end = SEGMENT_HEADER;
+                return;
+            }
+            throw new IOException("Not a record log segment: " + s.file);
+        }
+
+        CRC32 check = new CRC32();
+        ByteBuffer view = map.duplicate();
+        int at = SEGMENT_HEADER;
+        while (at + FRAME_HEADER <= capacity) {
+            int length = map.getInt(at);
+            if (length <= 0 || length > capacity - at - 8) break;
+            check.reset();
+            view.limit(at + 8 + length).position(at + 8);
+            check.update(view);
+            view.limit(capacity);
+            if ((int) check.getValue() != map.getInt(at + 4)) break;
+            at += 8 + length;
+        }
+        s.end = at;
+
+        if (!isZero(map, at, capacity)) {
+            if (!last) throw new CorruptSegmentException(s.file, at);
+            recovered = "Discarded torn data after offset " + at + " in " + s.file;
+            for (int i = at; i < capacity; i++) map.put(i, (byte) 0);
+            map.force();
+        }
+    }
+
+    private static boolean isZero(ByteBuffer map, int from, int to) {
+        int i = from;
+        for (; i + 8 <= to; i += 8) {
+            if (map.getLong(i) != 0) return false;
+        }
+        for (; i < to; i++) {
+            if (map.get(i) != 0) return false;
+        }
+        return true;
+    }
+}
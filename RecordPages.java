@@ -0,0 +1,104 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+import javax.swing.*;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Paged access to saved records for list and table views
+ * Holds only the registration numbers of the rows; the records themselves
+ * are read from the store a page at a time, on a background thread, the
+ * first time a row of the page is asked for. {@link #get} never blocks: it
+ * returns null for a row still being read and the listener is told (on the
+ * EDT) which rows to repaint once their page arrives. The most recently used
+ * pages stay cached, so scrolling back and forth does not re-read them.
+ * Everything except the background read is confined to the EDT.
+ */
+final class RecordPages {
+
+    static final int PAGE_SIZE = 64;
+    private static final int CACHED_PAGES = 32;
+
+    /** Told which rows, first to last inclusive, can now be shown. */
+    interface Listener {
+        void loaded(int first, int last);
+    }
+
+    private static final ExecutorService LOADER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "record-pages");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final BiodataStore store;
+    private final Listener listener;
+    private List<String> keys = Collections.emptyList();
+    private final Set<Integer> loading = new HashSet<>();
+    private final Map<Integer, List<Biodata>> pages =
+        new LinkedHashMap<Integer, List<Biodata>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<Biodata>> eldest) {
+                return size() > CACHED_PAGES;
+            }
+        };
+    // Bumped whenever the rows change, so a page read for older rows is dropped
+    private int generation;
+
+    RecordPages(BiodataStore store, Listener listener) {
+        this.store = store;
+        this.listener = listener;
+    }
+
+    /** Replaces the rows and forgets every cached page. */
+    void setKeys(List<String> keys) {
+        this.keys = keys;
+        invalidate();
+    }
+
+    /** Forgets every cached page, e.g. after records were saved. */
+    void invalidate() {
+        generation++;
+        pages.clear();
+        loading.clear();
+    }
+
+    int size() {
+        return keys.size();
+    }
+
+    /** The registration number of a row. */
+    String key(int row) {
+        return keys.get(row);
+    }
+
+    /** The row of a registration number, or -1. */
+    int indexOf(String key) {
+        return keys.indexOf(key);
+    }
+
+    /** The record of a row, or null while its page is being read. */
+    Biodata get(int row) {
+        int page = row / PAGE_SIZE;
+        List<Biodata> records = pages.get(page);
+        if (records != null) return records.get(row - page * PAGE_SIZE);
+        if (loading.add(page)) load(page);
+        return null;
+    }
+
+    private void load(int page) {
+        int current = generation;
+        int first = page * PAGE_SIZE;
+        int last = Math.min(keys.size(), first + PAGE_SIZE) - 1;
+        List<String> pageKeys = new ArrayList<>(keys.subList(first, last + 1));
+        LOADER.execute(() -> {
+            List<Biodata> records = store.getAll(pageKeys);
+            SwingUtilities.invokeLater(() -> {
+                if (current != generation) return; // the rows changed meanwhile
+                loading.remove(page);
+                pages.put(page, records);
+                listener.loaded(first, last);
+            });
+        });
+    }
+}
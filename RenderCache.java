@@ -0,0 +1,110 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.VolatileImage;
+import java.awt.print.PrinterGraphics;
+
+/**
+ * Render cache for custom-painted surfaces
+ * Keeps one {@link VolatileImage} per visual state of a component (for a
+ * button: normal, rollover, pressed) so repainting is a single image copy
+ * instead of re-filling gradients and antialiased shapes. An image is redrawn
+ * only when the size changes, the look and feel changes, or the graphics
+ * device loses or no longer accepts it. Printing always paints directly so
+ * the output stays vector.
+ *
+ * Meant for the EDT: instances are not thread-safe.
+ */
+final class RenderCache {
+
+    /** Draws one state onto a surface of the given size. */
+    interface Painter {
+        void paint(Graphics2D g, int width, int height);
+    }
+
+    // Bumped on look-and-feel changes; images drawn under an older value are stale
+    private static int generation;
+
+    static {
+        UIManager.addPropertyChangeListener(e -> {
+            if ("lookAndFeel".equals(e.getPropertyName())) invalidateAll();
+        });
+    }
+
+    private final int transparency;
+    private final VolatileImage[] images;
+    private final int[] generations;
+
+    /**
+     * @param states       number of distinct visual states
+     * @param transparency {@link Transparency#OPAQUE} for full-surface fills,
+     *                     {@link Transparency#TRANSLUCENT} for shapes with
+     *                     see-through corners
+     */
+    RenderCache(int states, int transparency) {
+        this.transparency = transparency;
+        this.images = new VolatileImage[states];
+        this.generations = new int[states];
+    }
+
+    /** Marks every cached image stale, e.g. after a theme change. */
+    static void invalidateAll() {
+        generation++;
+    }
+
+    /** Paints a state at (0, 0), from the cache when its image is still valid. */
+    void paint(Graphics g, int width, int height, int state, Painter painter) {
+        if (width <= 0 || height <= 0) return;
+        if (!(g instanceof Graphics2D) || g instanceof PrinterGraphics || g instanceof PrintGraphics) {
+            paintDirect(g, width, height, painter);
+            return;
+        }
+        GraphicsConfiguration gc = ((Graphics2D) g).getDeviceConfiguration();
+
+        // Contents can be lost at any time (display change, VRAM eviction); retry a few times
+        for (int attempt = 0; attempt < 3; attempt++) {
+            VolatileImage image = images[state];
+            int status = image == null ? VolatileImage.IMAGE_INCOMPATIBLE : image.validate(gc);
+            if (status == VolatileImage.IMAGE_INCOMPATIBLE || image.getWidth() != width
+                    || image.getHeight() != height || generations[state] != generation) {
+                if (image != null) image.flush();
+                image = gc.createCompatibleVolatileImage(width, height, transparency);
+                images[state] = image;
+                status = VolatileImage.IMAGE_RESTORED;
+            }
+            if (status == VolatileImage.IMAGE_RESTORED) {
+                render(image, painter);
+                generations[state] = generation;
+            }
+            g.drawImage(image, 0, 0, null);
+            if (!image.contentsLost()) return;
+        }
+        paintDirect(g, width, height, painter);
+    }
+
+    /** Releases the cached images; they are recreated on the next paint. */
+    void flush() {
+        for (int i = 0; i < images.length; i++) {
+            if (images[i] != null) images[i].flush();
+            images[i] = null;
+        }
+    }
+
+    private void render(VolatileImage image, Painter painter) {
+        Graphics2D g = image.createGraphics();
+        if (transparency != Transparency.OPAQUE) {
+            g.setComposite(AlphaComposite.Clear);
+            g.fillRect(0, 0, image.getWidth(), image.getHeight());
+            g.setComposite(AlphaComposite.SrcOver);
+        }
+        painter.paint(g, image.getWidth(), image.getHeight());
+        g.dispose();
+    }
+
+    private static void paintDirect(Graphics g, int width, int height, Painter painter) {
+        Graphics2D g2 = (Graphics2D) g.create();
+        painter.paint(g2, width, height);
+        g2.dispose();
+    }
+}
@@ -0,0 +1,509 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+import java.util.*;
+
+/**
+ * Search index over saved biodata
+ * Each indexed record gets a document number. Skills, hobbies, branch and
+ * semester are facets kept as one BitSet per value, skills and hobbies by
+ * their {@link OptionDictionary} id; the interned entries of the "Other"
+ * fields are rarer and get postings lists instead. Each document's selection
+ * masks are also kept in a column for similarity ranking. The words of About
+ * Me and Achievements go into an inverted index of ascending document numbers; CGPA
+ * is kept as a sorted array of (CGPA, document) keys so a range becomes two
+ * binary searches. A query ANDs the facet bitsets, intersects the postings of
+ * its words and then applies the CGPA range.
+ *
+ * Replacing or removing a record retires its document number instead of
+ * rewriting postings; retired numbers are masked out of every result. Once
+ * more than half as many numbers are retired as are live, as when autosave
+ * re-indexes the record being edited every few seconds, the live documents
+ * are renumbered in order and the retired ones dropped from every structure.
+ *
+ * Not thread-safe: {@link BiodataStore} only calls it under its own lock.
+ */
+final class SearchIndex {
+
+    /** Orders of {@link #list}: saved order, or by one of the indexed values. */
+    enum Order { SAVED, REGD, BRANCH, SEMESTER, CGPA }
+
+    /** Ascending document numbers of one word. */
+    private static final class Postings {
+        int[] docs = new int[4];
+        int size;
+
+        void add(int doc) {
+            if (size > 0 && docs[size - 1] == doc) return;
+            if (size == docs.length) docs = Arrays.copyOf(docs, size * 2);
+            docs[size++] = doc;
+        }
+
+        BitSet toBitSet() {
+            BitSet set = new BitSet();
+            for (int i = 0; i < size; i++) set.set(docs[i]);
+            return set;
+        }
+    }
+
+    /** Facets of one option group: a BitSet per option, postings per custom entry. */
+    private static final class OptionFacets {
+        final OptionDictionary dictionary;
+        final BitSet[] options = new BitSet[OptionDictionary.MAX_OPTIONS];
+        final Map<Integer, Postings> custom = new HashMap<>();
+
+        OptionFacets(OptionDictionary dictionary) {
+            this.dictionary = dictionary;
+        }
+
+        void add(long bits, String other, int doc) {
+            for (long rest = bits; rest != 0; rest &= rest - 1) {
+                int id = Long.numberOfTrailingZeros(rest);
+                if (options[id] == null) options[id] = new BitSet();
+                options[id].set(doc);
+            }
+            for (String entry : OptionDictionary.split(other)) {
+                custom.computeIfAbsent(dictionary.intern(entry), k -> new Postings()).add(doc);
+            }
+        }
+
+        BitSet docs(String value) {
+            int id = dictionary.lookup(value);
+            if (id < 0) return new BitSet();
+            if (id < OptionDictionary.MAX_OPTIONS) return options[id] == null ? new BitSet() : options[id];
+            Postings p = custom.get(id);
+            return p == null ? new BitSet() : p.toBitSet();
+        }
+    }
+
+    private final List<String> keys = new ArrayList<>();
+    private final Map<String, Integer> docOf = new HashMap<>();
+    private final BitSet live = new BitSet();
+
+    private final OptionFacets skills = new OptionFacets(OptionDictionary.SKILLS);
+    private final OptionFacets hobbies = new OptionFacets(OptionDictionary.HOBBIES);
+    private final Map<String, BitSet> branches = new HashMap<>();
+    private final Map<String, BitSet> semesters = new HashMap<>();
+    private final Map<String, Postings> words = new HashMap<>();
+
+    private long[] skillBits = new long[1024];
+    private long[] hobbyBits = new long[1024];
+    private float[] cgpa = new float[1024];
+    private byte[] genderCodes = new byte[1024];
+    private byte[] ages = new byte[1024];
+    private final CohortColumns.Dictionary genders = new CohortColumns.Dictionary(Biodata.GENDER_OPTIONS);
+    private long[] cgpaKeys = new long[0];
+    private int cgpaCount;
+    private boolean cgpaStale;
+    // Live documents by key, rebuilt when records were added since
+    private int[] keyOrder = new int[0];
+    private boolean keyOrderStale;
+
+    /** Indexes a record under its key, replacing whatever was indexed under it before. */
+    void add(String key, Biodata b) {
+        remove(key);
+        int doc = keys.size();
+        keys.add(key);
+        docOf.put(key, doc);
+        live.set(doc);
+
+        skills.add(b.skillBits, b.otherSkills, doc);
+        hobbies.add(b.hobbyBits, b.otherHobbies, doc);
+        if (!b.branch.isEmpty()) branches.computeIfAbsent(b.branch, k -> new BitSet()).set(doc);
+        if (!b.semester.isEmpty()) semesters.computeIfAbsent(b.semester, k -> new BitSet()).set(doc);
+
+        Set<String> seen = new HashSet<>();
+        tokenize(b.about, seen);
+        tokenize(b.achievements, seen);
+        for (String word : seen) {
+            words.computeIfAbsent(word, k -> new Postings()).add(doc);
+        }
+
+        if (doc == cgpa.length) {
+            skillBits = Arrays.copyOf(skillBits, doc * 2);
+            hobbyBits = Arrays.copyOf(hobbyBits, doc * 2);
+            cgpa = Arrays.copyOf(cgpa, doc * 2);
+            genderCodes = Arrays.copyOf(genderCodes, doc * 2);
+            ages = Arrays.copyOf(ages, doc * 2);
+        }
+        skillBits[doc] = b.skillBits;
+        hobbyBits[doc] = b.hobbyBits;
+        cgpa[doc] = parseCgpa(b.cgpa);
+        genderCodes[doc] = genders.code(b.gender);
+        ages[doc] = CohortColumns.age(b.age);
+        if (!Float.isNaN(cgpa[doc])) cgpaStale = true;
+        keyOrderStale = true;
+    }
+
+    void remove(String key) {
+        Integer doc = docOf.remove(key);
+        if (doc == null) return;
+        live.clear(doc);
+        if (!Float.isNaN(cgpa[doc])) cgpaStale = true;
+        if (keys.size() - docOf.size() > docOf.size() / 2) compact();
+    }
+
+    /**
+     * Renumbers the live documents 0..n-1 in their indexed order and drops
+     * the retired ones. Renumbering keeps the order, so postings stay ascending.
+     */
+    private void compact() {
+        int[] renumbered = new int[keys.size()];
+        Arrays.fill(renumbered, -1);
+        List<String> liveKeys = new ArrayList<>(docOf.size());
+        for (int doc = live.nextSetBit(0); doc >= 0; doc = live.nextSetBit(doc + 1)) {
+            renumbered[doc] = liveKeys.size();
+            liveKeys.add(keys.get(doc));
+        }
+        int n = liveKeys.size();
+
+        keys.clear();
+        keys.addAll(liveKeys);
+        for (int doc = 0; doc < n; doc++) docOf.put(keys.get(doc), doc);
+        live.clear();
+        live.set(0, n);
+
+        for (OptionFacets facets : Arrays.asList(skills, hobbies)) {
+            for (int id = 0; id < facets.options.length; id++) {
+                if (facets.options[id] != null) facets.options[id] = renumber(facets.options[id], renumbered);
+            }
+            renumberAll(facets.custom, renumbered);
+        }
+        branches.replaceAll((value, docs) -> renumber(docs, renumbered));
+        branches.values().removeIf(BitSet::isEmpty);
+        semesters.replaceAll((value, docs) -> renumber(docs, renumbered));
+        semesters.values().removeIf(BitSet::isEmpty);
+        renumberAll(words, renumbered);
+
+        int capacity = Math.max(1024, Integer.highestOneBit(Math.max(1, n)) * 2);
+        long[] newSkillBits = new long[capacity];
+        long[] newHobbyBits = new long[capacity];
+        float[] newCgpa = new float[capacity];
+        byte[] newGenderCodes = new byte[capacity];
+        byte[] newAges = new byte[capacity];
+        for (int doc = 0; doc < renumbered.length; doc++) {
+            int to = renumbered[doc];
+            if (to < 0) continue;
+            newSkillBits[to] = skillBits[doc];
+            newHobbyBits[to] = hobbyBits[doc];
+            newCgpa[to] = cgpa[doc];
+            newGenderCodes[to] = genderCodes[doc];
+            newAges[to] = ages[doc];
+        }
+        skillBits = newSkillBits;
+        hobbyBits = newHobbyBits;
+        cgpa = newCgpa;
+        genderCodes = newGenderCodes;
+        ages = newAges;
+        cgpaStale = true;
+        keyOrderStale = true;
+    }
+
+    private static BitSet renumber(BitSet docs, int[] renumbered) {
+        BitSet result = new BitSet();
+        for (int doc = docs.nextSetBit(0); doc >= 0; doc = docs.nextSetBit(doc + 1)) {
+            if (renumbered[doc] >= 0) result.set(renumbered[doc]);
+        }
+        return result;
+    }
+
+    // Renumbers every postings list of a map in place, dropping the lists left empty
+    private static <K> void renumberAll(Map<K, Postings> lists, int[] renumbered) {
+        for (Iterator<Postings> it = lists.values().iterator(); it.hasNext(); ) {
+            Postings p = it.next();
+            int size = 0;
+            for (int i = 0; i < p.size; i++) {
+                int to = renumbered[p.docs[i]];
+                if (to >= 0) p.docs[size++] = to;
+            }
+            p.size = size;
+            if (size == 0) {
+                it.remove();
+            } else if (size < p.docs.length / 4) {
+                p.docs = Arrays.copyOf(p.docs, Math.max(4, size * 2));
+            }
+        }
+    }
+
+    /** Keys of the matching records in the order they were indexed, at most {@code limit} of them. */
+    List<String> search(BiodataQuery q, int limit) {
+        BitSet hits = match(q);
+        List<String> result = new ArrayList<>(Math.min(limit, hits.cardinality()));
+        for (int doc = hits.nextSetBit(0); doc >= 0 && result.size() < limit; doc = hits.nextSetBit(doc + 1)) {
+            result.add(keys.get(doc));
+        }
+        return result;
+    }
+
+    /** Document numbers in use, live and retired. */
+    int documents() {
+        return keys.size();
+    }
+
+    int count(BiodataQuery q) {
+        return match(q).cardinality();
+    }
+
+    /**
+     * Keys of every matching record in the given order. Records without the
+     * value sorted by come last either way; ties keep registration number
+     * order, except for CGPA ties, which keep the order they were indexed in.
+     */
+    List<String> list(BiodataQuery q, Order order, boolean descending) {
+        BitSet hits = match(q);
+        int[] docs = new int[hits.cardinality()];
+        int n = 0;
+        switch (order) {
+            case SAVED:
+                for (int doc = hits.nextSetBit(0); doc >= 0; doc = hits.nextSetBit(doc + 1)) docs[n++] = doc;
+                if (descending) reverse(docs, 0, n);
+                break;
+            case REGD:
+                n = byKey(hits, docs);
+                if (descending) reverse(docs, 0, n);
+                break;
+            case BRANCH:
+                n = byGroup(hits, branches, Biodata.BRANCH_OPTIONS, descending, docs);
+                break;
+            case SEMESTER:
+                n = byGroup(hits, semesters, Biodata.SEMESTER_OPTIONS, descending, docs);
+                break;
+            case CGPA:
+                if (cgpaStale) rebuildCgpa();
+                for (int i = 0; i < cgpaCount; i++) {
+                    int doc = (int) cgpaKeys[descending ? cgpaCount - 1 - i : i];
+                    if (hits.get(doc)) {
+                        docs[n++] = doc;
+                        hits.clear(doc);
+                    }
+                }
+                // Left over: the records without a CGPA
+                for (int doc = hits.nextSetBit(0); doc >= 0; doc = hits.nextSetBit(doc + 1)) docs[n++] = doc;
+                break;
+            default:
+                throw new AssertionError(order);
+        }
+        String[] result = new String[n];
+        for (int i = 0; i < n; i++) result[i] = keys.get(docs[i]);
+        return Arrays.asList(result);
+    }
+
+    /**
+     * Keys of the records whose skills and hobbies are most alike those of
+     * {@code key}, best first, scored by the Jaccard similarity of the
+     * selection masks (skills and hobbies weighted equally).
+     */
+    List<String> similar(String key, int limit) {
+        Integer self = docOf.get(key);
+        if (self == null || limit <= 0) return Collections.emptyList();
+        long mySkills = skillBits[self];
+        long myHobbies = hobbyBits[self];
+
+        // Bounded min-heap of (score, doc) packed into longs
+        PriorityQueue<Long> best = new PriorityQueue<>();
+        for (int doc = live.nextSetBit(0); doc >= 0; doc = live.nextSetBit(doc + 1)) {
+            if (doc == self) continue;
+            double score = OptionDictionary.similarity(mySkills, skillBits[doc])
+                + OptionDictionary.similarity(myHobbies, hobbyBits[doc]);
+            if (score == 0) continue;
+            // Fixed-point score in the high word; on ties the earlier document wins
+            long packed = ((long) (score * (1 << 28)) << 32) | (0xFFFFFFFFL - doc);
+            if (best.size() < limit) {
+                best.add(packed);
+            } else if (packed > best.peek()) {
+                best.poll();
+                best.add(packed);
+            }
+        }
+        String[] result = new String[best.size()];
+        for (int i = result.length - 1; i >= 0; i--) {
+            result[i] = keys.get((int) (0xFFFFFFFFL - (best.poll() & 0xFFFFFFFFL)));
+        }
+        return Arrays.asList(result);
+    }
+
+    private BitSet match(BiodataQuery q) {
+        BitSet hits = (BitSet) live.clone();
+        for (String s : q.skills) hits.and(skills.docs(s));
+        for (String h : q.hobbies) hits.and(hobbies.docs(h));
+        if (!q.branch.isEmpty()) hits.and(branches.getOrDefault(q.branch, new BitSet()));
+        if (!q.semester.isEmpty()) hits.and(semesters.getOrDefault(q.semester, new BitSet()));
+        if (!q.text.isEmpty() && !hits.isEmpty()) hits.and(matchText(q.text, hits));
+        if (q.hasCgpaRange() && !hits.isEmpty()) hits.and(matchCgpa(q.minCgpa, q.maxCgpa));
+        return hits;
+    }
+
+    /** Documents among {@code candidates} containing every word of the text. */
+    private BitSet matchText(String text, BitSet candidates) {
+        Set<String> terms = new HashSet<>();
+        tokenize(text, terms);
+        List<Postings> lists = new ArrayList<>(terms.size());
+        for (String term : terms) {
+            Postings p = words.get(term);
+            if (p == null) return new BitSet();
+            lists.add(p);
+        }
+        if (lists.isEmpty()) return candidates;
+        // Walk the rarest word, checking the others by binary search
+        lists.sort(Comparator.comparingInt(p -> p.size));
+        Postings rarest = lists.get(0);
+        BitSet result = new BitSet();
+        next:
+        for (int i = 0; i < rarest.size; i++) {
+            int doc = rarest.docs[i];
+            if (!candidates.get(doc)) continue;
+            for (int j = 1; j < lists.size(); j++) {
+                Postings p = lists.get(j);
+                if (Arrays.binarySearch(p.docs, 0, p.size, doc) < 0) continue next;
+            }
+            result.set(doc);
+        }
+        return result;
+    }
+
+    private BitSet matchCgpa(float min, float max) {
+        BitSet result = new BitSet();
+        if (!(min <= max)) return result;
+        if (cgpaStale) rebuildCgpa();
+        long from = (long) sortable(min) << 32;
+        long to = ((long) sortable(max) << 32) | 0xFFFFFFFFL;
+        int i = Arrays.binarySearch(cgpaKeys, 0, cgpaCount, from);
+        if (i < 0) i = -i - 1;
+        for (; i < cgpaCount && cgpaKeys[i] <= to; i++) {
+            result.set((int) cgpaKeys[i]);
+        }
+        return result;
+    }
+
+    /** The analytics columns of every indexed record, in the order they were indexed. */
+    CohortColumns columns() {
+        int[] row = new int[keys.size()];
+        int n = 0;
+        for (int doc = live.nextSetBit(0); doc >= 0; doc = live.nextSetBit(doc + 1)) row[doc] = n++;
+        double[] cgpaColumn = new double[n];
+        long[] skillColumn = new long[n];
+        byte[] genderColumn = new byte[n];
+        byte[] ageColumn = new byte[n];
+        for (int doc = live.nextSetBit(0); doc >= 0; doc = live.nextSetBit(doc + 1)) {
+            cgpaColumn[row[doc]] = cgpa[doc];
+            skillColumn[row[doc]] = skillBits[doc];
+            genderColumn[row[doc]] = genderCodes[doc];
+            ageColumn[row[doc]] = ages[doc];
+        }
+        CohortColumns.Dictionary branchCodes = new CohortColumns.Dictionary(Biodata.BRANCH_OPTIONS);
+        CohortColumns.Dictionary semesterCodes = new CohortColumns.Dictionary(Biodata.SEMESTER_OPTIONS);
+        byte[] branchColumn = codes(branches, branchCodes, row, n);
+        byte[] semesterColumn = codes(semesters, semesterCodes, row, n);
+        return new CohortColumns(cgpaColumn, branchColumn, semesterColumn, genderColumn, ageColumn, skillColumn,
+            branchCodes.values(), semesterCodes.values(), genders.values());
+    }
+
+    // The code of each live document's facet value, by row; blank (code 0) where it has none
+    private byte[] codes(Map<String, BitSet> facet, CohortColumns.Dictionary dictionary, int[] row, int rows) {
+        byte[] column = new byte[rows];
+        for (Map.Entry<String, BitSet> e : facet.entrySet()) {
+            byte code = dictionary.code(e.getKey());
+            BitSet docs = e.getValue();
+            for (int doc = docs.nextSetBit(0); doc >= 0; doc = docs.nextSetBit(doc + 1)) {
+                if (live.get(doc)) column[row[doc]] = code;
+            }
+        }
+        return column;
+    }
+
+    /** Writes the documents of {@code hits} in key order into {@code out}; returns how many. */
+    private int byKey(BitSet hits, int[] out) {
+        if (keyOrderStale) {
+            String[] sorted = new String[docOf.size()];
+            int n = 0;
+            for (int doc = live.nextSetBit(0); doc >= 0; doc = live.nextSetBit(doc + 1)) sorted[n++] = keys.get(doc);
+            Arrays.sort(sorted, 0, n);
+            int[] order = new int[n];
+            for (int i = 0; i < n; i++) order[i] = docOf.get(sorted[i]);
+            keyOrder = order;
+            keyOrderStale = false;
+        }
+        int n = 0;
+        for (int doc : keyOrder) {
+            if (hits.get(doc)) out[n++] = doc;
+        }
+        return n;
+    }
+
+    /**
+     * Writes the documents of {@code hits} grouped by a facet into {@code out},
+     * groups in option order (unknown values after them, alphabetically) and
+     * key order within a group, blank values last. Returns how many.
+     */
+    private int byGroup(BitSet hits, Map<String, BitSet> facet, String[] options, boolean descending, int[] out) {
+        List<String> groups = new ArrayList<>(facet.keySet());
+        List<String> known = Arrays.asList(options);
+        groups.sort(Comparator.<String>comparingInt(g -> known.contains(g) ? known.indexOf(g) : known.size())
+            .thenComparing(Comparator.naturalOrder()));
+        if (descending) Collections.reverse(groups);
+
+        // Counting sort of the key-ordered documents by group rank; blank is the last rank
+        int[] rank = new int[keys.size()];
+        Arrays.fill(rank, groups.size());
+        for (int r = 0; r < groups.size(); r++) {
+            BitSet docs = facet.get(groups.get(r));
+            for (int doc = docs.nextSetBit(0); doc >= 0; doc = docs.nextSetBit(doc + 1)) rank[doc] = r;
+        }
+        int[] ordered = new int[out.length];
+        int n = byKey(hits, ordered);
+        int[] start = new int[groups.size() + 2];
+        for (int i = 0; i < n; i++) start[rank[ordered[i]] + 1]++;
+        for (int r = 1; r < start.length; r++) start[r] += start[r - 1];
+        for (int i = 0; i < n; i++) out[start[rank[ordered[i]]]++] = ordered[i];
+        return n;
+    }
+
+    private static void reverse(int[] a, int from, int to) {
+        for (int i = from, j = to - 1; i < j; i++, j--) {
+            int t = a[i];
+            a[i] = a[j];
+            a[j] = t;
+        }
+    }
+
+    private void rebuildCgpa() {
+        long[] sorted = new long[live.cardinality()];
+        int n = 0;
+        for (int doc = live.nextSetBit(0); doc >= 0; doc = live.nextSetBit(doc + 1)) {
+            if (!Float.isNaN(cgpa[doc])) sorted[n++] = ((long) sortable(cgpa[doc]) << 32) | doc;
+        }
+        Arrays.sort(sorted, 0, n);
+        cgpaKeys = sorted;
+        cgpaCount = n;
+        cgpaStale = false;
+    }
+
+    /** Float bits rearranged so that signed int order is numeric order. */
+    private static int sortable(float f) {
+        int bits = Float.floatToIntBits(f == 0f ? 0f : f);
+        return bits ^ ((bits >> 31) & 0x7FFFFFFF);
+    }
+
+    /** The CGPA as indexed, or NaN when it is blank or not a number. */
+    static float parseCgpa(String cgpa) {
+        String v = cgpa.trim();
+        if (v.isEmpty()) return Float.NaN;
+        try {
+            return (float) Double.parseDouble(v);
+        } catch (NumberFormatException e) {
+            return Float.NaN;
+        }
+    }
+
+    /** Adds the lower-cased words (runs of letters and digits) of a text. */
+    static void tokenize(String text, Collection<String> out) {
+        int n = text.length();
+        int i = 0;
+        while (i < n) {
+            while (i < n && !Character.isLetterOrDigit(text.charAt(i))) i++;
+            int start = i;
+            while (i < n && Character.isLetterOrDigit(text.charAt(i))) i++;
+            if (i > start) out.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+        }
+    }
+
+}
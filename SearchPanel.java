@@ -0,0 +1,270 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Search panel for saved biodata
+ * Criteria on top (words, branch, semester, CGPA range, skills, hobbies),
+ * matching records below. Queries run off the EDT; a result arriving after a
+ * newer search was started is dropped. Double-clicking a result (or Open)
+ * hands the record to the form; Find Similar lists the records whose skills
+ * and hobbies are closest to the selected one; Find Duplicates lists the
+ * records that probably describe the same student, cluster by cluster; Print
+ * Results prints every listed record in one job and Export Results publishes
+ * them all at once.
+ */
+final class SearchPanel extends JPanel {
+
+    static final int MAX_RESULTS = 500;
+
+    /** The first matches of a query and how many there are in total. */
+    private static final class Page {
+        final List<Biodata> records;
+        final int total;
+        // Duplicate cluster (from 1) of each record, or null for search results
+        final int[] clusters;
+
+        Page(List<Biodata> records, int total) {
+            this(records, total, null);
+        }
+
+        Page(List<Biodata> records, int total, int[] clusters) {
+            this.records = records;
+            this.total = total;
+            this.clusters = clusters;
+        }
+    }
+
+    private final BiodataStore store;
+    private final Consumer<Biodata> onOpen;
+    private final Consumer<List<Biodata>> onPrint;
+    private final Consumer<List<Biodata>> onExport;
+
+    private final JTextField textField = new JTextField(24);
+    private final JComboBox<String> branchBox =
+        new JComboBox<>(Biodata.withPlaceholder("Any Branch", Biodata.BRANCH_OPTIONS));
+    private final JComboBox<String> semesterBox =
+        new JComboBox<>(Biodata.withPlaceholder("Any Semester", Biodata.SEMESTER_OPTIONS));
+    private final JTextField minCgpaField = new JTextField(5);
+    private final JTextField maxCgpaField = new JTextField(5);
+    private final JCheckBox[] skillBoxes = checkBoxes(Biodata.SKILL_OPTIONS);
+    private final JCheckBox[] hobbyBoxes = checkBoxes(Biodata.HOBBY_OPTIONS);
+
+    private final DefaultListModel<Biodata> results = new DefaultListModel<>();
+    private final JList<Biodata> resultList = new JList<>(results);
+    private final JLabel status = new JLabel(" ");
+    private int[] resultClusters;
+    private int generation;
+
+    SearchPanel(BiodataStore store, Consumer<Biodata> onOpen, Consumer<List<Biodata>> onPrint,
+                Consumer<List<Biodata>> onExport) {
+        super(new BorderLayout(0, 10));
+        this.store = store;
+        this.onOpen = onOpen;
+        this.onPrint = onPrint;
+        this.onExport = onExport;
+        setBorder(BorderFactory.createEmptyBorder(15, 15, 15, 15));
+
+        add(createCriteriaPanel(), BorderLayout.NORTH);
+
+        resultList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        resultList.setCellRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value, int index,
+                                                          boolean selected, boolean focused) {
+                Biodata b = (Biodata) value;
+                String text = (resultClusters != null ? "[" + resultClusters[index] + "]  " : "") + b.regd + "  -  " + b.name + ",  " + Biodata.orDefault(b.branch, "No branch")
+                    + ",  " + Biodata.orDefault(b.semester, "No semester")
+                    + (b.cgpa.trim().isEmpty() ? "" : ",  CGPA " + b.cgpa.trim());
+                return super.getListCellRendererComponent(list, text, index, selected, focused);
+            }
+        });
+        resultList.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (e.getClickCount() == 2) openSelected();
+            }
+        });
+        add(new JScrollPane(resultList), BorderLayout.CENTER);
+
+        JButton similarButton = new JButton("Find Similar");
+        similarButton.addActionListener(e -> findSimilar());
+        JButton duplicatesButton = new JButton("Find Duplicates");
+        duplicatesButton.addActionListener(e -> findDuplicates());
+        JButton openButton = new JButton("Open in Form");
+        openButton.addActionListener(e -> openSelected());
+        JButton printButton = new JButton("Print Results");
+        printButton.addActionListener(e -> printResults());
+        JButton exportButton = new JButton("Export Results");
+        exportButton.addActionListener(e -> exportResults());
+        JPanel actions = new JPanel(new FlowLayout(FlowLayout.RIGHT, 8, 0));
+        actions.add(exportButton);
+        actions.add(printButton);
+        actions.add(duplicatesButton);
+        actions.add(similarButton);
+        actions.add(openButton);
+        JPanel bottom = new JPanel(new BorderLayout());
+        bottom.add(status, BorderLayout.CENTER);
+        bottom.add(actions, BorderLayout.EAST);
+        add(bottom, BorderLayout.SOUTH);
+    }
+
+    private JPanel createCriteriaPanel() {
+        JPanel fields = new JPanel(new FlowLayout(FlowLayout.LEFT, 8, 0));
+        fields.add(new JLabel("Words:"));
+        fields.add(textField);
+        fields.add(branchBox);
+        fields.add(semesterBox);
+        fields.add(new JLabel("CGPA from"));
+        fields.add(minCgpaField);
+        fields.add(new JLabel("to"));
+        fields.add(maxCgpaField);
+
+        JButton searchButton = new JButton("Search");
+        searchButton.addActionListener(e -> search());
+        fields.add(searchButton);
+        ActionListener enter = e -> search();
+        textField.addActionListener(enter);
+        minCgpaField.addActionListener(enter);
+        maxCgpaField.addActionListener(enter);
+
+        JPanel panel = new JPanel(new GridLayout(0, 1, 0, 6));
+        panel.add(fields);
+        panel.add(optionRow("Skills:", skillBoxes));
+        panel.add(optionRow("Hobbies:", hobbyBoxes));
+        return panel;
+    }
+
+    /** Runs the query described by the criteria and shows the first matches. */
+    void search() {
+        BiodataQuery query;
+        try {
+            query = buildQuery();
+        } catch (IllegalArgumentException e) {
+            status.setText(e.getMessage());
+            return;
+        }
+
+        show(() -> new Page(store.search(query, MAX_RESULTS), store.count(query)));
+    }
+
+    /** Lists the records with the skills and hobbies closest to the selected result. */
+    void findSimilar() {
+        Biodata b = resultList.getSelectedValue();
+        if (b == null) {
+            status.setText("Select a record first");
+            return;
+        }
+        show(() -> {
+            List<Biodata> similar = store.findSimilar(b.regd, MAX_RESULTS);
+            return new Page(similar, similar.size());
+        });
+    }
+
+    /** Lists the records that probably describe the same student, grouped by cluster. */
+    void findDuplicates() {
+        show(() -> {
+            List<List<Biodata>> groups = store.findDuplicates();
+            List<Biodata> records = new ArrayList<>();
+            int[] clusters = new int[MAX_RESULTS];
+            for (int g = 0; g < groups.size() && records.size() < MAX_RESULTS; g++) {
+                for (Biodata b : groups.get(g)) {
+                    if (records.size() == MAX_RESULTS) break;
+                    clusters[records.size()] = g + 1;
+                    records.add(b);
+                }
+            }
+            return new Page(records, groups.size(), clusters);
+        });
+    }
+
+    private void show(Supplier<Page> query) {
+        int current = ++generation;
+        status.setText("Searching...");
+        CompletableFuture.supplyAsync(query)
+            .whenComplete((page, ex) -> SwingUtilities.invokeLater(() -> {
+                if (current != generation) return; // a newer search is running
+                results.clear();
+                resultClusters = null;
+                if (ex != null) {
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    status.setText("Search failed: " + cause.getMessage());
+                    return;
+                }
+                resultClusters = page.clusters;
+                for (Biodata b : page.records) results.addElement(b);
+                int shown = page.records.size();
+                if (page.clusters != null) {
+                    status.setText(page.total == 1 ? "1 candidate cluster"
+                        : page.total + " candidate clusters" + (shown > 0 && page.clusters[shown - 1] < page.total
+                            ? " (first " + page.clusters[shown - 1] + " shown)" : ""));
+                    return;
+                }
+                status.setText(page.total == 1 ? "1 matching record"
+                    : page.total + " matching records" + (page.total > shown ? " (first " + shown + " shown)" : ""));
+            }));
+    }
+
+    private BiodataQuery buildQuery() {
+        BiodataQuery.Builder q = new BiodataQuery.Builder().text(textField.getText());
+        if (branchBox.getSelectedIndex() > 0) q.branch((String) branchBox.getSelectedItem());
+        if (semesterBox.getSelectedIndex() > 0) q.semester((String) semesterBox.getSelectedItem());
+        for (JCheckBox cb : skillBoxes) if (cb.isSelected()) q.skill(cb.getText());
+        for (JCheckBox cb : hobbyBoxes) if (cb.isSelected()) q.hobby(cb.getText());
+
+        float min = cgpa(minCgpaField);
+        float max = cgpa(maxCgpaField);
+        if (!Float.isNaN(min)) q.cgpaAtLeast(min);
+        if (!Float.isNaN(max)) q.cgpaAtMost(max);
+        return q.build();
+    }
+
+    private static float cgpa(JTextField field) {
+        String v = field.getText().trim();
+        float value = SearchIndex.parseCgpa(v);
+        if (!v.isEmpty() && Float.isNaN(value)) throw new IllegalArgumentException("CGPA must be a number: " + v);
+        return value;
+    }
+
+    private void printResults() {
+        if (results.isEmpty()) {
+            status.setText("Nothing to print");
+            return;
+        }
+        onPrint.accept(Collections.list(results.elements()));
+    }
+
+    private void exportResults() {
+        if (results.isEmpty()) {
+            status.setText("Nothing to export");
+            return;
+        }
+        onExport.accept(Collections.list(results.elements()));
+    }
+
+    private void openSelected() {
+        Biodata b = resultList.getSelectedValue();
+        if (b != null) onOpen.accept(b);
+    }
+
+    private static JPanel optionRow(String label, JCheckBox[] boxes) {
+        JPanel row = new JPanel(new FlowLayout(FlowLayout.LEFT, 6, 0));
+        row.add(new JLabel(label));
+        for (JCheckBox cb : boxes) row.add(cb);
+        return row;
+    }
+
+    private static JCheckBox[] checkBoxes(String[] options) {
+        JCheckBox[] boxes = new JCheckBox[options.length];
+        for (int i = 0; i < options.length; i++) boxes[i] = new JCheckBox(options[i]);
+        return boxes;
+    }
+}
@@ -0,0 +1,83 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+import javax.swing.UIManager;
+import java.awt.*;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Swing biodata renderer
+ * Fills a {@link BiodataPreview} with the "PROFESSIONAL BIODATA" document
+ * shown by Generate Biodata, or builds the {@link BiodataDocument} alone for
+ * printing. The photo comes from the {@link PhotoService} cache; load it
+ * there first to keep rendering on the EDT from waiting on a decode.
+ */
+final class SwingBiodataRenderer implements BiodataRenderer<BiodataPreview> {
+
+    private final Color titleColor;
+    private final PhotoService photos;
+
+    SwingBiodataRenderer(Color titleColor, PhotoService photos) {
+        this.titleColor = titleColor;
+        this.photos = photos;
+    }
+
+    @Override
+    public BiodataPreview render(Biodata b) {
+        BiodataPreview preview = new BiodataPreview(titleColor);
+        renderInto(preview, b);
+        return preview;
+    }
+
+    /** Replaces what an existing preview shows, e.g. the one in the reused preview window. */
+    void renderInto(BiodataPreview preview, Biodata b) {
+        preview.setDocument(document(b));
+    }
+
+    /** The document of a biodata, without a component; safe to build off the EDT. */
+    BiodataDocument document(Biodata b) {
+        PhotoService.Thumbnails photo = b.photoPath.isEmpty() ? null : photos.await(b.photoPath);
+        
+        List<BiodataDocument.Section> sections = new ArrayList<>();
+        sections.add(new BiodataDocument.Section("Personal Information",
+            "Name: " + b.name,
+            "Age: " + b.age,
+            "Gender: " + Biodata.orDefault(b.gender, "Not specified")
+        ));
+        
+        sections.add(new BiodataDocument.Section("Academic Information",
+            "Registration Number: " + b.regd,
+            "Branch: " + Biodata.orDefault(b.branch, "Not specified"),
+            "Current Semester: " + Biodata.orDefault(b.semester, "Not specified"),
+            "CGPA: " + Biodata.orDefault(b.cgpa, "Not specified"),
+            "College/University: " + Biodata.orDefault(b.college, "Not specified")
+        ));
+        
+        sections.add(new BiodataDocument.Section("Contact Information",
+            "Mobile Number: " + b.phone,
+            "Email Address: " + b.email,
+            "LinkedIn: " + Biodata.orDefault(b.linkedin, "Not provided"),
+            "GitHub: " + Biodata.orDefault(b.github, "Not provided"),
+            "Address: " + Biodata.orDefault(b.address, "Not provided")
+        ));
+        
+        sections.add(new BiodataDocument.Section("Skills & Interests",
+            "Technical Skills: " + Biodata.orDefault(b.skillsLine(), "None specified"),
+            "Hobbies & Interests: " + Biodata.orDefault(b.hobbiesLine(), "None specified")
+        ));
+        
+        if (b.hasAdditionalInfo()) {
+            sections.add(new BiodataDocument.Section("Additional Information",
+                "About Me: " + Biodata.orDefault(b.about, "Not provided"),
+                "Achievements & Projects: " + Biodata.orDefault(b.achievements, "Not provided")
+            ));
+        }
+        
+        Color text = UIManager.getColor("Label.foreground");
+        return new BiodataDocument(titleColor, text != null ? text : Color.BLACK, "PROFESSIONAL BIODATA",
+            photo == null ? null : photo.preview, sections,
+            "Generated on: " + new SimpleDateFormat("dd MMM yyyy").format(new Date()));
+    }
+}
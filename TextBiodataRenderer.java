@@ -0,0 +1,44 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * Template biodata renderer
+ * Writes a biodata document from a {@link BiodataTemplate}: by default the
+ * "PROFESSIONAL BIODATA" text document used by Export to File and by the
+ * headless batch generator, so both produce identical bytes.
+ */
+final class TextBiodataRenderer implements BiodataRenderer<String> {
+
+    static final String TIMESTAMP_PATTERN = "dd MMM yyyy 'at' HH:mm:ss";
+
+    private final BiodataTemplate template;
+    private final String generatedOn;
+
+    /**
+     * @param generatedOn the value printed after "Generated on: ", see {@link #timestamp(Date)}
+     */
+    TextBiodataRenderer(String generatedOn) {
+        this(BiodataTemplate.TEXT, generatedOn);
+    }
+
+    TextBiodataRenderer(BiodataTemplate template, String generatedOn) {
+        this.template = template;
+        this.generatedOn = generatedOn;
+    }
+
+    static String timestamp(Date date) {
+        return new SimpleDateFormat(TIMESTAMP_PATTERN).format(date);
+    }
+
+    @Override
+    public String render(Biodata b) {
+        return template.render(b, generatedOn);
+    }
+
+    void write(Biodata b, Appendable out) throws IOException {
+        template.write(b, generatedOn, out);
+    }
+}
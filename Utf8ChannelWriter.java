@@ -0,0 +1,112 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.*;
+
+/**
+ * Streaming UTF-8 file writer
+ * Encodes appended text through a reused {@link CharsetEncoder} into a direct
+ * {@link ByteBuffer} and writes it to a {@link FileChannel}. Each thread owns
+ * one writer whose buffers are reused for every file it exports, so a bulk
+ * export allocates no buffers or intermediate strings per record.
+ */
+final class Utf8ChannelWriter implements Appendable, Closeable {
+
+    private static final int CHAR_CAPACITY = 8 * 1024;
+    private static final int BYTE_CAPACITY = 64 * 1024;
+
+    private static final ThreadLocal<Utf8ChannelWriter> POOL =
+        ThreadLocal.withInitial(Utf8ChannelWriter::new);
+
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final CharBuffer chars = CharBuffer.allocate(CHAR_CAPACITY);
+    private final ByteBuffer bytes = ByteBuffer.allocateDirect(BYTE_CAPACITY);
+    private FileChannel channel;
+    private long bytesWritten;
+
+    private Utf8ChannelWriter() {}
+
+    /**
+     * Returns the calling thread's writer, positioned at the start of a new
+     * (truncated) file. Close it before opening the next file on this thread.
+     */
+    static Utf8ChannelWriter open(File file) throws IOException {
+        Utf8ChannelWriter w = POOL.get();
+        if (w.channel != null) throw new IllegalStateException("Previous file still open on this thread");
+        w.channel = new FileOutputStream(file).getChannel();
+        w.encoder.reset();
+        w.chars.clear();
+        w.bytes.clear();
+        w.bytesWritten = 0;
+        return w;
+    }
+
+    @Override
+    public Utf8ChannelWriter append(CharSequence csq) throws IOException {
+        return csq == null ? append("null", 0, 4) : append(csq, 0, csq.length());
+    }
+
+    @Override
+    public Utf8ChannelWriter append(CharSequence csq, int start, int end) throws IOException {
+        if (csq == null) return append("null", start, end);
+        while (start < end) {
+            if (!chars.hasRemaining()) encodePending(false);
+            int n = Math.min(chars.remaining(), end - start);
+            if (csq instanceof String) {
+                chars.put((String) csq, start, start + n);
+            } else {
+                for (int i = start; i < start + n; i++) chars.put(csq.charAt(i));
+            }
+            start += n;
+        }
+        return this;
+    }
+
+    @Override
+    public Utf8ChannelWriter append(char c) throws IOException {
+        if (!chars.hasRemaining()) encodePending(false);
+        chars.put(c);
+        return this;
+    }
+
+    /** Bytes written to the current file so far; final once the writer is closed. */
+    long bytesWritten() {
+        return bytesWritten;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel == null) return;
+        try {
+            encodePending(true);
+            while (encoder.flush(bytes).isOverflow()) writeBytes();
+            writeBytes();
+        } finally {
+            FileChannel c = channel;
+            channel = null;
+            c.close();
+        }
+    }
+
+    private void encodePending(boolean endOfInput) throws IOException {
+        chars.flip();
+        while (encoder.encode(chars, bytes, endOfInput).isOverflow()) {
+            writeBytes();
+        }
+        // An unpaired high surrogate at the end stays behind for the next round
+        chars.compact();
+    }
+
+    private void writeBytes() throws IOException {
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            bytesWritten += channel.write(bytes);
+        }
+        bytes.clear();
+    }
+}
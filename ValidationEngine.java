@@ -0,0 +1,249 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+import java.util.*;
+
+/**
+ * Declarative biodata validation
+ * Rules are registered per field and compiled once into a per-field rule
+ * table. Validating a record walks that table over the trimmed bounds of each
+ * value: no substrings, no regex matchers and no exceptions on the normal
+ * path, and the result is an int mask of {@link ValidationError} bits.
+ *
+ * The rules of {@link #STANDARD} are the ones the form has always enforced:
+ * required name, registration number, branch and semester; age 16-100; a
+ * 10-digit mobile number starting with 6-9; an email address; CGPA 0-10 when
+ * given.
+ */
+final class ValidationEngine {
+
+    /** One check on a field value, given as the trimmed range [start, end). */
+    interface Rule {
+        /**
+         * Returns the error bits for the value, 0 if it passes, or
+         * {@link #STOP} to skip the field's remaining rules.
+         */
+        int check(String value, int start, int end);
+    }
+
+    /** Returned by a rule to end the field's checks without an error. */
+    static final int STOP = -1;
+
+    static final ValidationEngine STANDARD = new Builder()
+        .rule(BiodataField.NAME, required(ValidationError.NAME_REQUIRED))
+        .rule(BiodataField.AGE, required(ValidationError.AGE_REQUIRED))
+        .rule(BiodataField.AGE, integerRange(16, 100, ValidationError.AGE_INVALID, ValidationError.AGE_RANGE))
+        .rule(BiodataField.REGD, required(ValidationError.REGD_REQUIRED))
+        .rule(BiodataField.BRANCH, required(ValidationError.BRANCH_REQUIRED))
+        .rule(BiodataField.SEMESTER, required(ValidationError.SEMESTER_REQUIRED))
+        .rule(BiodataField.PHONE, required(ValidationError.PHONE_REQUIRED))
+        .rule(BiodataField.PHONE, mobileNumber(ValidationError.PHONE_INVALID))
+        .rule(BiodataField.EMAIL, required(ValidationError.EMAIL_REQUIRED))
+        .rule(BiodataField.EMAIL, emailAddress(ValidationError.EMAIL_INVALID))
+        .rule(BiodataField.CGPA, optional())
+        .rule(BiodataField.CGPA, decimalRange(0.0, 10.0, ValidationError.CGPA_INVALID, ValidationError.CGPA_RANGE))
+        .build();
+
+    private final BiodataField[] fields;
+    private final Rule[][] rules;
+
+    private ValidationEngine(BiodataField[] fields, Rule[][] rules) {
+        this.fields = fields;
+        this.rules = rules;
+    }
+
+    /** Validates every field that has rules and returns the combined error mask. */
+    int validate(Biodata b) {
+        int errors = 0;
+        for (int i = 0; i < fields.length; i++) {
+            errors |= run(rules[i], fields[i].valueOf(b));
+        }
+        return errors;
+    }
+
+    /** Validates a single field value, e.g. while the user is typing. */
+    int validateField(BiodataField field, String value) {
+        for (int i = 0; i < fields.length; i++) {
+            if (fields[i] == field) return run(rules[i], value);
+        }
+        return 0;
+    }
+
+    /** The fields this engine has rules for. */
+    List<BiodataField> fields() {
+        return Collections.unmodifiableList(Arrays.asList(fields));
+    }
+
+    private static int run(Rule[] chain, String value) {
+        // Same bounds as String.trim(), without creating the substring
+        int start = 0;
+        int end = value.length();
+        while (start < end && value.charAt(start) <= ' ') start++;
+        while (end > start && value.charAt(end - 1) <= ' ') end--;
+
+        for (Rule rule : chain) {
+            int result = rule.check(value, start, end);
+            if (result == STOP) return 0;
+            if (result != 0) return result;
+        }
+        return 0;
+    }
+
+    /** Registers rules per field; rules of a field run in registration order until one fails. */
+    static final class Builder {
+        private final Map<BiodataField, List<Rule>> rules = new EnumMap<>(BiodataField.class);
+
+        Builder rule(BiodataField field, Rule rule) {
+            rules.computeIfAbsent(field, f -> new ArrayList<>()).add(rule);
+            return this;
+        }
+
+        ValidationEngine build() {
+            BiodataField[] fields = rules.keySet().toArray(new BiodataField[0]);
+            Rule[][] table = new Rule[fields.length][];
+            for (int i = 0; i < fields.length; i++) {
+                table[i] = rules.get(fields[i]).toArray(new Rule[0]);
+            }
+            return new ValidationEngine(fields, table);
+        }
+    }
+
+    // ---- Rule factories ----
+
+    static Rule required(ValidationError error) {
+        int bit = error.bit();
+        return (v, start, end) -> start == end ? bit : 0;
+    }
+
+    /** Skips the remaining rules when the value is blank. */
+    static Rule optional() {
+        return (v, start, end) -> start == end ? STOP : 0;
+    }
+
+    /** An Integer.parseInt-compatible number within [min, max]. */
+    static Rule integerRange(int min, int max, ValidationError invalid, ValidationError outOfRange) {
+        int invalidBit = invalid.bit();
+        int rangeBit = outOfRange.bit();
+        return (v, start, end) -> {
+            if (start == end) return invalidBit;
+            int i = start;
+            boolean negative = false;
+            char first = v.charAt(i);
+            if (first == '-' || first == '+') {
+                negative = first == '-';
+                i++;
+            }
+            // Up to 9 ASCII digits cannot overflow an int
+            if (i == end || end - i > 9) return slowInteger(v, start, end, min, max, invalidBit, rangeBit);
+            int n = 0;
+            for (; i < end; i++) {
+                int d = v.charAt(i) - '0';
+                if (d < 0 || d > 9) return slowInteger(v, start, end, min, max, invalidBit, rangeBit);
+                n = n * 10 + d;
+            }
+            if (negative) n = -n;
+            return n < min || n > max ? rangeBit : 0;
+        };
+    }
+
+    /** A Double.parseDouble-compatible number within [min, max]. */
+    static Rule decimalRange(double min, double max, ValidationError invalid, ValidationError outOfRange) {
+        int invalidBit = invalid.bit();
+        int rangeBit = outOfRange.bit();
+        return (v, start, end) -> {
+            if (start == end) return invalidBit;
+            int i = start;
+            boolean negative = false;
+            char first = v.charAt(i);
+            if (first == '-' || first == '+') {
+                negative = first == '-';
+                i++;
+            }
+            long mantissa = 0;
+            int digits = 0;
+            int scale = 0;
+            boolean point = false;
+            for (; i < end; i++) {
+                char c = v.charAt(i);
+                if (c >= '0' && c <= '9') {
+                    // 15 significant digits keep mantissa / 10^scale exactly rounded
+                    if (++digits > 15) return slowDecimal(v, start, end, min, max, invalidBit, rangeBit);
+                    mantissa = mantissa * 10 + (c - '0');
+                    if (point) scale++;
+                } else if (c == '.' && !point) {
+                    point = true;
+                } else {
+                    // Exponents, NaN, Infinity, type suffixes, hex: rare, let the JDK decide
+                    return slowDecimal(v, start, end, min, max, invalidBit, rangeBit);
+                }
+            }
+            if (digits == 0) return invalidBit;
+            double value = mantissa / POWERS_OF_TEN[scale];
+            if (negative) value = -value;
+            return value < min || value > max ? rangeBit : 0;
+        };
+    }
+
+    /** An Indian mobile number: ten ASCII digits, the first of them 6-9. */
+    static Rule mobileNumber(ValidationError invalid) {
+        int bit = invalid.bit();
+        return (v, start, end) -> {
+            if (end - start != 10) return bit;
+            char first = v.charAt(start);
+            if (first < '6' || first > '9') return bit;
+            for (int i = start + 1; i < end; i++) {
+                char c = v.charAt(i);
+                if (c < '0' || c > '9') return bit;
+            }
+            return 0;
+        };
+    }
+
+    /**
+     * The shape of an email address accepted so far: one or more of
+     * [A-Za-z0-9+_.-], an '@', then at least one character up to the end
+     * of a single line.
+     */
+    static Rule emailAddress(ValidationError invalid) {
+        int bit = invalid.bit();
+        return (v, start, end) -> {
+            int i = start;
+            while (i < end && isEmailLocalChar(v.charAt(i))) i++;
+            if (i == start || i == end || v.charAt(i) != '@' || i + 1 == end) return bit;
+            for (int j = i + 1; j < end; j++) {
+                char c = v.charAt(j);
+                if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') return bit;
+            }
+            return 0;
+        };
+    }
+
+    private static boolean isEmailLocalChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+            || c == '+' || c == '_' || c == '.' || c == '-';
+    }
+
+    private static final double[] POWERS_OF_TEN = new double[16];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+    }
+
+    private static int slowInteger(String v, int start, int end, int min, int max, int invalidBit, int rangeBit) {
+        try {
+            int n = Integer.parseInt(v.substring(start, end));
+            return n < min || n > max ? rangeBit : 0;
+        } catch (NumberFormatException e) {
+            return invalidBit;
+        }
+    }
+
+    private static int slowDecimal(String v, int start, int end, double min, double max, int invalidBit, int rangeBit) {
+        try {
+            double d = Double.parseDouble(v.substring(start, end));
+            return d < min || d > max ? rangeBit : 0;
+        } catch (NumberFormatException e) {
+            return invalidBit;
+        }
+    }
+}
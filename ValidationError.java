@@ -0,0 +1,62 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+/**
+ * Validation error codes
+ * Every problem the validation engine can report, in the order the messages
+ * are listed to the user. A set of errors is passed around as an int mask of
+ * {@link #bit()} values so that validating a record allocates nothing.
+ */
+enum ValidationError {
+    NAME_REQUIRED(BiodataField.NAME, "Full Name is required"),
+    AGE_REQUIRED(BiodataField.AGE, "Age is required"),
+    AGE_RANGE(BiodataField.AGE, "Age must be between 16 and 100"),
+    AGE_INVALID(BiodataField.AGE, "Age must be a valid number"),
+    REGD_REQUIRED(BiodataField.REGD, "Registration Number is required"),
+    BRANCH_REQUIRED(BiodataField.BRANCH, "Please select a branch"),
+    SEMESTER_REQUIRED(BiodataField.SEMESTER, "Please select current semester"),
+    PHONE_REQUIRED(BiodataField.PHONE, "Mobile Number is required"),
+    PHONE_INVALID(BiodataField.PHONE, "Please enter a valid 10-digit mobile number"),
+    EMAIL_REQUIRED(BiodataField.EMAIL, "Email Address is required"),
+    EMAIL_INVALID(BiodataField.EMAIL, "Please enter a valid email address"),
+    CGPA_RANGE(BiodataField.CGPA, "CGPA must be between 0.0 and 10.0"),
+    CGPA_INVALID(BiodataField.CGPA, "CGPA must be a valid number");
+
+    private static final ValidationError[] VALUES = values();
+
+    final BiodataField field;
+    final String message;
+
+    ValidationError(BiodataField field, String message) {
+        this.field = field;
+        this.message = message;
+    }
+
+    int bit() {
+        return 1 << ordinal();
+    }
+
+    boolean in(int mask) {
+        return (mask & bit()) != 0;
+    }
+
+    /** The "\u2022 message" list shown in the error dialog, one line per error in the mask. */
+    static String describe(int mask) {
+        StringBuilder sb = new StringBuilder();
+        for (ValidationError e : VALUES) {
+            if (e.in(mask)) sb.append("\u2022 ").append(e.message).append('\n');
+        }
+        return sb.toString();
+    }
+
+    /** Comma-separated error codes, e.g. "AGE_RANGE,PHONE_INVALID". */
+    static String codes(int mask) {
+        StringBuilder sb = new StringBuilder();
+        for (ValidationError e : VALUES) {
+            if (e.in(mask)) {
+                if (sb.length() > 0) sb.append(',');
+                sb.append(e.name());
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,189 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+import javax.swing.*;
+import javax.swing.event.ListSelectionEvent;
+import javax.swing.text.Position;
+import java.awt.*;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Record list of the workspace
+ * Lists every saved record by registration number and name, next to the
+ * form. The list model is backed by {@link RecordPages}: only the rows that
+ * are scrolled into view are read from the store, and every cell has the same
+ * fixed size so the list never measures rows it does not show. Selecting a
+ * row asks the form to switch to that record; rows with unsaved or queued
+ * edits are marked with an asterisk.
+ */
+final class WorkspacePanel extends JPanel {
+
+    private static final String PROTOTYPE = "* 0000000000  -  Prototype Student Name With Initials";
+
+    /** The list model: one element per saved record, read a page at a time. */
+    private final class RecordListModel extends AbstractListModel<String> implements RecordPages.Listener {
+        private RecordPages pages;
+
+        void attach(RecordPages pages) {
+            this.pages = pages;
+        }
+
+        void setKeys(List<String> keys) {
+            int before = getSize();
+            pages.setKeys(keys);
+            if (before > 0) fireIntervalRemoved(this, 0, before - 1);
+            if (!keys.isEmpty()) fireIntervalAdded(this, 0, keys.size() - 1);
+        }
+
+        void invalidate() {
+            pages.invalidate();
+            if (getSize() > 0) fireContentsChanged(this, 0, getSize() - 1);
+        }
+
+        @Override
+        public int getSize() {
+            return pages == null ? 0 : pages.size();
+        }
+
+        @Override
+        public String getElementAt(int index) {
+            String key = pages.key(index);
+            Biodata b = pages.get(index);
+            String name = b == null ? "..." : Biodata.orDefault(b.name, "(no name)");
+            return (edited.test(key) ? "* " : "") + key + "  -  " + name;
+        }
+
+        @Override
+        public void loaded(int first, int last) {
+            fireContentsChanged(this, first, last);
+        }
+    }
+
+    private final Consumer<String> onSelect;
+    private final Predicate<String> edited;
+    private final RecordListModel model = new RecordListModel();
+    private final JList<String> list = new JList<String>(model) {
+        // Type-ahead matches registration numbers, which needs no record to be read
+        @Override
+        public int getNextMatch(String prefix, int startIndex, Position.Bias bias) {
+            int size = model.getSize();
+            int step = bias == Position.Bias.Forward ? 1 : -1;
+            for (int i = 0, row = startIndex; i < size; i++, row = (row + step + size) % size) {
+                if (model.pages.key(row).regionMatches(true, 0, prefix, 0, prefix.length())) return row;
+            }
+            return -1;
+        }
+    };
+    private final JLabel status = new JLabel(" ");
+    private BiodataStore store;
+    private String selectedKey;
+    private boolean selecting;
+    private int generation;
+
+    /**
+     * {@code onSelect} gets the registration number of a row the user picked;
+     * {@code edited} tells whether a record has edits not yet saved.
+     */
+    WorkspacePanel(Consumer<String> onSelect, Predicate<String> edited, Color background, Color foreground,
+                   JComponent actions) {
+        super(new BorderLayout(0, 8));
+        this.onSelect = onSelect;
+        this.edited = edited;
+        setOpaque(false);
+        setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 0));
+
+        list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        list.setPrototypeCellValue(PROTOTYPE);
+        list.setBackground(background);
+        list.setForeground(foreground);
+        list.addListSelectionListener(this::selectionChanged);
+        JScrollPane scroll = new JScrollPane(list);
+        scroll.setBorder(BorderFactory.createLineBorder(new Color(255, 255, 255, 50)));
+        scroll.setPreferredSize(new Dimension(280, 0));
+
+        JLabel title = new JLabel("Records");
+        title.setFont(new Font("Segoe UI", Font.BOLD, 16));
+        title.setForeground(foreground);
+        status.setForeground(foreground);
+
+        JPanel bottom = new JPanel(new BorderLayout(0, 6));
+        bottom.setOpaque(false);
+        bottom.add(status, BorderLayout.NORTH);
+        bottom.add(actions, BorderLayout.CENTER);
+
+        add(title, BorderLayout.NORTH);
+        add(scroll, BorderLayout.CENTER);
+        add(bottom, BorderLayout.SOUTH);
+        status.setText("Opening records...");
+    }
+
+    /** Starts listing the records of a store. */
+    void attach(BiodataStore store) {
+        this.store = store;
+        model.attach(new RecordPages(store, model));
+        refresh();
+    }
+
+    /** Re-reads the registration numbers, e.g. after records were added, renamed or deleted. */
+    void refresh() {
+        if (store == null) return;
+        int current = ++generation;
+        CompletableFuture.supplyAsync(store::keys)
+            .whenComplete((keys, ex) -> SwingUtilities.invokeLater(() -> {
+                if (current != generation) return; // a newer refresh is running
+                if (ex != null) {
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    status.setText("Cannot list records: " + cause.getMessage());
+                    return;
+                }
+                model.setKeys(keys);
+                status.setText(keys.size() == 1 ? "1 saved record" : keys.size() + " saved records");
+                select(selectedKey);
+            }));
+    }
+
+    /** Shows saved records again after their contents changed. */
+    void reload() {
+        if (store != null) model.invalidate();
+    }
+
+    /** Highlights the record shown in the form (null for a new one) without switching to it. */
+    void select(String key) {
+        selectedKey = key;
+        if (store == null) return;
+        int row = key == null ? -1 : model.pages.indexOf(key);
+        selecting = true;
+        try {
+            if (row < 0) {
+                list.clearSelection();
+            } else {
+                list.setSelectedIndex(row);
+                list.ensureIndexIsVisible(row);
+            }
+        } finally {
+            selecting = false;
+        }
+    }
+
+    void setStatus(String text) {
+        status.setText(text);
+    }
+
+    /** Repaints the rows, e.g. when a record gained or lost its unsaved mark. */
+    void edited() {
+        list.repaint();
+    }
+
+    private void selectionChanged(ListSelectionEvent e) {
+        if (selecting || e.getValueIsAdjusting()) return;
+        int row = list.getSelectedIndex();
+        if (row < 0) return;
+        String key = model.pages.key(row);
+        if (key.equals(selectedKey)) return;
+        onSelect.accept(key);
+        // The form may have refused to switch, e.g. to keep edits it cannot save
+        select(selectedKey);
+    }
+}
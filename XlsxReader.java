@@ -0,0 +1,237 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.*;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.*;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Excel workbook source
+ * Streams the rows of the first worksheet of an .xlsx file with StAX, so a
+ * sheet of any size is read with constant memory apart from the workbook's
+ * shared strings. The first row names the columns, like a CSV header.
+ * Numbers are read as Excel shows them (15 significant digits), so a mobile
+ * number stored as a number keeps all its digits. Formulas give their cached
+ * value; dates and styles are not interpreted.
+ */
+final class XlsxReader implements BiodataImporter.RecordSource {
+
+    private static final XMLInputFactory XML = XMLInputFactory.newInstance();
+
+    static {
+        // Workbooks come from outside: no DTDs, no external entities
+        XML.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        XML.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    private static final String RELATIONSHIPS =
+        "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+
+    private final ZipFile zip;
+    private final List<String> sharedStrings;
+    private final XMLStreamReader sheet;
+    private final InputStream sheetStream;
+    private final BiodataImporter.Columns columns;
+    private int rowNumber;
+
+    XlsxReader(File file) throws IOException {
+        zip = new ZipFile(file);
+        try {
+            sharedStrings = readSharedStrings();
+            sheetStream = entry(firstSheet());
+            sheet = XML.createXMLStreamReader(sheetStream);
+            List<String> header = nextRow();
+            columns = new BiodataImporter.Columns(header == null ? Collections.<String>emptyList() : header);
+        } catch (XMLStreamException | RuntimeException e) {
+            zip.close();
+            throw new IOException(file.getName() + ": not a readable Excel workbook (" + e.getMessage() + ")", e);
+        } catch (IOException e) {
+            zip.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public BiodataImporter.Chunk next(int max) throws IOException {
+        List<List<String>> rows = new ArrayList<>(max);
+        int[] numbers = new int[max];
+        try {
+            while (rows.size() < max) {
+                List<String> row = nextRow();
+                if (row == null) break;
+                if (row.isEmpty()) continue;
+                numbers[rows.size()] = rowNumber;
+                rows.add(row);
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Row " + rowNumber + ": " + e.getMessage(), e);
+        }
+        return rows.isEmpty() ? null : new BiodataImporter.RowChunk(columns, rows, numbers);
+    }
+
+    // The cells of the next <row>, empty when it has no values, or null at the end of the sheet
+    private List<String> nextRow() throws XMLStreamException {
+        while (sheet.hasNext()) {
+            if (sheet.next() == XMLStreamConstants.START_ELEMENT && "row".equals(sheet.getLocalName())) {
+                String r = sheet.getAttributeValue(null, "r");
+                rowNumber = r != null ? Integer.parseInt(r) : rowNumber + 1;
+                return readRow();
+            }
+        }
+        return null;
+    }
+
+    private List<String> readRow() throws XMLStreamException {
+        List<String> cells = new ArrayList<>(24);
+        while (sheet.hasNext()) {
+            int event = sheet.next();
+            if (event == XMLStreamConstants.END_ELEMENT && "row".equals(sheet.getLocalName())) break;
+            if (event != XMLStreamConstants.START_ELEMENT || !"c".equals(sheet.getLocalName())) continue;
+
+            int column = column(sheet.getAttributeValue(null, "r"), cells.size());
+            String type = sheet.getAttributeValue(null, "t");
+            String value = readCell(type);
+            while (cells.size() < column) cells.add("");
+            cells.add(value);
+        }
+        // Trailing empty cells carry no data
+        int size = cells.size();
+        while (size > 0 && cells.get(size - 1).isEmpty()) size--;
+        return size == cells.size() ? cells : new ArrayList<>(cells.subList(0, size));
+    }
+
+    // The text of the current <c> element, read up to its end
+    private String readCell(String type) throws XMLStreamException {
+        String value = "";
+        StringBuilder inline = null;
+        int depth = 1;
+        while (depth > 0) {
+            int event = sheet.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+                String name = sheet.getLocalName();
+                if ("v".equals(name)) {
+                    value = sheet.getElementText();
+                    depth--;
+                } else if ("t".equals(name)) {
+                    if (inline == null) inline = new StringBuilder();
+                    inline.append(sheet.getElementText());
+                    depth--;
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+        if ("inlineStr".equals(type)) return inline == null ? "" : inline.toString();
+        if ("s".equals(type)) {
+            try {
+                return sharedStrings.get(Integer.parseInt(value.trim()));
+            } catch (RuntimeException e) {
+                throw new XMLStreamException("bad shared string index " + value);
+            }
+        }
+        if ("b".equals(type)) return "1".equals(value) ? "TRUE" : "FALSE";
+        if (type == null || "n".equals(type)) return number(value);
+        return value; // "str" (formula text) and "e" (error)
+    }
+
+    /** A number as Excel displays it: at most 15 significant digits, no exponent. */
+    static String number(String value) {
+        if (value.isEmpty()) return value;
+        try {
+            return new BigDecimal(value).round(new MathContext(15)).stripTrailingZeros().toPlainString();
+        } catch (NumberFormatException e) {
+            return value;
+        }
+    }
+
+    // Zero-based column of a cell reference such as "AB12"; the next column when it has none
+    private static int column(String ref, int next) {
+        if (ref == null) return next;
+        int column = 0;
+        for (int i = 0; i < ref.length(); i++) {
+            char c = ref.charAt(i);
+            if (c < 'A' || c > 'Z') break;
+            column = column * 26 + (c - 'A' + 1);
+        }
+        return column == 0 ? next : column - 1;
+    }
+
+    private List<String> readSharedStrings() throws IOException, XMLStreamException {
+        List<String> strings = new ArrayList<>();
+        ZipEntry entry = zip.getEntry("xl/sharedStrings.xml");
+        if (entry == null) return strings;
+        try (InputStream in = new BufferedInputStream(zip.getInputStream(entry), 1 << 16)) {
+            XMLStreamReader xml = XML.createXMLStreamReader(in);
+            StringBuilder text = new StringBuilder();
+            int phonetic = 0;
+            while (xml.hasNext()) {
+                int event = xml.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String name = xml.getLocalName();
+                    if ("si".equals(name)) text.setLength(0);
+                    else if ("rPh".equals(name)) phonetic++;
+                    else if ("t".equals(name) && phonetic == 0) text.append(xml.getElementText());
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    String name = xml.getLocalName();
+                    if ("si".equals(name)) strings.add(text.toString());
+                    else if ("rPh".equals(name)) phonetic--;
+                }
+            }
+            xml.close();
+        }
+        return strings;
+    }
+
+    // Path of the first worksheet listed in the workbook
+    private String firstSheet() throws IOException, XMLStreamException {
+        String id = null;
+        try (InputStream in = entry("xl/workbook.xml")) {
+            XMLStreamReader xml = XML.createXMLStreamReader(in);
+            while (id == null && xml.hasNext()) {
+                if (xml.next() == XMLStreamConstants.START_ELEMENT && "sheet".equals(xml.getLocalName())) {
+                    id = xml.getAttributeValue(RELATIONSHIPS, "id");
+                }
+            }
+            xml.close();
+        }
+        if (id == null) throw new IOException("The workbook has no worksheets");
+        try (InputStream in = entry("xl/_rels/workbook.xml.rels")) {
+            XMLStreamReader xml = XML.createXMLStreamReader(in);
+            while (xml.hasNext()) {
+                if (xml.next() == XMLStreamConstants.START_ELEMENT && "Relationship".equals(xml.getLocalName())
+                        && id.equals(xml.getAttributeValue(null, "Id"))) {
+                    String target = xml.getAttributeValue(null, "Target");
+                    xml.close();
+                    return target.startsWith("/") ? target.substring(1) : "xl/" + target;
+                }
+            }
+            xml.close();
+        }
+        throw new IOException("Worksheet " + id + " not found in the workbook");
+    }
+
+    private InputStream entry(String name) throws IOException {
+        ZipEntry entry = zip.getEntry(name);
+        if (entry == null) throw new IOException("Missing " + name);
+        return new BufferedInputStream(zip.getInputStream(entry), 1 << 16);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            sheet.close();
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        } finally {
+            sheetStream.close();
+            zip.close();
+        }
+    }
+}
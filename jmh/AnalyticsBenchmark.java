@@ -0,0 +1,38 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Cohort statistics benchmarks
+ * Count, mean and spread of CGPA for a million students, grouped each way
+ * the analytics view offers, from columns on all cores.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class AnalyticsBenchmark {
+
+    @Param({"BRANCH", "SEMESTER", "BRANCH_AND_SEMESTER"})
+    public String groupBy;
+
+    private CohortColumns million;
+    private CohortAnalytics.GroupBy by;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        million = BiodataSamples.columns(1 << 20);
+        by = CohortAnalytics.GroupBy.valueOf(groupBy);
+    }
+
+    @Benchmark
+    public void aggregate(Blackhole bh) {
+        bh.consume(CohortAnalytics.aggregate(million, by, ForkJoinPool.commonPool()));
+    }
+}
@@ -0,0 +1,68 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Cohort query benchmarks
+ * Students with Java and Machine Learning among 16k records, by option names
+ * and by selection mask, and "8th-semester ECE students with Python" over a
+ * memory-mapped columnar snapshot of a million students.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class CohortBenchmark {
+
+    private static final BiodataQuery ECE_PYTHON = new BiodataQuery.Builder().branch("Electronics & Communication")
+        .semester("8th Semester").skill("Python Programming").build();
+
+    private Biodata[] population;
+    private long required;
+    private File snapshotFile;
+    private CohortSnapshot snapshot;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        population = BiodataSamples.records(BiodataSamples.Size.SMALL, 1 << 14);
+        required = OptionDictionary.SKILLS.bit("Java Programming") | OptionDictionary.SKILLS.bit("Machine Learning");
+        snapshotFile = File.createTempFile("biodata-bench", ".snapshot");
+        CohortSnapshot.write(BiodataSamples.columns(1 << 20), snapshotFile);
+        snapshot = CohortSnapshot.open(snapshotFile);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        snapshotFile.delete();
+    }
+
+    @Benchmark
+    public void skillFilterStrings(Blackhole bh) {
+        int n = 0;
+        for (Biodata b : population) {
+            if (b.skills.contains("Java Programming") && b.skills.contains("Machine Learning")) n++;
+        }
+        bh.consume(n);
+    }
+
+    @Benchmark
+    public void skillFilterBits(Blackhole bh) {
+        int n = 0;
+        for (Biodata b : population) {
+            if (OptionDictionary.containsAll(b.skillBits, required)) n++;
+        }
+        bh.consume(n);
+    }
+
+    @Benchmark
+    public void snapshotScan(Blackhole bh) {
+        bh.consume(snapshot.scan(ECE_PYTHON).students);
+    }
+}
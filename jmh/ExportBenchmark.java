@@ -0,0 +1,73 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+import java.awt.Color;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * File export benchmarks
+ * One document written to a file per operation: text through a PrintWriter
+ * as Export to File did, text through the streaming UTF-8 channel writer,
+ * and PDF, over 1024 records of each size.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class ExportBenchmark {
+
+    private static final int RECORDS = 1024;
+
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    public String size;
+
+    private Biodata[] records;
+    private int next;
+    private File file;
+    private TextBiodataRenderer text;
+    private PdfBiodataRenderer pdf;
+
+    @Setup
+    public void setUp() throws IOException {
+        records = BiodataSamples.records(BiodataSamples.Size.valueOf(size), RECORDS);
+        file = File.createTempFile("biodata-bench", ".out");
+        text = new TextBiodataRenderer(TextBiodataRenderer.timestamp(new Date()));
+        pdf = new PdfBiodataRenderer(Color.DARK_GRAY, PdfBiodataRenderer.timestamp(new Date()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        file.delete();
+    }
+
+    private Biodata next() {
+        return records[next++ & (RECORDS - 1)];
+    }
+
+    @Benchmark
+    public void exportPrintWriter(Blackhole bh) throws IOException {
+        try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
+            text.write(next(), writer);
+        }
+        bh.consume(file.length());
+    }
+
+    @Benchmark
+    public void exportUtf8Channel(Blackhole bh) throws IOException {
+        bh.consume(BiodataBatch.writeUtf8(next(), file, text));
+    }
+
+    @Benchmark
+    public void exportPdf(Blackhole bh) throws IOException {
+        bh.consume(BiodataBatch.writePdf(next(), file, pdf));
+    }
+}
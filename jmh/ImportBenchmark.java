@@ -0,0 +1,87 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Batch import benchmarks
+ * Parsing and validating a 16k-row CSV and JSON Lines file on all cores
+ * without saving the records, and the duplicate clusters of a 16k cohort
+ * whose names and About Me are all alike, so every band bucket is crowded.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class ImportBenchmark {
+
+    private static final int ROWS = 1 << 14;
+    private static final BiodataImporter.Sink DISCARD = (recordNo, b) -> { };
+
+    private File csv;
+    private File jsonl;
+    private BiodataImporter importer;
+    private Biodata[] cohort;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        csv = File.createTempFile("biodata-bench", ".csv");
+        jsonl = File.createTempFile("biodata-bench", ".jsonl");
+        writeInputFiles(BiodataSamples.records(BiodataSamples.Size.SMALL, ROWS), csv, jsonl);
+        importer = new BiodataImporter(ForkJoinPool.commonPool());
+        cohort = BiodataSamples.records(BiodataSamples.Size.MEDIUM, ROWS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        csv.delete();
+        jsonl.delete();
+    }
+
+    @Benchmark
+    public void importCsv(Blackhole bh) throws IOException, InterruptedException, ExecutionException {
+        bh.consume(importer.run(csv, DISCARD, null).imported);
+    }
+
+    @Benchmark
+    public void importJsonl(Blackhole bh) throws IOException, InterruptedException, ExecutionException {
+        bh.consume(importer.run(jsonl, DISCARD, null).imported);
+    }
+
+    @Benchmark
+    public void duplicates(Blackhole bh) {
+        DuplicateDetector detector = new DuplicateDetector();
+        for (int k = 0; k < cohort.length; k++) detector.add(k, cohort[k]);
+        bh.consume(detector.clusters());
+    }
+
+    // The records as batch input: CSV with one column per field, and JSON Lines
+    private static void writeInputFiles(Biodata[] records, File csv, File jsonl) throws IOException {
+        JsonBiodataRenderer json = new JsonBiodataRenderer("");
+        try (Writer c = new OutputStreamWriter(new FileOutputStream(csv), "UTF-8");
+             Writer j = new OutputStreamWriter(new FileOutputStream(jsonl), "UTF-8")) {
+            for (BiodataField f : BiodataField.values()) c.write(f.key + ",");
+            c.write("skills,hobbies\n");
+            for (Biodata b : records) {
+                for (BiodataField f : BiodataField.values()) c.write(csvCell(f.valueOf(b)) + ",");
+                c.write(csvCell(String.join(";", b.skills)) + "," + csvCell(String.join(";", b.hobbies)) + "\n");
+                json.write(b, j);
+            }
+        }
+    }
+
+    private static String csvCell(String v) {
+        return "\"" + v.replace("\"", "\"\"") + "\"";
+    }
+}
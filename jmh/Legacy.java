@@ -0,0 +1,189 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+import java.awt.*;
+import java.util.regex.Pattern;
+
+/**
+ * Code replaced by the optimizations, kept as benchmark baselines
+ * Each method is the way the application did something before, so a
+ * benchmark can measure it beside its replacement. The benchmarks check in
+ * their setup that both give the same result on every synthetic record.
+ */
+final class Legacy {
+
+    private static final Pattern EMAIL = Pattern.compile("^[A-Za-z0-9+_.-]+@(.+)$");
+    private static final Pattern PHONE = Pattern.compile("^[6-9]\\d{9}$");
+
+    private Legacy() {}
+
+    /** validateInput() before ValidationEngine: regular expressions and exceptions. */
+    static String validate(Biodata b) {
+        StringBuilder errors = new StringBuilder();
+
+        if (b.name.trim().isEmpty()) errors.append("\u2022 Full Name is required\n");
+        if (b.age.trim().isEmpty()) {
+            errors.append("\u2022 Age is required\n");
+        } else {
+            try {
+                int age = Integer.parseInt(b.age.trim());
+                if (age < 16 || age > 100) errors.append("\u2022 Age must be between 16 and 100\n");
+            } catch (NumberFormatException e) {
+                errors.append("\u2022 Age must be a valid number\n");
+            }
+        }
+
+        if (b.regd.trim().isEmpty()) errors.append("\u2022 Registration Number is required\n");
+        if (b.branch.isEmpty()) errors.append("\u2022 Please select a branch\n");
+        if (b.semester.isEmpty()) errors.append("\u2022 Please select current semester\n");
+
+        if (b.phone.trim().isEmpty()) {
+            errors.append("\u2022 Mobile Number is required\n");
+        } else if (!PHONE.matcher(b.phone.trim()).matches()) {
+            errors.append("\u2022 Please enter a valid 10-digit mobile number\n");
+        }
+
+        if (b.email.trim().isEmpty()) {
+            errors.append("\u2022 Email Address is required\n");
+        } else if (!EMAIL.matcher(b.email.trim()).matches()) {
+            errors.append("\u2022 Please enter a valid email address\n");
+        }
+
+        if (!b.cgpa.trim().isEmpty()) {
+            try {
+                double cgpa = Double.parseDouble(b.cgpa.trim());
+                if (cgpa < 0.0 || cgpa > 10.0) errors.append("\u2022 CGPA must be between 0.0 and 10.0\n");
+            } catch (NumberFormatException e) {
+                errors.append("\u2022 CGPA must be a valid number\n");
+            }
+        }
+
+        return errors.toString();
+    }
+
+    /** The text document as TextBiodataRenderer wrote it before templates: one hardcoded append per line. */
+    static void text(Biodata b, String generatedOn, StringBuilder out) {
+        String NL = System.lineSeparator();
+        out.append("PROFESSIONAL BIODATA").append(NL);
+        out.append("====================").append(NL);
+        out.append(NL);
+        out.append("Generated on: ").append(generatedOn).append(NL);
+        out.append(NL);
+
+        // Personal Information
+        out.append("PERSONAL INFORMATION").append(NL);
+        out.append("-------------------").append(NL);
+        out.append("Name: ").append(b.name).append(NL);
+        out.append("Age: ").append(b.age).append(NL);
+        out.append("Gender: ").append(Biodata.orDefault(b.gender, "Not specified")).append(NL);
+        out.append(NL);
+
+        // Academic Information
+        out.append("ACADEMIC INFORMATION").append(NL);
+        out.append("--------------------").append(NL);
+        out.append("Registration Number: ").append(b.regd).append(NL);
+        out.append("Branch: ").append(Biodata.orDefault(b.branch, "Not specified")).append(NL);
+        out.append("Current Semester: ").append(Biodata.orDefault(b.semester, "Not specified")).append(NL);
+        out.append("CGPA: ").append(Biodata.orDefault(b.cgpa, "Not specified")).append(NL);
+        out.append("College/University: ").append(Biodata.orDefault(b.college, "Not specified")).append(NL);
+        out.append(NL);
+
+        // Contact Information
+        out.append("CONTACT INFORMATION").append(NL);
+        out.append("-------------------").append(NL);
+        out.append("Mobile Number: ").append(b.phone).append(NL);
+        out.append("Email Address: ").append(b.email).append(NL);
+        out.append("LinkedIn: ").append(Biodata.orDefault(b.linkedin, "Not provided")).append(NL);
+        out.append("GitHub: ").append(Biodata.orDefault(b.github, "Not provided")).append(NL);
+        out.append("Address: ").append(Biodata.orDefault(b.address, "Not provided")).append(NL);
+        out.append(NL);
+
+        // Skills
+        out.append("SKILLS & INTERESTS").append(NL);
+        out.append("------------------").append(NL);
+        out.append("Technical Skills: ").append(Biodata.orDefault(b.skillsLine(), "None specified")).append(NL);
+        out.append("Hobbies & Interests: ").append(Biodata.orDefault(b.hobbiesLine(), "None specified")).append(NL);
+        out.append(NL);
+
+        // Additional Information
+        if (b.hasAdditionalInfo()) {
+            out.append("ADDITIONAL INFORMATION").append(NL);
+            out.append("----------------------").append(NL);
+            if (!Biodata.isBlank(b.about)) {
+                out.append("About Me:").append(NL);
+                out.append(b.about).append(NL);
+                out.append(NL);
+            }
+            if (!Biodata.isBlank(b.achievements)) {
+                out.append("Achievements & Projects:").append(NL);
+                out.append(b.achievements).append(NL);
+            }
+        }
+
+        out.append(NL);
+        out.append("--- END OF BIODATA ---").append(NL);
+    }
+
+    /** The preview as Generate Biodata built it before BiodataPreview: a fresh label tree per click. */
+    static javax.swing.JPanel preview(Biodata b) {
+        javax.swing.JPanel content = new javax.swing.JPanel();
+        content.setLayout(new javax.swing.BoxLayout(content, javax.swing.BoxLayout.Y_AXIS));
+        content.setBorder(javax.swing.BorderFactory.createEmptyBorder(20, 20, 20, 20));
+        javax.swing.JPanel header = new javax.swing.JPanel(new BorderLayout());
+        header.setBorder(javax.swing.BorderFactory.createEmptyBorder(0, 0, 30, 0));
+        javax.swing.JLabel title = new javax.swing.JLabel("PROFESSIONAL BIODATA", javax.swing.SwingConstants.CENTER);
+        title.setFont(new Font("Segoe UI", Font.BOLD, 28));
+        header.add(title, BorderLayout.CENTER);
+        content.add(header);
+        String[][] sections = {
+            {"Personal Information", "Name: " + b.name, "Age: " + b.age, "Gender: " + b.gender},
+            {"Academic Information", "Registration Number: " + b.regd, "Branch: " + b.branch,
+                "Current Semester: " + b.semester, "CGPA: " + b.cgpa, "College/University: " + b.college},
+            {"Contact Information", "Mobile Number: " + b.phone, "Email Address: " + b.email,
+                "LinkedIn: " + b.linkedin, "GitHub: " + b.github, "Address: " + b.address},
+            {"Skills & Interests", "Technical Skills: " + b.skillsLine(), "Hobbies & Interests: " + b.hobbiesLine()},
+            {"Additional Information", "About Me: " + b.about, "Achievements & Projects: " + b.achievements},
+        };
+        for (String[] items : sections) {
+            javax.swing.JPanel section = new javax.swing.JPanel();
+            section.setLayout(new javax.swing.BoxLayout(section, javax.swing.BoxLayout.Y_AXIS));
+            section.setBorder(javax.swing.BorderFactory.createEmptyBorder(15, 0, 15, 0));
+            javax.swing.JLabel heading = new javax.swing.JLabel(items[0]);
+            heading.setFont(new Font("Segoe UI", Font.BOLD, 18));
+            heading.setBorder(javax.swing.BorderFactory.createEmptyBorder(0, 0, 10, 0));
+            section.add(heading);
+            javax.swing.JPanel box = new javax.swing.JPanel();
+            box.setLayout(new javax.swing.BoxLayout(box, javax.swing.BoxLayout.Y_AXIS));
+            box.setBorder(javax.swing.BorderFactory.createCompoundBorder(
+                javax.swing.BorderFactory.createLineBorder(new Color(200, 200, 200)),
+                javax.swing.BorderFactory.createEmptyBorder(15, 15, 15, 15)));
+            for (int k = 1; k < items.length; k++) {
+                javax.swing.JLabel label = new javax.swing.JLabel(items[k]);
+                label.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+                label.setBorder(javax.swing.BorderFactory.createEmptyBorder(5, 0, 5, 0));
+                box.add(label);
+            }
+            section.add(box);
+            content.add(section);
+        }
+        javax.swing.JLabel footer = new javax.swing.JLabel("Generated on: today", javax.swing.SwingConstants.CENTER);
+        footer.setFont(new Font("Segoe UI", Font.ITALIC, 12));
+        content.add(footer);
+        return content;
+    }
+
+    /** Lays out a component tree as showing it would. */
+    static void layoutTree(Component c) {
+        if (c instanceof Container) {
+            ((Container) c).doLayout();
+            for (Component child : ((Container) c).getComponents()) layoutTree(child);
+        }
+    }
+
+    /** A copy of the selections, rebuilding the skills and hobbies lists as each snapshot did. */
+    static Biodata snapshot(Biodata b) {
+        Biodata.Builder copy = new Biodata.Builder().otherSkills(b.otherSkills).otherHobbies(b.otherHobbies);
+        for (String s : b.skills) copy.addSkill(s);
+        for (String h : b.hobbies) copy.addHobby(h);
+        return copy.build();
+    }
+}
@@ -0,0 +1,57 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Background painting benchmarks
+ * The maximized form's 1920x1080 gradient background, painted every frame
+ * against copied from the render cache.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class PaintBenchmark {
+
+    private static final RenderCache.Painter GRADIENT = (g, w, h) -> {
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g.setPaint(new GradientPaint(0, 0, new Color(25, 25, 35), w, h, new Color(40, 44, 60)));
+        g.fillRect(0, 0, w, h);
+    };
+
+    private BufferedImage screen;
+    private RenderCache background;
+
+    @Setup
+    public void setUp() {
+        screen = new BufferedImage(1920, 1080, BufferedImage.TYPE_INT_RGB);
+        background = new RenderCache(1, Transparency.OPAQUE);
+    }
+
+    @Benchmark
+    public void paintGradient(Blackhole bh) {
+        Graphics2D g = screen.createGraphics();
+        GRADIENT.paint(g, screen.getWidth(), screen.getHeight());
+        g.dispose();
+        bh.consume(screen.getRGB(0, 0));
+    }
+
+    @Benchmark
+    public void paintGradientCached(Blackhole bh) {
+        Graphics2D g = screen.createGraphics();
+        background.paint(g, screen.getWidth(), screen.getHeight(), 0, GRADIENT);
+        g.dispose();
+        bh.consume(screen.getRGB(0, 0));
+    }
+}
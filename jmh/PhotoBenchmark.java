@@ -0,0 +1,99 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.Toolkit;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
+import javax.swing.ImageIcon;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Photo benchmarks
+ * Phone photos scaled to the form thumbnail as selectPhoto() did and
+ * progressively; a JPEG on disk decoded through ImageIcon against the
+ * subsampled decode of the photo service; and both thumbnails of a photo
+ * from the mapped photo store.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class PhotoBenchmark {
+
+    @Param({"640x480", "4032x3024"})
+    public String dimensions;
+
+    private BufferedImage photo;
+    private File jpeg;
+    private File storeDirectory;
+    private PhotoStore store;
+    private String reference;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        String[] wh = dimensions.split("x");
+        photo = BiodataSamples.photo(Integer.parseInt(wh[0]), Integer.parseInt(wh[1]));
+        jpeg = File.createTempFile("biodata-bench", ".jpg");
+        ImageIO.write(photo, "jpg", jpeg);
+        storeDirectory = Files.createTempDirectory("biodata-bench-photos").toFile();
+        store = PhotoStore.open(storeDirectory, RecordLog.DEFAULT_SEGMENT_SIZE, 0);
+        reference = store.add(jpeg);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        store.close();
+        for (File f : storeDirectory.listFiles()) f.delete();
+        storeDirectory.delete();
+        jpeg.delete();
+    }
+
+    @Benchmark
+    public void scaleSmooth(Blackhole bh) {
+        Image scaled = photo.getScaledInstance(100, 130, Image.SCALE_SMOOTH);
+        BufferedImage out = new BufferedImage(100, 130, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = out.createGraphics();
+        g.drawImage(scaled, 0, 0, null);
+        g.dispose();
+        bh.consume(out);
+    }
+
+    @Benchmark
+    public void scaleProgressive(Blackhole bh) {
+        bh.consume(PhotoService.scale(photo, 100, 130));
+    }
+
+    @Benchmark
+    public void decodeImageIcon(Blackhole bh) {
+        Image full = Toolkit.getDefaultToolkit().createImage(jpeg.getAbsolutePath());
+        full.flush();
+        BufferedImage out = new BufferedImage(100, 130, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = out.createGraphics();
+        g.drawImage(new ImageIcon(full).getImage().getScaledInstance(100, 130, Image.SCALE_SMOOTH), 0, 0, null);
+        g.dispose();
+        bh.consume(out);
+    }
+
+    @Benchmark
+    public void decodeSubsampled(Blackhole bh) throws IOException {
+        BufferedImage img = PhotoService.read(jpeg, PhotoService.PREVIEW_SIZE.width, PhotoService.PREVIEW_SIZE.height);
+        bh.consume(PhotoService.scale(img, 100, 130));
+        bh.consume(PhotoService.scale(img, 120, 150));
+    }
+
+    @Benchmark
+    public void storeThumbnails(Blackhole bh) throws IOException {
+        bh.consume(store.image(reference, PhotoStore.Size.FORM));
+        bh.consume(store.image(reference, PhotoStore.Size.PREVIEW));
+    }
+}
@@ -0,0 +1,93 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+import java.awt.Color;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Document rendering benchmarks
+ * The text document appended line by line against the compiled template,
+ * the HTML, Markdown and JSON documents, and the preview as a tree of labels
+ * against the laid-out BiodataDocument, over 1024 records of each size.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class RenderBenchmark {
+
+    private static final int RECORDS = 1024;
+
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    public String size;
+
+    private Biodata[] records;
+    private int next;
+    private String generatedOn;
+    private TextBiodataRenderer text;
+    private JsonBiodataRenderer json;
+    private SwingBiodataRenderer previews;
+
+    @Setup
+    public void setUp() {
+        records = BiodataSamples.records(BiodataSamples.Size.valueOf(size), RECORDS);
+        generatedOn = TextBiodataRenderer.timestamp(new Date());
+        text = new TextBiodataRenderer(generatedOn);
+        json = new JsonBiodataRenderer(generatedOn);
+        previews = new SwingBiodataRenderer(Color.DARK_GRAY, new PhotoService());
+        for (Biodata b : records) {
+            StringBuilder expected = new StringBuilder();
+            Legacy.text(b, generatedOn, expected);
+            if (!expected.toString().equals(text.render(b))) throw new IllegalStateException("Template differs on " + b.regd);
+        }
+    }
+
+    private Biodata next() {
+        return records[next++ & (RECORDS - 1)];
+    }
+
+    @Benchmark
+    public void renderTextLegacy(Blackhole bh) {
+        StringBuilder sb = new StringBuilder(1024);
+        Legacy.text(next(), generatedOn, sb);
+        bh.consume(sb.toString());
+    }
+
+    @Benchmark
+    public void renderText(Blackhole bh) {
+        bh.consume(text.render(next()));
+    }
+
+    @Benchmark
+    public void renderHtml(Blackhole bh) {
+        bh.consume(BiodataTemplate.HTML.render(next(), generatedOn));
+    }
+
+    @Benchmark
+    public void renderMarkdown(Blackhole bh) {
+        bh.consume(BiodataTemplate.MARKDOWN.render(next(), generatedOn));
+    }
+
+    @Benchmark
+    public void renderJson(Blackhole bh) {
+        bh.consume(json.render(next()));
+    }
+
+    @Benchmark
+    public void previewLabelTree(Blackhole bh) {
+        javax.swing.JPanel panel = Legacy.preview(next());
+        panel.setSize(panel.getPreferredSize());
+        Legacy.layoutTree(panel);
+        bh.consume(panel.getHeight());
+    }
+
+    @Benchmark
+    public void previewTextLayout(Blackhole bh) {
+        bh.consume(previews.document(next()).heightFor(BiodataDocument.DEFAULT_WIDTH));
+    }
+}
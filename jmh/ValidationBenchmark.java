@@ -0,0 +1,57 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Validation and selection benchmarks
+ * The form checks as regular expressions and exceptions against the compiled
+ * rule engine, and the skills/hobbies line rebuilt per snapshot, over 1024
+ * synthetic records of each size (every fifth has one invalid field).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class ValidationBenchmark {
+
+    private static final int RECORDS = 1024;
+
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    public String size;
+
+    private Biodata[] records;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        records = BiodataSamples.records(BiodataSamples.Size.valueOf(size), RECORDS);
+        for (Biodata b : records) {
+            String engine = ValidationError.describe(ValidationEngine.STANDARD.validate(b));
+            if (!Legacy.validate(b).equals(engine)) throw new IllegalStateException("Engine disagrees on " + b.regd);
+        }
+    }
+
+    private Biodata next() {
+        return records[next++ & (RECORDS - 1)];
+    }
+
+    @Benchmark
+    public void validateLegacy(Blackhole bh) {
+        bh.consume(Legacy.validate(next()));
+    }
+
+    @Benchmark
+    public void validateEngine(Blackhole bh) {
+        bh.consume(ValidationEngine.STANDARD.validate(next()));
+    }
+
+    @Benchmark
+    public void skillsHobbies(Blackhole bh) {
+        bh.consume(Legacy.snapshot(next()).skillsLine());
+    }
+}
@@ -0,0 +1,27 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+/**
+ * Runs every behavioural test; exits with status 1 on the first failure.
+ *
+ * Usage: java codeshere.experiments.AllTests
+ */
+public final class AllTests {
+
+    public static void main(String[] args) throws Exception {
+        try {
+            RecordLogTest.main(args);
+            BiodataCodecTest.main(args);
+            ValidationEngineTest.main(args);
+            SearchIndexTest.main(args);
+            DuplicateDetectorTest.main(args);
+            BiodataImporterTest.main(args);
+            PhotoStoreTest.main(args);
+            PdfBiodataRendererTest.main(args);
+        } catch (AssertionError e) {
+            System.err.println("FAILED: " + e.getMessage());
+            e.printStackTrace();
+            System.exit(1);
+        }
+        System.out.println("All tests passed (" + Checks.passed() + " checks)");
+    }
+}
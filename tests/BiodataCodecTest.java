@@ -0,0 +1,142 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static codeshere.experiments.Checks.check;
+import static codeshere.experiments.Checks.equal;
+
+/**
+ * BiodataCodec round trip
+ * Every field and both selection masks must come back exactly as encoded:
+ * blank and long values, non-Latin text, every option bit, records back to
+ * back in one buffer and records read from a direct buffer. A record of
+ * any other version is refused.
+ */
+public final class BiodataCodecTest {
+
+    public static void main(String[] args) {
+        int before = Checks.passed();
+        roundTripsEdgeCases();
+        roundTripsRandomRecords();
+        decodesRecordsBackToBack();
+        rejectsTruncatedRecords();
+        varintsRoundTrip();
+        System.out.println("BiodataCodecTest: " + (Checks.passed() - before) + " checks passed");
+    }
+
+    static void roundTripsEdgeCases() {
+        assertRoundTrip(new Biodata.Builder().build(), "blank record");
+
+        StringBuilder longText = new StringBuilder();
+        while (longText.length() < 70_000) longText.append("Long achievements line. ");
+        Biodata.Builder b = filled(new Random(1));
+        b.name("\u0930\u093E\u0939\u0941\u0932 \u0936\u0930\u094D\u092E\u093E") // Devanagari
+            .address("\u0C39\u0C48\u0C26\u0C30\u0C3E\u0C2C\u0C3E\u0C26\n\u20B9 \uD83D\uDE00") // Telugu, rupee, emoji
+            .achievements(longText.toString())
+            .skillBits((1L << Biodata.SKILL_OPTIONS.length) - 1)
+            .hobbyBits((1L << Biodata.HOBBY_OPTIONS.length) - 1);
+        assertRoundTrip(b.build(), "non-Latin text, long value and every option");
+    }
+
+    static void roundTripsRandomRecords() {
+        Random random = new Random(42);
+        for (int i = 0; i < 500; i++) assertRoundTrip(filled(random).build(), "random record " + i);
+    }
+
+    static void decodesRecordsBackToBack() {
+        Random random = new Random(7);
+        Biodata[] records = new Biodata[20];
+        byte[][] encoded = new byte[records.length][];
+        int size = 0;
+        for (int i = 0; i < records.length; i++) {
+            records[i] = filled(random).build();
+            encoded[i] = BiodataCodec.encode(records[i]);
+            size += encoded[i].length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect(size);
+        for (byte[] e : encoded) buffer.put(e);
+        buffer.flip();
+        for (int i = 0; i < records.length; i++) assertSame(records[i], BiodataCodec.decode(buffer), "record " + i + " of a direct buffer");
+        equal(0, buffer.remaining(), "bytes left after the last record");
+    }
+
+    static void rejectsTruncatedRecords() {
+        byte[] encoded = BiodataCodec.encode(filled(new Random(3)).build());
+        for (int cut : new int[] {0, 1, encoded.length / 2, encoded.length - 1}) {
+            ByteBuffer truncated = ByteBuffer.wrap(encoded, 0, cut);
+            try {
+                BiodataCodec.decode(truncated);
+                check(false, "record cut to " + cut + " bytes decoded");
+            } catch (IllegalArgumentException expected) {
+                check(true, "record cut to " + cut + " bytes rejected");
+            }
+        }
+        for (byte version : new byte[] {0, 1, 3, 9}) {
+            byte[] other = encoded.clone();
+            other[0] = version;
+            try {
+                BiodataCodec.decode(ByteBuffer.wrap(other));
+                check(false, "version " + version + " decoded");
+            } catch (IllegalArgumentException expected) {
+                check(expected.getMessage().contains("version " + version), "version " + version + " rejected: " + expected.getMessage());
+            }
+        }
+    }
+
+    static void varintsRoundTrip() {
+        int[] ints = {0, 1, 127, 128, 16_383, 16_384, Integer.MAX_VALUE, -1, Integer.MIN_VALUE};
+        long[] longs = {0, 1, 127, 128, 1L << 35, Long.MAX_VALUE, -1, Long.MIN_VALUE};
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        for (int v : ints) {
+            buffer.clear();
+            BiodataCodec.putVarint(buffer, v);
+            equal(BiodataCodec.varintSize(v), buffer.position(), "size of varint " + v);
+            buffer.flip();
+            equal(v, BiodataCodec.getVarint(buffer), "varint " + v);
+        }
+        for (long v : longs) {
+            buffer.clear();
+            BiodataCodec.putVarlong(buffer, v);
+            equal(BiodataCodec.varlongSize(v), buffer.position(), "size of varlong " + v);
+            buffer.flip();
+            equal(v, BiodataCodec.getVarlong(buffer), "varlong " + v);
+        }
+    }
+
+    private static void assertRoundTrip(Biodata b, String what) {
+        byte[] encoded = BiodataCodec.encode(b);
+        ByteBuffer in = ByteBuffer.wrap(encoded);
+        assertSame(b, BiodataCodec.decode(in), what);
+        equal(encoded.length, in.position(), what + ": bytes read");
+    }
+
+    private static void assertSame(Biodata expected, Biodata actual, String what) {
+        for (BiodataField field : BiodataField.values()) {
+            equal(field.valueOf(expected), field.valueOf(actual), what + ": " + field.key);
+        }
+        equal(expected.skillBits, actual.skillBits, what + ": skills");
+        equal(expected.hobbyBits, actual.hobbyBits, what + ": hobbies");
+    }
+
+    // Every field set to random text of random length, some of it blank
+    private static Biodata.Builder filled(Random random) {
+        Biodata.Builder b = new Biodata.Builder();
+        for (BiodataField field : BiodataField.values()) b.set(field, text(random));
+        return b.skillBits(random.nextLong() & ((1L << Biodata.SKILL_OPTIONS.length) - 1))
+            .hobbyBits(random.nextLong() & ((1L << Biodata.HOBBY_OPTIONS.length) - 1));
+    }
+
+    private static String text(Random random) {
+        int length = random.nextInt(4) == 0 ? 0 : random.nextInt(random.nextBoolean() ? 20 : 400);
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            switch (random.nextInt(4)) {
+                case 0: sb.append((char) (0x0900 + random.nextInt(0x80))); break; // Devanagari block
+                case 1: sb.append(' '); break;
+                default: sb.append((char) ('a' + random.nextInt(26)));
+            }
+        }
+        return sb.toString();
+    }
+}
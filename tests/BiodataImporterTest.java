@@ -0,0 +1,70 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+import static codeshere.experiments.Checks.check;
+import static codeshere.experiments.Checks.equal;
+
+/**
+ * BiodataImporter duplicate registration numbers
+ * Rows sharing a registration number, within a chunk and across chunks,
+ * must reach the sink one at a time in input order, so a sink that keeps
+ * the newest record per number ends up with the last row of the file.
+ */
+public final class BiodataImporterTest {
+
+    public static void main(String[] args) throws Exception {
+        int before = Checks.passed();
+        lastRowWins();
+        System.out.println("BiodataImporterTest: " + (Checks.passed() - before) + " checks passed");
+    }
+
+    static void lastRowWins() throws IOException, InterruptedException, ExecutionException {
+        int rows = BiodataImporter.CHUNK_SIZE * 3 + 100;
+        int students = 500;
+        Random random = new Random(3);
+        StringBuilder csv = new StringBuilder("name,age,regd,branch,semester,phone,email,cgpa\n");
+        Map<String, Integer> lastRow = new HashMap<>();
+        for (int row = 1; row <= rows; row++) {
+            String regd = "R" + random.nextInt(students);
+            lastRow.put(regd, row);
+            csv.append("Student ").append(row).append(",20,").append(regd).append(',')
+                .append(Biodata.BRANCH_OPTIONS[1]).append(',').append(Biodata.SEMESTER_OPTIONS[1])
+                .append(",9876543210,s").append(row).append("@example.com,8\n");
+        }
+        File input = new File(Checks.temporaryDirectory("import"), "students.csv");
+        Files.write(input.toPath(), csv.toString().getBytes(StandardCharsets.UTF_8));
+
+        Map<String, Biodata> saved = new ConcurrentHashMap<>();
+        Map<String, Integer> busy = new ConcurrentHashMap<>();
+        Map<String, Integer> lastSeen = new ConcurrentHashMap<>();
+        List<String> errors = Collections.synchronizedList(new ArrayList<>());
+        ForkJoinPool pool = new ForkJoinPool(4);
+        BiodataImporter.Summary summary;
+        try {
+            summary = new BiodataImporter(pool).run(input, (recordNo, b) -> {
+                if (busy.put(b.regd, recordNo) != null) errors.add(b.regd + " written concurrently");
+                Integer previous = lastSeen.put(b.regd, recordNo);
+                if (previous != null && previous > recordNo) errors.add(b.regd + ": " + recordNo + " after " + previous);
+                Thread.yield();
+                saved.put(b.regd, b);
+                busy.remove(b.regd);
+            }, null);
+        } finally {
+            pool.shutdown();
+        }
+        equal(rows, summary.imported, "rows imported");
+        equal(Collections.emptyList(), errors, "rows of one registration number in input order, one at a time");
+        equal(lastRow.size(), saved.size(), "registration numbers saved");
+        for (Map.Entry<String, Integer> e : lastRow.entrySet()) {
+            check(saved.get(e.getKey()).name.equals("Student " + e.getValue()), "last row of " + e.getKey() + " wins");
+        }
+    }
+}
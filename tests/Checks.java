@@ -0,0 +1,48 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Objects;
+
+/**
+ * Test assertions
+ * The few checks the behavioural tests need, so they run with nothing but
+ * the JDK: a failed check throws an AssertionError naming what was checked.
+ */
+final class Checks {
+
+    private static int passed;
+
+    private Checks() {}
+
+    static void check(boolean condition, String what) {
+        if (!condition) throw new AssertionError(what);
+        passed++;
+    }
+
+    static void equal(Object expected, Object actual, String what) {
+        if (!Objects.equals(expected, actual)) {
+            throw new AssertionError(what + ": expected <" + expected + "> but was <" + actual + ">");
+        }
+        passed++;
+    }
+
+    /** Number of checks passed so far in this JVM. */
+    static int passed() {
+        return passed;
+    }
+
+    /** A new empty directory, deleted with its files when the JVM exits. */
+    static File temporaryDirectory(String prefix) throws IOException {
+        File directory = Files.createTempDirectory(prefix).toFile();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> delete(directory)));
+        return directory;
+    }
+
+    private static void delete(File f) {
+        File[] children = f.listFiles();
+        if (children != null) for (File c : children) delete(c);
+        f.delete();
+    }
+}
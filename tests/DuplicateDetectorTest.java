@@ -0,0 +1,93 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+import java.util.*;
+
+import static codeshere.experiments.Checks.check;
+import static codeshere.experiments.Checks.equal;
+
+/**
+ * DuplicateDetector matching
+ * A record entered twice is linked by its keys; a second entry with a typo
+ * in the name and other contact details is linked by similarity; another
+ * student of the same college, even one with the same name, is not. Records
+ * without an About Me are matched on their names and contact details.
+ */
+public final class DuplicateDetectorTest {
+
+    private static final String COLLEGE = "National Institute of Technology";
+    private static final String ABOUT = "Final year computer science student who enjoys building web applications, "
+        + "competitive programming and teaching juniors the basics of data structures.";
+
+    public static void main(String[] args) {
+        int before = Checks.passed();
+        exactDuplicateIsLinked();
+        nearDuplicateWithATypoIsLinked();
+        distinctStudentIsNotLinked();
+        blankAboutMeMatchesOnContactDetails();
+        System.out.println("DuplicateDetectorTest: " + (Checks.passed() - before) + " checks passed");
+    }
+
+    static void exactDuplicateIsLinked() {
+        Biodata rahul = rahul().build();
+        DuplicateDetector detector = new DuplicateDetector();
+        detector.add(1, rahul);
+        detector.add(2, rahul);
+        List<DuplicateDetector.Cluster> clusters = detector.clusters();
+        equal(1, clusters.size(), "clusters");
+        check(Arrays.equals(new int[] {1, 2}, clusters.get(0).ids), "both entries in the cluster");
+        equal("REGD EMAIL PHONE", DuplicateDetector.Match.names(clusters.get(0).matches), "linked by every key");
+    }
+
+    static void nearDuplicateWithATypoIsLinked() {
+        DuplicateDetector detector = new DuplicateDetector();
+        detector.add(1, rahul().build());
+        detector.add(2, new Biodata.Builder().name("Kumar Rahul").regd("21CS0417").email("rahul.k@example.org")
+            .phone("9123456780").college(COLLEGE).about(ABOUT.replace("juniors", "first years")).build());
+        detector.add(3, new Biodata.Builder().name("Rahul Kumr").regd("21CS0981").email("rk2003@example.net")
+            .phone("9988776655").college(COLLEGE).about(ABOUT).build());
+        List<DuplicateDetector.Cluster> clusters = detector.clusters();
+        equal(1, clusters.size(), "clusters");
+        check(Arrays.equals(new int[] {1, 2, 3}, clusters.get(0).ids), "reordered name and typo linked");
+        equal("SIMILAR", DuplicateDetector.Match.names(clusters.get(0).matches), "linked by similarity only");
+    }
+
+    static void distinctStudentIsNotLinked() {
+        DuplicateDetector detector = new DuplicateDetector();
+        detector.add(1, rahul().build());
+        // Same college and the same boilerplate About Me, someone else
+        detector.add(2, new Biodata.Builder().name("Priya Sharma").regd("21CS0233").email("priya.sharma@example.edu")
+            .phone("9000012345").college(COLLEGE).about(ABOUT).build());
+        // A namesake who writes about something else
+        detector.add(3, rahul().regd("21EE0110").email("rahul.kumar.ee@example.edu").phone("9812312312")
+            .about("Electrical engineering student working on solar inverters and embedded motor control.").build());
+        equal(0, detector.clusters().size(), "no clusters");
+    }
+
+    static void blankAboutMeMatchesOnContactDetails() {
+        DuplicateDetector detector = new DuplicateDetector();
+        detector.add(1, anita().build());
+        // Typos in the name and the email, one digit of the phone mistyped
+        detector.add(2, new Biodata.Builder().name("Anita Desal").regd("21ME0058").email("anita.desal@example.edu")
+            .phone("9845012377").college(COLLEGE).build());
+        // A classmate with the same name: same college and email domain, nothing else
+        detector.add(3, anita().regd("21ME0301").email("adesai.me@example.edu").phone("9741100223").build());
+        // The first record again, but with an About Me: compared only with records that have one
+        detector.add(4, anita().regd("21ME0999").email("anita.d@example.com").phone("9000000000").about(ABOUT).build());
+        check(DuplicateDetector.contactSignature("", "", "  ") == null, "no contact signature without details");
+
+        List<DuplicateDetector.Cluster> clusters = detector.clusters();
+        equal(1, clusters.size(), "clusters");
+        check(Arrays.equals(new int[] {1, 2}, clusters.get(0).ids), "typo linked, classmate not: " + Arrays.toString(clusters.get(0).ids));
+        equal("SIMILAR", DuplicateDetector.Match.names(clusters.get(0).matches), "linked by similarity");
+    }
+
+    private static Biodata.Builder rahul() {
+        return new Biodata.Builder().name("Rahul Kumar").regd("21CS0042").email("rahul.kumar@example.edu")
+            .phone("+91 98765 43210").college(COLLEGE).about(ABOUT);
+    }
+
+    private static Biodata.Builder anita() {
+        return new Biodata.Builder().name("Anita Desai").regd("21ME0057").email("anita.desai@example.edu")
+            .phone("9845012347").college(COLLEGE);
+    }
+}
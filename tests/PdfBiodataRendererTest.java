@@ -0,0 +1,123 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+import java.awt.Color;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import static codeshere.experiments.Checks.check;
+import static codeshere.experiments.Checks.equal;
+
+/**
+ * PdfBiodataRenderer text encoding
+ * Western European records use only the base-14 fonts; a record with other
+ * characters gets an embedded TrueType subset whose ToUnicode CMap gives its
+ * text back, and a record no installed font can print is refused instead of
+ * being printed with '?'. The embedded-font checks need an installed font
+ * with Cyrillic glyphs and are skipped without one.
+ */
+public final class PdfBiodataRendererTest {
+
+    private static final Pattern STREAM = Pattern.compile("<< ([^\n]*?)/Length (\\d+) >>\nstream\n");
+    private static final Pattern BFCHAR = Pattern.compile("<([0-9A-F]{4})> <([0-9A-F]+)>");
+
+    private static final PdfBiodataRenderer RENDERER = new PdfBiodataRenderer(Color.BLUE, "01 Jan 2025");
+
+    public static void main(String[] args) throws Exception {
+        int before = Checks.passed();
+        westernTextEmbedsNoFont();
+        otherTextEmbedsASubset();
+        unprintableTextIsRefused();
+        System.out.println("PdfBiodataRendererTest: " + (Checks.passed() - before) + " checks passed");
+    }
+
+    static void westernTextEmbedsNoFont() {
+        String pdf = text(RENDERER.render(record("Jos\u00E9 M\u00FCller \u2013 \u20AC")));
+        check(!pdf.contains("/Type0") && !pdf.contains("/FontFile2"), "no embedded font for WinAnsi text");
+        check(pdf.contains("/Title (Professional Biodata - Jos\u00E9 M\u00FCller \u0096 \u0080)"), "WinAnsi title");
+    }
+
+    static void otherTextEmbedsASubset() throws DataFormatException {
+        String name = "\u0418\u0432\u0430\u043D \u041F\u0435\u0442\u0440\u043E\u0432"; // Ivan Petrov in Cyrillic
+        try {
+            PdfTrueTypeFont.forText(name);
+        } catch (PdfTrueTypeFont.UnprintableTextException e) {
+            System.out.println("PdfBiodataRendererTest: no installed font has Cyrillic glyphs, subset checks skipped");
+            return;
+        }
+        byte[] bytes = RENDERER.render(record(name));
+        String pdf = text(bytes);
+        check(pdf.contains("/Subtype /Type0") && pdf.contains("/Encoding /Identity-H"), "Type0 font with Identity-H");
+        check(pdf.contains("/CIDToGIDMap /Identity"), "glyph ids are CIDs");
+        check(pdf.contains("/Title <FEFF0050"), "UTF-16 title");
+
+        String cmap = null;
+        byte[] program = null;
+        for (Matcher m = STREAM.matcher(pdf); m.find(); ) {
+            byte[] data = inflate(bytes, m.end(), Integer.parseInt(m.group(2)));
+            if (m.group(1).startsWith("/Length1 ")) {
+                program = data;
+                equal(Integer.parseInt(m.group(1).split(" ")[1]), data.length, "Length1 of the font program");
+            } else if (text(data).contains("begincmap")) {
+                cmap = text(data);
+            }
+        }
+        check(program != null, "font program embedded");
+        check(cmap != null, "ToUnicode CMap written");
+
+        List<String> mapped = new ArrayList<>();
+        for (Matcher m = BFCHAR.matcher(cmap); m.find(); ) {
+            StringBuilder s = new StringBuilder();
+            for (int i = 0; i < m.group(2).length(); i += 4) s.append((char) Integer.parseInt(m.group(2).substring(i, i + 4), 16));
+            mapped.add(s.toString());
+        }
+        for (char c : name.toCharArray()) check(mapped.contains(String.valueOf(c)), "ToUnicode maps " + c);
+
+        // A well-formed sfnt: whole-file checksum as head.checkSumAdjustment sets it
+        ByteBuffer font = ByteBuffer.wrap(program);
+        equal(0x00010000, font.getInt(0), "TrueType version");
+        int sum = 0;
+        for (int i = 0; i + 4 <= program.length; i += 4) sum += font.getInt(i);
+        equal(0xB1B0AFBA, sum, "font program checksum");
+        check(program.length < 200_000, "subset, not the whole font: " + program.length + " bytes");
+    }
+
+    static void unprintableTextIsRefused() throws Exception {
+        Biodata b = record("Asha \u0378"); // unassigned: no font has it
+        try {
+            RENDERER.write(b, new ByteArrayOutputStream());
+            check(false, "unprintable record written");
+        } catch (PdfTrueTypeFont.UnprintableTextException e) {
+            check(e.getMessage().contains("U+0378"), "message names the character: " + e.getMessage());
+        }
+        try {
+            RENDERER.render(b);
+            check(false, "unprintable record rendered");
+        } catch (IllegalArgumentException e) {
+            check(e.getMessage().contains("U+0378"), "render refuses it too");
+        }
+    }
+
+    private static Biodata record(String name) {
+        return new Biodata.Builder().name(name).age("20").regd("21CSE001").build();
+    }
+
+    private static byte[] inflate(byte[] pdf, int at, int length) throws DataFormatException {
+        Inflater inflater = new Inflater();
+        inflater.setInput(pdf, at, length);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        while (!inflater.finished()) out.write(buffer, 0, inflater.inflate(buffer));
+        return out.toByteArray();
+    }
+
+    private static String text(byte[] bytes) {
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+}
@@ -0,0 +1,138 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.*;
+
+import static codeshere.experiments.Checks.check;
+import static codeshere.experiments.Checks.equal;
+
+/**
+ * PhotoStore segments and recovery
+ * Photos spread over several small segments must all read back after
+ * reopening; a torn photo at the end is cut off without touching the others;
+ * a photo the store cannot take is reported rather than left as a path,
+ * while a file that is not an image keeps its path.
+ */
+public final class PhotoStoreTest {
+
+    private static final int SEGMENT_SIZE = 128 << 10;
+
+    public static void main(String[] args) throws IOException {
+        int before = Checks.passed();
+        photosSpanSegmentsAndSurviveReopen();
+        tornLastPhotoIsCutOff();
+        fullStoreIsReported();
+        System.out.println("PhotoStoreTest: " + (Checks.passed() - before) + " checks passed");
+    }
+
+    static void photosSpanSegmentsAndSurviveReopen() throws IOException {
+        File dir = Checks.temporaryDirectory("photo-store");
+        File images = Checks.temporaryDirectory("photos");
+        Map<String, List<byte[]>> stored = new LinkedHashMap<>();
+        try (PhotoStore photos = PhotoStore.open(dir, SEGMENT_SIZE, 0)) {
+            for (int i = 0; i < 12; i++) {
+                File image = image(images, i, 300, 400);
+                String reference = photos.add(image);
+                equal(reference, photos.add(image), "same file added twice");
+                stored.put(reference, jpegs(photos, reference));
+            }
+            equal(stored.size(), photos.count(), "distinct photos");
+        }
+        check(segments(dir).length > 1, "photos spread over " + segments(dir).length + " segments");
+        try (PhotoStore photos = PhotoStore.open(dir, SEGMENT_SIZE, 0)) {
+            equal(stored.size(), photos.count(), "photos after reopen");
+            for (Map.Entry<String, List<byte[]>> e : stored.entrySet()) {
+                List<byte[]> again = jpegs(photos, e.getKey());
+                for (int s = 0; s < again.size(); s++) {
+                    check(Arrays.equals(e.getValue().get(s), again.get(s)), e.getKey() + " size " + s + " after reopen");
+                }
+                check(photos.image(e.getKey(), PhotoStore.Size.PREVIEW).getWidth() > 0, "decodes " + e.getKey());
+            }
+        }
+    }
+
+    static void tornLastPhotoIsCutOff() throws IOException {
+        File dir = Checks.temporaryDirectory("photo-store");
+        File images = Checks.temporaryDirectory("photos");
+        String first;
+        String last;
+        try (PhotoStore photos = PhotoStore.open(dir, SEGMENT_SIZE, 0)) {
+            first = photos.add(image(images, 0, 200, 200));
+            last = photos.add(image(images, 1, 200, 200));
+        }
+        // A crash after the length was written but before the JPEGs were: a wrong CRC
+        File[] segments = segments(dir);
+        try (RandomAccessFile f = new RandomAccessFile(segments[segments.length - 1], "rw")) {
+            // The last photo of the last segment is the second one; segments start with a 4-byte magic
+            int at = 4;
+            int lastAt = at;
+            for (int length; at + 4 <= f.length() && (length = readInt(f, at)) > 0; at += 8 + length) lastAt = at;
+            f.seek(lastAt + 4);
+            f.writeInt(0);
+        }
+        try (PhotoStore photos = PhotoStore.open(dir, SEGMENT_SIZE, 0)) {
+            check(photos.contains(first), "photo before the torn one kept");
+            check(!photos.contains(last), "torn photo cut off");
+            check(photos.recovered() != null, "cut reported: " + photos.recovered());
+            String again = photos.add(image(images, 1, 200, 200));
+            equal(last, again, "torn photo added again");
+        }
+        try (PhotoStore photos = PhotoStore.open(dir, SEGMENT_SIZE, 0)) {
+            equal(2, photos.count(), "photos after adding the torn one again");
+        }
+    }
+
+    static void fullStoreIsReported() throws IOException {
+        File dir = Checks.temporaryDirectory("photo-store");
+        File images = Checks.temporaryDirectory("photos");
+        // Segments too small for any photo: the store can take nothing
+        try (PhotoStore photos = PhotoStore.open(dir, 4096, 0)) {
+            Biodata b = new Biodata.Builder().photoPath(image(images, 0, 300, 400).getPath()).build();
+            try {
+                photos.adopt(b);
+                check(false, "photo that does not fit adopted");
+            } catch (IOException e) {
+                check(!(e instanceof PhotoStore.UnreadablePhotoException), "store error reported: " + e.getMessage());
+            }
+
+            File notAnImage = new File(images, "notes.jpg");
+            Files.write(notAnImage.toPath(), new byte[] {1, 2, 3});
+            Biodata unreadable = new Biodata.Builder().photoPath(notAnImage.getPath()).build();
+            equal(notAnImage.getPath(), photos.adopt(unreadable).photoPath, "unreadable file keeps its path");
+        }
+    }
+
+    private static int readInt(RandomAccessFile f, int at) throws IOException {
+        f.seek(at);
+        return f.readInt();
+    }
+
+    private static List<byte[]> jpegs(PhotoStore photos, String reference) {
+        List<byte[]> jpegs = new ArrayList<>();
+        for (PhotoStore.Size size : PhotoStore.Size.values()) jpegs.add(photos.jpeg(reference, size));
+        return jpegs;
+    }
+
+    private static File[] segments(File dir) {
+        File[] files = dir.listFiles((d, name) -> name.startsWith("segment-"));
+        Arrays.sort(files);
+        return files;
+    }
+
+    // A noisy PNG, so its JPEGs are large enough to fill segments quickly
+    private static File image(File dir, int seed, int width, int height) throws IOException {
+        Random random = new Random(seed);
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) image.setRGB(x, y, random.nextInt(1 << 24));
+        }
+        File file = new File(dir, "photo-" + seed + ".png");
+        ImageIO.write(image, "png", file);
+        return file;
+    }
+}
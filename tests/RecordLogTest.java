@@ -0,0 +1,234 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static codeshere.experiments.Checks.check;
+import static codeshere.experiments.Checks.equal;
+
+/**
+ * RecordLog crash recovery
+ * Appends records, damages the segment files the way a crash or a bad disk
+ * would (a torn frame, a flipped payload byte, a length running past the
+ * segment) and checks that reopening keeps exactly the records before the
+ * damage, zeroes the rest, and lets appending continue. Damage in a segment
+ * other than the last is not a torn write: opening fails and changes nothing.
+ */
+public final class RecordLogTest {
+
+    private static final int SEGMENT_SIZE = 4096;
+    private static final int FRAME_HEADER = 9;
+
+    public static void main(String[] args) throws IOException {
+        int before = Checks.passed();
+        reopenKeepsEveryRecord();
+        tornFrameIsDiscarded();
+        corruptPayloadEndsTheLog();
+        lengthPastSegmentIsDiscarded();
+        damageInLastSegmentKeepsEarlierSegments();
+        damageInEarlierSegmentFailsTheOpen();
+        System.out.println("RecordLogTest: " + (Checks.passed() - before) + " checks passed");
+    }
+
+    static void reopenKeepsEveryRecord() throws IOException {
+        File dir = Checks.temporaryDirectory("record-log");
+        List<Long> addresses = new ArrayList<>();
+        try (RecordLog log = new RecordLog(dir, SEGMENT_SIZE, 0)) {
+            for (int i = 0; i < 10; i++) addresses.add(log.append((byte) (i % 3), payload(i)));
+        }
+        try (RecordLog log = new RecordLog(dir, SEGMENT_SIZE, 0)) {
+            equal(records(0, 10), scan(log), "records after reopen");
+            equal(null, log.recovered(), "nothing recovered from an intact log");
+            equal("record-7", text(log.read(addresses.get(7))), "read by address after reopen");
+            List<Byte> types = new ArrayList<>();
+            log.scan((address, type, payload) -> types.add(type));
+            for (int i = 0; i < 10; i++) equal((byte) (i % 3), types.get(i), "type of record " + i);
+        }
+    }
+
+    static void tornFrameIsDiscarded() throws IOException {
+        File dir = Checks.temporaryDirectory("record-log");
+        long last;
+        try (RecordLog log = new RecordLog(dir, SEGMENT_SIZE, 0)) {
+            for (int i = 0; i < 3; i++) log.append((byte) 1, payload(i));
+            last = log.append((byte) 1, payload(3));
+        }
+        // A crash after the length was written but before the body was: zero the CRC and body
+        int at = (int) last;
+        try (RandomAccessFile f = segment(dir, 0)) {
+            f.seek(at + 4);
+            f.write(new byte[4 + 1 + payload(3).length]);
+        }
+        try (RecordLog log = new RecordLog(dir, SEGMENT_SIZE, 0)) {
+            equal(records(0, 3), scan(log), "records before the torn frame");
+            check(log.recovered() != null && log.recovered().contains("offset " + at)
+                && log.recovered().contains("segment-000000.log"), "recovery reported: " + log.recovered());
+            log.append((byte) 1, payload(9));
+        }
+        try (RandomAccessFile f = segment(dir, 0)) {
+            check(allZero(f, at + FRAME_HEADER + payload(9).length, SEGMENT_SIZE), "tail zeroed after recovery");
+        }
+        try (RecordLog log = new RecordLog(dir, SEGMENT_SIZE, 0)) {
+            List<String> expected = records(0, 3);
+            expected.add("record-9");
+            equal(expected, scan(log), "append after recovery survives reopen");
+        }
+    }
+
+    static void corruptPayloadEndsTheLog() throws IOException {
+        File dir = Checks.temporaryDirectory("record-log");
+        long second;
+        try (RecordLog log = new RecordLog(dir, SEGMENT_SIZE, 0)) {
+            log.append((byte) 1, payload(0));
+            second = log.append((byte) 1, payload(1));
+            log.append((byte) 1, payload(2));
+        }
+        // One flipped bit in the second record's payload: it and everything after it go
+        try (RandomAccessFile f = segment(dir, 0)) {
+            int at = (int) second + FRAME_HEADER;
+            f.seek(at);
+            int b = f.read();
+            f.seek(at);
+            f.write(b ^ 1);
+        }
+        try (RecordLog log = new RecordLog(dir, SEGMENT_SIZE, 0)) {
+            equal(records(0, 1), scan(log), "records before the corrupt one");
+        }
+    }
+
+    static void lengthPastSegmentIsDiscarded() throws IOException {
+        File dir = Checks.temporaryDirectory("record-log");
+        long end;
+        try (RecordLog log = new RecordLog(dir, SEGMENT_SIZE, 0)) {
+            long a = log.append((byte) 1, payload(0));
+            end = a + FRAME_HEADER + payload(0).length;
+        }
+        try (RandomAccessFile f = segment(dir, 0)) {
+            f.seek(end);
+            f.writeInt(SEGMENT_SIZE);
+            f.writeInt(12345);
+        }
+        try (RecordLog log = new RecordLog(dir, SEGMENT_SIZE, 0)) {
+            equal(records(0, 1), scan(log), "records before the bad length");
+        }
+        try (RandomAccessFile f = segment(dir, 0)) {
+            check(allZero(f, (int) end, SEGMENT_SIZE), "bad frame zeroed");
+        }
+    }
+
+    static void damageInLastSegmentKeepsEarlierSegments() throws IOException {
+        File dir = Checks.temporaryDirectory("record-log");
+        int count = 0;
+        long last = 0;
+        try (RecordLog log = new RecordLog(dir, SEGMENT_SIZE, 0)) {
+            // Large enough records to fill three segments
+            while ((last >>> 32) < 2) last = log.append((byte) 1, big(count++));
+        }
+        try (RandomAccessFile f = segment(dir, 2)) {
+            f.seek((int) last + 4);
+            f.writeInt(0); // wrong CRC on the last record
+        }
+        try (RecordLog log = new RecordLog(dir, SEGMENT_SIZE, 0)) {
+            List<String> expected = new ArrayList<>();
+            for (int i = 0; i < count - 1; i++) expected.add(text(ByteBuffer.wrap(big(i))));
+            equal(expected, scan(log), "records of earlier segments and the intact part of the last");
+        }
+    }
+
+    static void damageInEarlierSegmentFailsTheOpen() throws IOException {
+        File dir = Checks.temporaryDirectory("record-log");
+        int count = 0;
+        long damaged = -1;
+        try (RecordLog log = new RecordLog(dir, SEGMENT_SIZE, 0)) {
+            for (long last = 0; (last >>> 32) < 2; count++) {
+                last = log.append((byte) 1, big(count));
+                if ((last >>> 32) == 1 && damaged < 0) damaged = last;
+            }
+        }
+        int at = (int) damaged;
+        byte[][] before = {contents(dir, 1), contents(dir, 2)};
+        try (RandomAccessFile f = segment(dir, 1)) {
+            f.seek(at + FRAME_HEADER);
+            f.write('?'); // a flipped payload byte in the middle segment
+        }
+        try {
+            new RecordLog(dir, SEGMENT_SIZE, 0).close();
+            check(false, "log with a damaged middle segment opened");
+        } catch (RecordLog.CorruptSegmentException e) {
+            equal("segment-000001.log", e.segment.getName(), "damaged segment named");
+            equal(at, e.offset, "offset of the bad record");
+            check(e.getMessage().contains("segment-000001.log") && e.getMessage().contains("offset " + at),
+                "message names segment and offset: " + e.getMessage());
+        }
+        check(before[1].length == SEGMENT_SIZE && Arrays.equals(before[1], contents(dir, 2)),
+            "last segment untouched");
+        byte[] middle = contents(dir, 1);
+        middle[at + FRAME_HEADER] = before[0][at + FRAME_HEADER];
+        check(Arrays.equals(before[0], middle), "damaged segment untouched but for the damage");
+
+        // Once the byte is repaired every record is there again
+        try (RandomAccessFile f = segment(dir, 1)) {
+            f.seek(at + FRAME_HEADER);
+            f.write(before[0][at + FRAME_HEADER]);
+        }
+        try (RecordLog log = new RecordLog(dir, SEGMENT_SIZE, 0)) {
+            List<String> expected = new ArrayList<>();
+            for (int i = 0; i < count; i++) expected.add(text(ByteBuffer.wrap(big(i))));
+            equal(expected, scan(log), "earlier and later records after the repair");
+        }
+    }
+
+    private static byte[] payload(int i) {
+        return ("record-" + i).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] big(int i) {
+        StringBuilder sb = new StringBuilder("record-" + i + ":");
+        while (sb.length() < 700) sb.append('x');
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<String> records(int from, int to) {
+        List<String> list = new ArrayList<>();
+        for (int i = from; i < to; i++) list.add("record-" + i);
+        return list;
+    }
+
+    private static List<String> scan(RecordLog log) throws IOException {
+        List<String> list = new ArrayList<>();
+        log.scan((address, type, payload) -> list.add(text(payload)));
+        return list;
+    }
+
+    private static String text(ByteBuffer payload) {
+        byte[] bytes = new byte[payload.remaining()];
+        payload.duplicate().get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static RandomAccessFile segment(File dir, int n) throws IOException {
+        return new RandomAccessFile(new File(dir, String.format("segment-%06d.log", n)), "rw");
+    }
+
+    private static byte[] contents(File dir, int n) throws IOException {
+        try (RandomAccessFile f = segment(dir, n)) {
+            byte[] bytes = new byte[(int) f.length()];
+            f.readFully(bytes);
+            return bytes;
+        }
+    }
+
+    private static boolean allZero(RandomAccessFile f, int from, int to) throws IOException {
+        byte[] bytes = new byte[to - from];
+        f.seek(from);
+        f.readFully(bytes);
+        for (byte b : bytes) if (b != 0) return false;
+        return true;
+    }
+}
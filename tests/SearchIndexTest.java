@@ -0,0 +1,93 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+import java.util.*;
+
+import static codeshere.experiments.Checks.check;
+import static codeshere.experiments.Checks.equal;
+
+/**
+ * SearchIndex compaction
+ * An index whose records are replaced over and over, the way autosave
+ * re-indexes the record being edited, must answer every query exactly like
+ * an index built once from the final records, and must not keep more than
+ * half as many retired document numbers as live ones.
+ */
+public final class SearchIndexTest {
+
+    public static void main(String[] args) {
+        int before = Checks.passed();
+        replacedRecordsAnswerLikeAFreshIndex();
+        autosaveDoesNotGrowTheIndex();
+        System.out.println("SearchIndexTest: " + (Checks.passed() - before) + " checks passed");
+    }
+
+    static void replacedRecordsAnswerLikeAFreshIndex() {
+        Random random = new Random(5);
+        SearchIndex churned = new SearchIndex();
+        Map<String, Biodata> last = new LinkedHashMap<>();
+        for (int i = 0; i < 3000; i++) {
+            String key = "R" + random.nextInt(200);
+            if (random.nextInt(10) == 0) {
+                churned.remove(key);
+                last.remove(key);
+            } else {
+                Biodata b = record(random, key);
+                churned.add(key, b);
+                last.remove(key);
+                last.put(key, b);
+            }
+        }
+        SearchIndex fresh = new SearchIndex();
+        for (Map.Entry<String, Biodata> e : last.entrySet()) fresh.add(e.getKey(), e.getValue());
+
+        for (BiodataQuery q : queries()) {
+            equal(fresh.search(q, Integer.MAX_VALUE), churned.search(q, Integer.MAX_VALUE), "search");
+            for (SearchIndex.Order order : SearchIndex.Order.values()) {
+                equal(fresh.list(q, order, false), churned.list(q, order, false), "list by " + order);
+                equal(fresh.list(q, order, true), churned.list(q, order, true), "list by " + order + " descending");
+            }
+        }
+        for (String key : last.keySet()) equal(fresh.similar(key, 5), churned.similar(key, 5), "similar to " + key);
+        check(churned.documents() <= last.size() * 3 / 2 + 1, "retired documents reclaimed");
+    }
+
+    static void autosaveDoesNotGrowTheIndex() {
+        Random random = new Random(9);
+        SearchIndex index = new SearchIndex();
+        for (int i = 0; i < 100; i++) index.add("R" + i, record(random, "R" + i));
+        for (int i = 0; i < 10_000; i++) index.add("R7", record(random, "R7"));
+        check(index.documents() <= 151, "documents after 10000 autosaves: " + index.documents());
+        equal(100, index.count(new BiodataQuery.Builder().build()), "live records");
+    }
+
+    private static List<BiodataQuery> queries() {
+        List<BiodataQuery> queries = new ArrayList<>();
+        queries.add(new BiodataQuery.Builder().build());
+        queries.add(new BiodataQuery.Builder().text("alpha").build());
+        queries.add(new BiodataQuery.Builder().text("beta gamma").build());
+        queries.add(new BiodataQuery.Builder().skill(Biodata.SKILL_OPTIONS[0]).build());
+        queries.add(new BiodataQuery.Builder().hobby(Biodata.HOBBY_OPTIONS[1]).skill(Biodata.SKILL_OPTIONS[2]).build());
+        queries.add(new BiodataQuery.Builder().skill("Rust").build());
+        queries.add(new BiodataQuery.Builder().branch(Biodata.BRANCH_OPTIONS[1]).build());
+        queries.add(new BiodataQuery.Builder().semester(Biodata.SEMESTER_OPTIONS[2]).cgpaAbove(5).build());
+        queries.add(new BiodataQuery.Builder().cgpaAtLeast(2).cgpaAtMost(7).text("delta").build());
+        return queries;
+    }
+
+    private static final String[] WORDS = {"alpha", "beta", "gamma", "delta", "epsilon"};
+    private static final String[] OTHER = {"", "Rust", "Go, Rust", "Chess"};
+
+    private static Biodata record(Random random, String key) {
+        StringBuilder about = new StringBuilder();
+        for (int i = random.nextInt(4); i > 0; i--) about.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+        return new Biodata.Builder().regd(key).name("Student " + key)
+            .branch(random.nextBoolean() ? Biodata.BRANCH_OPTIONS[1 + random.nextInt(3)] : "")
+            .semester(Biodata.SEMESTER_OPTIONS[1 + random.nextInt(3)])
+            .cgpa(random.nextInt(4) == 0 ? "" : String.valueOf(random.nextInt(101) / 10.0))
+            .about(about.toString())
+            .otherSkills(OTHER[random.nextInt(OTHER.length)])
+            .skillBits(random.nextLong() & 0x1F)
+            .hobbyBits(random.nextLong() & 0x0F)
+            .build();
+    }
+}
@@ -0,0 +1,129 @@
+package codeshere.experiments; // Comment this out if running without folder structure
+
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static codeshere.experiments.Checks.equal;
+
+/**
+ * ValidationEngine against the original form checks
+ * {@link #legacy(Biodata)} is validateInput() as the form had it before the
+ * rule engine, reading a Biodata instead of the Swing fields. For every edge
+ * case of every validated field, and for random combinations of them, the
+ * engine must report exactly the same messages.
+ */
+public final class ValidationEngineTest {
+
+    private static final Pattern EMAIL = Pattern.compile("^[A-Za-z0-9+_.-]+@(.+)$");
+    private static final Pattern PHONE = Pattern.compile("^[6-9]\\d{9}$");
+
+    private static final String[] NAMES = {"Asha Rao", "", "   ", "\t", " A ", "\u0906\u0936\u093E"};
+    private static final String[] AGES = {
+        "20", "", " ", "16", "15", "100", "101", "0", "-5", "+20", " 20 ", "020", "20.0", "abc", "2 0",
+        "1e1", "999999999", "9999999999", "-2147483648", "2147483648", "+", "-",
+        "\u0968\u0966" // Devanagari "20", which Integer.parseInt accepts
+    };
+    private static final String[] REGDS = {"21CSE001", "", "  "};
+    private static final String[] BRANCHES = {Biodata.BRANCH_OPTIONS[0], ""};
+    private static final String[] SEMESTERS = {Biodata.SEMESTER_OPTIONS[0], ""};
+    private static final String[] PHONES = {
+        "9876543210", "", " ", "5876543210", "987654321", "98765432100", " 9876543210 ", "+919876543210",
+        "98765 43210", "987654321a", "\u0669876543210", "6000000000"
+    };
+    private static final String[] EMAILS = {
+        "a@b.com", "", " ", "ab.com", "@b.com", "a@", "a@b", " a@b.com ", "a b@c.com", "a+b_c.d-e@x",
+        "\u00E4@b.com", "a@@b", "a@b@c"
+    };
+    private static final String[] CGPAS = {
+        "", " ", "8.5", "0", "10", "10.0", "10.01", "-0.1", "-0", "abc", "8,5", "1e1", "1e-1", ".5", "5.",
+        "0x1p3", "8.5f", "8.5d", "NaN", "Infinity", "-Infinity", " 7 ", "+7", "1e400"
+    };
+
+    public static void main(String[] args) {
+        int before = Checks.passed();
+        everyCaseOfEachField();
+        randomCombinations();
+        System.out.println("ValidationEngineTest: " + (Checks.passed() - before) + " checks passed");
+    }
+
+    static void everyCaseOfEachField() {
+        for (String v : NAMES) compare(valid().name(v), "name '" + v + "'");
+        for (String v : AGES) compare(valid().age(v), "age '" + v + "'");
+        for (String v : REGDS) compare(valid().regd(v), "regd '" + v + "'");
+        for (String v : BRANCHES) compare(valid().branch(v), "branch '" + v + "'");
+        for (String v : SEMESTERS) compare(valid().semester(v), "semester '" + v + "'");
+        for (String v : PHONES) compare(valid().phone(v), "phone '" + v + "'");
+        for (String v : EMAILS) compare(valid().email(v), "email '" + v + "'");
+        for (String v : CGPAS) compare(valid().cgpa(v), "cgpa '" + v + "'");
+    }
+
+    static void randomCombinations() {
+        Random random = new Random(11);
+        for (int i = 0; i < 5000; i++) {
+            Biodata.Builder b = new Biodata.Builder()
+                .name(pick(random, NAMES)).age(pick(random, AGES)).regd(pick(random, REGDS))
+                .branch(pick(random, BRANCHES)).semester(pick(random, SEMESTERS))
+                .phone(pick(random, PHONES)).email(pick(random, EMAILS)).cgpa(pick(random, CGPAS));
+            compare(b, "combination " + i);
+        }
+    }
+
+    private static void compare(Biodata.Builder builder, String what) {
+        Biodata b = builder.build();
+        equal(legacy(b), ValidationError.describe(ValidationEngine.STANDARD.validate(b)), what);
+    }
+
+    private static Biodata.Builder valid() {
+        return new Biodata.Builder().name("Asha Rao").age("20").regd("21CSE001")
+            .branch(Biodata.BRANCH_OPTIONS[0]).semester(Biodata.SEMESTER_OPTIONS[0])
+            .phone("9876543210").email("asha@example.com");
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    /** The form's validateInput() before the rule engine; a blank branch or semester is the "Select" entry. */
+    static String legacy(Biodata b) {
+        StringBuilder errors = new StringBuilder();
+
+        if (b.name.trim().isEmpty()) errors.append("\u2022 Full Name is required\n");
+        if (b.age.trim().isEmpty()) {
+            errors.append("\u2022 Age is required\n");
+        } else {
+            try {
+                int age = Integer.parseInt(b.age.trim());
+                if (age < 16 || age > 100) errors.append("\u2022 Age must be between 16 and 100\n");
+            } catch (NumberFormatException e) {
+                errors.append("\u2022 Age must be a valid number\n");
+            }
+        }
+
+        if (b.regd.trim().isEmpty()) errors.append("\u2022 Registration Number is required\n");
+        if (b.branch.isEmpty()) errors.append("\u2022 Please select a branch\n");
+        if (b.semester.isEmpty()) errors.append("\u2022 Please select current semester\n");
+
+        if (b.phone.trim().isEmpty()) {
+            errors.append("\u2022 Mobile Number is required\n");
+        } else if (!PHONE.matcher(b.phone.trim()).matches()) {
+            errors.append("\u2022 Please enter a valid 10-digit mobile number\n");
+        }
+
+        if (b.email.trim().isEmpty()) {
+            errors.append("\u2022 Email Address is required\n");
+        } else if (!EMAIL.matcher(b.email.trim()).matches()) {
+            errors.append("\u2022 Please enter a valid email address\n");
+        }
+
+        if (!b.cgpa.trim().isEmpty()) {
+            try {
+                double cgpa = Double.parseDouble(b.cgpa.trim());
+                if (cgpa < 0.0 || cgpa > 10.0) errors.append("\u2022 CGPA must be between 0.0 and 10.0\n");
+            } catch (NumberFormatException e) {
+                errors.append("\u2022 CGPA must be a valid number\n");
+            }
+        }
+
+        return errors.toString();
+    }
+}